@@ -5,6 +5,7 @@ import java.util.Properties
 plugins {
 	application
 	id("com.gradleup.shadow") version "9.4.0"
+	id("me.champeau.jmh") version "0.7.3"
 	`maven-publish`
 }
 
@@ -144,3 +145,15 @@ publishing {
 tasks.test {
 	useJUnitPlatform()
 }
+
+// Benchmarks live in src/jmh/java. Run with "gradlew jmh", optionally with -PjmhIncludes=<regex> to pick benchmarks
+// and -PminecraftJar=<path> for the ones which need Minecraft's models and textures.
+jmh {
+	jmhVersion.set("1.37")
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+	jvmArgsAppend.add("-Dtectonicus.worldDir=${layout.projectDirectory.dir("Worlds/BlockGallery").asFile}")
+
+	providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+	providers.gradleProperty("minecraftJar").orNull?.let { jvmArgsAppend.add("-Dtectonicus.minecraftJar=$it") }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import tectonicus.configuration.ImageFormat;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/** Input data and scratch space for the benchmarks */
+public final class BenchmarkUtil {
+	/** The world to read real region files from, set by the build to Worlds/BlockGallery */
+	public static final String WORLD_DIR_PROPERTY = "tectonicus.worldDir";
+
+	/** The Minecraft jar to load models and textures from, if the one found in the Minecraft install shouldn't be used */
+	public static final String MINECRAFT_JAR_PROPERTY = "tectonicus.minecraftJar";
+
+	private BenchmarkUtil() {}
+
+	public static File getWorldDir() {
+		return new File(System.getProperty(WORLD_DIR_PROPERTY, "Worlds/BlockGallery"));
+	}
+
+	public static File getRegionFile() {
+		return new File(getWorldDir(), "region/r.0.0.mca");
+	}
+
+	/** @return the jar given to the build with -PminecraftJar, or null to search the Minecraft install for one */
+	public static File getMinecraftJar() {
+		String path = System.getProperty(MINECRAFT_JAR_PROPERTY);
+		return path != null ? new File(path) : null;
+	}
+
+	public static File createTempDir(String prefix) {
+		try {
+			return Files.createTempDirectory("tectonicus-" + prefix).toFile();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** A made up tile with about the detail of a rendered one: small blocks of a few colours with some texture noise,
+	 *  and a transparent corner as at the edge of a map. ARGB pixels, top row first. */
+	public static int[] createTilePixels(final int width, final int height, final long seed) {
+		final int[] colours = { 0xFF7F7F7F, 0xFF5D9B3A, 0xFF866043, 0xFF3F76E4, 0xFFDBD3A0, 0xFF2D2D2D };
+
+		Random random = new Random(seed);
+		int[] pixels = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if (x + y < width / 4) {
+					pixels[y * width + x] = 0;
+					continue;
+				}
+
+				final int base = colours[Math.floorMod((x / 8) * 31 + (y / 8) * 17 + (int) seed, colours.length)];
+				final int shade = random.nextInt(16) - 8;
+				final int r = Math.min(Math.max((base >> 16 & 0xFF) + shade, 0), 255);
+				final int g = Math.min(Math.max((base >> 8 & 0xFF) + shade, 0), 255);
+				final int b = Math.min(Math.max((base & 0xFF) + shade, 0), 255);
+				pixels[y * width + x] = 0xFF000000 | r << 16 | g << 8 | b;
+			}
+		}
+		return pixels;
+	}
+
+	/** A tile of the same type the rasteriser gives for the format */
+	public static BufferedImage createTile(final int width, final int height, ImageFormat imageFormat) {
+		BufferedImage image = new BufferedImage(width, height, imageFormat.hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_3BYTE_BGR);
+		image.setRGB(0, 0, width, height, createTilePixels(width, height, 0), 0, width);
+		return image;
+	}
+}
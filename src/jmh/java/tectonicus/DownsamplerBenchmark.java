@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Merging four child tiles into their parent, without the reading and writing of images around it */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownsamplerBenchmark {
+	private static final int TILE_SIZE = 512;
+
+	private int[][] children;
+	private int[] out;
+
+	@Setup
+	public void setup() {
+		children = new int[4][];
+		for (int i = 0; i < children.length; i++)
+			children[i] = BenchmarkUtil.createTilePixels(TILE_SIZE, TILE_SIZE, i);
+		out = new int[TILE_SIZE * TILE_SIZE];
+	}
+
+	@Benchmark
+	public int[] merge() {
+		final int half = TILE_SIZE / 2;
+		Downsampler.downsampleQuadrant(children[0], out, TILE_SIZE, TILE_SIZE, 0, 0, 0);
+		Downsampler.downsampleQuadrant(children[1], out, TILE_SIZE, TILE_SIZE, half, 0, 0);
+		Downsampler.downsampleQuadrant(children[2], out, TILE_SIZE, TILE_SIZE, 0, half, 0);
+		Downsampler.downsampleQuadrant(children[3], out, TILE_SIZE, TILE_SIZE, half, half, 0);
+		return out;
+	}
+
+	/** A parent at the edge of the map, with only one child */
+	@Benchmark
+	public int[] mergeEdge() {
+		final int half = TILE_SIZE / 2;
+		Downsampler.downsampleQuadrant(children[0], out, TILE_SIZE, TILE_SIZE, 0, 0, 0);
+		Downsampler.downsampleQuadrant(null, out, TILE_SIZE, TILE_SIZE, half, 0, 0);
+		Downsampler.downsampleQuadrant(null, out, TILE_SIZE, TILE_SIZE, 0, half, 0);
+		Downsampler.downsampleQuadrant(null, out, TILE_SIZE, TILE_SIZE, half, half, 0);
+		return out;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.exceptions.RegionProcessingException;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/** Opening a region file and getting at the compressed data of every chunk in it, on one of the BlockGallery regions */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionBenchmark {
+	private File regionFile;
+	private Region region;
+	private ChunkCoord[] chunks;
+
+	@Setup
+	public void setup() throws RegionProcessingException, IOException {
+		regionFile = BenchmarkUtil.getRegionFile();
+		region = new Region(regionFile);
+		chunks = region.getContainedChunkCoords();
+	}
+
+	@Benchmark
+	public Region open() throws RegionProcessingException, IOException {
+		return new Region(regionFile);
+	}
+
+	@Benchmark
+	public void getChunkData(Blackhole blackhole) throws IOException {
+		for (ChunkCoord coord : chunks)
+			blackhole.consume(region.getChunkData(coord));
+	}
+
+	@Benchmark
+	public long inflateChunkData() throws IOException {
+		long totalBytes = 0;
+		for (ChunkCoord coord : chunks) {
+			try (DataInputStream in = region.getChunkData(coord).openStream()) {
+				totalBytes += in.transferTo(OutputStream.nullOutputStream());
+			}
+		}
+		return totalBytes;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.util.FileUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/** Encoding and writing a 512x512 tile in each output format, with the default compression settings */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotBenchmark {
+	private static final int TILE_SIZE = 512;
+
+	@Param
+	private ImageFormat format;
+
+	private File dir;
+	private File outputFile;
+	private BufferedImage tile;
+
+	@Setup
+	public void setup() {
+		dir = BenchmarkUtil.createTempDir("screenshot");
+		outputFile = TileRenderer.getImageFile(dir, 0, 0, format);
+		tile = BenchmarkUtil.createTile(TILE_SIZE, TILE_SIZE, format);
+	}
+
+	@TearDown
+	public void tearDown() {
+		FileUtils.deleteDirectory(dir);
+	}
+
+	@Benchmark
+	public long write() {
+		Screenshot.write(outputFile, tile, format, 1.0f);
+		return outputFile.length();
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.blockregistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Looking up the models for a block state: a fence made of multipart cases and stairs with a variant per state.
+ *  Each benchmark looks up every state once, so the results are per few dozen lookups. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockStateWrapperBenchmark {
+	private static final String[] DIRECTIONS = { "north", "east", "south", "west" };
+	private static final String[] HALVES = { "bottom", "top" };
+	private static final String[] SHAPES = { "straight", "inner_left", "inner_right", "outer_left", "outer_right" };
+
+	private BlockRegistry registry;
+	private BlockStateWrapper fence;
+	private BlockStateWrapper stairs;
+
+	private final List<BlockProperties> fenceStates = new ArrayList<>();
+	private final List<BlockProperties> stairsStates = new ArrayList<>();
+	private int[] internedStates;
+
+	@Setup
+	public void setup() {
+		fence = new BlockStateWrapper("test:fence");
+		fence.addState(createCase(Map.of(), "post"));
+		for (String direction : DIRECTIONS)
+			fence.addState(createCase(Map.of(direction, "true"), "side_" + direction));
+
+		for (int connections = 0; connections < 16; connections++) {
+			Map<String, String> properties = new HashMap<>();
+			for (int i = 0; i < DIRECTIONS.length; i++)
+				properties.put(DIRECTIONS[i], Boolean.toString((connections & (1 << i)) != 0));
+			properties.put("waterlogged", "false");
+			fenceStates.add(new BlockProperties(properties));
+		}
+
+		stairs = new BlockStateWrapper("test:stairs");
+		for (String facing : DIRECTIONS) {
+			for (String half : HALVES) {
+				for (String shape : SHAPES) {
+					String name = "facing=" + facing + ",half=" + half + ",shape=" + shape;
+					stairs.addState(new BlockVariant(name, new BlockStateModelsWeight(List.of(createModel(name)))));
+					stairsStates.add(new BlockProperties(Map.of("facing", facing, "half", half, "shape", shape, "waterlogged", "false")));
+				}
+			}
+		}
+
+		registry = new BlockRegistry();
+		registry.getBlockStates().put(fence.getBlockName(), fence);
+		registry.getBlockStates().put(stairs.getBlockName(), stairs);
+
+		List<Integer> ids = new ArrayList<>();
+		fenceStates.forEach(properties -> ids.add(BlockStates.intern(fence.getBlockName(), properties)));
+		stairsStates.forEach(properties -> ids.add(BlockStates.intern(stairs.getBlockName(), properties)));
+		internedStates = ids.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@Benchmark
+	public void multipart(Blackhole blackhole) {
+		for (BlockProperties properties : fenceStates)
+			blackhole.consume(fence.getModels(properties));
+	}
+
+	@Benchmark
+	public void variants(Blackhole blackhole) {
+		for (BlockProperties properties : stairsStates)
+			blackhole.consume(stairs.getModels(properties));
+	}
+
+	/** The same states through the registry, which resolves each interned state only once */
+	@Benchmark
+	public void resolved(Blackhole blackhole) {
+		for (int id : internedStates)
+			blackhole.consume(registry.resolve(id).getModels());
+	}
+
+	private static BlockStateCase createCase(Map<String, String> when, String model) {
+		return BlockStateCase.builder()
+				.whenClauses(when.isEmpty() ? List.of() : List.of(when))
+				.modelsAndWeight(new BlockStateModelsWeight(List.of(createModel(model))))
+				.build();
+	}
+
+	private static BlockStateModel createModel(String name) {
+		BlockStateModel model = new BlockStateModel();
+		model.setModel(name);
+		return model;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tectonicus.BenchmarkUtil;
+import tectonicus.RegionCoord;
+import tectonicus.TileCoord;
+import tectonicus.TileRenderer;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.configuration.MutableLayer;
+import tectonicus.configuration.MutableMap;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Finding the tiles to render for a made up world of 4x4 regions, each chunk projecting onto two tiles.
+ *  FIRST_RUN has no index or tiles from a previous run, so every visible tile is hashed. RERUN has rendered every tile
+ *  before, and one region has been processed again without any of its chunks actually changing. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FileTileCacheBenchmark {
+	/** Regions along each side of the world */
+	private static final int REGIONS_ACROSS = 4;
+
+	/** Chunks along each side of a tile */
+	private static final int CHUNKS_PER_TILE = 4;
+
+	private static final String OPTION_STRING = "benchmark";
+
+	public enum Run { FIRST_RUN, RERUN }
+
+	@Param
+	private Run run;
+
+	private File dir;
+	private File layerDir;
+	private ForkJoinPool pool;
+	private RegionHashStore regionHashStore;
+	private TileChunkIndex tileIndex;
+	private HddTileListFactory listFactory;
+	private HddTileList visibleTiles;
+	private FileTileCache tileCache;
+
+	@Setup
+	public void setup() throws NoSuchAlgorithmException {
+		dir = BenchmarkUtil.createTempDir("tileCache");
+		layerDir = new File(dir, "LayerA");
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		listFactory = new HddTileListFactory(new File(dir, "lists"));
+
+		MessageDigest hashAlgorithm = MessageDigest.getInstance("sha1");
+		regionHashStore = new RegionHashStore(dir);
+		tileIndex = new TileChunkIndex(dir, "Map0", OPTION_STRING, hashAlgorithm);
+		visibleTiles = listFactory.createList("visible");
+
+		Random random = new Random(0);
+		for (int rx = 0; rx < REGIONS_ACROSS; rx++) {
+			for (int rz = 0; rz < REGIONS_ACROSS; rz++) {
+				RegionHashStore.ActiveRegion region = regionHashStore.startRegion(new RegionCoord(rx, rz));
+				for (int x = 0; x < RegionCoord.REGION_WIDTH; x++) {
+					for (int z = 0; z < RegionCoord.REGION_WIDTH; z++) {
+						ChunkCoord coord = new ChunkCoord(rx * RegionCoord.REGION_WIDTH + x, rz * RegionCoord.REGION_WIDTH + z);
+						byte[] hash = new byte[20];
+						random.nextBytes(hash);
+						region.addHash(coord, hash);
+
+						long[] tiles = getFootprint(coord);
+						tileIndex.addChunk(coord, tiles);
+						for (long tileKey : tiles)
+							visibleTiles.add(HddTileList.fromKey(tileKey));
+					}
+				}
+				regionHashStore.endRegion(region);
+			}
+		}
+		tileIndex.settle();
+
+		MutableMap map = new MutableMap("Map0");
+		MutableLayer layer = new MutableLayer("LayerA", map.getId());
+		tileCache = new FileTileCache(new File(dir, "tileCache"), ImageFormat.PNG, map, layer, OPTION_STRING, hashAlgorithm);
+
+		if (run == Run.RERUN) {
+			// Render everything once, then start a second run with the same index
+			for (TileCoord coord : tileCache.findChangedTiles(listFactory, visibleTiles, tileIndex, regionHashStore, layerDir, pool)) {
+				createEmptyFile(TileRenderer.getImageFile(layerDir, coord.x, coord.y, ImageFormat.PNG));
+				tileCache.writeImageCache(coord);
+			}
+			tileIndex.close();
+
+			tileIndex = new TileChunkIndex(dir, "Map0", OPTION_STRING, hashAlgorithm);
+			for (long chunkKey : tileIndex.getAllChunks()) {
+				ChunkCoord coord = TileChunkIndex.fromKey(chunkKey);
+				tileIndex.visitChunk(coord, coord.x < RegionCoord.REGION_WIDTH && coord.z < RegionCoord.REGION_WIDTH);
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		tileCache.closeTileCache();
+		tileIndex.close();
+		pool.shutdown();
+		FileUtils.deleteDirectory(dir);
+	}
+
+	@Benchmark
+	public int findChangedTiles() {
+		return tileCache.findChangedTiles(listFactory, visibleTiles, tileIndex, regionHashStore, layerDir, pool).size();
+	}
+
+	/** Roughly what the angled views do: each chunk overlaps the tile it's in and the one below */
+	private static long[] getFootprint(ChunkCoord coord) {
+		final int tileX = (int) Math.floorDiv(coord.x, CHUNKS_PER_TILE);
+		final int tileY = (int) Math.floorDiv(coord.z, CHUNKS_PER_TILE);
+		return new long[] { HddTileList.toKey(tileX, tileY), HddTileList.toKey(tileX, tileY + 1) };
+	}
+
+	private static void createEmptyFile(File file) {
+		try {
+			file.getParentFile().mkdirs();
+			file.createNewFile();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache.swap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tectonicus.BenchmarkUtil;
+import tectonicus.TileCoord;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/** Adding tiles the way finding visible tiles does, with each tile added once for every chunk touching it, then reading
+ *  them back in order. With the smaller memory budget the list spills runs to disk. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HddTileListBenchmark {
+	/** Tiles along each side of the square of tiles added */
+	private static final int TILES_ACROSS = 400;
+
+	@Param({ "67108864", "1048576" })
+	private long memoryBudget;
+
+	private File dir;
+	private TileCoord[] additions;
+	private HddTileList list;
+
+	@Setup
+	public void setup() {
+		dir = BenchmarkUtil.createTempDir("tileList");
+
+		additions = new TileCoord[TILES_ACROSS * TILES_ACROSS * 4];
+		int i = 0;
+		for (int y = 0; y < TILES_ACROSS; y++) {
+			for (int x = 0; x < TILES_ACROSS; x++) {
+				additions[i++] = new TileCoord(x, y);
+				additions[i++] = new TileCoord(x + 1, y);
+				additions[i++] = new TileCoord(x, y + 1);
+				additions[i++] = new TileCoord(x + 1, y + 1);
+			}
+		}
+
+		list = fill(new File(dir, "iterate"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		FileUtils.deleteDirectory(dir);
+	}
+
+	@Benchmark
+	public int add() {
+		return fill(new File(dir, "add")).size();
+	}
+
+	@Benchmark
+	public long iterate() {
+		long sum = 0;
+		for (TileCoord coord : list)
+			sum += coord.x + coord.y;
+		return sum;
+	}
+
+	private HddTileList fill(File listDir) {
+		HddTileList result = new HddTileList(listDir, memoryBudget);
+		for (TileCoord coord : additions)
+			result.add(coord);
+		return result;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.chunk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tectonicus.BenchmarkUtil;
+import tectonicus.BlockMaskFactory;
+import tectonicus.NullBlockMaskFactory;
+import tectonicus.Region;
+import tectonicus.cache.NullBiomeCache;
+import tectonicus.cache.PlayerSkinCache;
+import tectonicus.configuration.Configuration.RasteriserType;
+import tectonicus.configuration.MutableConfiguration;
+import tectonicus.configuration.MutableLayer;
+import tectonicus.configuration.MutableMap;
+import tectonicus.exceptions.RegionProcessingException;
+import tectonicus.rasteriser.Rasteriser;
+import tectonicus.rasteriser.RasteriserFactory;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+import tectonicus.renderer.GeometryData;
+import tectonicus.util.FileUtils;
+import tectonicus.world.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/** Building geometry for BlockGallery chunks, uploading it to the software rasteriser so no display or OpenGL driver is needed.
+ *  Minecraft's models and textures are needed, either from the Minecraft install or from the build's -PminecraftJar. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChunkGeometryBenchmark {
+	private static final int NUM_CHUNKS = 16;
+
+	private File cacheDir;
+	private Rasteriser rasteriser;
+	private World world;
+	private BlockMaskFactory maskFactory;
+	private Chunk[] chunks;
+
+	@Setup
+	public void setup() throws RegionProcessingException, IOException, NoSuchAlgorithmException {
+		cacheDir = BenchmarkUtil.createTempDir("geometry");
+
+		MutableConfiguration config = new MutableConfiguration();
+		config.setCacheDir(cacheDir);
+		config.setMinecraftJar(BenchmarkUtil.getMinecraftJar());
+
+		MutableMap map = new MutableMap("Map0");
+		map.addLayer(new MutableLayer("LayerA", map.getId()));
+		map.setWorldDir(BenchmarkUtil.getWorldDir());
+
+		rasteriser = RasteriserFactory.createRasteriser(RasteriserType.SOFTWARE, DisplayType.OFFSCREEN, 512, 512, 24, 8, 24, 4);
+		world = new World(rasteriser, map, new NullBiomeCache(), new PlayerSkinCache(config, MessageDigest.getInstance("sha1")), config);
+		world.loadBlockRegistry(null, true);
+		maskFactory = new NullBlockMaskFactory();
+
+		ChunkCoord[] coords = new Region(BenchmarkUtil.getRegionFile()).getContainedChunkCoords();
+		chunks = Arrays.stream(coords)
+				.limit(NUM_CHUNKS)
+				.map(coord -> world.loadChunk(coord, null))
+				.filter(Objects::nonNull)
+				.toArray(Chunk[]::new);
+	}
+
+	@TearDown
+	public void tearDown() {
+		rasteriser.destroy();
+		FileUtils.deleteDirectory(cacheDir);
+	}
+
+	/** What the geometry builder thread does */
+	@Benchmark
+	public void createGeometryData(Blackhole blackhole) {
+		for (Chunk chunk : chunks) {
+			GeometryData geometry = chunk.createGeometryData(world, world.getBlockTypeRegistry(), world.getModelRegistry(), maskFactory);
+			blackhole.consume(geometry.getTotalVertices());
+		}
+	}
+
+	/** Building and uploading, as done when a chunk is drawn without having been prefetched */
+	@Benchmark
+	public void createGeometry(Blackhole blackhole) {
+		for (Chunk chunk : chunks) {
+			blackhole.consume(chunk.createGeometry(rasteriser, world, world.getBlockTypeRegistry(), world.getModelRegistry(), maskFactory, world.getTexturePack()));
+			chunk.unloadGeometry();
+		}
+	}
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import org.jnbt.ByteArrayTag;
+import org.jnbt.ByteTag;
+import org.jnbt.CompoundTag;
+import org.jnbt.IntArrayTag;
+import org.jnbt.IntTag;
+import org.jnbt.ListTag;
+import org.jnbt.LongArrayTag;
+import org.jnbt.NBTInputStream.Compression;
+import org.jnbt.NBTOutputStream;
+import org.jnbt.StringTag;
+import org.jnbt.Tag;
+import tectonicus.Version;
+import tectonicus.chunk.ChunkData;
+import tectonicus.world.WorldInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+import static tectonicus.raw.RawChunk.SECTION_DEPTH;
+import static tectonicus.raw.RawChunk.SECTION_HEIGHT;
+import static tectonicus.raw.RawChunk.SECTION_SIZE;
+import static tectonicus.raw.RawChunk.SECTION_WIDTH;
+
+/** The chunk layouts {@link RawChunk} can parse, each able to build the same made up chunk: stone with a few ores,
+ *  a few layers of dirt and grass with plants on top, then air. The chunks are compressed the same way as in a region file. */
+public enum ChunkFormat {
+	/** Numeric block ids and data, up to 1.12 */
+	PRE_1_13(Version.VERSION_12, 1343, 256),
+	/** Block state palettes nested in "Level", 1.13 to 1.17 */
+	V1_13_TO_1_17(Version.VERSION_17, 2730, 256),
+	/** Block state palettes at the root with sections below zero, 1.18 onwards */
+	V1_18_PLUS(Version.VERSION_20, 3465, 384);
+
+	private static final int MIN_Y_1_18 = -64;
+
+	private final Version version;
+	private final int dataVersion;
+	private final int chunkHeight;
+
+	ChunkFormat(Version version, int dataVersion, int chunkHeight) {
+		this.version = version;
+		this.dataVersion = dataVersion;
+		this.chunkHeight = chunkHeight;
+	}
+
+	/** The height to give {@link tectonicus.Minecraft#setChunkHeight(int)} before parsing chunks in this format */
+	public int getChunkHeight() {
+		return chunkHeight;
+	}
+
+	public WorldInfo getWorldInfo() {
+		return new WorldInfo(version, false);
+	}
+
+	public ChunkData createChunkData() {
+		CompoundTag root = switch (this) {
+			case PRE_1_13 -> createLegacyChunk();
+			case V1_13_TO_1_17 -> createPalettedChunk();
+			case V1_18_PLUS -> createChunk118();
+		};
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (NBTOutputStream out = new NBTOutputStream(new DeflaterOutputStream(bytes), false)) {
+			out.writeTag(root);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new ChunkData(bytes.toByteArray(), Compression.Deflate);
+	}
+
+	private CompoundTag createLegacyChunk() {
+		Fill[] blocks = createBlocks(0);
+
+		List<Tag> sections = new ArrayList<>();
+		for (int sectionY = 0; sectionY < chunkHeight / SECTION_HEIGHT; sectionY++) {
+			if (isEmpty(blocks, sectionY))
+				continue;
+
+			byte[] ids = new byte[SECTION_SIZE];
+			byte[] data = new byte[SECTION_SIZE / 2];
+			byte[] skyLight = new byte[SECTION_SIZE / 2];
+			final int baseY = sectionY * SECTION_HEIGHT;
+			forEachBlock(sectionY, (index, y, x, z) -> {
+				Fill block = blocks[index];
+				ids[blockIndex(x, y, z)] = (byte) block.id;
+				setNibble(data, blockIndex(x, y, z), block.data);
+				setNibble(skyLight, blockIndex(x, y, z), skyLight(blocks, x, baseY + y, z));
+			});
+
+			sections.add(compound(
+					new ByteTag("Y", (byte) sectionY),
+					new ByteArrayTag("Blocks", ids),
+					new ByteArrayTag("Data", data),
+					new ByteArrayTag("SkyLight", skyLight),
+					new ByteArrayTag("BlockLight", new byte[SECTION_SIZE / 2])));
+		}
+
+		return compound(
+				new IntTag("DataVersion", dataVersion),
+				compound("Level",
+						new IntTag("xPos", 0),
+						new IntTag("zPos", 0),
+						new ByteArrayTag("Biomes", new byte[SECTION_WIDTH * SECTION_DEPTH]),
+						new ListTag("Entities", CompoundTag.class, List.of()),
+						new ListTag("TileEntities", CompoundTag.class, List.of()),
+						new ListTag("Sections", CompoundTag.class, sections)));
+	}
+
+	private CompoundTag createPalettedChunk() {
+		Fill[] blocks = createBlocks(0);
+
+		List<Tag> sections = new ArrayList<>();
+		for (int sectionY = 0; sectionY < chunkHeight / SECTION_HEIGHT; sectionY++) {
+			if (isEmpty(blocks, sectionY))
+				continue;
+
+			Map<Fill, Integer> palette = new LinkedHashMap<>();
+			int[] indices = new int[SECTION_SIZE];
+			byte[] skyLight = new byte[SECTION_SIZE / 2];
+			final int baseY = sectionY * SECTION_HEIGHT;
+			forEachBlock(sectionY, (index, y, x, z) -> {
+				indices[blockIndex(x, y, z)] = palette.computeIfAbsent(blocks[index], b -> palette.size());
+				setNibble(skyLight, blockIndex(x, y, z), skyLight(blocks, x, baseY + y, z));
+			});
+
+			sections.add(compound(
+					new ByteTag("Y", (byte) sectionY),
+					createPalette("Palette", palette),
+					new LongArrayTag("BlockStates", pack(indices, palette.size())),
+					new ByteArrayTag("SkyLight", skyLight),
+					new ByteArrayTag("BlockLight", new byte[SECTION_SIZE / 2])));
+		}
+
+		return compound(
+				new IntTag("DataVersion", dataVersion),
+				compound("Level",
+						new StringTag("Status", "full"),
+						new IntTag("xPos", 0),
+						new IntTag("zPos", 0),
+						new IntArrayTag("Biomes", new int[1024]),
+						new ListTag("Entities", CompoundTag.class, List.of()),
+						new ListTag("TileEntities", CompoundTag.class, List.of()),
+						new ListTag("Sections", CompoundTag.class, sections)));
+	}
+
+	private CompoundTag createChunk118() {
+		Fill[] blocks = createBlocks(-MIN_Y_1_18);
+		final int minSection = MIN_Y_1_18 / SECTION_HEIGHT;
+
+		// Every section is written from 1.18, even if it is all air
+		List<Tag> sections = new ArrayList<>();
+		for (int sectionY = 0; sectionY < chunkHeight / SECTION_HEIGHT; sectionY++) {
+			Map<Fill, Integer> palette = new LinkedHashMap<>();
+			int[] indices = new int[SECTION_SIZE];
+			byte[] skyLight = new byte[SECTION_SIZE / 2];
+			final int baseY = sectionY * SECTION_HEIGHT;
+			forEachBlock(sectionY, (index, y, x, z) -> {
+				indices[blockIndex(x, y, z)] = palette.computeIfAbsent(blocks[index], b -> palette.size());
+				setNibble(skyLight, blockIndex(x, y, z), skyLight(blocks, x, baseY + y, z));
+			});
+
+			Map<String, Tag> blockStates = new HashMap<>();
+			blockStates.put("palette", createPalette("palette", palette));
+			if (palette.size() > 1)
+				blockStates.put("data", new LongArrayTag("data", pack(indices, palette.size())));
+
+			sections.add(compound(
+					new ByteTag("Y", (byte) (sectionY + minSection)),
+					new CompoundTag("block_states", blockStates),
+					compound("biomes", new ListTag("palette", StringTag.class, List.of(new StringTag("", "minecraft:plains")))),
+					new ByteArrayTag("SkyLight", skyLight),
+					new ByteArrayTag("BlockLight", new byte[SECTION_SIZE / 2])));
+		}
+
+		return compound(
+				new IntTag("DataVersion", dataVersion),
+				new StringTag("Status", "minecraft:full"),
+				new IntTag("xPos", 0),
+				new IntTag("zPos", 0),
+				new IntTag("yPos", minSection),
+				new ListTag("block_entities", CompoundTag.class, List.of()),
+				new ListTag("sections", CompoundTag.class, sections));
+	}
+
+	/** @param groundOffset how far above the bottom of the chunk y=0 is */
+	private Fill[] createBlocks(final int groundOffset) {
+		Random random = new Random(1);
+		Fill[] blocks = new Fill[SECTION_WIDTH * chunkHeight * SECTION_DEPTH];
+		for (int x = 0; x < SECTION_WIDTH; x++) {
+			for (int z = 0; z < SECTION_DEPTH; z++) {
+				final int surface = groundOffset + 64 + (x * 7 + z * 13) % 5;
+				for (int y = 0; y < chunkHeight; y++) {
+					Fill block;
+					if (y == 0)
+						block = Fill.BEDROCK;
+					else if (y < surface - 4)
+						block = random.nextInt(50) == 0 ? Fill.COAL_ORE : random.nextInt(100) == 0 ? Fill.IRON_ORE : Fill.STONE;
+					else if (y < surface)
+						block = Fill.DIRT;
+					else if (y == surface)
+						block = Fill.GRASS_BLOCK;
+					else if (y == surface + 1 && (x + z) % 7 == 0)
+						block = this == V1_18_PLUS ? Fill.SHORT_GRASS : Fill.GRASS;
+					else
+						block = Fill.AIR;
+
+					blocks[blockIndex(x, y, z)] = block;
+				}
+			}
+		}
+		return blocks;
+	}
+
+	private static boolean isEmpty(Fill[] blocks, final int sectionY) {
+		final int start = sectionY * SECTION_SIZE;
+		for (int i = start; i < start + SECTION_SIZE; i++) {
+			if (blocks[i] != Fill.AIR)
+				return false;
+		}
+		return true;
+	}
+
+	private static byte skyLight(Fill[] blocks, final int x, final int y, final int z) {
+		for (int above = y; above < blocks.length / SECTION_SIZE * SECTION_HEIGHT; above++) {
+			if (blocks[blockIndex(x, above, z)].opaque)
+				return 0;
+		}
+		return 15;
+	}
+
+	private static ListTag createPalette(String name, Map<Fill, Integer> palette) {
+		List<Tag> entries = new ArrayList<>();
+		for (Fill block : palette.keySet()) {
+			if (block.properties.isEmpty()) {
+				entries.add(compound(new StringTag("Name", block.name)));
+			} else {
+				Map<String, Tag> properties = new HashMap<>();
+				block.properties.forEach((key, value) -> properties.put(key, new StringTag(key, value)));
+				entries.add(compound(new StringTag("Name", block.name), new CompoundTag("Properties", properties)));
+			}
+		}
+		return new ListTag(name, CompoundTag.class, entries);
+	}
+
+	/** Packs palette indices the 1.16+ way, where no index spans two longs */
+	private static long[] pack(int[] indices, final int paletteSize) {
+		final int bitsPerBlock = Math.max(4, Integer.SIZE - Integer.numberOfLeadingZeros(paletteSize - 1));
+		final int blocksPerLong = 64 / bitsPerBlock;
+
+		long[] packed = new long[(indices.length + blocksPerLong - 1) / blocksPerLong];
+		for (int i = 0; i < indices.length; i++)
+			packed[i / blocksPerLong] |= (long) indices[i] << (i % blocksPerLong * bitsPerBlock);
+		return packed;
+	}
+
+	private static void forEachBlock(final int sectionY, BlockVisitor visitor) {
+		for (int y = 0; y < SECTION_HEIGHT; y++) {
+			for (int x = 0; x < SECTION_WIDTH; x++) {
+				for (int z = 0; z < SECTION_DEPTH; z++)
+					visitor.visit(blockIndex(x, sectionY * SECTION_HEIGHT + y, z), y, x, z);
+			}
+		}
+	}
+
+	/** The same YZX order as within a section, so a section's blocks are a contiguous run */
+	private static int blockIndex(final int x, final int y, final int z) {
+		return (y * SECTION_DEPTH + z) * SECTION_WIDTH + x;
+	}
+
+	private static void setNibble(byte[] nibbles, final int index, final int value) {
+		if ((index & 1) == 0)
+			nibbles[index / 2] |= (byte) (value & 0xF);
+		else
+			nibbles[index / 2] |= (byte) ((value & 0xF) << 4);
+	}
+
+	private static CompoundTag compound(Tag... tags) {
+		return compound("", tags);
+	}
+
+	private static CompoundTag compound(String name, Tag... tags) {
+		Map<String, Tag> values = new HashMap<>();
+		for (Tag tag : tags)
+			values.put(tag.getName(), tag);
+		return new CompoundTag(name, values);
+	}
+
+	private interface BlockVisitor {
+		void visit(int index, int y, int x, int z);
+	}
+
+	private enum Fill {
+		AIR(0, 0, "minecraft:air", false),
+		BEDROCK(7, 0, "minecraft:bedrock", true),
+		STONE(1, 0, "minecraft:stone", true),
+		COAL_ORE(16, 0, "minecraft:coal_ore", true),
+		IRON_ORE(15, 0, "minecraft:iron_ore", true),
+		DIRT(3, 0, "minecraft:dirt", true),
+		GRASS_BLOCK(2, 0, "minecraft:grass_block", true, Map.of("snowy", "false")),
+		GRASS(31, 1, "minecraft:grass", false),
+		SHORT_GRASS(31, 1, "minecraft:short_grass", false);
+
+		private final int id;
+		private final int data;
+		private final String name;
+		private final boolean opaque;
+		private final Map<String, String> properties;
+
+		Fill(int id, int data, String name, boolean opaque) {
+			this(id, data, name, opaque, Map.of());
+		}
+
+		Fill(int id, int data, String name, boolean opaque, Map<String, String> properties) {
+			this.id = id;
+			this.data = data;
+			this.name = name;
+			this.opaque = opaque;
+			this.properties = properties;
+		}
+	}
+}
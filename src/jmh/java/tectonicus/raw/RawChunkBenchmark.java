@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tectonicus.Minecraft;
+import tectonicus.chunk.ChunkData;
+import tectonicus.world.WorldInfo;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/** Parsing and hashing a chunk in each of the formats Minecraft has saved them in */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RawChunkBenchmark {
+	@Param
+	private ChunkFormat format;
+
+	private ChunkData chunkData;
+	private WorldInfo worldInfo;
+	private RawChunk rawChunk;
+	private MessageDigest digest;
+
+	@Setup
+	public void setup() throws IOException, NoSuchAlgorithmException {
+		Minecraft.setChunkHeight(format.getChunkHeight());
+
+		chunkData = format.createChunkData();
+		worldInfo = format.getWorldInfo();
+		rawChunk = new RawChunk(chunkData, null, worldInfo);
+		digest = MessageDigest.getInstance("sha1");
+	}
+
+	/** Everything, as loaded to build geometry */
+	@Benchmark
+	public RawChunk parse() throws IOException {
+		return new RawChunk(chunkData, null, worldInfo);
+	}
+
+	/** Just what the preprocessing pass needs */
+	@Benchmark
+	public RawChunk parseForPreprocess() throws IOException {
+		return new RawChunk(chunkData, null, worldInfo, ChunkField.PREPROCESS);
+	}
+
+	@Benchmark
+	public byte[] calculateHash() {
+		return rawChunk.calculateHash(digest);
+	}
+}
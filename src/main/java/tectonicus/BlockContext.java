@@ -29,6 +29,8 @@ public interface BlockContext {
 	BlockStateWrapper getBlock(ChunkCoord chunkCoord, int x, int y, int z);
 	BlockStateWrapper getBlock(RawChunk rawChunk, int x, int y, int z);
 	BlockProperties getBlockState(ChunkCoord chunkCoord, int x, int y, int z);
+	/** Interned block state at the position, see {@link tectonicus.raw.BlockStates} */
+	int getBlockStateId(ChunkCoord chunkCoord, int x, int y, int z);
 
 	float getLight(ChunkCoord chunkCoord, final int x, final int y, final int z, LightFace face);
 
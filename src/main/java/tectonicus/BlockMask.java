@@ -11,59 +11,143 @@ package tectonicus;
 
 import tectonicus.raw.RawChunk;
 
+import java.util.Arrays;
+
+/** Which blocks of a chunk to draw, stored one section at a time. A section where every block is visible or every
+ *  block is hidden is just a flag, only mixed sections have one bit per block. */
 public class BlockMask
 {
-	private boolean[][][] mask;
-	
+	public enum Coverage
+	{
+		VISIBLE,
+		HIDDEN,
+		MIXED
+	}
+
+	private static final int SECTION_LONGS = RawChunk.SECTION_SIZE / Long.SIZE;
+
+	private final Coverage[] coverage;
+
+	/** One bit per block for mixed sections, set if the block is visible. Null for the other sections. */
+	private final long[][] bits;
+
 	public BlockMask()
 	{
-		mask = new boolean[RawChunk.WIDTH][Minecraft.getChunkHeight()][RawChunk.DEPTH];
+		final int numSections = (Minecraft.getChunkHeight() + RawChunk.SECTION_HEIGHT - 1) / RawChunk.SECTION_HEIGHT;
+		coverage = new Coverage[numSections];
+		bits = new long[numSections][];
 		setAllVisible();
 	}
-	
+
+	public int getNumSections()
+	{
+		return coverage.length;
+	}
+
+	public Coverage getSectionCoverage(final int section)
+	{
+		return coverage[section];
+	}
+
 	public void setAllVisible()
 	{
+		Arrays.fill(coverage, Coverage.VISIBLE);
+		Arrays.fill(bits, null);
+	}
+
+	public void setAllInvisible()
+	{
+		Arrays.fill(coverage, Coverage.HIDDEN);
+		Arrays.fill(bits, null);
+	}
+
+	/** Hides every block at or above the given height in each column, heights are indexed by [x][z] */
+	public void setHiddenFrom(int[][] heights)
+	{
+		int minHeight = Integer.MAX_VALUE;
+		int maxHeight = Integer.MIN_VALUE;
 		for (int x=0; x<RawChunk.WIDTH; x++)
 		{
-			for (int y=0; y<Minecraft.getChunkHeight(); y++)
+			for (int z=0; z<RawChunk.DEPTH; z++)
 			{
-				for (int z=0; z<RawChunk.DEPTH; z++)
-				{
-					mask[x][y][z] = true;
-				}
+				minHeight = Math.min(minHeight, heights[x][z]);
+				maxHeight = Math.max(maxHeight, heights[x][z]);
 			}
 		}
-	}
 
-	public void setAllInvisible()
-	{
-		for (int x=0; x<RawChunk.WIDTH; x++)
+		for (int section=0; section<coverage.length; section++)
 		{
-			for (int y=0; y<Minecraft.getChunkHeight(); y++)
+			final int bottom = section * RawChunk.SECTION_HEIGHT;
+			final int top = Math.min(bottom + RawChunk.SECTION_HEIGHT, Minecraft.getChunkHeight());
+
+			if (bottom >= maxHeight)
 			{
-				for (int z=0; z<RawChunk.DEPTH; z++)
+				coverage[section] = Coverage.HIDDEN;
+				bits[section] = null;
+			}
+			else if (top > minHeight)
+			{
+				for (int x=0; x<RawChunk.WIDTH; x++)
 				{
-					mask[x][y][z] = false;
+					for (int z=0; z<RawChunk.DEPTH; z++)
+					{
+						for (int y=Math.max(heights[x][z], bottom); y<top; y++)
+						{
+							setVisible(x, y, z, false);
+						}
+					}
 				}
 			}
 		}
 	}
-	
+
 	public void setVisible(final int x, final int y, final int z, final boolean isVisible)
 	{
 		assert (x >= 0 && x < RawChunk.WIDTH);
 		assert (y >= 0 && y < Minecraft.getChunkHeight());
 		assert (z >= 0 && z < RawChunk.DEPTH);
-		
-		mask[x][y][z] = isVisible;
+
+		final int section = y / RawChunk.SECTION_HEIGHT;
+		if (coverage[section] != Coverage.MIXED)
+		{
+			final boolean sectionVisible = coverage[section] == Coverage.VISIBLE;
+			if (sectionVisible == isVisible)
+				return;
+
+			bits[section] = new long[SECTION_LONGS];
+			if (sectionVisible)
+				Arrays.fill(bits[section], -1L);
+			coverage[section] = Coverage.MIXED;
+		}
+
+		final int index = getIndex(x, y % RawChunk.SECTION_HEIGHT, z);
+		if (isVisible)
+			bits[section][index >>> 6] |= 1L << index;
+		else
+			bits[section][index >>> 6] &= ~(1L << index);
 	}
-	
+
 	public boolean isVisible(final int x, final int y, final int z)
 	{
 		assert (x >= 0 && x < RawChunk.WIDTH);
 		assert (y >= 0 && y < Minecraft.getChunkHeight());
 		assert (z >= 0 && z < RawChunk.DEPTH);
-		
-		return mask[x][y][z];
+
+		final int section = y / RawChunk.SECTION_HEIGHT;
+		switch (coverage[section])
+		{
+			case VISIBLE:
+				return true;
+			case HIDDEN:
+				return false;
+			default:
+				final int index = getIndex(x, y % RawChunk.SECTION_HEIGHT, z);
+				return (bits[section][index >>> 6] & (1L << index)) != 0;
+		}
+	}
+
+	private static int getIndex(final int x, final int localY, final int z)
+	{
+		return (localY * RawChunk.DEPTH + z) * RawChunk.WIDTH + x;
 	}
 }
@@ -10,7 +10,7 @@
 package tectonicus;
 
 import tectonicus.raw.RawChunk;
-import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 
 public interface BlockType
 {
@@ -20,6 +20,6 @@ public interface BlockType
 
 	boolean isWater();
 	
-	void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry);
-	void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry);
+	void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry);
+	void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry);
 }
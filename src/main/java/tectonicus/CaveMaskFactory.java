@@ -21,20 +21,7 @@ public class CaveMaskFactory implements BlockMaskFactory
 		int[][] heights = calcSmoothedSurfaceHeights(rawChunk);
 		
 		BlockMask mask = new BlockMask();
-		mask.setAllVisible();
-		
-		for (int x=0; x<RawChunk.WIDTH; x++)
-		{
-			for (int z=0; z<RawChunk.DEPTH; z++)
-			{
-				final int surfaceHeight = heights[x][z];
-				
-				for (int y = surfaceHeight; y< Minecraft.getChunkHeight(); y++)
-				{
-					mask.setVisible(x, y, z, false);
-				}
-			}
-		}
+		mask.setHiddenFrom(heights);
 		
 		return mask;
 	}
@@ -91,6 +78,18 @@ public class CaveMaskFactory implements BlockMaskFactory
 		int y;
 		for (y=Minecraft.getChunkHeight()-1; y>=0; y--)
 		{
+			// A whole section of air just decays the penetration back to nothing
+			if (y % RawChunk.SECTION_HEIGHT == RawChunk.SECTION_HEIGHT-1)
+			{
+				final RawChunk.SectionContents contents = rawChunk.getSectionContents(y / RawChunk.SECTION_HEIGHT);
+				if (contents == RawChunk.SectionContents.ABSENT || contents == RawChunk.SectionContents.AIR)
+				{
+					penetration = 0;
+					y -= RawChunk.SECTION_HEIGHT-1;
+					continue;
+				}
+			}
+			
 			final int blockId = rawChunk.getBlockId(x, y, z);
 			if (blockId == BlockIds.AIR
 				|| blockId == BlockIds.WATER
@@ -12,166 +12,408 @@ package tectonicus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.cache.TileCache;
+import tectonicus.cache.TilePixelCache;
 import tectonicus.cache.swap.HddTileList;
 import tectonicus.configuration.ImageFormat;
 import tectonicus.configuration.Layer;
+import tectonicus.metrics.Metrics;
 
 import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.FileInputStream;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.RejectedExecutionHandler;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/** Builds the zoom level pyramid for a layer while the base tiles are still being rendered.
+ *
+ *  Every tile which needs rebuilding keeps a count of its children that are still to be rendered or downsampled,
+ *  and is queued as soon as that reaches zero. Freshly produced tiles are kept as raw pixels in a {@link TilePixelCache}
+ *  so their parent can be built straight from memory; only children which haven't changed (or have been evicted)
+ *  are read back from disk.
+ *
+ *  The tile lists are sorted by column and the base tiles are rendered in bands from left to right, so each zoom
+ *  level is streamed in a column at a time as its children reach it. Only the tiles between that point and the ones
+ *  already built are held in memory.
+ */
 @Slf4j
 public class Downsampler {
 	private final ChangeFile changedFileList;
+	private final TileCache tileCache;
+	private final TilePixelCache pixelCache;
 	private final ThreadPoolExecutor executor;
-	
-	public Downsampler(final int numThreads, ChangeFile changedFileList) {
+
+	private final ImageFormat imageFormat;
+	private final float imageCompressionLevel;
+	private final int pngCompressionLevel;
+	private final Color backgroundColor;
+	private final int tileWidth;
+	private final int tileHeight;
+
+	/** Output dir for each zoom level, the last one being the base tiles */
+	private final File[] zoomDirs;
+	private final HddTileList[] zoomTiles;
+	private final int baseZoom;
+
+	/** The tiles being built at each zoom level, from 0 up to the one above the base tiles */
+	private final Level[] levels;
+
+	private volatile CountDownLatch remaining;
+
+	/** @param pixelCacheBytes how much direct memory rendered tiles may take up while they wait for their parent */
+	public Downsampler(final int numThreads, ChangeFile changedFileList, TileCache tileCache, Layer layer, final int tileWidth, final int tileHeight, File baseDir, final int baseZoom, final long pixelCacheBytes) {
 		this.changedFileList = changedFileList;
-		executor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), new ResubmitHandler());
-	}
-	
-	public void downsample(File inputDir, File outputDir, HddTileList tiles, Layer layer, final int tileWidth, final int tileHeight, ProgressListener progressListener, TileCache tileCache, int zoomLevel) {
-		int count = 0;
-		
-		Shared state = new Shared(inputDir, outputDir, layer.getImageFormat(), layer.getImageCompressionLevel(), layer.getBackgroundColorRGB(), tileWidth, tileHeight, zoomLevel);
-		
-		for (TileCoord tile : tiles) {
-			DownsampleTask task = new DownsampleTask(tile, state, changedFileList, tileCache);
-			executor.submit(task);
-			
-			count++;
-			if (count % 128 == 0) {
-				final int percentage = (int)Math.floor((count / (float)tiles.size()) * 100);
-				System.out.print("\t" + percentage + "%\r"); //prints a carriage return after line
+		this.tileCache = tileCache;
+		this.imageFormat = layer.getImageFormat();
+		this.imageCompressionLevel = layer.getImageCompressionLevel();
+		this.pngCompressionLevel = layer.getPngCompressionLevel();
+		this.backgroundColor = layer.getBackgroundColorRGB();
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.baseZoom = baseZoom;
+
+		zoomDirs = new File[baseZoom + 1];
+		zoomTiles = new HddTileList[baseZoom + 1];
+		zoomDirs[baseZoom] = baseDir;
+		levels = new Level[baseZoom];
+
+		pixelCache = new TilePixelCache(pixelCacheBytes);
+		executor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+
+		Metrics.gauge("tectonicus_downsample_queue_depth", "Tiles ready to be downsampled and waiting for a thread", this, d -> d.executor.getQueue().size());
+		Metrics.gauge("tectonicus_downsample_remaining_tiles", "Zoomed out tiles still to be built", this, d -> d.remaining != null ? d.remaining.getCount() : 0);
+		Metrics.gauge("tectonicus_downsample_frontier_tiles", "Zoomed out tiles read in and waiting on their children", this, Downsampler::getFrontierSize);
+	}
+
+	/** Adds the tiles which need rebuilding at one zoom level. Must be called for every level before {@link #start}. */
+	public void addZoomLevel(final int zoomLevel, File dir, HddTileList tiles) {
+		zoomDirs[zoomLevel] = dir;
+		zoomTiles[zoomLevel] = tiles;
+	}
+
+	/** Starts reading the tile lists back in. Must be called from the thread which made them, before any tile is rendered. */
+	public void start(HddTileList baseTiles) {
+		zoomTiles[baseZoom] = baseTiles;
+
+		int total = 0;
+		for (int zoom = 0; zoom < baseZoom; zoom++) {
+			levels[zoom] = new Level(zoom, zoomTiles[zoom].iterator(), zoomTiles[zoom + 1].iterator());
+			total += zoomTiles[zoom].size();
+		}
+
+		remaining = new CountDownLatch(total);
+	}
+
+	/** Called with each base tile as soon as it has been rendered, so its pixels are at hand for its parent */
+	public void tileRendered(TileCoord tile, BufferedImage image) {
+		if (hasPendingParent(baseZoom, tile))
+			pixelCache.put(baseZoom, tile.x, tile.y, image.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth));
+	}
+
+	/** Called once a base tile has been written to disk, or has failed to render */
+	public void tileWritten(TileCoord tile) {
+		childFinished(baseZoom, tile);
+	}
+
+	/** Waits for the whole pyramid to be built. Base tiles which never got rendered are built from whatever is on disk. */
+	public void finish(ProgressListener progressListener, final boolean abort) {
+		if (abort) {
+			executor.shutdownNow();
+		} else {
+			// Every base tile has been written by now, so whatever is still waiting on one never will get it
+			if (baseZoom > 0) {
+				levels[baseZoom - 1].advanceTo(Integer.MAX_VALUE);
+				levels[baseZoom - 1].flush();
 			}
-			progressListener.onTaskUpdate(count, tiles.size());
+
+			// Read in the rest of each level, queueing any tiles with nothing left to wait for
+			for (int zoom = baseZoom - 2; zoom >= 0; zoom--)
+				levels[zoom].advanceTo(Integer.MAX_VALUE);
+
+			try {
+				final long total = remaining.getCount();
+				while (!remaining.await(250, TimeUnit.MILLISECONDS)) {
+					final long done = total - remaining.getCount();
+					System.out.print("\t" + (int) Math.floor((done / (float) total) * 100) + "%\r"); //prints a carriage return after line
+					progressListener.onTaskUpdate((int) done, (int) total);
+				}
+				System.out.println("\t100%");
+			} catch (InterruptedException e) {
+				log.error("Exception: ", e);
+				Thread.currentThread().interrupt();
+			}
+
+			executor.shutdown();
 		}
-		
-		System.out.println("\t100%");
-		
+
 		try {
-			log.debug("\tFinalizing downsampling...");
-			executor.shutdown();
 			executor.awaitTermination(1, TimeUnit.DAYS);
 		} catch (InterruptedException e) {
 			log.error("Exception: ", e);
+			Thread.currentThread().interrupt();
 		}
-		
+
+		pixelCache.clear();
+
 		log.debug("\tDownsampling complete");
 	}
 
-	@RequiredArgsConstructor
-	private static class Shared {
-		public final File inputDir;
-		public final File outputDir;
+	public HddTileList getTiles(final int zoomLevel) {
+		return zoomTiles[zoomLevel];
+	}
+
+	private long getFrontierSize() {
+		long size = 0;
+		for (Level level : levels) {
+			if (level != null)
+				size += level.frontier.size();
+		}
+		return size;
+	}
+
+	private boolean hasPendingParent(final int zoom, TileCoord tile) {
+		if (zoom == 0)
+			return false;
+
+		final int parentX = Math.floorDiv(tile.x, 2);
+		Level level = levels[zoom - 1];
+		level.advanceTo(parentX);
+		return level.frontier.containsKey(HddTileList.toKey(parentX, Math.floorDiv(tile.y, 2)));
+	}
+
+	private void childFinished(final int zoom, TileCoord tile) {
+		if (zoom == 0)
+			return;
+
+		final int parentX = Math.floorDiv(tile.x, 2);
+		Level level = levels[zoom - 1];
+		level.advanceTo(parentX);
+
+		final long key = HddTileList.toKey(parentX, Math.floorDiv(tile.y, 2));
+		PendingTile parent = level.frontier.get(key);
+		if (parent != null && parent.children.decrementAndGet() == 0 && level.frontier.remove(key) != null)
+			executor.execute(new DownsampleTask(parent));
+	}
+
+	private static TileCoord next(Iterator<TileCoord> it) {
+		return it.hasNext() ? it.next() : null;
+	}
+
+	private static class PendingTile {
+		private final int zoom;
+		private final TileCoord coord;
+
+		private final AtomicInteger children;
+
+		PendingTile(final int zoom, TileCoord coord, final int numChildren) {
+			this.zoom = zoom;
+			this.coord = coord;
+			this.children = new AtomicInteger(numChildren);
+		}
+	}
 
-		public final ImageFormat imageFormat;
-		public final float imageCompressionLevel;
-		public final Color backgroundColor;
+	/** Reads in the tiles of one zoom level a column at a time, counting up their children from the level below */
+	private class Level {
+		private final int zoom;
+		private final Iterator<TileCoord> tiles;
+		private final Iterator<TileCoord> children;
 
-		public final int tileWidth;
-		public final int tileHeight;
-		public final int zoomLevel;
+		private TileCoord nextTile;
+		private TileCoord nextChild;
+
+		/** Tiles which have been read in and are still waiting on children, keyed by coord */
+		private final Map<Long, PendingTile> frontier = new ConcurrentHashMap<>();
+
+		Level(final int zoom, Iterator<TileCoord> tiles, Iterator<TileCoord> children) {
+			this.zoom = zoom;
+			this.tiles = tiles;
+			this.children = children;
+			this.nextTile = next(tiles);
+			this.nextChild = next(children);
+		}
+
+		/** Reads in every tile up to and including the given column. A tile is always read in before any of its children finish. */
+		synchronized void advanceTo(final int column) {
+			while (nextTile != null && nextTile.x <= column) {
+				final int x = nextTile.x;
+
+				// The children of this column are in the two columns below it
+				Map<Integer, Integer> numChildren = new HashMap<>();
+				while (nextChild != null && Math.floorDiv(nextChild.x, 2) <= x) {
+					if (Math.floorDiv(nextChild.x, 2) == x)
+						numChildren.merge(Math.floorDiv(nextChild.y, 2), 1, Integer::sum);
+					nextChild = next(children);
+				}
+
+				while (nextTile != null && nextTile.x == x) {
+					PendingTile tile = new PendingTile(zoom, nextTile, numChildren.getOrDefault(nextTile.y, 0));
+					if (tile.children.get() == 0)
+						executor.execute(new DownsampleTask(tile));
+					else
+						frontier.put(HddTileList.toKey(x, nextTile.y), tile);
+					nextTile = next(tiles);
+				}
+			}
+		}
+
+		/** Queues every tile still waiting on children, building it from whatever is on disk */
+		void flush() {
+			for (Long key : frontier.keySet()) {
+				PendingTile tile = frontier.remove(key);
+				if (tile != null)
+					executor.execute(new DownsampleTask(tile));
+			}
+		}
 	}
 
 	@RequiredArgsConstructor
-	private static class DownsampleTask implements Callable<Void> {
-		private final TileCoord tile;
-		private final Shared state;
-		private final ChangeFile changedFileList;
-		private final TileCache tileCache;
-		
+	private class DownsampleTask implements Runnable {
+		private final PendingTile tile;
+
 		@Override
-		public Void call() throws Exception {
-			// Find the four input files
-			BufferedImage in00 = getTile( TileRenderer.getImageFile(state.inputDir, tile.x * 2, tile.y * 2, state.imageFormat) );
-			BufferedImage in10 = getTile( TileRenderer.getImageFile(state.inputDir, tile.x * 2 + 1, tile.y * 2, state.imageFormat) );
-			BufferedImage in01 = getTile( TileRenderer.getImageFile(state.inputDir, tile.x * 2, tile.y * 2 + 1, state.imageFormat) );
-			BufferedImage in11 = getTile( TileRenderer.getImageFile(state.inputDir, tile.x * 2 + 1, tile.y * 2 + 1, state.imageFormat) );
-			
-			if (in00 == null && in10 == null && in01 == null && in11 == null)
-				return null;
-			
-			log.trace("\tDownsampling to create meta tile at "+tile.x+","+tile.y);
-			
-			final boolean hasAlpha = state.imageFormat.hasAlpha();
-			final int pixelFormat = hasAlpha ? BufferedImage.TYPE_4BYTE_ABGR : BufferedImage.TYPE_3BYTE_BGR;
-			BufferedImage outImg = new BufferedImage(state.tileWidth, state.tileHeight, pixelFormat);
-			Graphics2D g = (Graphics2D)outImg.getGraphics();
-			
-			if (!hasAlpha) {
-				g.setColor(state.backgroundColor);
-				g.fillRect(0, 0, state.tileWidth, state.tileHeight);
-			}
-			
-			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-			
-			final int halfWidth = state.tileWidth / 2;
-			final int halfHeight = state.tileHeight / 2;
-			
-			if (in00 != null)
-				g.drawImage(in00, 0, 0, halfWidth, halfHeight, null);
-			if (in10 != null)
-				g.drawImage(in10, halfWidth, 0, halfWidth, halfHeight, null);
-			if (in01 != null)
-				g.drawImage(in01, 0, halfHeight, halfWidth, halfHeight, null);
-			if (in11 != null)
-				g.drawImage(in11, halfWidth, halfHeight, halfWidth, halfHeight, null);
-			
+		public void run() {
 			try {
-				File outputFile = TileRenderer.getImageFile(state.outputDir, tile.x, tile.y, state.imageFormat);
-				
-				Screenshot.write(outputFile, outImg, state.imageFormat, state.imageCompressionLevel);
-				
-				changedFileList.writeLine( outputFile.getAbsolutePath() );
-				tileCache.updateTileDownsampleStatus(tile, state.zoomLevel);
+				downsample(tile.zoom, tile.coord);
 			} catch (Exception e) {
 				log.error("Exception: ", e);
+			} finally {
+				childFinished(tile.zoom, tile.coord);
+				remaining.countDown();
 			}
-			
-			return null;
 		}
-		
-		private static BufferedImage getTile(File file) {
-			BufferedImage tile = null;
-			try {
-				if (file.exists()) {
-					// Use input stream instead of file to fix ImageIO returning null for some WEBP images
-					try (var inputStream = new FileInputStream(file)) {
-						tile = ImageIO.read(inputStream);
-					}
-				}
-			} catch (Exception e) {
-				log.error("Error getting tile {}", file.getAbsolutePath(), e);
+
+		private void downsample(final int zoom, TileCoord coord) {
+			// Find the four input tiles
+			int[] in00 = getChild(zoom + 1, coord.x * 2, coord.y * 2);
+			int[] in10 = getChild(zoom + 1, coord.x * 2 + 1, coord.y * 2);
+			int[] in01 = getChild(zoom + 1, coord.x * 2, coord.y * 2 + 1);
+			int[] in11 = getChild(zoom + 1, coord.x * 2 + 1, coord.y * 2 + 1);
+
+			if (in00 == null && in10 == null && in01 == null && in11 == null)
+				return;
+
+			log.trace("\tDownsampling to create meta tile at "+coord.x+","+coord.y);
+
+			final boolean hasAlpha = imageFormat.hasAlpha();
+			final int fill = hasAlpha ? 0 : backgroundColor.getRGB();
+
+			int[] out = new int[tileWidth * tileHeight];
+			final int halfWidth = tileWidth / 2;
+			final int halfHeight = tileHeight / 2;
+
+			// Pixels are stored top row first, the same as the tile images
+			downsampleQuadrant(in00, out, tileWidth, tileHeight, 0, 0, fill);
+			downsampleQuadrant(in10, out, tileWidth, tileHeight, halfWidth, 0, fill);
+			downsampleQuadrant(in01, out, tileWidth, tileHeight, 0, halfHeight, fill);
+			downsampleQuadrant(in11, out, tileWidth, tileHeight, halfWidth, halfHeight, fill);
+
+			if (hasPendingParent(zoom, coord))
+				pixelCache.put(zoom, coord.x, coord.y, out);
+
+			BufferedImage outImg;
+			if (imageFormat == ImageFormat.PNG) {
+				// Hand the pixels straight to the png encoder
+				outImg = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB);
+				System.arraycopy(out, 0, ((DataBufferInt) outImg.getRaster().getDataBuffer()).getData(), 0, out.length);
+			} else {
+				final int pixelFormat = hasAlpha ? BufferedImage.TYPE_4BYTE_ABGR : BufferedImage.TYPE_3BYTE_BGR;
+				outImg = new BufferedImage(tileWidth, tileHeight, pixelFormat);
+				outImg.setRGB(0, 0, tileWidth, tileHeight, out, 0, tileWidth);
+			}
+
+			File outputFile = TileRenderer.getImageFile(zoomDirs[zoom], coord.x, coord.y, imageFormat);
+
+			Screenshot.write(outputFile, outImg, imageFormat, imageCompressionLevel, pngCompressionLevel);
+
+			changedFileList.writeLine( outputFile.getAbsolutePath() );
+			tileCache.updateTileDownsampleStatus(coord, zoom);
+		}
+
+		private int[] getChild(final int zoom, final int x, final int y) {
+			int[] pixels = pixelCache.get(zoom, x, y);
+			if (pixels != null) {
+				// Each tile only has one parent, so it won't be wanted again
+				pixelCache.remove(zoom, x, y);
+				return pixels;
 			}
-			return tile;
+
+			BufferedImage image = readTile(TileRenderer.getImageFile(zoomDirs[zoom], x, y, imageFormat));
+			if (image == null)
+				return null;
+
+			if (image.getWidth() != tileWidth || image.getHeight() != tileHeight) {
+				// Left over from a run with a different tile size
+				BufferedImage scaled = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g = scaled.createGraphics();
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.drawImage(image, 0, 0, tileWidth, tileHeight, null);
+				g.dispose();
+				image = scaled;
+			}
+
+			return image.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth);
 		}
 	}
-	
-	private static class ResubmitHandler implements RejectedExecutionHandler
-	{
-		@Override
-		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor)
-		{
-			try
-			{
-				executor.getQueue().put(r);
+
+	/** Halves a child tile with a 2x2 box filter into one quarter of the output, or fills that quarter if there is no child */
+	static void downsampleQuadrant(int[] in, int[] out, final int tileWidth, final int tileHeight, final int offsetX, final int offsetY, final int fill) {
+		final int halfWidth = tileWidth / 2;
+		final int halfHeight = tileHeight / 2;
+
+		for (int y=0; y<halfHeight; y++) {
+			final int outRow = (offsetY + y) * tileWidth + offsetX;
+			if (in == null) {
+				Arrays.fill(out, outRow, outRow + halfWidth, fill);
+				continue;
 			}
-			catch (Exception e)
-			{
-				log.error("Exception: ", e);
+
+			final int inRow = y * 2 * tileWidth;
+			for (int x=0; x<halfWidth; x++) {
+				final int i = inRow + x * 2;
+				out[outRow + x] = average(in[i], in[i + 1], in[i + tileWidth], in[i + tileWidth + 1]);
+			}
+		}
+	}
+
+	/** Averages four ARGB pixels, weighting the colours by alpha so fully transparent pixels don't darken the edges */
+	static int average(final int p0, final int p1, final int p2, final int p3) {
+		final int a0 = p0 >>> 24, a1 = p1 >>> 24, a2 = p2 >>> 24, a3 = p3 >>> 24;
+		final int alpha = a0 + a1 + a2 + a3;
+		if (alpha == 0)
+			return 0;
+
+		final int half = alpha / 2;
+		final int r = ((p0 >> 16 & 0xFF) * a0 + (p1 >> 16 & 0xFF) * a1 + (p2 >> 16 & 0xFF) * a2 + (p3 >> 16 & 0xFF) * a3 + half) / alpha;
+		final int g = ((p0 >> 8 & 0xFF) * a0 + (p1 >> 8 & 0xFF) * a1 + (p2 >> 8 & 0xFF) * a2 + (p3 >> 8 & 0xFF) * a3 + half) / alpha;
+		final int b = ((p0 & 0xFF) * a0 + (p1 & 0xFF) * a1 + (p2 & 0xFF) * a2 + (p3 & 0xFF) * a3 + half) / alpha;
+
+		return ((alpha + 2) >> 2) << 24 | r << 16 | g << 8 | b;
+	}
+
+	private static BufferedImage readTile(File file) {
+		BufferedImage tile = null;
+		try {
+			if (file.exists()) {
+				// Use input stream instead of file to fix ImageIO returning null for some WEBP images
+				try (var inputStream = new FileInputStream(file)) {
+					tile = ImageIO.read(inputStream);
+				}
 			}
+		} catch (Exception e) {
+			log.error("Error getting tile {}", file.getAbsolutePath(), e);
 		}
+		return tile;
 	}
 }
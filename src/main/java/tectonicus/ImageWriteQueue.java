@@ -11,6 +11,8 @@ package tectonicus;
 
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.configuration.ImageFormat;
+import tectonicus.metrics.Counter;
+import tectonicus.metrics.Metrics;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -23,16 +25,26 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class ImageWriteQueue
 {
+	private static final Counter IMAGES_ENCODED = Metrics.counter("tectonicus_images_encoded_total", "Tile and view images encoded and written to disk");
+	
 	private ThreadPoolExecutor executor;
 	
 	public ImageWriteQueue(final int numThreads)
 	{
 		executor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(16), new ResubmitHandler());
+		
+		Metrics.gauge("tectonicus_image_write_queue_depth", "Images waiting to be encoded", executor, e -> e.getQueue().size());
 	}
 	
 	public void write(File outputFile, BufferedImage img, ImageFormat imageFormat, final float compressionLevel)
 	{
-		WriteTask task = new WriteTask(outputFile, img, imageFormat, compressionLevel);
+		write(outputFile, img, imageFormat, compressionLevel, PngEncoder.DEFAULT_COMPRESSION_LEVEL, null);
+	}
+	
+	/** Queues an image to be written, running onWritten (if not null) on the writing thread once it's on disk */
+	public void write(File outputFile, BufferedImage img, ImageFormat imageFormat, final float compressionLevel, final int pngCompressionLevel, Runnable onWritten)
+	{
+		WriteTask task = new WriteTask(outputFile, img, imageFormat, compressionLevel, pngCompressionLevel, onWritten);
 		executor.submit(task);
 	}
 	
@@ -55,19 +67,32 @@ public class ImageWriteQueue
 		private final BufferedImage img;
 		private final ImageFormat imageFormat;
 		private final float compressionLevel;
+		private final int pngCompressionLevel;
+		private final Runnable onWritten;
 		
-		public WriteTask(File f, BufferedImage i, ImageFormat format, float compression)
+		public WriteTask(File f, BufferedImage i, ImageFormat format, float compression, int pngCompression, Runnable onWritten)
 		{
 			this.outputFile = f;
 			this.img = i;
 			this.imageFormat = format;
 			this.compressionLevel = compression;
+			this.pngCompressionLevel = pngCompression;
+			this.onWritten = onWritten;
 		}
 		
 		@Override
 		public Void call() throws Exception
 		{
-			Screenshot.write(outputFile, img, imageFormat, compressionLevel);
+			try
+			{
+				Screenshot.write(outputFile, img, imageFormat, compressionLevel, pngCompressionLevel);
+				IMAGES_ENCODED.inc();
+			}
+			finally
+			{
+				if (onWritten != null)
+					onWritten.run();
+			}
 			return null;
 		}
 	}
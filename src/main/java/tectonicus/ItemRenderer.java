@@ -34,6 +34,7 @@ import tectonicus.raw.BedEntity;
 import tectonicus.raw.Biome;
 import tectonicus.raw.BiomesOld;
 import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
 import tectonicus.raw.RawChunk;
 import tectonicus.raw.SignEntity;
 import tectonicus.renderer.Geometry;
@@ -651,6 +652,9 @@ public class ItemRenderer
 
 		@Override
 		public BlockProperties getBlockState(ChunkCoord chunkCoord, int x, int y, int z) { return null; }
+
+		@Override
+		public int getBlockStateId(ChunkCoord chunkCoord, int x, int y, int z) { return BlockStates.NONE; }
 		
 		@Override
 		public float getLight(ChunkCoord chunkCoord, int x, int y, int z, LightFace face)
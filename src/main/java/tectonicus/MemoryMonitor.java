@@ -9,42 +9,80 @@
 
 package tectonicus;
 
+import tectonicus.metrics.Metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/** Samples the heap once a second for the peak memory use of a render, and publishes heap and GC gauges to {@link Metrics} */
 public class MemoryMonitor
 {
+	private static final long POLL_INTERVAL_MILLIS = 1000;
+
 	private Thread memoryPollThread;
-	
+
 	private long maxMemoryBytes;
-	
+
 	public MemoryMonitor()
 	{
-		memoryPollThread = new Thread(new MemoryPoller());
+		Runtime runtime = Runtime.getRuntime();
+		Metrics.gauge("tectonicus_heap_used_bytes", "Heap currently in use", () -> runtime.totalMemory() - runtime.freeMemory());
+		Metrics.gauge("tectonicus_heap_peak_bytes", "Most heap in use at any one poll", this::getPeakMemory);
+		Metrics.gauge("tectonicus_heap_max_bytes", "Largest the heap may grow to", runtime::maxMemory);
+		Metrics.gauge("tectonicus_gc_collections", "Garbage collections so far, across all collectors", () -> sumCollectors(true));
+		Metrics.gauge("tectonicus_gc_seconds", "Time spent in garbage collection so far, across all collectors", () -> sumCollectors(false) / 1000.0);
+
+		memoryPollThread = new Thread(new MemoryPoller(), "Memory monitor");
 		memoryPollThread.setDaemon(true);
 		memoryPollThread.start();
 	}
-	
+
 	private synchronized void updateMaxMemory(final long currentMemoryBytes)
 	{
 		maxMemoryBytes = Math.max(maxMemoryBytes, currentMemoryBytes);
 	}
-	
+
 	public synchronized long getPeakMemory()
 	{
 		return maxMemoryBytes;
 	}
-	
+
+	public void stop()
+	{
+		memoryPollThread.interrupt();
+	}
+
+	/** @return the total collection count, or the total collection time in milliseconds */
+	private static long sumCollectors(final boolean count)
+	{
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			// Collectors which don't know report -1
+			total += Math.max(count ? gc.getCollectionCount() : gc.getCollectionTime(), 0);
+		}
+		return total;
+	}
+
 	private class MemoryPoller implements Runnable
 	{
 		@Override
 		public void run()
 		{
-			final long usedMemBytes = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-			updateMaxMemory(usedMemBytes);
-			
-			try
+			while (!Thread.currentThread().isInterrupted())
 			{
-				Thread.sleep(1000);
+				final long usedMemBytes = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+				updateMaxMemory(usedMemBytes);
+
+				try
+				{
+					Thread.sleep(POLL_INTERVAL_MILLIS);
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
 			}
-			catch (InterruptedException e) {}
 		}
 	}
 }
@@ -9,10 +9,24 @@
 
 package tectonicus;
 
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
@@ -86,6 +100,25 @@ public class PngEncoder
 	/** Constants for filter (LAST) */
 	public static final int FILTER_LAST = 2;
 
+	/** Compression level used when none is given, the same as ImageIO's png writer */
+	public static final int DEFAULT_COMPRESSION_LEVEL = 4;
+
+	/** Filtered image data is split into blocks of roughly this size which are compressed in parallel */
+	private static final int BLOCK_SIZE = 128 * 1024;
+
+	/** How much of the previous block each block is primed with, the whole of the deflate window */
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	/** Most deflaters kept for each compression level, enough for every thread of the common pool plus the caller */
+	private static final int MAX_POOLED_DEFLATERS = Runtime.getRuntime().availableProcessors() + 1;
+
+	/** Raw deflaters shared between all encoders as they're expensive to create, one pool per compression level since
+	 *  changing the level of a deflater makes its next call flush rather than compress. Deflaters that don't fit back
+	 *  in their pool are ended straight away, as the native memory they hold isn't freed until they are. */
+	private static final List<BlockingQueue<Deflater>> deflaterPools = IntStream.rangeClosed(0, 9)
+			.<BlockingQueue<Deflater>>mapToObj(level -> new ArrayBlockingQueue<>(MAX_POOLED_DEFLATERS))
+			.toList();
+
 	/** IHDR tag. */
 	protected static final byte IHDR[] = {73, 72, 68, 82};
 
@@ -110,6 +143,9 @@ public class PngEncoder
 	/** The pixel data to write */
 	protected final int[] pixels;
 
+	/** Or the pixel data as BGR or ABGR bytes, when the pixels aren't packed into ints */
+	protected byte[] bytePixels;
+
 	protected boolean encodeFlipped;
 	
 	/** The byte position. */
@@ -189,6 +225,52 @@ public class PngEncoder
 		}
 	}
 
+	/** Specifies an image held as ARGB ints (or RGB if not encoding alpha) to be encoded with {@link #write(Path)} */
+	public PngEncoder(final int width, final int height, int[] pixels, boolean encodeAlpha, int compLevel)
+	{
+		this(pixels, encodeAlpha, FILTER_NONE, compLevel);
+
+		this.width = width;
+		this.height = height;
+	}
+
+	/** Specifies an image held as ABGR bytes (or BGR if not encoding alpha) to be encoded with {@link #write(Path)} */
+	public PngEncoder(final int width, final int height, byte[] pixels, boolean encodeAlpha, int compLevel)
+	{
+		this((int[]) null, encodeAlpha, FILTER_NONE, compLevel);
+
+		this.width = width;
+		this.height = height;
+		this.bytePixels = pixels;
+	}
+
+	/** Creates an encoder which reads straight from the image's raster, or returns null if its layout isn't one we can read.
+	 *  The image is encoded with an alpha channel if and only if it has one, the same as ImageIO would.
+	 */
+	public static PngEncoder fromImage(BufferedImage image, int compLevel)
+	{
+		WritableRaster raster = image.getRaster();
+		if (raster.getParent() != null || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0)
+			return null;
+
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+
+		switch (image.getType())
+		{
+			case BufferedImage.TYPE_INT_ARGB:
+				return new PngEncoder(width, height, ((DataBufferInt) raster.getDataBuffer()).getData(), ENCODE_ALPHA, compLevel);
+			case BufferedImage.TYPE_INT_RGB:
+				return new PngEncoder(width, height, ((DataBufferInt) raster.getDataBuffer()).getData(), NO_ALPHA, compLevel);
+			case BufferedImage.TYPE_4BYTE_ABGR:
+				return new PngEncoder(width, height, ((DataBufferByte) raster.getDataBuffer()).getData(), ENCODE_ALPHA, compLevel);
+			case BufferedImage.TYPE_3BYTE_BGR:
+				return new PngEncoder(width, height, ((DataBufferByte) raster.getDataBuffer()).getData(), NO_ALPHA, compLevel);
+			default:
+				return null;
+		}
+	}
+
 	/** Set whether we should flip the image vertically while encoding the image */
 	public void setFlipped(boolean flipped)
 	{
@@ -599,6 +681,10 @@ public class PngEncoder
 			System.err.println(e.toString());
 			return false;
 		}
+		finally
+		{
+			scrunch.end();
+		}
 	}
 
 	/**
@@ -633,4 +719,275 @@ public class PngEncoder
 		}
 	}
 
+	/**
+	 * Encodes the image straight to a file, much faster than {@link #writeImage(File)}.
+	 *
+	 * Each row uses whichever filter gives the smallest sum of differences, as libpng does. The filtered rows are
+	 * then split into blocks which are deflated in parallel, each primed with the end of the block before it and
+	 * ended with a sync flush so they can be joined into a single zlib stream (the same trick pigz uses).
+	 * Every block becomes its own IDAT chunk.
+	 *
+	 * @param outFile The file to write, which is replaced if it already exists
+	 */
+	public void write(Path outFile) throws IOException
+	{
+		bytesPerPixel = encodeAlpha ? 4 : 3;
+
+		final int rowBytes = width * bytesPerPixel + 1;
+		final int rowsPerBlock = Math.max(1, BLOCK_SIZE / rowBytes);
+		final int numBlocks = (height + rowsPerBlock - 1) / rowsPerBlock;
+
+		byte[] filtered = new byte[rowBytes * height];
+		IntStream.range(0, numBlocks).parallel().forEach(block ->
+			filterRows(filtered, block * rowsPerBlock, Math.min(height, (block + 1) * rowsPerBlock)));
+
+		Adler32 adler = new Adler32();
+		adler.update(filtered);
+
+		byte[][] compressed = new byte[numBlocks][];
+		IntStream.range(0, numBlocks).parallel().forEach(block ->
+			compressed[block] = deflateBlock(filtered, block * rowsPerBlock * rowBytes,
+												Math.min(height, (block + 1) * rowsPerBlock) * rowBytes, block == numBlocks - 1));
+
+		ByteBuffer[] buffers = new ByteBuffer[numBlocks + 2];
+
+		pngBytes = new byte[64];
+		maxPos = 0;
+		bytePos = writeBytes(new byte[] {-119, 80, 78, 71, 13, 10, 26, 10}, 0);
+		writeHeader();
+		buffers[0] = ByteBuffer.wrap(pngBytes, 0, bytePos);
+
+		for (int i=0; i<numBlocks; i++)
+		{
+			byte[] zlibHeader = i == 0 ? createZlibHeader() : new byte[0];
+			byte[] zlibTrailer = i == numBlocks - 1 ? toBytes((int) adler.getValue()) : new byte[0];
+			buffers[i + 1] = createIdatChunk(zlibHeader, compressed[i], zlibTrailer);
+		}
+
+		pngBytes = new byte[12];
+		maxPos = 0;
+		bytePos = 0;
+		writeEnd();
+		buffers[numBlocks + 1] = ByteBuffer.wrap(pngBytes, 0, bytePos);
+
+		try (FileChannel channel = FileChannel.open(outFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+		{
+			while (buffers[buffers.length - 1].hasRemaining())
+				channel.write(buffers);
+		}
+		finally
+		{
+			pngBytes = null;
+		}
+	}
+
+	/** Filters rows [startRow, endRow) into their place in the output, picking the best filter for each row */
+	private void filterRows(byte[] out, final int startRow, final int endRow)
+	{
+		final int rowLength = width * bytesPerPixel;
+
+		byte[] prior = new byte[rowLength];
+		byte[] row = new byte[rowLength];
+		byte[][] candidates = new byte[5][rowLength];
+
+		if (startRow > 0)
+			getRow(startRow - 1, prior);
+
+		for (int y=startRow; y<endRow; y++)
+		{
+			getRow(y, row);
+
+			final int outPos = y * (rowLength + 1);
+			final int filterType = chooseFilter(row, prior, candidates);
+			out[outPos] = (byte) filterType;
+			System.arraycopy(candidates[filterType], 0, out, outPos + 1, rowLength);
+
+			byte[] temp = prior;
+			prior = row;
+			row = temp;
+		}
+	}
+
+	/** Unpacks one row of the image into RGB or RGBA bytes */
+	private void getRow(final int y, byte[] row)
+	{
+		final int srcY = encodeFlipped ? (height - 1) - y : y;
+
+		int pos = 0;
+		if (pixels != null)
+		{
+			final int start = srcY * width;
+			for (int x=0; x<width; x++)
+			{
+				final int pixel = pixels[start + x];
+				row[pos++] = (byte) (pixel >> 16);
+				row[pos++] = (byte) (pixel >> 8);
+				row[pos++] = (byte) pixel;
+				if (encodeAlpha)
+					row[pos++] = (byte) (pixel >>> 24);
+			}
+		}
+		else if (encodeAlpha)
+		{
+			int index = srcY * width * 4;
+			for (int x=0; x<width; x++, index += 4)
+			{
+				row[pos++] = bytePixels[index + 3];
+				row[pos++] = bytePixels[index + 2];
+				row[pos++] = bytePixels[index + 1];
+				row[pos++] = bytePixels[index];
+			}
+		}
+		else
+		{
+			int index = srcY * width * 3;
+			for (int x=0; x<width; x++, index += 3)
+			{
+				row[pos++] = bytePixels[index + 2];
+				row[pos++] = bytePixels[index + 1];
+				row[pos++] = bytePixels[index];
+			}
+		}
+	}
+
+	/** Applies each of the five png filters to the row, and returns the one with the smallest sum of absolute differences */
+	private int chooseFilter(byte[] row, byte[] prior, byte[][] candidates)
+	{
+		long bestSum = Long.MAX_VALUE;
+		int bestFilter = FILTER_NONE;
+
+		for (int filterType=0; filterType<candidates.length; filterType++)
+		{
+			byte[] out = candidates[filterType];
+			long sum = 0;
+
+			for (int i=0; i<row.length && sum < bestSum; i++)
+			{
+				final int x = row[i] & 0xff;
+				final int a = i >= bytesPerPixel ? row[i - bytesPerPixel] & 0xff : 0;
+				final int b = prior[i] & 0xff;
+				final int c = i >= bytesPerPixel ? prior[i - bytesPerPixel] & 0xff : 0;
+
+				final int predicted = switch (filterType)
+				{
+					case 0 -> 0;
+					case 1 -> a;
+					case 2 -> b;
+					case 3 -> (a + b) >> 1;
+					default -> paeth(a, b, c);
+				};
+
+				final byte value = (byte) (x - predicted);
+				out[i] = value;
+				sum += Math.abs(value);
+			}
+
+			if (sum < bestSum)
+			{
+				bestSum = sum;
+				bestFilter = filterType;
+			}
+		}
+
+		return bestFilter;
+	}
+
+	private static int paeth(final int a, final int b, final int c)
+	{
+		final int p = a + b - c;
+		final int pa = Math.abs(p - a);
+		final int pb = Math.abs(p - b);
+		final int pc = Math.abs(p - c);
+
+		if (pa <= pb && pa <= pc)
+			return a;
+		if (pb <= pc)
+			return b;
+		return c;
+	}
+
+	/** Deflates data[start, end) as raw deflate data, primed with the data just before it */
+	private byte[] deflateBlock(byte[] data, final int start, final int end, final boolean last)
+	{
+		BlockingQueue<Deflater> pool = deflaterPools.get(compressionLevel);
+		Deflater deflater = pool.poll();
+		if (deflater == null)
+			deflater = new Deflater(compressionLevel, true);
+
+		boolean reusable = false;
+		try
+		{
+			final int dictionaryStart = Math.max(0, start - DICTIONARY_SIZE);
+			if (dictionaryStart < start)
+				deflater.setDictionary(data, dictionaryStart, start - dictionaryStart);
+
+			deflater.setInput(data, start, end - start);
+			if (last)
+				deflater.finish();
+
+			byte[] out = new byte[(end - start) / 2 + 64];
+			int length = 0;
+			while (true)
+			{
+				if (length == out.length)
+					out = Arrays.copyOf(out, out.length * 2);
+
+				length += deflater.deflate(out, length, out.length - length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+
+				// A sync flush is complete once it has used all the input and left space in the output
+				if (last ? deflater.finished() : length < out.length && deflater.needsInput())
+					break;
+			}
+
+			reusable = true;
+			return Arrays.copyOf(out, length);
+		}
+		finally
+		{
+			// A deflater that failed part way through is thrown away rather than trusted with the next block
+			if (reusable)
+				deflater.reset();
+			if (!reusable || !pool.offer(deflater))
+				deflater.end();
+		}
+	}
+
+	/** How many deflaters are waiting to be reused at the given compression level */
+	static int pooledDeflaters(final int compressionLevel)
+	{
+		return deflaterPools.get(compressionLevel).size();
+	}
+
+	private byte[] createZlibHeader()
+	{
+		final int cmf = 0x78; // deflate with a 32k window
+		final int level = compressionLevel < 2 ? 0 : compressionLevel < 6 ? 1 : compressionLevel == 6 ? 2 : 3;
+		int flg = level << 6;
+		flg += 31 - ((cmf << 8) + flg) % 31;
+
+		return new byte[] { (byte) cmf, (byte) flg };
+	}
+
+	private static ByteBuffer createIdatChunk(byte[] prefix, byte[] data, byte[] suffix)
+	{
+		final int length = prefix.length + data.length + suffix.length;
+
+		ByteBuffer chunk = ByteBuffer.allocate(length + 12);
+		chunk.putInt(length);
+		chunk.put(IDAT);
+		chunk.put(prefix);
+		chunk.put(data);
+		chunk.put(suffix);
+
+		CRC32 chunkCrc = new CRC32();
+		chunkCrc.update(chunk.array(), 4, length + 4);
+		chunk.putInt((int) chunkCrc.getValue());
+
+		return chunk.flip();
+	}
+
+	private static byte[] toBytes(final int n)
+	{
+		return new byte[] { (byte) (n >> 24), (byte) (n >> 16), (byte) (n >> 8), (byte) n };
+	}
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import lombok.extern.slf4j.Slf4j;
+import tectonicus.cache.BiomeCache;
+import tectonicus.cache.RegionHashStore;
+import tectonicus.cache.RegionHashStore.ActiveRegion;
+import tectonicus.cache.RegionHashStore.RegionFingerprint;
+import tectonicus.cache.RegionRecords;
+import tectonicus.chunk.Chunk;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.configuration.Map;
+import tectonicus.raw.ChunkField;
+import tectonicus.raw.RawChunk;
+import tectonicus.world.World;
+import tectonicus.world.WorldInfo;
+import tectonicus.world.filter.BlockFilter;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static tectonicus.util.FindEntityUtil.findBeacons;
+import static tectonicus.util.FindEntityUtil.findBeds;
+import static tectonicus.util.FindEntityUtil.findChests;
+import static tectonicus.util.FindEntityUtil.findPortals;
+import static tectonicus.util.FindEntityUtil.findSigns;
+import static tectonicus.util.FindEntityUtil.findViews;
+
+/** Calculates chunk hashes and finds entities for the preprocess pass.
+ *
+ *  Work flows through three stages, each with its own thread pool: reading a region file (and checking
+ *  whether it can be reused from the hash store), inflating and parsing each chunk, then hashing the chunk
+ *  and searching it for entities. Stages are joined by bounded queues so a fast stage blocks rather than
+ *  piling up chunks in memory, and several regions are in flight at once.
+ *
+ *  Regions are always committed in the order they were submitted, on the thread which submitted them, so
+ *  the output lists and the hash store see exactly the same sequence of regions as a serial pass would.
+ */
+@Slf4j
+public class PreprocessPipeline
+{
+	private static final int STAGE_QUEUE_SIZE = 64;
+
+	/** Called in submission order once every chunk in a region has been processed */
+	public interface RegionCommitter
+	{
+		void commit(RegionRecords records);
+	}
+
+	/** Loads a single chunk, adding the blocks it contains to the given stats */
+	private interface ChunkLoader
+	{
+		Chunk load(WorldStats worldStats) throws Exception;
+	}
+
+	private final Map map;
+	private final RegionHashStore regionHashStore;
+	private final RegionCommitter committer;
+	private final BiomeCache biomeCache;
+	private final BlockFilter blockFilter;
+	private final WorldInfo worldInfo;
+
+	// MessageDigest is not thread safe, so every worker gets its own
+	private final ThreadLocal<MessageDigest> digests;
+
+	private final ThreadPoolExecutor readExecutor;
+	private final ThreadPoolExecutor parseExecutor;
+	private final ThreadPoolExecutor hashExecutor;
+
+	private final int maxRegionsInFlight;
+	private final Deque<PendingRegion> inFlight;
+
+	public PreprocessPipeline(final int numThreads, final int maxRegionsInFlight, Map map, RegionHashStore regionHashStore, MessageDigest hashAlgorithm,
+							  BiomeCache biomeCache, BlockFilter blockFilter, WorldInfo worldInfo, RegionCommitter committer)
+	{
+		this.map = map;
+		this.regionHashStore = regionHashStore;
+		this.committer = committer;
+		this.biomeCache = biomeCache;
+		this.blockFilter = blockFilter;
+		this.worldInfo = worldInfo;
+
+		this.digests = ThreadLocal.withInitial(() -> {
+			try
+			{
+				return (MessageDigest) hashAlgorithm.clone();
+			}
+			catch (CloneNotSupportedException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+
+		// Region reads are mostly disk bound, so a couple of threads is enough to keep the parsers fed
+		final int numReadThreads = Math.min(2, numThreads);
+		readExecutor = new ThreadPoolExecutor(numReadThreads, numReadThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+		parseExecutor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(STAGE_QUEUE_SIZE), new ResubmitHandler());
+		hashExecutor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(STAGE_QUEUE_SIZE), new ResubmitHandler());
+
+		this.maxRegionsInFlight = Math.max(1, maxRegionsInFlight);
+		this.inFlight = new ArrayDeque<>();
+	}
+
+	/** Queues a region file, committing earlier regions first if too many are in flight */
+	public void submitRegion(File regionFile)
+	{
+		PendingRegion pending = beginRegion();
+		readExecutor.execute(() -> readRegion(regionFile, pending));
+	}
+
+	/** Queues a group of alpha chunks which all fall within the same region */
+	public void submitAlphaRegion(RegionCoord regionCoord, List<ChunkCoord> chunkCoords, World world)
+	{
+		PendingRegion pending = beginRegion();
+		readExecutor.execute(() -> {
+			try
+			{
+				pending.active = regionHashStore.startRegion(regionCoord);
+				for (ChunkCoord coord : chunkCoords)
+					queueChunk(pending, coord, stats -> world.loadChunk(coord, stats));
+			}
+			catch (Exception e)
+			{
+				log.error("Exception: ", e);
+			}
+			finally
+			{
+				pending.release();
+			}
+		});
+	}
+
+	/** Waits for every queued region to be processed and committed, then shuts down the worker threads */
+	public void finish()
+	{
+		while (!inFlight.isEmpty())
+			commitOldest();
+
+		shutdown(readExecutor);
+		shutdown(parseExecutor);
+		shutdown(hashExecutor);
+	}
+
+	private PendingRegion beginRegion()
+	{
+		// Commit anything which has already finished, then wait for room if there are still too many regions in flight
+		while (!inFlight.isEmpty() && inFlight.peekFirst().isDone())
+			commitOldest();
+		while (inFlight.size() >= maxRegionsInFlight)
+			commitOldest();
+
+		PendingRegion pending = new PendingRegion();
+		inFlight.addLast(pending);
+		return pending;
+	}
+
+	private void commitOldest()
+	{
+		PendingRegion pending = inFlight.pollFirst();
+		try
+		{
+			pending.done.await();
+		}
+		catch (InterruptedException e)
+		{
+			log.error("Exception: ", e);
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		if (pending.reusedRecords != null)
+		{
+			committer.commit(pending.reusedRecords);
+		}
+		else if (pending.active != null)
+		{
+			committer.commit(pending.active.getRecords());
+			regionHashStore.endRegion(pending.active);
+		}
+	}
+
+	private void readRegion(File regionFile, PendingRegion pending)
+	{
+		try
+		{
+			RegionCoord regionCoord = Region.extractRegionCoord(regionFile);
+			RegionFingerprint fingerprint = regionCoord != null ? RegionHashStore.fingerprint(regionFile, digests.get()) : null;
+
+			// Unchanged since the last run? Then we can use the stored hashes and records as-is
+			RegionRecords records = regionHashStore.findUnchangedRegion(regionCoord, fingerprint);
+			if (records != null)
+			{
+				pending.reusedRecords = records;
+				return;
+			}
+
+			Region region = new Region(regionFile);
+			pending.active = regionHashStore.startRegion(region.getRegionCoord(), fingerprint);
+
+			for (ChunkCoord coord : region.getContainedChunkCoords())
+				queueChunk(pending, coord, stats -> region.loadChunk(coord, biomeCache, blockFilter, stats, worldInfo, ChunkField.PREPROCESS));
+		}
+		catch (Exception e)
+		{
+			log.error("Exception: ", e);
+		}
+		finally
+		{
+			pending.release();
+		}
+	}
+
+	private void queueChunk(PendingRegion pending, ChunkCoord coord, ChunkLoader loader)
+	{
+		pending.remaining.incrementAndGet();
+		parseExecutor.execute(() -> parseChunk(pending, coord, loader));
+	}
+
+	private void parseChunk(PendingRegion pending, ChunkCoord coord, ChunkLoader loader)
+	{
+		boolean queued = false;
+		try
+		{
+			WorldStats chunkStats = new WorldStats();
+			Chunk chunk = loader.load(chunkStats);
+
+			final boolean isFullChunk = chunk != null && chunk.getRawChunk() != null && chunk.getRawChunk().isFullChunk();
+			if (isFullChunk)
+				chunkStats.incNumChunks();
+
+			WorldStats regionStats = pending.active.getRecords().getWorldStats();
+			synchronized (regionStats)
+			{
+				regionStats.add(chunkStats);
+			}
+
+			if (isFullChunk)
+			{
+				hashExecutor.execute(() -> hashChunk(pending, chunk));
+				queued = true;
+			}
+		}
+		catch (Exception e)
+		{
+			// Log it and skip the chunk
+			log.error(String.format("Chunk %1$d,%2$d is probably corrupted.", coord.x, coord.z), e);
+		}
+		finally
+		{
+			if (!queued)
+				pending.release();
+		}
+	}
+
+	private void hashChunk(PendingRegion pending, Chunk chunk)
+	{
+		try
+		{
+			chunk.calculateHash(digests.get());
+			pending.active.addHash(chunk.getCoord(), chunk.getHash());
+
+			RegionRecords records = pending.active.getRecords();
+			RawChunk rawChunk = chunk.getRawChunk();
+
+			findSigns(rawChunk, records.getSigns(), map.getSignFilter());
+			findPortals(rawChunk, records.getPortals(), map.getPortalFilter());
+			findBeds(rawChunk, records.getBeds());
+			findViews(rawChunk, records.getViews(), map.getViewFilter());
+			findChests(rawChunk, map.getChestFilter(), records.getChests());
+			findBeacons(rawChunk, records.getBeacons(), map.getBeaconFilter());
+		}
+		catch (Exception e)
+		{
+			log.error("Exception: ", e);
+		}
+		finally
+		{
+			pending.release();
+		}
+	}
+
+	private static void shutdown(ThreadPoolExecutor executor)
+	{
+		try
+		{
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.DAYS);
+		}
+		catch (InterruptedException e)
+		{
+			log.error("Exception: ", e);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class PendingRegion
+	{
+		/** Outstanding chunks, plus one held by the read stage until every chunk has been queued */
+		private final AtomicInteger remaining = new AtomicInteger(1);
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile ActiveRegion active;
+		private volatile RegionRecords reusedRecords;
+
+		void release()
+		{
+			if (remaining.decrementAndGet() == 0)
+				done.countDown();
+		}
+
+		boolean isDone()
+		{
+			return done.getCount() == 0;
+		}
+	}
+
+	private static class ResubmitHandler implements RejectedExecutionHandler
+	{
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor)
+		{
+			try
+			{
+				executor.getQueue().put(r);
+			}
+			catch (Exception e)
+			{
+				log.error("Exception: ", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
+import tectonicus.cache.NullBiomeCache;
+import tectonicus.cache.PlayerSkinCache;
+import tectonicus.chunk.Chunk;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.chunk.ChunkData;
+import tectonicus.configuration.Configuration;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.configuration.Layer;
+import tectonicus.rasteriser.Rasteriser;
+import tectonicus.rasteriser.RasteriserFactory;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+import tectonicus.raw.RawChunk;
+import tectonicus.renderer.OrthoCamera;
+import tectonicus.util.FileUtils;
+import tectonicus.world.World;
+import tectonicus.world.subset.RegionIterator;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** Times each stage of rendering a map on its own, on a sample of the world, so the effect of new hardware or a config
+ *  change can be measured without a whole render. Uses the first layer of the first map.
+ *
+ *  Each stage is warmed up and then run over its sample again and again for a fixed time, recording the latency of every
+ *  operation and the bytes allocated by the profiling thread. Work a stage hands to other threads, such as building
+ *  geometry for drawing, isn't counted in its allocations. Results are logged and written to {@value #RESULTS_FILE}
+ *  in the metrics dir.
+ */
+@Slf4j
+public class Profiler {
+	public static final String RESULTS_FILE = "profile.json";
+
+	private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(5);
+	private static final long MEASUREMENT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	/** Height at which chunks are projected to pick the sample tiles */
+	private static final float SEA_LEVEL = 64;
+
+	private final Configuration config;
+	private final MessageDigest hashAlgorithm;
+
+	private final int tileWidth;
+	private final int tileHeight;
+
+	/** Null if the JVM can't count the bytes allocated by a thread */
+	private final com.sun.management.ThreadMXBean allocationCounter;
+
+	public Profiler(Configuration config, MessageDigest hashAlgorithm) {
+		this.config = config;
+		this.hashAlgorithm = hashAlgorithm;
+
+		this.tileWidth = config.getTileSize();
+		this.tileHeight = config.getTileSize();
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean counter && counter.isThreadAllocatedMemorySupported()) {
+			counter.setThreadAllocatedMemoryEnabled(true);
+			allocationCounter = counter;
+		} else {
+			log.warn("This JVM can't measure allocation rates");
+			allocationCounter = null;
+		}
+	}
+
+	public List<StageResult> run() throws Exception {
+		tectonicus.configuration.Map map = config.getMap(0);
+		Layer layer = map.getLayer(0);
+		final ImageFormat imageFormat = layer.getImageFormat();
+
+		File scratchDir = new File(config.getCacheDir(), "profile");
+		FileUtils.deleteDirectory(scratchDir);
+		FileUtils.ensureExists(scratchDir);
+
+		Recording recording = startRecording();
+
+		DisplayType type = config.isUseEGL() ? DisplayType.OFFSCREEN_EGL : DisplayType.OFFSCREEN;
+		Rasteriser rasteriser = RasteriserFactory.createRasteriser(config.getRasteriserType(), type, 2048, 2048, config.getColourDepth(), config.getAlphaBits(), 24, config.getNumSamples());
+		if (rasteriser == null)
+			throw new RuntimeException("Could not create drawing surface");
+
+		PlayerSkinCache skinCache = new PlayerSkinCache(config, hashAlgorithm);
+		try {
+			World world = new World(rasteriser, map, new NullBiomeCache(), skinCache, config);
+			TileRenderer.setupWorldForLayer(layer, world);
+
+			if (world.isAlphaWorld()) {
+				log.warn("Profiling worlds from before region files isn't supported");
+				return List.of();
+			}
+
+			List<File> regionFiles = findRegionFiles(world, config.getProfileRegions());
+			if (regionFiles.isEmpty()) {
+				log.warn("No regions found to profile in {}", world.getWorldDir().getAbsolutePath());
+				return List.of();
+			}
+
+			List<StageResult> results = new ArrayList<>();
+
+			// Chunk stages
+			results.add(measure("region read", "regions", regionFiles.size(), i -> {
+				Region region = new Region(regionFiles.get(i));
+				for (ChunkCoord coord : region.getContainedChunkCoords())
+					region.getChunkData(coord);
+			}));
+
+			List<ChunkData> chunkData = new ArrayList<>();
+			List<Chunk> chunks = new ArrayList<>();
+			for (File regionFile : regionFiles) {
+				Region region = new Region(regionFile);
+				for (ChunkCoord coord : region.getContainedChunkCoords()) {
+					ChunkData data = region.getChunkData(coord);
+					Chunk chunk = world.loadChunk(coord, null);
+					if (data != null && chunk != null) {
+						chunkData.add(data);
+						chunks.add(chunk);
+					}
+				}
+			}
+			if (chunks.isEmpty()) {
+				log.warn("No chunks found to profile in {}", regionFiles);
+				return List.of();
+			}
+
+			results.add(measure("nbt parse", "chunks", chunkData.size(), i -> new RawChunk(chunkData.get(i), null, world.getWorldInfo())));
+			results.add(measure("hash", "chunks", chunks.size(), i -> chunks.get(i).getRawChunk().calculateHash(hashAlgorithm)));
+			results.add(measure("mask", "chunks", chunks.size(), i -> {
+				Chunk chunk = chunks.get(i);
+				world.getBlockMaskFactory().createMask(chunk.getCoord(), chunk.getRawChunk());
+			}));
+			results.add(measure("geometry build", "chunks", chunks.size(), i -> {
+				chunks.get(i).createGeometryData(world, world.getBlockTypeRegistry(), world.getModelRegistry(), world.getBlockMaskFactory());
+			}));
+
+			// Tile stages
+			final int zoom = map.getClosestZoomSize();
+			OrthoCamera camera = new OrthoCamera(rasteriser, tileWidth, tileHeight);
+			camera.lookAt(0, 0, 0, zoom, map.getCameraAngleRad(), map.getCameraElevationRad());
+			camera.apply();
+			TileRenderer.setupCameraForTile(camera, new TileCoord(0, 0), tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), zoom);
+			List<TileCoord> tiles = findSampleTiles(camera, chunks, config.getProfileTiles());
+
+			results.add(measure("draw", "tiles", tiles.size(), i -> {
+				TileRenderer.setupCameraForTile(camera, tiles.get(i), tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), zoom);
+				rasteriser.resetState();
+				rasteriser.clear(layer.getBackgroundColorRGB());
+				world.draw(camera, false, true);
+
+				// Reading back a single pixel waits for the GPU to finish, so its share of the drawing is counted here
+				rasteriser.takeScreenshot(0, 0, 1, 1, imageFormat);
+			}));
+
+			List<BufferedImage> images = new ArrayList<>();
+			for (TileCoord tile : tiles) {
+				TileRenderer.setupCameraForTile(camera, tile, tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), zoom);
+				rasteriser.resetState();
+				rasteriser.clear(layer.getBackgroundColorRGB());
+				world.draw(camera, false, true);
+				images.add(rasteriser.takeScreenshot(0, 0, tileWidth, tileHeight, imageFormat));
+			}
+
+			results.add(measure("readback", "tiles", tiles.size(), i -> rasteriser.takeScreenshot(0, 0, tileWidth, tileHeight, imageFormat)));
+			results.add(measure("encode", "tiles", images.size(), i -> {
+				TileCoord tile = tiles.get(i);
+				Screenshot.write(TileRenderer.getImageFile(scratchDir, tile.x, tile.y, imageFormat), images.get(i), imageFormat, layer.getImageCompressionLevel(), layer.getPngCompressionLevel());
+			}));
+
+			List<int[]> pixels = new ArrayList<>();
+			for (BufferedImage image : images)
+				pixels.add(image.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth));
+			final int fill = imageFormat.hasAlpha() ? 0 : layer.getBackgroundColorRGB().getRGB();
+
+			results.add(measure("downsample", "tiles", pixels.size(), i -> {
+				int[] out = new int[tileWidth * tileHeight];
+				Downsampler.downsampleQuadrant(pixels.get(i), out, tileWidth, tileHeight, 0, 0, fill);
+				Downsampler.downsampleQuadrant(pixels.get((i + 1) % pixels.size()), out, tileWidth, tileHeight, tileWidth / 2, 0, fill);
+				Downsampler.downsampleQuadrant(pixels.get((i + 2) % pixels.size()), out, tileWidth, tileHeight, 0, tileHeight / 2, fill);
+				Downsampler.downsampleQuadrant(pixels.get((i + 3) % pixels.size()), out, tileWidth, tileHeight, tileWidth / 2, tileHeight / 2, fill);
+			}));
+
+			logResults(results);
+			writeResults(results, regionFiles.size(), chunks.size(), tiles.size());
+
+			return results;
+		} finally {
+			rasteriser.destroy();
+			skinCache.destroy();
+			stopRecording(recording);
+			FileUtils.deleteDirectory(scratchDir);
+		}
+	}
+
+	private static List<File> findRegionFiles(World world, final int maxRegions) {
+		List<File> result = new ArrayList<>();
+
+		RegionIterator it = world.createRegionIterator();
+		while (it.hasNext() && result.size() < maxRegions) {
+			File regionFile = it.next();
+			if (regionFile != null && regionFile.length() > 0)
+				result.add(regionFile);
+		}
+
+		return result;
+	}
+
+	/** Picks tiles spread over the area covered by the chunks, rather than the tiles along one edge */
+	private List<TileCoord> findSampleTiles(OrthoCamera camera, List<Chunk> chunks, final int maxTiles) {
+		Set<TileCoord> found = new LinkedHashSet<>();
+		for (Chunk chunk : chunks) {
+			ChunkCoord coord = chunk.getCoord();
+			Point screenPos = camera.project(new Vector3f((coord.x + 0.5f) * RawChunk.WIDTH, SEA_LEVEL, (coord.z + 0.5f) * RawChunk.DEPTH));
+			found.add(new TileCoord(Math.floorDiv(screenPos.x, tileWidth), Math.floorDiv(screenPos.y, tileHeight)));
+		}
+
+		List<TileCoord> all = new ArrayList<>(found);
+		List<TileCoord> result = new ArrayList<>();
+		final double step = Math.max(1.0, all.size() / (double) maxTiles);
+		for (double i = 0; i < all.size() && result.size() < maxTiles; i += step)
+			result.add(all.get((int) i));
+
+		return result;
+	}
+
+	/** Runs an operation over its sample, in order and round again, first to warm up and then while timing it */
+	private StageResult measure(String stage, String unit, final int sampleSize, Operation operation) throws Exception {
+		log.info("Profiling {} with {} {}", stage, sampleSize, unit);
+
+		int next = 0;
+		int numWarmup = 0;
+		final long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+		while (numWarmup < sampleSize || System.nanoTime() < warmupEnd) {
+			operation.run(next);
+			next = (next + 1) % sampleSize;
+			numWarmup++;
+		}
+
+		// Sized from the warm up so that growing it doesn't usually count towards the stage's allocations
+		long[] latencies = new long[Math.max(sampleSize, (int) Math.min(Integer.MAX_VALUE / 2, numWarmup * (MEASUREMENT_NANOS / (double) WARMUP_NANOS) * 1.5))];
+		int count = 0;
+
+		final long allocatedBefore = getAllocatedBytes();
+		final long start = System.nanoTime();
+		long now = start;
+		while (count < sampleSize || now - start < MEASUREMENT_NANOS) {
+			operation.run(next);
+			next = (next + 1) % sampleSize;
+
+			final long end = System.nanoTime();
+			if (count == latencies.length)
+				latencies = Arrays.copyOf(latencies, count * 2);
+			latencies[count++] = end - now;
+			now = end;
+		}
+		final long allocated = allocationCounter != null ? getAllocatedBytes() - allocatedBefore : -1;
+
+		return StageResult.of(stage, unit, Arrays.copyOf(latencies, count), now - start, allocated);
+	}
+
+	private long getAllocatedBytes() {
+		return allocationCounter != null ? allocationCounter.getCurrentThreadAllocatedBytes() : 0;
+	}
+
+	private static void logResults(List<StageResult> results) {
+		log.info(String.format("%-16s %10s %12s %10s %10s %12s %12s", "Stage", "Ops", "Ops/s", "p50 ms", "p99 ms", "Alloc MB/s", "Alloc KB/op"));
+		for (StageResult result : results) {
+			log.info(String.format("%-16s %10d %12.1f %10.3f %10.3f %12.1f %12.1f", result.stage(), result.operations(), result.throughput(),
+					result.p50Nanos() / 1e6, result.p99Nanos() / 1e6, result.allocationRate() / (1024 * 1024), result.allocatedBytesPerOperation() / 1024));
+		}
+	}
+
+	private void writeResults(List<StageResult> results, final int numRegions, final int numChunks, final int numTiles) {
+		File dir = config.getMetricsDir() != null ? config.getMetricsDir() : config.getCacheDir();
+		FileUtils.ensureExists(dir);
+		File file = new File(dir, RESULTS_FILE);
+
+		Map<String, Object> settings = new LinkedHashMap<>();
+		settings.put("worldDir", config.getMap(0).getWorldDir().getAbsolutePath());
+		settings.put("rasteriser", config.getRasteriserType().toString());
+		settings.put("tileSize", config.getTileSize());
+		settings.put("imageFormat", config.getMap(0).getLayer(0).getImageFormat().toString());
+		settings.put("regions", numRegions);
+		settings.put("chunks", numChunks);
+		settings.put("tiles", numTiles);
+		settings.put("processors", Runtime.getRuntime().availableProcessors());
+		settings.put("maxMemory", Runtime.getRuntime().maxMemory());
+		settings.put("javaVersion", System.getProperty("java.version"));
+
+		Map<String, Object> stages = new LinkedHashMap<>();
+		for (StageResult result : results) {
+			Map<String, Object> stage = new LinkedHashMap<>();
+			stage.put("unit", result.unit());
+			stage.put("operations", result.operations());
+			stage.put("seconds", result.elapsedNanos() / 1e9);
+			stage.put("perSecond", result.throughput());
+			stage.put("p50Millis", result.p50Nanos() / 1e6);
+			stage.put("p99Millis", result.p99Nanos() / 1e6);
+			stage.put("allocatedBytesPerSecond", result.allocatedBytes() >= 0 ? result.allocationRate() : null);
+			stage.put("allocatedBytesPerOperation", result.allocatedBytes() >= 0 ? result.allocatedBytesPerOperation() : null);
+			stages.put(result.stage(), stage);
+		}
+
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("settings", settings);
+		json.put("stages", stages);
+
+		log.info("Writing profile results to {}", file.getAbsolutePath());
+		try {
+			FileUtils.getOBJECT_MAPPER().writerWithDefaultPrettyPrinter().writeValue(file, json);
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+		}
+	}
+
+	private Recording startRecording() throws Exception {
+		File file = config.getProfileRecording();
+		if (file == null)
+			return null;
+
+		FileUtils.ensureExists(file.getAbsoluteFile().getParentFile());
+
+		Recording recording = new Recording(jdk.jfr.Configuration.getConfiguration("profile"));
+		recording.setName("Tectonicus profile");
+		recording.setDestination(file.toPath());
+		recording.start();
+
+		log.info("Recording to {}", file.getAbsolutePath());
+		return recording;
+	}
+
+	private static void stopRecording(Recording recording) {
+		if (recording == null)
+			return;
+
+		try {
+			// Writes the recording to its destination
+			recording.stop();
+		} catch (IllegalStateException e) {
+			log.error("Exception: ", e);
+		} finally {
+			recording.close();
+		}
+	}
+
+	private interface Operation {
+		/** @param index which item of the stage's sample to work on */
+		void run(int index) throws Exception;
+	}
+
+	/** Timings of a stage. Latencies are in nanoseconds, and allocatedBytes is -1 if allocations couldn't be measured. */
+	public record StageResult(String stage, String unit, int operations, long elapsedNanos, long p50Nanos, long p99Nanos, long allocatedBytes) {
+		static StageResult of(String stage, String unit, long[] latencies, final long elapsedNanos, final long allocatedBytes) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			return new StageResult(stage, unit, sorted.length, elapsedNanos, percentile(sorted, 50), percentile(sorted, 99), allocatedBytes);
+		}
+
+		/** @return the nearest rank percentile of values which are already sorted */
+		static long percentile(long[] sorted, final double percent) {
+			if (sorted.length == 0)
+				return 0;
+
+			final int rank = (int) Math.ceil(percent / 100 * sorted.length);
+			return sorted[Math.max(rank, 1) - 1];
+		}
+
+		/** @return operations per second */
+		public double throughput() {
+			return operations / (elapsedNanos / 1e9);
+		}
+
+		/** @return bytes allocated per second by the profiling thread, or NaN if unknown */
+		public double allocationRate() {
+			return allocatedBytes >= 0 ? allocatedBytes / (elapsedNanos / 1e9) : Double.NaN;
+		}
+
+		public double allocatedBytesPerOperation() {
+			return allocatedBytes >= 0 && operations > 0 ? allocatedBytes / (double) operations : Double.NaN;
+		}
+	}
+}
@@ -19,18 +19,20 @@ import tectonicus.chunk.ChunkCoord;
 import tectonicus.chunk.ChunkData;
 import tectonicus.exceptions.RegionProcessingException;
 import tectonicus.exceptions.UnknownCompressionTypeException;
+import tectonicus.raw.ChunkField;
 import tectonicus.world.WorldInfo;
 import tectonicus.world.filter.BlockFilter;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class Region {
@@ -45,21 +47,28 @@ public class Region {
 	private static final long MAX_SECTORS = MAX_CHUNKS * MAX_SECTORS_PER_CHUNK + 2; // +2 for header
 	private static final long MAX_SIZE_BYTES = MAX_SECTORS * SECTOR_SIZE_BYTES;
 
+	private static final int HEADER_SIZE_BYTES = 1024 * 4;
+
 	private final long actualFileSizeBytes;
-	private long entityFileSizeBytes;
 
 	@Getter
 	private final RegionCoord regionCoord;
 
 	@Getter
 	private final File regionFile;
-	@Getter
-	private File entityRegionFile;
-	private final byte[] bytes;
-	private byte[] entityBytes;
 
 	private final ChunkInfo[] info;
 
+	/** The region file, mapped on the first chunk load. Chunk data is handed out as slices of this buffer. */
+	private ByteBuffer regionBuffer;
+
+	/** Entity data is only looked for when the first chunk is loaded */
+	private boolean entitiesOpened;
+	private File entityRegionFile;
+	private long entityFileSizeBytes;
+	private ByteBuffer entityBuffer;
+
+	/** Reads just the chunk location header; chunk data is mapped in when it is first needed */
 	public Region(File regionFile) throws RegionProcessingException, IOException {
 		this.regionFile = regionFile;
 
@@ -72,47 +81,81 @@ public class Region {
 			info[i] = new ChunkInfo();
 
 		actualFileSizeBytes = regionFile.length();
-		bytes = loadRegionFile(regionFile, false);
+		readHeader(regionFile, false);
+	}
+
+	public synchronized File getEntityRegionFile() {
+		openEntities();
+		return entityRegionFile;
+	}
 
-		Path entityFile = regionFile.toPath().getParent().getParent().resolve("entities/" + regionFile.getName());
-		if (Files.exists(entityFile) && Files.size(entityFile) > 0) {
-			this.entityRegionFile = entityFile.toFile();
-			entityFileSizeBytes = Files.size(entityFile);
-			entityBytes = loadRegionFile(entityFile.toFile(), true);
+	private void readHeader(File file, boolean isEntityFile) throws RegionProcessingException, IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE_BYTES);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// Read chunk locations
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, buffer.position()) == -1)
+					throw new RegionProcessingException(String.format("Failed to read chunk locations for region file %s", file.getAbsolutePath()));
+			}
+		}
+		buffer.flip();
+
+		// Parse chunk locations
+		for (ChunkInfo chunkInfo : info) {
+			final int val = buffer.getInt();
+			final int offset = ((val >> 8) & 0xFFFFFF);
+			final int numSectors = val & 0xFF;
+
+			assert (offset < MAX_SECTORS);
+
+			if (isEntityFile) {
+				chunkInfo.setEntitySectorOffset(offset);
+				chunkInfo.setEntityNumSectors(numSectors);
+			} else {
+				chunkInfo.setSectorOffset(offset);
+				chunkInfo.setNumSectors(numSectors);
+			}
 		}
 	}
 
-	private byte[] loadRegionFile(File regionFile, boolean isEntityFile) throws RegionProcessingException, IOException {
-		try (RandomAccessFile file = new RandomAccessFile(regionFile, "r")) {
-			ByteBuffer buffer = ByteBuffer.allocate(1024 * 4);
+	private static ByteBuffer map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// The mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
 
-			// Read chunk locations
-			if (!read(file, buffer))
-				throw new RegionProcessingException(String.format("Failed to read chunk locations for region file %s", regionFile.getAbsolutePath()));
+	private synchronized ByteBuffer getRegionBuffer() throws IOException {
+		if (regionBuffer == null)
+			regionBuffer = map(regionFile);
+		return regionBuffer;
+	}
 
-			buffer.rewind();
+	private synchronized ByteBuffer getEntityBuffer() {
+		openEntities();
+		return entityBuffer;
+	}
+
+	private void openEntities() {
+		if (entitiesOpened)
+			return;
+		entitiesOpened = true;
 
-			// Parse chunk locations
+		try {
+			Path entityFile = regionFile.toPath().getParent().getParent().resolve("entities/" + regionFile.getName());
+			if (Files.exists(entityFile) && Files.size(entityFile) > 0) {
+				File file = entityFile.toFile();
+				readHeader(file, true);
+				entityFileSizeBytes = Files.size(entityFile);
+				entityBuffer = map(file);
+				entityRegionFile = file;
+			}
+		} catch (Exception e) {
+			log.error("Unable to open entities for region {}", regionFile.getAbsolutePath(), e);
 			for (ChunkInfo chunkInfo : info) {
-				final int val = buffer.getInt();
-				final int offset = ((val >> 8) & 0xFFFFFF);
-				final int numSectors = val & 0xFF;
-
-				assert (offset < MAX_SECTORS);
-
-				if (isEntityFile) {
-					chunkInfo.setEntitySectorOffset(offset);
-					chunkInfo.setEntityNumSectors(numSectors);
-				} else {
-					chunkInfo.setSectorOffset(offset);
-					chunkInfo.setNumSectors(numSectors);
-				}
+				chunkInfo.setEntitySectorOffset(0);
+				chunkInfo.setEntityNumSectors(0);
 			}
-
-			byte[] regionBytes = new byte[(int) file.length()];
-			file.seek(0);
-			read(file, regionBytes);
-			return regionBytes;
 		}
 	}
 
@@ -167,36 +210,6 @@ public class Region {
 		return (int) ((chunkX & 31) + (chunkZ & 31) * 32);
 	}
 
-	private static boolean read(RandomAccessFile file, ByteBuffer buffer) throws IOException {
-		int res;
-		do {
-			res = file.getChannel().read(buffer);
-		}
-		while (res != -1 && buffer.hasRemaining());
-		return res != -1;
-	}
-
-	private static void read(RandomAccessFile file, byte[] dest) throws IOException {
-		int position = 0;
-		ByteBuffer buffer = ByteBuffer.allocate(1024 * 4);
-		int res;
-
-		while (true) {
-			buffer.clear();
-			res = file.getChannel().read(buffer);
-			if (res == -1)
-				break;
-
-			for (int i = 0; i < res; i++) {
-				dest[position + i] = buffer.get(i);
-			}
-
-			position += res;
-			if (position >= dest.length)
-				break;
-		}
-	}
-
 	public static RegionCoord extractRegionCoord(File file) {
 		RegionCoord coord = null;
 
@@ -250,19 +263,31 @@ public class Region {
 	}
 
 	public Chunk loadChunk(ChunkCoord chunkCoord, BiomeCache biomeCache, BlockFilter filter, WorldStats worldStats, WorldInfo worldInfo) {
+		return loadChunk(chunkCoord, biomeCache, filter, worldStats, worldInfo, ChunkField.ALL);
+	}
+
+	/** Loads a chunk with only the given optional parts. Entities live in a separate file from 1.17, which is not touched unless they are wanted. */
+	public Chunk loadChunk(ChunkCoord chunkCoord, BiomeCache biomeCache, BlockFilter filter, WorldStats worldStats, WorldInfo worldInfo, Set<ChunkField> fields) {
 		if (!containsChunk(chunkCoord))
 			return null;
 
 		ChunkInfo chunkInfo = info[getHeaderOffsetForChunk(chunkCoord)];
 		final int sectorOffset = chunkInfo.getSectorOffset();
 		assert (sectorOffset >= 2); // First two sectors are the header info
-		final int entitySectorOffset = chunkInfo.getEntitySectorOffset();
 
 		Chunk chunk = new Chunk(chunkCoord, biomeCache);
-		ChunkData chunkData = getChunkData(sectorOffset, actualFileSizeBytes, bytes);
-		ChunkData entityChunkData;
-		if (entitySectorOffset > 0) {
-			entityChunkData = getChunkData(entitySectorOffset, entityFileSizeBytes, entityBytes);
+		ChunkData chunkData;
+		try {
+			chunkData = getChunkData(chunkCoord);
+		} catch (IOException e) {
+			log.error("Error while trying to read chunk at ({}, {}) from region {}", chunkCoord.getX(), chunkCoord.getZ(), regionFile.getAbsolutePath(), e);
+			return null;
+		}
+
+		ByteBuffer entities = fields.contains(ChunkField.ENTITIES) ? getEntityBuffer() : null;
+		final int entitySectorOffset = chunkInfo.getEntitySectorOffset();
+		if (entities != null && entitySectorOffset > 0) {
+			ChunkData entityChunkData = getChunkData(entitySectorOffset, entityFileSizeBytes, entities);
 			try {
 				chunk.loadRaw(chunkData, entityChunkData, filter, worldStats, worldInfo);
 			} catch (IOException e) {
@@ -271,24 +296,36 @@ public class Region {
 		}
 
 		try {
-			chunk.loadRaw(chunkData, filter, worldStats, worldInfo);
+			chunk.loadRaw(chunkData, filter, worldStats, worldInfo, fields);
 		} catch (IOException e) {
-			log.error("Error while trying to load chunk at ({}, {}) from region {}", chunkCoord.getX(), chunkCoord.getZ(), entityRegionFile.getAbsolutePath(), e);
+			log.error("Error while trying to load chunk at ({}, {}) from region {}", chunkCoord.getX(), chunkCoord.getZ(), regionFile.getAbsolutePath(), e);
 		}
 
 		return chunk;
 	}
 
-	private ChunkData getChunkData(int sectorOffset, long fileSizeBytes, byte[] regionBytes) {
-		final long byteOffset = sectorOffset * 4 * 1024L;
-		assert (byteOffset < fileSizeBytes);
+	/** @return the still compressed data for a chunk, or null if this region doesn't contain it */
+	public ChunkData getChunkData(ChunkCoord chunkCoord) throws IOException {
+		if (!containsChunk(chunkCoord))
+			return null;
+
+		return getChunkData(info[getHeaderOffsetForChunk(chunkCoord)].getSectorOffset(), actualFileSizeBytes, getRegionBuffer());
+	}
 
-		final int actualLengthBytes = readInt((int) byteOffset, regionBytes);
-		final int compressionByte = regionBytes[(int) (byteOffset + 4)];
-                // Length includes +1 byte (compression byte). We already read compression byte and the actual chunk data is 1 byte smaller...
-                final int chunkDataLengthBytes = actualLengthBytes - 1;
+	/** Returns a view of the compressed chunk data straight out of the mapped file, without copying it */
+	private static ChunkData getChunkData(int sectorOffset, long fileSizeBytes, ByteBuffer regionBuffer) {
+		final long byteOffset = sectorOffset * SECTOR_SIZE_BYTES;
+		if (byteOffset + 5 > fileSizeBytes)
+			throw new RuntimeException("Chunk sector offset " + sectorOffset + " is beyond the end of the region file");
+
+		final int actualLengthBytes = regionBuffer.getInt((int) byteOffset); // big endian
+		final int compressionByte = regionBuffer.get((int) (byteOffset + 4));
+		// Length includes +1 byte (compression byte). We already read compression byte and the actual chunk data is 1 byte smaller...
+		final int chunkDataLengthBytes = actualLengthBytes - 1;
 
 		assert (byteOffset + actualLengthBytes <= MAX_SIZE_BYTES);
+		if (chunkDataLengthBytes < 0 || byteOffset + 5 + chunkDataLengthBytes > fileSizeBytes)
+			throw new RuntimeException("Chunk at sector " + sectorOffset + " runs past the end of the region file");
 
 		Compression compressionType;
 		if (compressionByte == COMPRESSION_TYPE_GZIP)
@@ -298,16 +335,7 @@ public class Region {
 		else
 			throw new UnknownCompressionTypeException("Unrecognised compression type:" + compressionByte);
 
-		// Make a new byte array of the chunk data
-		byte[] chunkData = new byte[chunkDataLengthBytes];     
-                // +4 to skip chunk length, +1 to skip compression type
-                System.arraycopy(regionBytes, (int)(byteOffset + 4 + 1), chunkData, 0, chunkDataLengthBytes);
-
-		return new ChunkData(chunkData, compressionType);
+		// +4 to skip chunk length, +1 to skip compression type
+		return new ChunkData(regionBuffer.slice((int) (byteOffset + 4 + 1), chunkDataLengthBytes), compressionType);
 	}
-
-	private int readInt(final int position, byte[] regionBytes) {
-		ByteBuffer buffer = ByteBuffer.wrap(regionBytes, position, 4).order(ByteOrder.BIG_ENDIAN);
-                return buffer.getInt();
-        }
 }
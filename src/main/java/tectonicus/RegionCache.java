@@ -14,6 +14,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.chunk.ChunkLocator;
+import tectonicus.metrics.Metrics;
 
 import java.io.File;
 
@@ -52,7 +53,9 @@ public class RegionCache {
 		
 		log.info("Detected {} save format", format);
 		
-		this.cache = Caffeine.newBuilder().maximumSize(16).build();
+		this.cache = Caffeine.newBuilder().maximumSize(16).recordStats().build();
+		
+		Metrics.gauge("tectonicus_region_cache_hit_ratio", "Fraction of region file lookups found in the cache", cache, c -> c.stats().hitRate());
 	}
 	
 	public Region getRegion(RegionCoord coord)
@@ -26,6 +26,30 @@ public class Screenshot
 	
 	public static void write(File outputFile, BufferedImage img, ImageFormat imageFormat, final float compressionLevel)
 	{
+		write(outputFile, img, imageFormat, compressionLevel, PngEncoder.DEFAULT_COMPRESSION_LEVEL);
+	}
+	
+	public static void write(File outputFile, BufferedImage img, ImageFormat imageFormat, final float compressionLevel, final int pngCompressionLevel)
+	{
+		if (imageFormat == ImageFormat.PNG)
+		{
+			// Encode straight from the raster where we can, rather than going through ImageIO
+			PngEncoder encoder = PngEncoder.fromImage(img, pngCompressionLevel);
+			if (encoder != null)
+			{
+				try
+				{
+					outputFile.getParentFile().mkdirs();
+					encoder.write(outputFile.toPath());
+				}
+				catch (Exception e)
+				{
+					log.error("Exception: ", e);
+				}
+				return;
+			}
+		}
+		
 		ImageWriter writer = null;
 		FileImageOutputStream output = null;
 		try
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Splits the visible tiles of a map between the shards rendering it.
+ *
+ *  Tiles are grouped into the same squares {@link TileScheduler} renders them in, and the squares are taken in the
+ *  order it visits them: bands left to right, going alternately down and up. That walk is cut into one contiguous run
+ *  per shard with about the same number of tiles in each, so every shard renders a compact part of the map and
+ *  neighbouring tiles mostly end up in the same shard, where they share loaded chunks.
+ *
+ *  Every process works the plan out from the same visible tiles, so they agree on it without talking to each other.
+ */
+public class ShardPlan {
+	private final int squareShift;
+
+	/** Shard of each square, keyed by {@link HddTileList#toKey} of the band and the square along it */
+	private final Map<Long, Integer> squareShards = new HashMap<>();
+
+	private final int[] numTiles;
+
+	public ShardPlan(Iterable<TileCoord> visibleTiles, final int bandWidth, final int numShards) {
+		this.squareShift = Integer.numberOfTrailingZeros(TileScheduler.roundBandWidth(bandWidth));
+		this.numTiles = new int[numShards];
+
+		// Band and square keys sort by band and then down the band
+		TreeMap<Long, Integer> squareSizes = new TreeMap<>();
+		long total = 0;
+		for (TileCoord tile : visibleTiles) {
+			squareSizes.merge(HddTileList.toKey(tile.x >> squareShift, tile.y >> squareShift), 1, Integer::sum);
+			total++;
+		}
+
+		long before = 0;
+		for (long squareKey : walk(squareSizes)) {
+			final int size = squareSizes.get(squareKey);
+
+			// Give each square to the shard its middle falls in
+			final int shard = (int) Math.min(numShards - 1, (2 * before + size) * numShards / (2 * total));
+			squareShards.put(squareKey, shard);
+			numTiles[shard] += size;
+			before += size;
+		}
+	}
+
+	/** @return the shard rendering a tile, or -1 if the tile isn't visible */
+	public int getShard(final int x, final int y) {
+		return squareShards.getOrDefault(HddTileList.toKey(x >> squareShift, y >> squareShift), -1);
+	}
+
+	public int getShard(final long tileKey) {
+		TileCoord tile = HddTileList.fromKey(tileKey);
+		return getShard(tile.x, tile.y);
+	}
+
+	/** @return the number of visible tiles a shard renders */
+	public int getNumTiles(final int shard) {
+		return numTiles[shard];
+	}
+
+	/** @return the tiles in the given list which a shard renders */
+	public HddTileList filter(HddTileList tiles, final int shard, HddTileListFactory factory) {
+		HddTileList result = factory.createList();
+		for (TileCoord tile : tiles) {
+			if (getShard(tile.x, tile.y) == shard)
+				result.add(tile);
+		}
+		return result;
+	}
+
+	/** Orders squares the way the scheduler visits them, reversing every other band */
+	private static List<Long> walk(TreeMap<Long, Integer> squareSizes) {
+		List<Long> result = new ArrayList<>(squareSizes.size());
+		List<Long> band = new ArrayList<>();
+		int bandIndex = 0;
+		int numBands = 0;
+		for (long squareKey : squareSizes.keySet()) {
+			final int squareBand = HddTileList.fromKey(squareKey).x;
+			if (!band.isEmpty() && squareBand != bandIndex) {
+				addBand(result, band, (numBands++ & 1) == 1);
+				band.clear();
+			}
+			bandIndex = squareBand;
+			band.add(squareKey);
+		}
+		if (!band.isEmpty())
+			addBand(result, band, (numBands & 1) == 1);
+
+		return result;
+	}
+
+	private static void addBand(List<Long> result, List<Long> band, final boolean reversed) {
+		for (int i = 0; i < band.size(); i++)
+			result.add(band.get(reversed ? band.size() - 1 - i : i));
+	}
+}
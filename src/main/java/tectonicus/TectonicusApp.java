@@ -24,6 +24,7 @@ import tectonicus.configuration.Layer;
 import tectonicus.configuration.MutableConfiguration;
 import tectonicus.configuration.MutableLayer;
 import tectonicus.configuration.MutableMap;
+import tectonicus.configuration.Shard;
 import tectonicus.configuration.XmlConfigurationParser;
 import tectonicus.gui.Gui;
 import tectonicus.raw.Player;
@@ -112,17 +113,44 @@ public class TectonicusApp
 			}
 			else if (config.getMode() == Mode.CMD)
 			{
-				// Do this first before we attempt to load any caches
-				if (config.eraseOutputDir())
+				// Shards find their changed tiles and the coordinator merges their work through the tile caches
+				if ((config.getShard() != null || config.getMergeShards() > 0) && !config.useCache())
+					throw new IllegalArgumentException("Rendering in shards needs useCache to be turned on");
+				if (config.getShard() != null && config.getMergeShards() > 0)
+					throw new IllegalArgumentException("A shard can't also merge shards, run mergeShards once all of the shards have finished");
+				// The checkpoint only lists which tiles were written, their hashes are in the tile cache
+				if (config.isResume() && !config.useCache())
+					throw new IllegalArgumentException("Resuming a render needs useCache to be turned on");
+				
+				if (config.getShard() != null)
 				{
-					log.info("Deleting output dir: {}", config.getOutputDir().getAbsolutePath());
+					// Every shard writes to the same output dir, so one of them erasing it would lose the others' tiles
+					if (config.eraseOutputDir())
+						log.warn("Not erasing the output dir from shard {}", config.getShard());
+					
+					tileRenderer = new TileRenderer(config, new CommandLineOutput(), hashAlgorithm);
 					
-					FileUtils.deleteDirectory(config.getOutputDir());
+					tileRenderer.renderShard();
+				}
+				else
+				{
+					// Do this first before we attempt to load any caches
+					if (config.eraseOutputDir() && config.isResume())
+					{
+						// Erasing would throw away the tiles the render being resumed has already written
+						log.warn("Not erasing the output dir while resuming a render");
+					}
+					else if (config.eraseOutputDir())
+					{
+						log.info("Deleting output dir: {}", config.getOutputDir().getAbsolutePath());
+						
+						FileUtils.deleteDirectory(config.getOutputDir());
+					}
+					
+					tileRenderer = new TileRenderer(config, new CommandLineOutput(), hashAlgorithm);
+					
+					tileRenderer.output();
 				}
-				
-				tileRenderer = new TileRenderer(config, new CommandLineOutput(), hashAlgorithm);
-				
-				tileRenderer.output();
 			}
 			else if (config.getMode() == Mode.VIEWS)
 			{
@@ -162,45 +190,8 @@ public class TectonicusApp
 			}
 			else if (config.getMode() == Mode.PROFILE)
 			{
-				/*
-				BiomeCache biomeCache = new NullBiomeCache();
-				BlockFilter blockFilter = new NullBlockFilter();
-				
-				RegionIterator it = new AllRegionsIterator(args.worldDir());
-				File regionFile = it.next();
-				Region region = new Region(regionFile);
-				ChunkCoord chunkCoord = region.getContainedChunks()[0];
-				
-				Chunk c = region.loadChunk(chunkCoord, biomeCache, blockFilter);
-				
-				// createGeometry profiling
-				Rasteriser rasteriser = RasteriserFactory.createRasteriser(RasteriserType.LWJGL, DisplayType.Offscreen, 512, 312, 24, 8, 16, 4);
-				NullBlockMaskFactory mask = new NullBlockMaskFactory();
-				TexturePack texturePack = new TexturePack(rasteriser, args.minecraftJar(), args.texturePack());
-				World world = new World(rasteriser, args.worldDir(), args.getDimensionDir(), args.minecraftJar(), args.texturePack(), biomeCache, hashAlgorithm, "Player", new FullWorldSubsetFactory());
-				
-				// Warm it up
-				for (int i=0; i<100000; i++)
-				{
-					c.createGeometry(rasteriser, world, world.getBlockTypeRegistry(), mask, texturePack);
-				}
-				
-				final long start = System.currentTimeMillis();
-				
-				for (long i=0; i<10000000000l; i++)
-				{
-					c.createGeometry(rasteriser, world, world.getBlockTypeRegistry(), mask, texturePack);
-				}
-				
-				final long end = System.currentTimeMillis();
-				
-				final long time = end - start;
-				
-				System.out.println("Total time: "+time+"ms");
-				
-				// Original:			5120ms
-				// Two-loop version:	5117ms
-				*/
+				Profiler profiler = new Profiler(config, hashAlgorithm);
+				profiler.run();
 			}
 		}
 		catch (Exception e)
@@ -239,6 +230,7 @@ public class TectonicusApp
 		MutableConfiguration m = new MutableConfiguration();
 		CommandLine cmd = new CommandLine(m);
 		cmd.registerConverter(Level.class, Level::toLevel);
+		cmd.registerConverter(Shard.class, Shard::parse);
 		cmd.setCaseInsensitiveEnumValuesAllowed(true);
 		CommandLine.ParseResult parseResult = cmd.parseArgs(argArray);
 		
@@ -272,6 +264,7 @@ public class TectonicusApp
 		// Load config from command line second.  Command line options will override config file options
 		CommandLine commandLine = new CommandLine(config);
 		commandLine.registerConverter(Level.class, Level::toLevel);
+		commandLine.registerConverter(Shard.class, Shard::parse);
 		commandLine.setCaseInsensitiveEnumValuesAllowed(true);
 		commandLine.setExecutionStrategy(new CommandLine.RunFirst());
 		commandLine.execute(argArray);
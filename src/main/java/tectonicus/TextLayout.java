@@ -12,9 +12,9 @@ package tectonicus;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.renderer.Font;
 import tectonicus.texture.SubTexture;
 
@@ -68,7 +68,7 @@ public class TextLayout
 		}
 	}
 	
-	public void pushTo(Mesh mesh, final float x, final float y, final float z, Rotation rotation, final float angleInDegs)
+	public void pushTo(VertexSink mesh, final float x, final float y, final float z, Rotation rotation, final float angleInDegs)
 	{
 		subMesh.pushTo(mesh, x, y, z, rotation, angleInDegs);
 	}
@@ -9,6 +9,7 @@
 
 package tectonicus;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Vector3f;
@@ -18,30 +19,37 @@ import tectonicus.cache.FileTileCache;
 import tectonicus.cache.FileViewCache;
 import tectonicus.cache.PlayerSkinCache;
 import tectonicus.cache.RegionHashStore;
+import tectonicus.cache.RegionRecords;
+import tectonicus.cache.RenderCheckpoint;
+import tectonicus.cache.ShardSegments;
 import tectonicus.cache.TileCache;
+import tectonicus.cache.TileChunkIndex;
 import tectonicus.cache.swap.HddObjectListWriter;
 import tectonicus.cache.swap.HddTileList;
 import tectonicus.cache.swap.HddTileListFactory;
-import tectonicus.chunk.Chunk;
 import tectonicus.chunk.ChunkCoord;
 import tectonicus.configuration.Configuration;
 import tectonicus.configuration.Configuration.RenderStyle;
 import tectonicus.configuration.ImageFormat;
 import tectonicus.configuration.Layer;
 import tectonicus.configuration.Map;
+import tectonicus.configuration.Shard;
 import tectonicus.itemmodeldefinitionregistry.ItemModelDefinitionRegistry;
 import tectonicus.itemregistry.ItemRegistry;
+import tectonicus.metrics.Counter;
+import tectonicus.metrics.Metrics;
+import tectonicus.metrics.MetricsExporter;
+import tectonicus.metrics.PhaseTimer;
 import tectonicus.rasteriser.Rasteriser;
 import tectonicus.rasteriser.RasteriserFactory;
 import tectonicus.rasteriser.RasteriserFactory.DisplayType;
-import tectonicus.raw.BeaconEntity;
-import tectonicus.raw.BedEntity;
-import tectonicus.raw.ContainerEntity;
 import tectonicus.raw.RawChunk;
+import tectonicus.renderer.CameraSnapshot;
 import tectonicus.renderer.OrthoCamera;
 import tectonicus.util.BoundingBox;
 import tectonicus.util.DirUtils;
 import tectonicus.util.FileUtils;
+import tectonicus.util.OrderedTaskQueue;
 import tectonicus.util.TempArea;
 import tectonicus.util.Util;
 import tectonicus.view.ViewRenderer;
@@ -60,12 +68,16 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static tectonicus.Version.VERSION_13;
 import static tectonicus.util.OutputResourcesUtil.outputBeacons;
@@ -110,6 +122,17 @@ public class TileRenderer
 	
 	public static final Color clearColour = new Color(229, 227, 223);
 	
+	// Alpha worlds have no regions to split the work by, so hand out chunks a region's worth at a time
+	private static final int ALPHA_CHUNKS_PER_TASK = 32 * 32;
+	
+	// How often the tile cache is committed and the render's progress saved while rendering base tiles
+	private static final long CHECKPOINT_INTERVAL_MS = 30_000;
+	
+	// How many tiles after the one being rendered have their chunk geometry built in the meantime
+	private static final int PREFETCH_TILES = 4;
+	
+	private static final Counter TILES_RENDERED = Metrics.counter("tectonicus_tiles_rendered_total", "Base tiles rendered");
+	
 	private final Configuration config;
 	
 	private final MessageDigest hashAlgorithm;
@@ -121,13 +144,23 @@ public class TileRenderer
 	
 	private final File exportDir;
 	
+	/** The cache dir, or this shard's own part of it so that shards never share a store */
+	private final File cacheDir;
+	
 	private final PlayerSkinCache playerSkinCache;
 	
 	private RegionHashStore regionHashStore;
 	
+	private TileChunkIndex tileIndex;
+	
+	/** Progress of this render, so that it can be resumed if it's killed. Null if the cache isn't being used */
+	private RenderCheckpoint checkpoint;
+	
 	private final HddTileListFactory hddTileListFactory;
 	
 	private final OrthoCamera camera;
+	/** Positioned on the tiles after the one being rendered so their chunk geometry can be built in the meantime. Never applied */
+	private final OrthoCamera prefetchCamera;
 	
 	private final Rasteriser rasteriser;
 	
@@ -139,7 +172,9 @@ public class TileRenderer
 	
 	private final MemoryMonitor memoryMonitor;
 	
-	private boolean abort;
+	private final PhaseTimer phaseTimer = new PhaseTimer("tectonicus_phase_seconds_total", "Time spent in each task of the render", "task");
+	
+	private volatile boolean abort;
 	
 	public TileRenderer(Configuration config, ProgressListener listener, MessageDigest hashAlgorithm) throws Exception
 	{
@@ -155,9 +190,11 @@ public class TileRenderer
 		
 		this.exportDir = config.getOutputDir();
 		
+		this.cacheDir = config.getShard() != null ? ShardSegments.getShardDir(config.getCacheDir(), config.getShard()) : config.getCacheDir();
+		
 		playerSkinCache = new PlayerSkinCache(config, hashAlgorithm);
 		
-		hddTileListFactory = new HddTileListFactory( new File(config.getCacheDir(), "tileLists") );
+		hddTileListFactory = new HddTileListFactory( new File(cacheDir, "tileLists"), config.getTileListMemory() * 1024L * 1024L );
 		
 		log.debug("Creating player icon assembler");
 		playerIconAssembler = new PlayerIconAssembler(playerSkinCache);
@@ -185,6 +222,7 @@ public class TileRenderer
 		
 		log.info("Creating camera");
 		camera = new OrthoCamera(rasteriser, tileWidth, tileHeight);
+		prefetchCamera = new OrthoCamera(rasteriser, tileWidth, tileHeight);
 		
 		log.info("TileRenderer init complete");
 	}
@@ -196,6 +234,8 @@ public class TileRenderer
 		rasteriser.destroy();
 		
 		playerSkinCache.destroy();
+		
+		memoryMonitor.stop();
 	}
 	
 	public void abort()
@@ -205,17 +245,24 @@ public class TileRenderer
 	
 	public Result output()
 	{
-		progressListener.onTaskStarted(Task.STARTING_RENDERER.toString());
+		startTask(Task.STARTING_RENDERER);
 		
 		Date startTime = new Date();
 		
 		FileUtils.ensureExists(exportDir);
-		FileUtils.ensureExists(config.getCacheDir());
+		FileUtils.ensureExists(cacheDir);
+		
+		MetricsExporter metricsExporter = new MetricsExporter(config.getMetricsDir() != null ? config.getMetricsDir() : cacheDir);
 		
-		TempArea tempArea = new TempArea( new File(config.getCacheDir(), "temp") );
+		TempArea tempArea = new TempArea( new File(cacheDir, "temp") );
 		
 		changedFileList = new ChangeFile(new File(config.getOutputDir(), "changed.txt"));
 		
+		checkpoint = config.useCache() ? new RenderCheckpoint(cacheDir, calcCheckpointOptions(), hashAlgorithm, config.isResume()) : null;
+		
+		if (config.getMergeShards() > 0)
+			ShardSegments.deleteOtherShardCounts(cacheDir, config.getMergeShards());
+		
                 World world = null;
                 
 		for (tectonicus.configuration.Map map : config.getMaps())
@@ -229,7 +276,7 @@ public class TileRenderer
 			File mapDir = new File(exportDir, map.getId());
 			FileUtils.ensureExists(mapDir);
 
-			BiomeCache biomeCache = CacheUtil.createBiomeCache(config, map, hashAlgorithm);
+			BiomeCache biomeCache = CacheUtil.createBiomeCache(config, cacheDir, map, hashAlgorithm);
 
 			// Create the world for this map
 			world = new World(rasteriser, map, biomeCache, playerSkinCache, config);
@@ -246,12 +293,16 @@ public class TileRenderer
 
 			WorldStats worldStats = preProcess(world, map, portalsFile, signsFile, viewsFile);
 			
-			// Find visible tiles
-			HddTileList visibleTiles = findVisibleTiles(world, camera, worldStats.numChunks());
+			// Find visible tiles, recording which tiles each chunk covers so changed tiles can be found from changed chunks
+			tileIndex = config.useCache() ? new TileChunkIndex(cacheDir, map.getId(), calcTileIndexOptions(map), hashAlgorithm) : null;
+			ForkJoinPool pool = new ForkJoinPool(config.getNumDownsampleThreads());
+			HddTileList visibleTiles = getVisibleTiles(world, map, worldStats.numChunks(), pool);
 			
+			// The same split of the tiles the shards worked out, to tell which shard's hash to trust for each tile
+			ShardPlan shardPlan = config.getMergeShards() > 0 ? new ShardPlan(visibleTiles, config.getTileBandWidth(), config.getMergeShards()) : null;
 			
 			// Figure out which tiles we need to render
-			progressListener.onTaskStarted(Task.FIND_CHANGED_TILES.toString());
+			startTask(Task.FIND_CHANGED_TILES);
 
 			// Output entity javascript for creating map markers
 			outputSigns(new File(mapDir, "signs.js"), signsFile, map);
@@ -265,7 +316,7 @@ public class TileRenderer
 			outputBeacons(new File(mapDir, "beacons.js"), map, world.getBeacons());
 
 			// Render views
-			FileViewCache viewCache = CacheUtil.createViewCache(config.getCacheDir(), map, tempArea, hashAlgorithm, regionHashStore);
+			FileViewCache viewCache = CacheUtil.createViewCache(cacheDir, map, tempArea, hashAlgorithm, regionHashStore);
 			ViewRenderer viewRenderer = new ViewRenderer(rasteriser, viewCache, config.getNumDownsampleThreads(), map.getViewConfig());
 			viewRenderer.output(world, mapDir, viewsFile, changedFileList);
 			
@@ -282,24 +333,50 @@ public class TileRenderer
 				
 				// Set new tile cache for this layer
 				String optionString = FileTileCache.calcOptionsString(config);
-				TileCache tileCache = CacheUtil.createTileCache(config.useCache(), optionString, layer.getImageFormat(), config.getCacheDir(), map, layer, hashAlgorithm);
+				TileCache tileCache = CacheUtil.createTileCache(config.useCache(), optionString, layer.getImageFormat(), cacheDir, map, layer, hashAlgorithm);
 			
 				File baseTilesDir = DirUtils.getZoomDir(exportDir, layer, numZoomLevels);
 				FileUtils.ensureExists(baseTilesDir);
 
+				// Take on the tiles the shards rendered, so only the ones they missed are found as changed
+				HddTileList shardTiles = null;
+				if (shardPlan != null)
+					shardTiles = ShardSegments.mergeTileHashes(cacheDir, config.getMergeShards(), (FileTileCache) tileCache, shardPlan, map, layer, optionString, hashAlgorithm, hddTileListFactory);
+				
 				// Find changed tiles
-				HddTileList changedTiles = tileCache.findChangedTiles(hddTileListFactory, visibleTiles, regionHashStore, world, map, camera, map.getClosestZoomSize(), tileWidth, tileHeight, baseTilesDir);
+				LayerTiles changedTiles = getChangedTiles(layer, tileCache, visibleTiles, baseTilesDir, pool);
 				
-				// Trim changed tiles to size
-				changedTiles = trimTileList(changedTiles, config.getMaxTiles());
+				// Tiles from the shards are already on disk, but their parents still need downsampling
+				HddTileList updatedTiles = changedTiles.remaining();
+				if (shardTiles != null)
+				{
+					updatedTiles = hddTileListFactory.createList();
+					for (TileCoord c : changedTiles.remaining())
+						updatedTiles.add(c);
+					for (TileCoord c : shardTiles)
+						updatedTiles.add(c);
+				}
+				
+				// Create downsampled layers, starting on each tile as soon as its children are ready
+				Downsampler downsampler = startDownsampling(visibleTiles, changedTiles.remaining(), updatedTiles, exportDir, layer, baseTilesDir, tileCache);
+				
+				// The parents marked for downsampling have to be on disk before the checkpoint moves past finding them
+				tileCache.commit();
+				saveChangedTiles(layer, changedTiles);
 				
 				// Render base tiles
-				renderBaseTiles(world, map, layer, baseTilesDir, changedTiles, tileCache);
-
-				// Create downsampled layers
-				bounds = downsample(visibleTiles, changedTiles, exportDir, layer, baseTilesDir, tileCache);
+				renderBaseTiles(world, map, layer, baseTilesDir, changedTiles.all(), changedTiles.numRendered(), tileCache, downsampler);
+				
+				bounds = finishDownsampling(downsampler);
 				tileCache.closeTileCache();
 			}
+			
+			pool.shutdown();
+			if (tileIndex != null) {
+				if (!abort)
+					tileIndex.settle();
+				tileIndex.close();
+			}
 
 			outputIcons(exportDir, config, map, world, rasteriser);
 			
@@ -327,7 +404,7 @@ public class TileRenderer
 		// Output html
 		File outputHtmlFile = null;
 		try {
-			progressListener.onTaskStarted(Task.OUTPUT_HTML.toString());
+			startTask(Task.OUTPUT_HTML);
 			outputHtmlFile = outputHtml(exportDir, config);
 		} catch (IOException e) {
 			log.error("Exception: ", e);
@@ -338,27 +415,124 @@ public class TileRenderer
 		Date endTime = new Date();
 		String time = Util.getElapsedTime(startTime, endTime);
 		
-		outputRenderStats(exportDir, memoryMonitor, time);
+		if (config.getMergeShards() > 0)
+			ShardSegments.mergeChangedFiles(cacheDir, config.getMergeShards(), changedFileList);
 		
 		outputChangedFile();
 		
+		if (checkpoint != null && !abort)
+			checkpoint.finish();
+		
+		phaseTimer.stop();
+		metricsExporter.close();
+		outputRenderStats(exportDir, memoryMonitor, time);
+		
 		log.info("Render complete - total time "+time);
 		
 		return new Result(abort, outputHtmlFile);
 	}
 	
+	/** Renders this shard's share of the base tiles into the output dir, recording them in its own tile cache.
+	 *  Everything else is left for a run with mergeShards, once every shard has finished.
+	 */
+	public Result renderShard()
+	{
+		startTask(Task.STARTING_RENDERER);
+		
+		Date startTime = new Date();
+		
+		Shard shard = config.getShard();
+		log.info("Rendering base tiles for shard {}", shard);
+		
+		FileUtils.ensureExists(exportDir);
+		FileUtils.ensureExists(cacheDir);
+		
+		MetricsExporter metricsExporter = new MetricsExporter(config.getMetricsDir() != null ? ShardSegments.getShardDir(config.getMetricsDir(), shard) : cacheDir);
+		
+		TempArea tempArea = new TempArea( new File(cacheDir, "temp") );
+		
+		changedFileList = new ChangeFile(ShardSegments.getChangedFile(cacheDir));
+		
+		checkpoint = new RenderCheckpoint(cacheDir, calcCheckpointOptions(), hashAlgorithm, config.isResume());
+		
+		for (tectonicus.configuration.Map map : config.getMaps())
+		{
+			BiomeCache biomeCache = CacheUtil.createBiomeCache(config, cacheDir, map, hashAlgorithm);
+			
+			World world = new World(rasteriser, map, biomeCache, playerSkinCache, config);
+			
+			setupInitialCamera(map);
+			
+			File portalsFile = tempArea.generateTempFile("portals", ".list");
+			File signsFile = tempArea.generateTempFile("signs", ".list");
+			File viewsFile = tempArea.generateTempFile("views", ".list");
+			
+			WorldStats worldStats = preProcess(world, map, portalsFile, signsFile, viewsFile);
+			
+			// Every shard finds all of the visible tiles, so they all split them the same way
+			tileIndex = new TileChunkIndex(cacheDir, map.getId(), calcTileIndexOptions(map), hashAlgorithm);
+			ForkJoinPool pool = new ForkJoinPool(config.getNumDownsampleThreads());
+			HddTileList visibleTiles = getVisibleTiles(world, map, worldStats.numChunks(), pool);
+			
+			ShardPlan shardPlan = new ShardPlan(visibleTiles, config.getTileBandWidth(), shard.count());
+			HddTileList shardTiles = shardPlan.filter(visibleTiles, shard.index(), hddTileListFactory);
+			log.info("Shard {} renders {} of the {} visible tiles", shard, shardTiles.size(), visibleTiles.size());
+			
+			startTask(Task.FIND_CHANGED_TILES);
+			
+			for (Layer layer : map.getLayers())
+			{
+				setupWorldForLayer(layer, world);
+				
+				String optionString = FileTileCache.calcOptionsString(config);
+				TileCache tileCache = CacheUtil.createTileCache(true, optionString, layer.getImageFormat(), cacheDir, map, layer, hashAlgorithm);
+				tileCache.setTileFilter(tileKey -> shardPlan.getShard(tileKey) == shard.index());
+				
+				File baseTilesDir = DirUtils.getZoomDir(exportDir, layer, numZoomLevels);
+				FileUtils.ensureExists(baseTilesDir);
+				
+				LayerTiles changedTiles = getChangedTiles(layer, tileCache, shardTiles, baseTilesDir, pool);
+				saveChangedTiles(layer, changedTiles);
+				
+				renderBaseTiles(world, map, layer, baseTilesDir, changedTiles.all(), changedTiles.numRendered(), tileCache, null);
+				
+				tileCache.closeTileCache();
+			}
+			
+			pool.shutdown();
+			if (!abort)
+				tileIndex.settle();
+			tileIndex.close();
+		}
+		
+		Date endTime = new Date();
+		String time = Util.getElapsedTime(startTime, endTime);
+		
+		outputChangedFile();
+		
+		if (!abort)
+			checkpoint.finish();
+		
+		phaseTimer.stop();
+		metricsExporter.close();
+		
+		log.info("Shard {} complete - total time {}", shard, time);
+		
+		return new Result(abort, null);
+	}
+	
 	// Just renders views
 	public Result renderViews()
 	{
-		progressListener.onTaskStarted(Task.STARTING_RENDERER.toString());
+		startTask(Task.STARTING_RENDERER);
 		log.info("Starting view renderer");
 		
 		Date startTime = new Date();
 		
 		FileUtils.ensureExists(exportDir);
-		FileUtils.ensureExists(config.getCacheDir());
+		FileUtils.ensureExists(cacheDir);
 		
-		TempArea tempArea = new TempArea( new File(config.getCacheDir(), "temp") );
+		TempArea tempArea = new TempArea( new File(cacheDir, "temp") );
 		
 		changedFileList = new ChangeFile(new File(config.getOutputDir(), "changed.txt"));
 		
@@ -367,7 +541,7 @@ public class TileRenderer
 			File mapDir = new File(exportDir, map.getId());
 			FileUtils.ensureExists(mapDir);
 
-			BiomeCache biomeCache = CacheUtil.createBiomeCache(config, map, hashAlgorithm);
+			BiomeCache biomeCache = CacheUtil.createBiomeCache(config, cacheDir, map, hashAlgorithm);
 
 			// Create the world for this map
 			World world = new World(rasteriser, map, biomeCache, playerSkinCache, config);
@@ -385,7 +559,7 @@ public class TileRenderer
 			outputViews(new File(mapDir, "views.js"), viewsFile, map);
 			
 			// Render views
-			FileViewCache viewCache = CacheUtil.createViewCache(config.getCacheDir(), map, tempArea, hashAlgorithm, regionHashStore);
+			FileViewCache viewCache = CacheUtil.createViewCache(cacheDir, map, tempArea, hashAlgorithm, regionHashStore);
 			ViewRenderer viewRenderer = new ViewRenderer(rasteriser, viewCache, config.getNumDownsampleThreads(), map.getViewConfig());
 			viewRenderer.output(world, mapDir, viewsFile, changedFileList);
 		}
@@ -394,6 +568,7 @@ public class TileRenderer
 		String time = Util.getElapsedTime(startTime, endTime);
 		
 		outputChangedFile();
+		phaseTimer.stop();
 		
 		log.info("View render complete - total time "+time);
 		
@@ -475,17 +650,22 @@ public class TileRenderer
 	{
 		// Pre-render pass - calc chunk hashes and project signs
 		if (progressListener != null)
-			progressListener.onTaskStarted(Task.CALCULATING_CHUNK_HASHES.toString());
+			startTask(Task.CALCULATING_CHUNK_HASHES);
 		
 		WorldStats worldStats = new WorldStats();
 		
-		regionHashStore = new RegionHashStore(config.getCacheDir());
+		regionHashStore = new RegionHashStore(cacheDir, map.getId(), calcHashStoreOptions(world, map), config.useCache(), hashAlgorithm);
 		
 		log.info("Discovering chunks...");
 		//	Iterate over regions, then over chunks
 		//		hash each chunk and store in region hashes file
 		//		gather world stats and signs for each chunk
 		
+		final int numThreads = config.getNumDownsampleThreads();
+		PreprocessPipeline pipeline = new PreprocessPipeline(numThreads, numThreads + 2, map, regionHashStore, hashAlgorithm,
+				world.getBiomeCache(), world.getBlockFilter(), world.getWorldInfo(),
+				records -> commitRegion(world, records, portals, signs, views, worldStats));
+		
 		final Date beginTime = new Date();
 		if (world.isAlphaWorld()) {
 			ChunkCoord[] alphaChunkCoords = world.getAlphaChunkCoords();
@@ -511,36 +691,28 @@ public class TileRenderer
 			
 			log.debug("Looking for alpha chunks in {}", world.getWorldDir().getAbsolutePath());
 			
-			//Group alpha chunks by "region" to use the regionHashStore and regionLoadQueue
+			//Group alpha chunks by "region" to use the regionHashStore and the pipeline
 			RegionCoord currentRegion = null;
-			RegionLoadQueue regionLoadQueue = null;
+			List<ChunkCoord> regionChunks = new ArrayList<>();
 			for (ChunkCoord coord : sortedAlphaChunks) {
 				if (coord == null || !world.contains(coord))
 					continue;
 				
 				RegionCoord regionCoord = RegionCoord.fromChunkCoord(coord);
 				if (currentRegion == null || !currentRegion.equals(regionCoord)) {
-					if (regionLoadQueue != null) {
-						endRegion(portals, signs, views, regionLoadQueue, worldStats);
+					if (currentRegion != null) {
+						pipeline.submitAlphaRegion(currentRegion, regionChunks, world);
+						regionChunks = new ArrayList<>();
 					}
 					
 					currentRegion = regionCoord;
-					regionHashStore.startRegion(regionCoord);
-					regionLoadQueue = new RegionLoadQueue(config.getNumDownsampleThreads());
 				}
 				
-				Chunk c = null;
-				try {
-					c = world.loadChunk(coord, worldStats);
-				} catch (Exception e) {
-					log.error(String.format("Chunk %1$d,%2$d is probably corrupted.", coord.x, coord.z), e);
-				}
-				
-				chunkSearch(world, map, portals, signs, views, c, worldStats, regionLoadQueue);
+				regionChunks.add(coord);
 			}
 			
-			if (regionLoadQueue != null) {
-				endRegion(portals, signs, views, regionLoadQueue, worldStats);
+			if (currentRegion != null) {
+				pipeline.submitAlphaRegion(currentRegion, regionChunks, world);
 			}
 		} else {
 			RegionIterator it = world.createRegionIterator();
@@ -549,42 +721,21 @@ public class TileRenderer
 			while (it.hasNext()) {
 				File regionFile = it.next();
 				if (regionFile != null && regionFile.length() > 0) {
-					Region region = null;
-					try {
-						region = new Region(regionFile);
-					} catch (Exception e) {
-						log.error("Exception: ", e);
-					}
-					if (region != null) {
-						// For every region...
-						regionHashStore.startRegion(region.getRegionCoord());
-						
-						RegionLoadQueue regionLoadQueue = new RegionLoadQueue(config.getNumDownsampleThreads());
-						
-						for (ChunkCoord coord : region.getContainedChunkCoords()) {
-							// For every chunk coord...
-							Chunk c = null;
-							try {
-								c = region.loadChunk(coord, world.getBiomeCache(), world.getBlockFilter(), worldStats, world.getWorldInfo());
-							} catch (Exception e) {
-								// Catch exception, log it and skip the chunk
-								log.error(String.format("Chunk %1$d,%2$d in region %3$d,%4$d is probably corrupted.", coord.x, coord.z, region.getRegionCoord().x, region.getRegionCoord().z), e);
-							}
-							
-							chunkSearch(world, map, portals, signs, views, c, worldStats, regionLoadQueue);
-						}
-						
-						endRegion(portals, signs, views, regionLoadQueue, worldStats);
-					}
+					pipeline.submitRegion(regionFile);
 				}
 			}
 		}
 		
+		pipeline.finish();
+		
+		regionHashStore.removeUnvisitedRegions();
+		
 		final Date endTime = new Date();
 		final String searchTime = Util.getElapsedTime(beginTime, endTime);
 		
 		log.debug("\nFound " + worldStats.numChunks() + " chunks in total");
 		log.debug("Chunk search took: " + searchTime);
+		log.debug("Reused stored hashes for {} unchanged regions", regionHashStore.getNumReusedRegions());
 		
 		if (worldStats.numChunks() == 0) {
 			// Uh oh, didn't find any chunks!
@@ -608,25 +759,8 @@ public class TileRenderer
 		return worldStats;
 	}
 	
-	private void chunkSearch(World world, Map map, HddObjectListWriter<Portal> portals, HddObjectListWriter<Sign> signs, HddObjectListWriter<Sign> views, Chunk c, WorldStats worldStats, RegionLoadQueue regionLoadQueue) {
-		if (c != null && c.getRawChunk().isFullChunk()) {
-			worldStats.incNumChunks();
-			
-			ConcurrentLinkedQueue<ContainerEntity> chests = world.getChests();
-			Queue<BedEntity> beds = world.getBeds();
-			Queue<BeaconEntity> beacons = world.getBeacons();
-			
-			try {
-				// MessageDigest is not thread safe, so we need to create a new instance for each chunk processed in separate thread...
-				regionLoadQueue.load(c, regionHashStore, (MessageDigest) hashAlgorithm.clone(), map, portals, signs, views, chests, beds, beacons);
-			} catch (CloneNotSupportedException e) {
-				log.error("Exception: ", e);
-			}
-		}
-	}
-	
-	private void endRegion(HddObjectListWriter<Portal> portals, HddObjectListWriter<Sign> signs, HddObjectListWriter<Sign> views, RegionLoadQueue regionLoadQueue, WorldStats worldStats) {
-		regionLoadQueue.waitUntilFinished();
+	private static void commitRegion(World world, RegionRecords records, HddObjectListWriter<Portal> portals, HddObjectListWriter<Sign> signs, HddObjectListWriter<Sign> views, WorldStats worldStats) {
+		records.copyTo(worldStats, portals, signs, views, world.getChests(), world.getBeds(), world.getBeacons());
 		
 		System.out.print("\tfound " + worldStats.numChunks() + " chunks so far\r"); //prints a carriage return after line
 		log.trace("found {} chunks so far", worldStats.numChunks());
@@ -638,16 +772,80 @@ public class TileRenderer
 		} catch (Exception e) {
 			log.error("Exception: ", e);
 		}
+	}
+	
+	/** Everything which changes the tiles a chunk covers, so a change invalidates the whole tile/chunk index */
+	private String calcTileIndexOptions(Map map)
+	{
+		return map.getCameraAngleRad() + "\n"
+				+ map.getCameraElevationRad() + "\n"
+				+ map.getClosestZoomSize() + "\n"
+				+ tileWidth + "\n"
+				+ tileHeight + "\n"
+				+ Minecraft.getChunkHeight() + "\n";
+	}
+	
+	/** Everything which affects the chunk hashes and records kept in the region hash store */
+	private static String calcHashStoreOptions(World world, Map map)
+	{
+		return map.getWorldDir().getAbsolutePath() + '\n'
+				+ map.getDimension() + '\n'
+				+ world.getBlockFilter() + '\n'
+				+ map.getWorldSubset() + '\n'
+				+ map.getSignFilter().getType() + '\n'
+				+ map.getViewFilter() + '\n'
+				+ map.getPortalFilter() + '\n'
+				+ map.getChestFilter() + '\n'
+				+ map.getBeaconFilter() + '\n';
+	}
+	
+	/** Everything which affects which tiles are found to need rendering, or the order they are rendered in */
+	private String calcCheckpointOptions()
+	{
+		StringBuilder options = new StringBuilder(FileTileCache.calcOptionsString(config));
+		options.append(config.getTileBandWidth()).append('\n');
+		options.append(config.getMaxTiles()).append('\n');
+		options.append(config.getShard()).append('\n');
+		options.append(config.getMergeShards()).append('\n');
+		
+		for (Map map : config.getMaps())
+		{
+			options.append(FileTileCache.getMapString(map)).append(calcTileIndexOptions(map));
+			for (Layer layer : map.getLayers())
+				options.append(FileTileCache.getLayerString(layer));
+		}
 		
-		regionHashStore.endRegion();
+		return options.toString();
 	}
 	
-	private void renderBaseTiles(World world, tectonicus.configuration.Map map, Layer layer, File layerDir, HddTileList tiles, TileCache tileCache)
+	/** Changes whenever a region file is added, removed or written to */
+	private static String calcWorldFingerprint(World world)
+	{
+		if (world.isAlphaWorld())
+			return world.getWorldDir().getAbsolutePath() + '\n' + world.getAlphaChunkCoords().length;
+		
+		List<String> regions = new ArrayList<>();
+		RegionIterator it = world.createRegionIterator();
+		while (it.hasNext())
+		{
+			File regionFile = it.next();
+			if (regionFile != null)
+				regions.add(regionFile.getAbsolutePath() + ' ' + regionFile.length() + ' ' + regionFile.lastModified());
+		}
+		regions.sort(null);
+		
+		return String.join("\n", regions);
+	}
+	
+	/** @param numRendered how many tiles were written out before the checkpoint, in render order, so are skipped
+	 *  @param downsampler told about each tile as it is rendered and written, or null for a shard which leaves downsampling to the coordinator
+	 */
+	private void renderBaseTiles(World world, tectonicus.configuration.Map map, Layer layer, File layerDir, HddTileList tiles, final int numRendered, TileCache tileCache, Downsampler downsampler)
 	{
 		if (abort)
 			return;
 		
-		progressListener.onTaskStarted(Task.RENDER_BASE_TILES.toString());
+		startTask(Task.RENDER_BASE_TILES);
 		
 		final int zoom = map.getClosestZoomSize();
 		final ImageFormat imageFormat = layer.getImageFormat();
@@ -655,12 +853,33 @@ public class TileRenderer
 		log.debug("Base render is at zoom "+zoom+" with "+tileWidth+"x"+tileHeight+" tiles");
 		
 		setupInitialCamera(map);
+		prefetchCamera.lookAt(0, 0, 0, zoom, map.getCameraAngleRad(), map.getCameraElevationRad());
 		
-		int done = 0;
+		int done = numRendered;
+		WrittenTiles written = new WrittenTiles(numRendered);
+		long lastCheckpoint = System.currentTimeMillis();
 
 		ImageWriteQueue imageWriteQueue = new ImageWriteQueue(config.getNumDownsampleThreads());
 
-		for (TileCoord t : tiles) {
+		// Render in an order which keeps neighbouring tiles together, so their chunks are still cached
+		TileScheduler schedule = new TileScheduler(tiles, config.getTileBandWidth());
+		CacheStats rawStatsBefore = world.getRawCacheStats();
+		CacheStats geometryStatsBefore = world.getGeometryCacheStats();
+
+		Iterator<TileCoord> it = schedule.iterator();
+		for (int i = 0; i < numRendered && it.hasNext(); i++)
+			it.next();
+		if (numRendered > 0)
+			log.info("Skipping {} tiles rendered before the checkpoint", numRendered);
+		// The world builds geometry for the tile being drawn first, then for these in order
+		Deque<TileCoord> prefetched = new ArrayDeque<>();
+		while (prefetched.size() < PREFETCH_TILES && it.hasNext())
+			prefetchTile(world, map, zoom, it.next(), prefetched);
+		while (!prefetched.isEmpty()) {
+			final TileCoord t = prefetched.poll();
+			if (it.hasNext())
+				prefetchTile(world, map, zoom, it.next(), prefetched);
+
 			System.out.print("Rendering tile @ " + t.x + "," + t.y + " (tile " + (done + 1) + " of " + tiles.size() + ")          \r"); //prints a carriage return after line
 			log.trace("Rendering tile @ {},{} (tile {} of {})", t.x, t.y, done+1, tiles.size());
 			progressListener.onTaskUpdate(done, tiles.size());
@@ -672,30 +891,81 @@ public class TileRenderer
 
 			world.draw(camera, false, true);
 
+			final int index = done;
 			File outputFile = getImageFile(layerDir, t.x, t.y, imageFormat);
 			BufferedImage tileImage = rasteriser.takeScreenshot(0, 0, tileWidth, tileHeight, imageFormat);
 			if (tileImage != null) {
-				imageWriteQueue.write(outputFile, tileImage, imageFormat, layer.getImageCompressionLevel());
+				TILES_RENDERED.inc();
+				if (downsampler != null)
+					downsampler.tileRendered(t, tileImage);
+				// The tile's hash is only stored once its image is on disk, so a tile still queued when the render is killed is drawn again
+				imageWriteQueue.write(outputFile, tileImage, imageFormat, layer.getImageCompressionLevel(), layer.getPngCompressionLevel(), () -> {
+					if (downsampler != null)
+						downsampler.tileWritten(t);
+					tileCache.writeImageCache(t);
+					written.add(index);
+				});
 			} else {
 				log.error("Error: Rasteriser.takeScreenshot gave us a null image (width:" + tileWidth + " height:" + tileHeight + " format:" + imageFormat + ")");
+				if (downsampler != null)
+					downsampler.tileWritten(t);
+				written.add(index);
 			}
 
-			tileCache.writeImageCache(t);
-
 			changedFileList.writeLine(outputFile.getAbsolutePath());
 
 			done++;
 
+			if (checkpoint != null && System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_INTERVAL_MS) {
+				saveRenderedTiles(layer, tileCache, written);
+				lastCheckpoint = System.currentTimeMillis();
+			}
+
 			if (abort)
 				break;
 		}
 
 		imageWriteQueue.waitUntilFinished();
+		if (checkpoint != null)
+			saveRenderedTiles(layer, tileCache, written);
 
 		log.info("\nBase tile render complete");
+		logCacheStats("Raw chunk", world.getRawCacheStats().minus(rawStatsBefore), done - numRendered, schedule.getBandWidth());
+		logCacheStats("Chunk geometry", world.getGeometryCacheStats().minus(geometryStatsBefore), done - numRendered, schedule.getBandWidth());
+	}
+	
+	/** Queues a tile to be rendered, and starts building the geometry of its chunks in the background */
+	private void prefetchTile(World world, Map map, final int zoom, TileCoord tile, Deque<TileCoord> prefetched)
+	{
+		positionCameraForTile(prefetchCamera, tile, tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), zoom);
+		world.prefetchGeometry(prefetchCamera);
+		prefetched.add(tile);
+	}
+	
+	/** Commits the hashes of every tile rendered so far, then moves the checkpoint on past the ones written out */
+	private void saveRenderedTiles(Layer layer, TileCache tileCache, WrittenTiles written)
+	{
+		// Every tile counted has had its hash put in the cache, so it only needs committing
+		final int numWritten = written.count();
+		tileCache.commit();
+		checkpoint.saveRenderedTiles(layer, numWritten);
+	}
+
+	private static void logCacheStats(String name, CacheStats stats, final int numTiles, final int bandWidth)
+	{
+		log.info("{} cache: {} hits, {} loads ({}% hit rate), {} loads per tile with band width {}", name, stats.hitCount(), stats.loadCount(),
+				String.format("%.1f", stats.hitRate() * 100), String.format("%.2f", numTiles > 0 ? stats.loadCount() / (float) numTiles : 0f), bandWidth);
 	}
 
 	public static void setupCameraForTile(OrthoCamera camera, TileCoord tile, final int tileWidth, final int tileHeight, final float cameraAngleRads, final float cameraElevationRads, final int zoom)
+	{
+		positionCameraForTile(camera, tile, tileWidth, tileHeight, cameraAngleRads, cameraElevationRads, zoom);
+		
+		camera.apply();
+	}
+	
+	/** Points the camera at the tile without applying it to the rasteriser */
+	public static void positionCameraForTile(OrthoCamera camera, TileCoord tile, final int tileWidth, final int tileHeight, final float cameraAngleRads, final float cameraElevationRads, final int zoom)
 	{
 		Point lookAt = tileToScreen(tile, tileWidth, tileHeight);
 		
@@ -743,8 +1013,6 @@ public class TileRenderer
 			
 			camera.lookAt(cameraPos.x, cameraPos.y, cameraPos.z, zoom, cameraAngleRads, cameraElevationRads);
 		}
-		
-		camera.apply();
 	}
 	
 	private void setupInitialCamera(tectonicus.configuration.Map map)
@@ -756,14 +1024,40 @@ public class TileRenderer
 		setupCameraForTile(camera, new TileCoord(0, 0), tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), map.getClosestZoomSize());
 	}
 	
-	private HddTileList findVisibleTiles(World world, OrthoCamera camera, final int numChunks)
+	/** Finds the visible tiles of a map, or takes them from the checkpoint when resuming a render of the same world */
+	private HddTileList getVisibleTiles(World world, tectonicus.configuration.Map map, final int numChunks, ForkJoinPool pool)
+	{
+		if (checkpoint == null)
+			return findVisibleTiles(world, camera, numChunks, pool);
+		
+		// The tile index holds the chunks of each tile, so it has to have survived for the tiles to be skipped
+		if (checkpoint.startMap(map, calcWorldFingerprint(world)) && !tileIndex.wasRebuilt())
+		{
+			HddTileList visible = checkpoint.getVisibleTiles(map, hddTileListFactory);
+			if (visible != null)
+			{
+				log.info("Resuming with {} visible tiles from the checkpoint", visible.size());
+				return visible;
+			}
+		}
+		
+		HddTileList visible = findVisibleTiles(world, camera, numChunks, pool);
+		if (!abort)
+		{
+			tileIndex.commit();
+			checkpoint.saveVisibleTiles(map, visible);
+		}
+		return visible;
+	}
+	
+	private HddTileList findVisibleTiles(World world, OrthoCamera camera, final int numChunks, ForkJoinPool pool)
 	{
 		HddTileList visible = hddTileListFactory.createList();
 		
 		if (abort)
 			return visible;
 
-		progressListener.onTaskStarted(Task.FIND_VISIBLE_TILES.toString());
+		startTask(Task.FIND_VISIBLE_TILES);
 		
 		// Method:
 		//	for each chunk:
@@ -772,28 +1066,40 @@ public class TileRenderer
 		//		- keep screen min / max in both axies, convert to screen aligned rectangle containing chunk
 		//		- loop over screen rect and generate all tiles which it intersects
 		
-		int count = 0;
+		// Chunks are split up by region and projected on the pool, with each task's tiles merged back in submission order
+		CameraSnapshot projection = camera.snapshot();
+		AtomicInteger count = new AtomicInteger();
+		OrderedTaskQueue<FoundTiles> queue = new OrderedTaskQueue<>(pool, found -> {
+			for (int i = 0; i < found.numKeys; i++)
+				visible.add(HddTileList.fromKey(found.keys[i]));
+			
+			final int numDone = count.addAndGet(found.numChunks);
+			final int percentage = (int) Math.floor((numDone / (float) numChunks) * 100);
+			System.out.print(percentage + "%\r"); //prints a carriage return after line
+			progressListener.onTaskUpdate(numDone, numChunks);
+		});
 		
 		if (world.isAlphaWorld()) {
-			findVisibleFromChunks(world, camera, numChunks, world.getAlphaChunkCoords(), visible);
+			ChunkCoord[] chunkCoords = world.getAlphaChunkCoords();
+			for (int start = 0; start < chunkCoords.length && !abort; start += ALPHA_CHUNKS_PER_TASK) {
+				final int from = start;
+				final int to = Math.min(start + ALPHA_CHUNKS_PER_TASK, chunkCoords.length);
+				queue.submit(() -> findVisibleFromChunks(world, projection, chunkCoords, from, to, true));
+			}
 		} else {
 			RegionIterator it = world.createRegionIterator();
-			while (it.hasNext()) {
+			while (it.hasNext() && !abort) {
 				File regionFile = it.next();
 				if (regionFile == null || regionFile.length() == 0)
 					continue;
 				
-				Region region = null;
-				try {
-					region = new Region(regionFile);
-				} catch (Exception e) {
-					log.error("Exception: ", e);
-				}
-				if (region != null) {
-					count += findVisibleFromChunks(world, camera, numChunks, region.getContainedChunkCoords(), visible);
-				}
+				queue.submit(() -> findVisibleInRegion(world, projection, regionFile));
 			}
 		}
+		queue.finish();
+		
+		if (tileIndex != null && !abort)
+			tileIndex.removeUnvisitedChunks();
 
 		System.out.println("100%");
 		
@@ -802,27 +1108,46 @@ public class TileRenderer
 		return visible;
 	}
 	
-	private int findVisibleFromChunks(World world, OrthoCamera camera, int numChunks, ChunkCoord[] chunkCoords, HddTileList visible) {
-		int count = 0;
-		for (ChunkCoord coord : chunkCoords) {
+	private FoundTiles findVisibleInRegion(World world, CameraSnapshot projection, File regionFile) {
+		Region region = null;
+		try {
+			region = new Region(regionFile);
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+		}
+		if (region == null)
+			return new FoundTiles();
+		
+		RegionCoord regionCoord = Region.extractRegionCoord(regionFile);
+		final boolean mayHaveChanged = regionCoord == null || !regionHashStore.isRegionReused(regionCoord);
+		
+		ChunkCoord[] chunkCoords = region.getContainedChunkCoords();
+		return findVisibleFromChunks(world, projection, chunkCoords, 0, chunkCoords.length, mayHaveChanged);
+	}
+	
+	private FoundTiles findVisibleFromChunks(World world, CameraSnapshot projection, ChunkCoord[] chunkCoords, final int from, final int to, final boolean mayHaveChanged) {
+		FoundTiles found = new FoundTiles();
+		for (int i = from; i < to && !abort; i++) {
+			ChunkCoord coord = chunkCoords[i];
 			if (coord != null && world.contains(coord)) {
-				addVisibleTilesForChunk(visible, camera, coord);
-				
-				count++;
-				if (count % 100 == 0) {
-					final int percentage = (int) Math.floor((count / (float) numChunks) * 100);
-					System.out.print(percentage + "%\r"); //prints a carriage return after line
-				}
-				progressListener.onTaskUpdate(count, numChunks);
+				addVisibleTilesForChunk(found, projection, coord, mayHaveChanged);
+				found.numChunks++;
 			}
-			
-			if (abort)
-				break;
 		}
-		return count;
+		return found;
 	}
 	
-	private void addVisibleTilesForChunk(HddTileList visible, OrthoCamera camera, ChunkCoord coord) {
+	private void addVisibleTilesForChunk(FoundTiles found, CameraSnapshot projection, ChunkCoord coord, boolean mayHaveChanged) {
+		if (tileIndex != null) {
+			// Footprints never change for the same camera, so reuse the one found on a previous run
+			long[] knownTiles = tileIndex.visitChunk(coord, mayHaveChanged);
+			if (knownTiles != null) {
+				for (long tileKey : knownTiles)
+					found.add(tileKey);
+				return;
+			}
+		}
+		
 		BoundingBox bounds = new BoundingBox(new Vector3f(coord.x * RawChunk.WIDTH, 0, coord.z * RawChunk.DEPTH), RawChunk.WIDTH, Minecraft.getChunkHeight(), RawChunk.DEPTH);
 		ArrayList<Vector3f> cornerPoints = bounds.getCornerPoints();
 		
@@ -833,7 +1158,7 @@ public class TileRenderer
 		
 		// Project corners to find screen rect
 		for (Vector3f corner : cornerPoints) {
-			Point screenPos = camera.project(corner);
+			Point screenPos = projection.project(corner);
 			
 			minX = Math.min(screenPos.x, minX);
 			maxX = Math.max(screenPos.x, maxX);
@@ -843,12 +1168,29 @@ public class TileRenderer
 		}
 		
 		// Find tiles that screen rect overlaps
+		final int firstKey = found.numKeys;
 		for (int x = minX; x <= maxX + tileWidth; x += tileWidth) {
 			for (int y = minY; y <= maxY + tileHeight; y += tileHeight) {
 				TileCoord tile = screenToTile(new Point(x, y));
-				visible.add(tile);
+				found.add(HddTileList.toKey(tile.x, tile.y));
 			}
 		}
+		
+		if (tileIndex != null)
+			tileIndex.addChunk(coord, Arrays.copyOfRange(found.keys, firstKey, found.numKeys));
+	}
+	
+	/** Tile keys found by one find visible task, in the order they were found */
+	private static class FoundTiles {
+		private long[] keys = new long[64];
+		private int numKeys;
+		private int numChunks;
+		
+		private void add(final long key) {
+			if (numKeys == keys.length)
+				keys = Arrays.copyOf(keys, keys.length * 2);
+			keys[numKeys++] = key;
+		}
 	}
 	
 	private HddTileList trimTileList(HddTileList inTiles, final int maxTiles)
@@ -872,32 +1214,90 @@ public class TileRenderer
 		}
 	}
 	
-	private TileCoordBounds downsample(HddTileList baseTiles, HddTileList changedTiles, File exportDir, Layer layer, File baseDir, TileCache tileCache)
+	/** Finds the tiles of a layer which need rendering, or takes them from the checkpoint when resuming along with how
+	 *  many had already been written out
+	 */
+	private LayerTiles getChangedTiles(Layer layer, TileCache tileCache, HddTileList visibleTiles, File baseTilesDir, ForkJoinPool pool)
 	{
-		final Date downsampleStart = new Date();
+		HddTileList changedTiles = checkpoint != null ? checkpoint.getChangedTiles(layer, hddTileListFactory) : null;
+		if (changedTiles != null)
+		{
+			final int numRendered = checkpoint.getRenderedTiles(layer);
+			
+			// The rest of the tiles in render order, which still need their hashes for when they're written
+			HddTileList remaining = hddTileListFactory.createList();
+			int index = 0;
+			for (TileCoord c : new TileScheduler(changedTiles, config.getTileBandWidth()))
+			{
+				if (index++ >= numRendered)
+					remaining.add(c);
+			}
+			tileCache.restoreChangedTiles(remaining, tileIndex, regionHashStore, pool);
+			
+			log.info("Resuming layer {} with {} of {} changed tiles left to render", layer.getId(), remaining.size(), changedTiles.size());
+			return new LayerTiles(changedTiles, remaining, numRendered, true);
+		}
+		
+		changedTiles = tileCache.findChangedTiles(hddTileListFactory, visibleTiles, tileIndex, regionHashStore, baseTilesDir, pool);
+		
+		// Trim changed tiles to size
+		changedTiles = trimTileList(changedTiles, config.getMaxTiles());
 		
+		return new LayerTiles(changedTiles, changedTiles, 0, false);
+	}
+	
+	/** Saves newly found changed tiles, once the tile cache has been committed */
+	private void saveChangedTiles(Layer layer, LayerTiles changedTiles)
+	{
+		if (checkpoint != null && !changedTiles.fromCheckpoint() && !abort)
+			checkpoint.saveChangedTiles(layer, changedTiles.all());
+	}
+	
+	/** The changed tiles of a layer, and those left after the ones rendered before the checkpoint */
+	private record LayerTiles(HddTileList all, HddTileList remaining, int numRendered, boolean fromCheckpoint) {}
+	
+	/** Counts how many tiles have been written out in render order, up to the first one still being written */
+	private static class WrittenTiles {
+		private final BitSet written = new BitSet();
+		private int numWritten;
+		
+		private WrittenTiles(final int numWritten) {
+			this.numWritten = numWritten;
+		}
+		
+		private synchronized void add(final int index) {
+			written.set(index);
+			while (written.get(numWritten))
+				numWritten++;
+		}
+		
+		private synchronized int count() {
+			return numWritten;
+		}
+	}
+	
+	/** @param changedTiles base tiles about to be rendered
+	 *  @param updatedTiles base tiles whose parents need downsampling again, the changed tiles plus any rendered by shards
+	 */
+	private Downsampler startDownsampling(HddTileList baseTiles, HddTileList changedTiles, HddTileList updatedTiles, File exportDir, Layer layer, File baseDir, TileCache tileCache)
+	{
 		int zoomLevel = config.getNumZoomLevels() - 1;
 
 		if (!tileCache.hasCreatedDownsampleCache()) {
 			tileCache.calculateDownsampledTileCoordinates(baseTiles, zoomLevel);
 		}
                 else {
-                        tileCache.calculateDownsampledTileCoordinates(changedTiles, zoomLevel);
+                        tileCache.calculateDownsampledTileCoordinates(updatedTiles, zoomLevel);
                 }
 		
-		File prevDir = baseDir;
-		HddTileList prevTiles = baseTiles;
+		Downsampler downsampler = new Downsampler(config.getNumDownsampleThreads(), changedFileList, tileCache, layer, tileWidth, tileHeight, baseDir, config.getNumZoomLevels(), config.getDownsampleCacheMemory() * 1024L * 1024L);
+		
 		while (zoomLevel >= 0)
 		{
-			if (abort)
-				break;
-
-			progressListener.onTaskStarted(Task.DOWNSAMPLING + " zoom level " + zoomLevel);
-			
 			File nextDir = DirUtils.getZoomDir(exportDir, layer, zoomLevel);
 			HddTileList nextTiles = tileCache.findTilesForDownsampling(hddTileListFactory, zoomLevel, nextDir, layer.getImageFormat());
                         if (nextTiles.size() == 0) {
-				log.info("\tNo downsampling needed");
+				log.info("\tNo downsampling needed for zoom level {}", zoomLevel);
 			} else {
 				if (!tileCache.isUsingExistingCache()) {
 					FileUtils.deleteDirectory(nextDir);
@@ -908,22 +1308,32 @@ public class TileRenderer
 						throw new RuntimeException("Couldn't create dir:" + nextDir.getAbsolutePath());
 				}
 
-				log.debug("\tDownsampling {} tiles into {} tiles", prevTiles.size(), nextTiles.size());
-
-				Downsampler downsampler = new Downsampler(config.getNumDownsampleThreads(), changedFileList);
-				downsampler.downsample(prevDir, nextDir, nextTiles, layer, tileWidth, tileHeight, progressListener, tileCache, zoomLevel);
+				log.debug("\tDownsampling {} tiles at zoom level {}", nextTiles.size(), zoomLevel);
 			}
 			
+			downsampler.addZoomLevel(zoomLevel, nextDir, nextTiles);
 			zoomLevel--;
-			prevDir = nextDir;
-			prevTiles = nextTiles;
 		}
 		
+		downsampler.start(changedTiles);
+		
+		return downsampler;
+	}
+	
+	private TileCoordBounds finishDownsampling(Downsampler downsampler)
+	{
+		final Date downsampleStart = new Date();
+		
+		startTask(Task.DOWNSAMPLING);
+		
+		downsampler.finish(progressListener, abort);
+		
 		final Date downsampleEnd = new Date();
 		final String downsampleTime = Util.getElapsedTime(downsampleStart, downsampleEnd);
-		log.debug("Downsampling took "+downsampleTime);
+		log.debug("Downsampling took "+downsampleTime+" after the base tiles were rendered");
 		
-		return new TileCoordBounds(prevTiles.getAbsoluteMinCoord(), prevTiles.getAbsoluteMaxCoord());
+		HddTileList topTiles = downsampler.getTiles(0);
+		return new TileCoordBounds(topTiles.getAbsoluteMinCoord(), topTiles.getAbsoluteMaxCoord());
 	}
 
 	public static class TileCoordBounds
@@ -938,9 +1348,15 @@ public class TileRenderer
 		}
 	}
 	
+	private void startTask(Task task)
+	{
+		phaseTimer.start(task.name());
+		progressListener.onTaskStarted(task.toString());
+	}
+	
 	private void outputChangedFile() {
 		log.info("Writing changed file list...");
-		progressListener.onTaskStarted(Task.OUTPUT_CHANGED_LIST.toString());
+		startTask(Task.OUTPUT_CHANGED_LIST);
 		
 		changedFileList.close();
 		changedFileList = null;
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import tectonicus.cache.swap.HddTileList;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** Orders tiles for rendering so that consecutive tiles are close together, which keeps the chunks they need in the
+ *  raw and geometry caches.
+ *
+ *  Tiles are split into vertical bands {@code bandWidth} tiles wide, which are walked left to right going alternately
+ *  down and up, so the end of one band is close to the start of the next. Each band is walked one square of
+ *  {@code bandWidth} x {@code bandWidth} tiles at a time, following a Hilbert curve inside the square that enters and
+ *  leaves it on the side facing the next square along the band.
+ *
+ *  Only a single band is held in memory at a time. This relies on the tile list iterating in x order, which
+ *  {@link HddTileList} does.
+ */
+public class TileScheduler implements Iterable<TileCoord> {
+	public static final int DEFAULT_BAND_WIDTH = 16;
+
+	/** Keeps the distance along the curve inside a square within an int */
+	private static final int MAX_BAND_WIDTH = 1 << 15;
+
+	private final Iterable<TileCoord> tiles;
+
+	/** Width of a band in tiles, always a power of two */
+	private final int bandWidth;
+	private final int bandShift;
+
+	public TileScheduler(Iterable<TileCoord> tiles, final int bandWidth) {
+		this.tiles = tiles;
+		this.bandWidth = roundBandWidth(bandWidth);
+		this.bandShift = Integer.numberOfTrailingZeros(this.bandWidth);
+	}
+
+	/** @return the band width actually used for a configured one, rounded up to a power of two and clamped to a usable range */
+	public static int roundBandWidth(final int bandWidth) {
+		final int width = Math.min(Math.max(bandWidth, 1), MAX_BAND_WIDTH);
+		return Integer.bitCount(width) == 1 ? width : Integer.highestOneBit(width) << 1;
+	}
+
+	public int getBandWidth() {
+		return bandWidth;
+	}
+
+	@Override
+	public Iterator<TileCoord> iterator() {
+		return new BandIterator(tiles.iterator());
+	}
+
+	/** @return the position along the curve of a tile in a band going down, as the square along the band in the upper
+	 *  32 bits and the distance along the Hilbert curve inside that square in the lower ones
+	 */
+	long toOrderKey(final int x, final int y) {
+		final int square = y >> bandShift;
+		final int dx = x & (bandWidth - 1);
+		final int dy = y & (bandWidth - 1);
+
+		// Swap the axes so the curve runs from the top left corner to the bottom left one
+		return ((long) square << 32) | hilbertIndex(dy, dx);
+	}
+
+	TileCoord fromOrderKey(final long key, final int band) {
+		final int square = (int) (key >> 32);
+		final int d = (int) key;
+
+		// Inverse of hilbertIndex, see https://en.wikipedia.org/wiki/Hilbert_curve
+		int u = 0;
+		int v = 0;
+		int t = d;
+		for (int s = 1; s < bandWidth; s <<= 1) {
+			final int ru = 1 & (t >> 1);
+			final int rv = 1 & (t ^ ru);
+			if (rv == 0) {
+				if (ru == 1) {
+					u = s - 1 - u;
+					v = s - 1 - v;
+				}
+				final int swap = u;
+				u = v;
+				v = swap;
+			}
+			u += s * ru;
+			v += s * rv;
+			t >>= 2;
+		}
+
+		return new TileCoord((band << bandShift) + v, (square << bandShift) + u);
+	}
+
+	private long hilbertIndex(int u, int v) {
+		long d = 0;
+		for (int s = bandWidth / 2; s > 0; s >>= 1) {
+			final int ru = (u & s) > 0 ? 1 : 0;
+			final int rv = (v & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * ru) ^ rv);
+
+			if (rv == 0) {
+				if (ru == 1) {
+					u = bandWidth - 1 - u;
+					v = bandWidth - 1 - v;
+				}
+				final int swap = u;
+				u = v;
+				v = swap;
+			}
+		}
+		return d;
+	}
+
+	/** Reads one band at a time from the tile list and returns it in curve order */
+	private class BandIterator implements Iterator<TileCoord> {
+		private final Iterator<TileCoord> source;
+
+		/** The first tile of the next band, already read from the source */
+		private TileCoord nextBandStart;
+
+		private long[] band = new long[1024];
+		private int bandSize;
+		private int bandPos;
+		private int bandIndex;
+		private boolean bandReversed;
+
+		private int numBands;
+
+		BandIterator(Iterator<TileCoord> source) {
+			this.source = source;
+			this.nextBandStart = source.hasNext() ? source.next() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (bandPos == bandSize)
+				readBand();
+
+			return bandPos < bandSize;
+		}
+
+		@Override
+		public TileCoord next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			final long key = band[bandReversed ? bandSize - 1 - bandPos++ : bandPos++];
+			return fromOrderKey(key, bandIndex);
+		}
+
+		private void readBand() {
+			bandSize = 0;
+			bandPos = 0;
+
+			if (nextBandStart == null)
+				return;
+
+			bandIndex = nextBandStart.x >> bandShift;
+			bandReversed = (numBands++ & 1) == 1;
+
+			TileCoord tile = nextBandStart;
+			nextBandStart = null;
+			while (true) {
+				if (bandSize == band.length)
+					band = Arrays.copyOf(band, bandSize * 2);
+				band[bandSize++] = toOrderKey(tile.x, tile.y);
+
+				if (!source.hasNext())
+					break;
+
+				tile = source.next();
+				if (tile.x >> bandShift != bandIndex) {
+					nextBandStart = tile;
+					break;
+				}
+			}
+
+			Arrays.sort(band, 0, bandSize);
+		}
+	}
+}
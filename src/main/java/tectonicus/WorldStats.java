@@ -14,7 +14,10 @@ import org.apache.commons.lang3.mutable.MutableLong;
 import tectonicus.util.JsArrayWriter;
 import tectonicus.util.JsonWriter;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -71,6 +74,47 @@ public class WorldStats
 	{
 		return numChunks;
 	}
+	
+	/** Adds the chunk and block counts from another set of stats to this one */
+	public void add(WorldStats other)
+	{
+		numChunks += other.numChunks;
+		
+		for (Map.Entry<IdDataPair, MutableLong> entry : other.blockIdCounts.entrySet())
+		{
+			MutableLong count = blockIdCounts.get(entry.getKey());
+			if (count != null)
+				count.add(entry.getValue().longValue());
+			else
+				blockIdCounts.put(entry.getKey(), new MutableLong(entry.getValue().longValue()));
+		}
+	}
+	
+	public void writeTo(DataOutputStream out) throws IOException
+	{
+		out.writeInt(numChunks);
+		
+		out.writeInt(blockIdCounts.size());
+		for (Map.Entry<IdDataPair, MutableLong> entry : blockIdCounts.entrySet())
+		{
+			out.writeInt(entry.getKey().id);
+			out.writeInt(entry.getKey().data);
+			out.writeLong(entry.getValue().longValue());
+		}
+	}
+	
+	public void readFrom(DataInputStream in) throws IOException
+	{
+		numChunks = in.readInt();
+		
+		blockIdCounts.clear();
+		final int numCounts = in.readInt();
+		for (int i=0; i<numCounts; i++)
+		{
+			IdDataPair key = new IdDataPair(in.readInt(), in.readInt());
+			blockIdCounts.put(key, new MutableLong(in.readLong()));
+		}
+	}
 
 	public void outputBlockStats(File statsFile, String varNamePrefix, BlockTypeRegistry registry)
 	{
@@ -13,7 +13,7 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.raw.RawChunk;
-import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 
 public class Air implements BlockType
 {
@@ -49,13 +49,13 @@ public class Air implements BlockType
 	
 	
 	@Override
-	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		
 	}
@@ -21,6 +21,7 @@ import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -67,13 +68,13 @@ public class Anvil implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, rawChunk, x, y, z, world.getNightLightAdjustment());
 		Vector4f colour = new Vector4f(lightness, lightness, lightness, 1);
@@ -23,6 +23,7 @@ import tectonicus.raw.Item;
 import tectonicus.raw.RawChunk;
 import tectonicus.raw.SkullEntity;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.PackTexture;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
@@ -30,7 +31,7 @@ import tectonicus.texture.TexturePack;
 public class ArmorStand implements BlockType
 {
         private interface ArmorMeshBuilder {
-                void build(int x, int y, int z, Geometry geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier);
+                void build(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier);
         }
     
         private static final float UNIT = 1.0f / 16.0f;
@@ -102,13 +103,13 @@ public class ArmorStand implements BlockType
 	
 	
 	@Override
-	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 for (ArmorStandEntity entity : rawChunk.getArmorStands()) {
                         x = entity.getLocalX();
@@ -144,7 +145,7 @@ public class ArmorStand implements BlockType
                 }
 	}
         
-        private void buildBaseMesh(int x, int y, int z, Geometry geometry, Vector4f colour) {
+        private void buildBaseMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour) {
                 SubMesh mesh = new SubMesh();
 		
 		// Front
@@ -161,7 +162,7 @@ public class ArmorStand implements BlockType
                 mesh.pushTo(geometry.getMesh(texture.texture, Geometry.MeshType.Solid), x, y, z, Rotation.None, 0);
         }
 
-        private void buildStandMesh(int x, int y, int z, Geometry geometry, Vector4f colour, float angle) {
+        private void buildStandMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle) {
                 SubMesh mesh = new SubMesh();
 
 
@@ -258,7 +259,7 @@ public class ArmorStand implements BlockType
                 mesh.pushTo(geometry.getMesh(texture.texture, Geometry.MeshType.Solid), x, y, z, Rotation.AntiClockwise, angle);
         }
 	
-	private void buildArmorMesh(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry, ArmorStandEntity armorStand, Vector4f colour, Item armor, byte layer, ArmorMeshBuilder meshBuilder) {
+	private void buildArmorMesh(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry, ArmorStandEntity armorStand, Vector4f colour, Item armor, byte layer, ArmorMeshBuilder meshBuilder) {
 		final float angle = armorStand.getYaw();
 		final String suffix = layer == 2 ? "_leggings" : "";
 		
@@ -314,7 +315,7 @@ public class ArmorStand implements BlockType
 		meshBuilder.build(x, y, z, geometry, colour, angle, layerTexture, -1);
 	}
         
-        private void buildOtherItemMesh(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry, ArmorStandEntity armorStand, Vector4f colour, Item armor) {
+        private void buildOtherItemMesh(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry, ArmorStandEntity armorStand, Vector4f colour, Item armor) {
                 //TODO: create elytra model
 				BlockType blockType = registry.find(armor.id);
                 if (blockType != null) {
@@ -370,7 +371,7 @@ public class ArmorStand implements BlockType
                 }
         }
         
-        private void buildFeetArmorMesh(int x, int y, int z, Geometry geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
+        private void buildFeetArmorMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
                 final float widthTexel = 1.0f / 64.0f;
 		final float heightTexel = 1.0f / 32.0f;
     
@@ -412,7 +413,7 @@ public class ArmorStand implements BlockType
                 mesh.pushTo(geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest), x, y, z, Rotation.AntiClockwise, angle);
         }
         
-        private void buildLegsArmorMesh(int x, int y, int z, Geometry geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
+        private void buildLegsArmorMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
                 final float widthTexel = 1.0f / 64.0f;
 		final float heightTexel = 1.0f / 32.0f;
                 
@@ -470,7 +471,7 @@ public class ArmorStand implements BlockType
                 mesh.pushTo(geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest), x, y, z, Rotation.AntiClockwise, angle);
         }
         
-        private void buildChestArmorMesh(int x, int y, int z, Geometry geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
+        private void buildChestArmorMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
                 final float widthTexel = 1.0f / 64.0f;
 		final float heightTexel = 1.0f / 32.0f;
     
@@ -534,7 +535,7 @@ public class ArmorStand implements BlockType
                 mesh.pushTo(geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest), x, y, z, Rotation.AntiClockwise, angle);
         }
         
-        private void buildHeadArmorMesh(int x, int y, int z, Geometry geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
+        private void buildHeadArmorMesh(int x, int y, int z, GeometryBuilder geometry, Vector4f colour, float angle, SubTexture texture, int offsetMultiplier) {
                 final float widthTexel = 1.0f / 64.0f;
 		final float heightTexel = 1.0f / 32.0f;
     
@@ -26,6 +26,7 @@ import tectonicus.raw.BannerEntity;
 import tectonicus.raw.BlockProperties;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 import tectonicus.world.Colors;
@@ -108,13 +109,13 @@ public class Banner implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		Map<String, BufferedImage> patternImages = world.getTexturePack().getBannerPatternImages();
 		
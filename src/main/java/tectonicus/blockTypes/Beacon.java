@@ -23,6 +23,7 @@ import tectonicus.rasteriser.SubMesh.Rotation;
 import tectonicus.raw.BeaconEntity;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.Colour4f;
@@ -101,13 +102,13 @@ public class Beacon implements BlockType {
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		final float offSet = 1.0f / 16.0f;
 
@@ -22,6 +22,7 @@ import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -70,13 +71,13 @@ public class Bed implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		final int data = rawChunk.getBlockData(x, y, z);
 		final boolean isHead = (data & 0x8) > 0;
@@ -18,9 +18,9 @@ import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
@@ -29,7 +29,7 @@ import tectonicus.util.Colour4f;
 public class BlockUtil
 {
 	
-	public static void addTop(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addTop(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int aboveId = world.getBlockId(rawChunk.getChunkCoord(), blockX, blockY+1, blockZ);
 	//	BlockType above = registry.find(aboveId);
@@ -47,7 +47,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addTop(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addTop(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType above = world.getBlockType(rawChunk.getChunkCoord(), blockX, blockY+1, blockZ);
 		if (!above.isSolid())
@@ -93,7 +93,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addBottom(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addBottom(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int belowId = world.getBlockId(rawChunk.getChunkCoord(), blockX, blockY-1, blockZ);
 	//	BlockType below = registry.find(belowId);
@@ -112,7 +112,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addBottom(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addBottom(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType below = world.getBlockType(rawChunk.getChunkCoord(), blockX, blockY-1, blockZ);
 		if (!below.isSolid())
@@ -159,7 +159,7 @@ public class BlockUtil
 	}
 	
 	//Actually West
-	public static void addNorth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addNorth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int northId = world.getBlockId(rawChunk.getChunkCoord(), x-1, y, z);
 	//	BlockType north = registry.find(northId);
@@ -177,7 +177,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addWest(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addWest(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType west = world.getBlockType(rawChunk.getChunkCoord(), x-1, y, z);
 		if (!west.isSolid())
@@ -224,7 +224,7 @@ public class BlockUtil
 	}
 	
 	//Actually East
-	public static void addSouth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addSouth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int southId = world.getBlockId(rawChunk.getChunkCoord(), x+1, y, z);
 	//	BlockType south = registry.find(southId);
@@ -242,7 +242,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addEast(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addEast(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType east = world.getBlockType(rawChunk.getChunkCoord(), x+1, y, z);
 		if (!east.isSolid())
@@ -289,7 +289,7 @@ public class BlockUtil
 	}
 	
 	//Actually North
-	public static void addEast(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addEast(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int eastId = world.getBlockId(rawChunk.getChunkCoord(), x, y, z-1);
 	//	BlockType east = registry.find(eastId);
@@ -307,7 +307,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addNorth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addNorth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType north = world.getBlockType(rawChunk.getChunkCoord(), x, y, z-1);
 		if (!north.isSolid())
@@ -354,7 +354,7 @@ public class BlockUtil
 	}
 	
 	//Actually South
-	public static void addWest(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addWest(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 	//	final int westId = world.getBlockId(rawChunk.getChunkCoord(), x, y, z+1);
 	//	BlockType west = registry.find(westId);
@@ -372,7 +372,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addSouth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
+	public static void addSouth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry, Rotation rotation)
 	{
 		BlockType south = world.getBlockType(rawChunk.getChunkCoord(), x, y, z+1);
 		if (!south.isSolid())
@@ -418,7 +418,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorTop(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorTop(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType above = world.getBlockType(rawChunk.getChunkCoord(), blockX, blockY+1, blockZ);
 		if (!above.isSolid())
@@ -434,7 +434,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorBottom(BlockContext world, RawChunk rawChunk, Mesh mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorBottom(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int blockX, final int blockY, final int blockZ, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType below = world.getBlockType(rawChunk.getChunkCoord(), blockX, blockY-1, blockZ);
 		if (!below.isSolid())
@@ -450,7 +450,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorNorth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorNorth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType north = world.getBlockType(rawChunk.getChunkCoord(), x-1, y, z);
 		if (!north.isSolid())
@@ -466,7 +466,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorSouth(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorSouth(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType south = world.getBlockType(rawChunk.getChunkCoord(), x+1, y, z);
 		if (!south.isSolid())
@@ -482,7 +482,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorEast(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorEast(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType east = world.getBlockType(rawChunk.getChunkCoord(), x, y, z-1);
 		if (!east.isSolid())
@@ -498,7 +498,7 @@ public class BlockUtil
 		}
 	}
 	
-	public static void addInteriorWest(BlockContext world, RawChunk rawChunk, Mesh mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
+	public static void addInteriorWest(BlockContext world, RawChunk rawChunk, VertexSink mesh, final int x, final int y, final int z, Colour4f colour, SubTexture texture, BlockTypeRegistry registry)
 	{
 		BlockType west = world.getBlockType(rawChunk.getChunkCoord(), x, y, z+1);
 		if (!west.isSolid())
@@ -531,7 +531,7 @@ public class BlockUtil
 		return val;
 	}
 
-	public static void addBlock(Mesh mesh, final float blockX, final float blockY, final float blockZ,
+	public static void addBlock(VertexSink mesh, final float blockX, final float blockY, final float blockZ,
 										final int offsetX, final int offsetY, final int offsetZ,
 										final int width, final int height, final int depth,
 										Vector4f colour, SubTexture texture,
@@ -540,7 +540,7 @@ public class BlockUtil
 		addBlock(mesh, blockX, blockY, blockZ, offsetX, offsetY, offsetZ, width, height, depth, colour, texture, topLight, northSouthLight, northSouthLight, eastWestLight, eastWestLight);
 	}
 	
-	public static void addBlock(Mesh mesh, final float blockX, final float blockY, final float blockZ,
+	public static void addBlock(VertexSink mesh, final float blockX, final float blockY, final float blockZ,
 			final int offsetX, final int offsetY, final int offsetZ,
 			final int width, final int height, final int depth,
 			Vector4f colour, SubTexture texture,
@@ -646,7 +646,7 @@ public class BlockUtil
 		);
 	}
 	
-	public static void addPartialBlock(Mesh mesh, final float blockX, final float blockY, final float blockZ,
+	public static void addPartialBlock(VertexSink mesh, final float blockX, final float blockY, final float blockZ,
 			final int offsetX, final int offsetY, final int offsetZ,
 			final int width, final int height, final int depth,
 			Vector4f colour, SubTexture texture,
@@ -656,7 +656,7 @@ public class BlockUtil
 		addPartialBlock(mesh, blockX, blockY, blockZ, offsetX, offsetY, offsetZ, width, height, depth, colour, texture, topLight, northSouthLight, northSouthLight, eastWestLight, eastWestLight, top, bottom, north, south, east, west);
 	}
 	
-	public static void addPartialBlock(Mesh mesh, final float blockX, final float blockY, final float blockZ,
+	public static void addPartialBlock(VertexSink mesh, final float blockX, final float blockY, final float blockZ,
 			final int offsetX, final int offsetY, final int offsetZ,
 			final int width, final int height, final int depth,
 			Vector4f colour, SubTexture texture,
@@ -16,10 +16,11 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -77,17 +78,17 @@ public class BrewingStand implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world,BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world,BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh baseMesh = geometry.getMesh(base.texture, Geometry.MeshType.Solid);
-		Mesh standMesh = geometry.getMesh(standTile.texture, Geometry.MeshType.Solid);
-		Mesh bottleMesh = geometry.getMesh(standTile.texture, Geometry.MeshType.AlphaTest);
+		VertexSink baseMesh = geometry.getMesh(base.texture, Geometry.MeshType.Solid);
+		VertexSink standMesh = geometry.getMesh(standTile.texture, Geometry.MeshType.Solid);
+		VertexSink bottleMesh = geometry.getMesh(standTile.texture, Geometry.MeshType.AlphaTest);
 		
 	//	final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, rawChunk, x, y, z);
 		
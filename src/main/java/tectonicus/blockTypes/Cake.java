@@ -18,10 +18,11 @@ import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -67,19 +68,19 @@ public class Cake implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		final int data = chunk.getBlockData(x, y, z);
 		
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
-		Mesh sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
-		Mesh interiorMesh = geometry.getMesh(interior.texture, Geometry.MeshType.AlphaTest);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
+		VertexSink sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
+		VertexSink interiorMesh = geometry.getMesh(interior.texture, Geometry.MeshType.AlphaTest);
 		
 		final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, chunk, x, y, z, world.getNightLightAdjustment());
 		
@@ -133,7 +134,7 @@ public class Cake implements BlockType
 		
 		// West
 		SubTexture westTex = data == 0 ? side : interior;
-		Mesh westMesh = data == 0 ? sideMesh : interiorMesh;
+		VertexSink westMesh = data == 0 ? sideMesh : interiorMesh;
 		MeshUtil.addQuad(westMesh,	new Vector3f(x+texel+offset,	actualY,	z+texel),
 									new Vector3f(x+texel+offset,	actualY,	z+1-texel),
 									new Vector3f(x+texel+offset,	y,			z+1-texel),
@@ -17,10 +17,11 @@ import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -65,18 +66,18 @@ public class Cauldron implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
-		Mesh sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
-		Mesh bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.AlphaTest);
-		Mesh waterMesh = geometry.getMesh(water.texture, Geometry.MeshType.Transparent);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
+		VertexSink sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
+		VertexSink bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.AlphaTest);
+		VertexSink waterMesh = geometry.getMesh(water.texture, Geometry.MeshType.Transparent);
 		
 		final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, rawChunk, x, y, z, world.getNightLightAdjustment());
 		
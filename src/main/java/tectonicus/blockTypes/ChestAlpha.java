@@ -15,9 +15,10 @@ import tectonicus.BlockIds;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.ChunkCoord;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -50,19 +51,19 @@ public class ChestAlpha implements BlockType {
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry) {
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry) {
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry) {
-		Mesh mesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
-		Mesh frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
-		Mesh doubleSide0Mesh = geometry.getMesh(doubleSide0.texture, Geometry.MeshType.Solid);
-		Mesh doubleSide1Mesh = geometry.getMesh(doubleSide1.texture, Geometry.MeshType.Solid);
-		Mesh doubleFront0Mesh = geometry.getMesh(doubleFront0.texture, Geometry.MeshType.Solid);
-		Mesh doubleFront1Mesh = geometry.getMesh(doubleFront1.texture, Geometry.MeshType.Solid);
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry) {
+		VertexSink mesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
+		VertexSink doubleSide0Mesh = geometry.getMesh(doubleSide0.texture, Geometry.MeshType.Solid);
+		VertexSink doubleSide1Mesh = geometry.getMesh(doubleSide1.texture, Geometry.MeshType.Solid);
+		VertexSink doubleFront0Mesh = geometry.getMesh(doubleFront0.texture, Geometry.MeshType.Solid);
+		VertexSink doubleFront1Mesh = geometry.getMesh(doubleFront1.texture, Geometry.MeshType.Solid);
 		
 		final int northId = world.getBlockId(chunk.getChunkCoord(), x - 1, y, z);
 		final int southId = world.getBlockId(chunk.getChunkCoord(), x + 1, y, z);
@@ -84,10 +85,10 @@ public class ChestAlpha implements BlockType {
 		SubTexture southTex = sideTexture;
 		SubTexture eastTex = sideTexture;
 		SubTexture westTex = sideTexture;
-		Mesh northMesh = sideMesh;
-		Mesh southMesh = sideMesh;
-		Mesh eastMesh = sideMesh;
-		Mesh westMesh = sideMesh;
+		VertexSink northMesh = sideMesh;
+		VertexSink southMesh = sideMesh;
+		VertexSink eastMesh = sideMesh;
+		VertexSink westMesh = sideMesh;
 		
 		if (chestNorth || chestSouth || chestEast || chestWest) {
 			// Double chest!
@@ -14,12 +14,13 @@ import org.joml.Vector4f;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.BlockProperties;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.Colour4f;
@@ -63,29 +64,29 @@ public class ChiseledBookshelf implements BlockType
 	
 	
 	@Override
-	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 final Colour4f colour = new Colour4f(1, 1, 1, 1);
             
-		Mesh topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
-		Mesh emptyMesh = geometry.getMesh(emptyTexture.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink emptyMesh = geometry.getMesh(emptyTexture.texture, Geometry.MeshType.Solid);
                 
                 SubTexture northTexture = sideTexture;
                 SubTexture southTexture = sideTexture;
                 SubTexture westTexture = sideTexture;
                 SubTexture eastTexture = sideTexture;
                 
-                Mesh northMesh = sideMesh;
-                Mesh southMesh = sideMesh;
-                Mesh westMesh = sideMesh;
-                Mesh eastMesh = sideMesh;
+                VertexSink northMesh = sideMesh;
+                VertexSink southMesh = sideMesh;
+                VertexSink westMesh = sideMesh;
+                VertexSink eastMesh = sideMesh;
                 
                 final BlockProperties properties = rawChunk.getBlockState(x, y, z);
                 if (properties != null && properties.containsKey("facing")) {
@@ -149,7 +150,7 @@ public class ChiseledBookshelf implements BlockType
                 return false;
         }
         
-        private void drawOccupiedSlot(int x, int y, int z, Geometry geometry, BlockProperties properties, int wOffset, int hOffset) {
+        private void drawOccupiedSlot(int x, int y, int z, GeometryBuilder geometry, BlockProperties properties, int wOffset, int hOffset) {
                 Vector4f white = new Vector4f(1, 1, 1, 1);
                 float angle = getRotationDataFromFacing(properties);
                 
@@ -15,12 +15,13 @@ import org.joml.Vector4f;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -59,14 +60,14 @@ public class CocoaPod implements BlockType
 	}
 
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 
 	}
 
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{		
 		SubMesh podMesh = new SubMesh();
 		
@@ -134,7 +135,7 @@ public class CocoaPod implements BlockType
 			log.warn("Wrong cocoa pod size!");
 		//final float lightness = world.getLight(rawChunk.getChunkCoord(), x, y+1, z, LightFace.Top);
 	
-		Mesh stemMesh = geometry.getMesh(stem.texture, Geometry.MeshType.AlphaTest);
+		VertexSink stemMesh = geometry.getMesh(stem.texture, Geometry.MeshType.AlphaTest);
 	
 		if (direction == 0)
 		{
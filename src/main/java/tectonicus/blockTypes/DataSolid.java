@@ -12,9 +12,10 @@ package tectonicus.blockTypes;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -57,7 +58,7 @@ public class DataSolid implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		final int data = rawChunk.getBlockData(x, y, z);
 		
@@ -77,8 +78,8 @@ public class DataSolid implements BlockType
 		if (transparent)
 			type = Geometry.MeshType.Transparent;
 		
-		Mesh topMesh = geometry.getMesh(topTexture.texture, type);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, type);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, type);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, type);
 		
 		Colour4f colour = new Colour4f(1, 1, 1, 1);
 		
@@ -92,7 +93,7 @@ public class DataSolid implements BlockType
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		Colour4f colour = new Colour4f(1, 1, 1, 1);
 		
@@ -114,8 +115,8 @@ public class DataSolid implements BlockType
 		if (transparent)
 			type = Geometry.MeshType.Transparent;
 		
-		Mesh topMesh = geometry.getMesh(topTexture.texture, type);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, type);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, type);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, type);
 		
 		BlockUtil.addTop(context, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
 		BlockUtil.addBottom(context, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
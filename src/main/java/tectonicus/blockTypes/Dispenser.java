@@ -13,10 +13,11 @@ import tectonicus.BlockContext;
 import tectonicus.BlockIds;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -63,18 +64,18 @@ public class Dispenser implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
-		Mesh topBottomMesh = geometry.getMesh(topBottomTexture.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
-		Mesh frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink topBottomMesh = geometry.getMesh(topBottomTexture.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
 
 		Colour4f colour = new Colour4f(1, 1, 1, 1);
 
@@ -92,10 +93,10 @@ public class Dispenser implements BlockType
 		SubTexture eastTex;
 		SubTexture westTex;
 		
-		Mesh northMesh;
-		Mesh southMesh;
-		Mesh eastMesh;
-		Mesh westMesh;
+		VertexSink northMesh;
+		VertexSink southMesh;
+		VertexSink eastMesh;
+		VertexSink westMesh;
 		
 		Rotation northRot = Rotation.None;
 		Rotation southRot = Rotation.None;
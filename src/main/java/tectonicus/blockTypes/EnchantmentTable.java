@@ -16,10 +16,11 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -71,17 +72,17 @@ public class EnchantmentTable implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
-		Mesh bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
+		VertexSink bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
 		
 		final float topLight = world.getLight(rawChunk.getChunkCoord(), x, y+1, z, LightFace.Top);
 		final float northSouthLight = world.getLight(rawChunk.getChunkCoord(), x, y+1, z, LightFace.NorthSouth);
@@ -17,10 +17,11 @@ import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 public class EnderPortal implements BlockType
@@ -54,15 +55,15 @@ public class EnderPortal implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, tectonicus.BlockContext world, tectonicus.BlockTypeRegistry registry, tectonicus.raw.RawChunk chunk, tectonicus.renderer.Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, tectonicus.BlockContext world, tectonicus.BlockTypeRegistry registry, tectonicus.raw.RawChunk chunk, tectonicus.renderer.GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh mesh = geometry.getMesh(texture.texture, Geometry.MeshType.Solid);
+		VertexSink mesh = geometry.getMesh(texture.texture, Geometry.MeshType.Solid);
 		
 		final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, rawChunk, x, y, z, world.getNightLightAdjustment());
 		
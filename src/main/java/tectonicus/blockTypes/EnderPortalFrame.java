@@ -15,10 +15,11 @@ import org.joml.Vector4f;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -78,23 +79,23 @@ public class EnderPortalFrame implements BlockType
 	}
 
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{		
 		final int data = rawChunk.getBlockData(x, y, z);
 		
 		Colour4f colour = new Colour4f(1, 1, 1, 1);
 		Vector4f colourV = new Vector4f(1, 1, 1, 1);
 		
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
-		Mesh bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
-		Mesh eyeMesh = geometry.getMesh(eyeSide.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
+		VertexSink bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
+		VertexSink eyeMesh = geometry.getMesh(eyeSide.texture, Geometry.MeshType.Solid);
 		
 		// Top quad
 		final float height = 13.0f / 16.0f;
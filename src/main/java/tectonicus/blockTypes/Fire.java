@@ -17,10 +17,11 @@ import org.joml.Vector4f;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 public class Fire implements BlockType
@@ -31,7 +32,7 @@ public class Fire implements BlockType
 	private final int texHeight;
 	private final int texWidth;
 	private final int numTiles;
-	private int frame;
+	private final int frame;
 	
 	public Fire(String name, SubTexture texture, int frame)
 	{
@@ -65,13 +66,13 @@ public class Fire implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		int newFrame;
 		if(numTiles > 1 && frame == 0)
@@ -86,14 +87,14 @@ public class Fire implements BlockType
 
 		SubTexture randomTexture = new SubTexture(texture.texture, texture.u0, texture.v0+(float)((newFrame-1)*texWidth)/texHeight, texture.u1, texture.v0+(float)(newFrame*texWidth)/texHeight);
 		
-		Mesh mesh = geometry.getMesh(randomTexture.texture, Geometry.MeshType.AlphaTest);
+		VertexSink mesh = geometry.getMesh(randomTexture.texture, Geometry.MeshType.AlphaTest);
 		
 		Vector4f colour = new Vector4f(1, 1, 1, 1);
 		
 		addFireGeometry(x, y, z, mesh, colour, randomTexture);
 	}
 	
-	public static void addFireGeometry(final float x, final float y, final float z, Mesh mesh, Vector4f colour, SubTexture texture)
+	public static void addFireGeometry(final float x, final float y, final float z, VertexSink mesh, Vector4f colour, SubTexture texture)
 	{
 		final float offset = 0.7f;
 		
@@ -23,6 +23,7 @@ import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.Colour4f;
@@ -70,13 +71,13 @@ public class FruitStem implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		final int data = chunk.getBlockData(x, y, z);
 		
@@ -126,7 +127,7 @@ public class FruitStem implements BlockType
 		
 		SubTexture texture = isBent ? bentStem : growingStem;
 		SubMesh subMesh = new SubMesh();
-		//Mesh mesh = geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest);
+		//VertexSink mesh = geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest);
 		
 		subMesh.addDoubleSidedQuad(new Vector3f(0,	0+offsetY,	0.5f),
 									new Vector3f(1,	0+offsetY,	0.5f),
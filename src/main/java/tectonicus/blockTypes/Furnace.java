@@ -12,9 +12,10 @@ package tectonicus.blockTypes;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -67,17 +68,17 @@ public class Furnace implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
-		Mesh frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink frontMesh = geometry.getMesh(frontTexture.texture, Geometry.MeshType.Solid);
 
 		Colour4f colour = new Colour4f(1, 1, 1, 1);
 
@@ -93,10 +94,10 @@ public class Furnace implements BlockType
 		SubTexture eastTex = data == 0x5 ? frontTexture : sideTexture;
 		SubTexture westTex = data == 0x4 ? frontTexture : sideTexture;
 		
-		Mesh northMesh = data == 0x2 ? frontMesh : sideMesh;
-		Mesh southMesh = data == 0x3 ? frontMesh : sideMesh;
-		Mesh eastMesh = data == 0x5 ? frontMesh : sideMesh;
-		Mesh westMesh = data == 0x4 ? frontMesh : sideMesh;
+		VertexSink northMesh = data == 0x2 ? frontMesh : sideMesh;
+		VertexSink southMesh = data == 0x3 ? frontMesh : sideMesh;
+		VertexSink eastMesh = data == 0x5 ? frontMesh : sideMesh;
+		VertexSink westMesh = data == 0x4 ? frontMesh : sideMesh;
 		
 		BlockUtil.addTop(world, chunk, topMesh, x, y, z, colour, topTexture, registry);
 		BlockUtil.addBottom(world, chunk, topMesh, x, y, z, colour, topTexture, registry);
@@ -14,9 +14,10 @@ import tectonicus.BlockIds;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.cache.BiomeCache;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.Colour4f;
@@ -71,13 +72,13 @@ public class Grass implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		//TODO: decide if we want to support backwards compatibility with McRegion worlds
 		/*
@@ -124,13 +125,13 @@ public class Grass implements BlockType
 		
 		Colour4f sideColour = betterGrass == BetterGrassMode.Fancy ? colour : white;
 		
-		Mesh topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
 		BlockUtil.addTop(world, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
 		
-		Mesh bottomMesh = geometry.getMesh(bottomTexture.texture, Geometry.MeshType.Solid);
+		VertexSink bottomMesh = geometry.getMesh(bottomTexture.texture, Geometry.MeshType.Solid);
 		BlockUtil.addBottom(world, rawChunk, bottomMesh, x, y, z, white, bottomTexture, registry);
 		
-		Mesh actualSideMesh = geometry.getMesh(actualSideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink actualSideMesh = geometry.getMesh(actualSideTexture.texture, Geometry.MeshType.Solid);
 		BlockUtil.addNorth(world, rawChunk, actualSideMesh, x, y, z, sideColour, actualSideTexture, registry);
 		BlockUtil.addSouth(world, rawChunk, actualSideMesh, x, y, z, sideColour, actualSideTexture, registry);
 		BlockUtil.addEast(world, rawChunk, actualSideMesh, x, y, z, sideColour, actualSideTexture, registry);
@@ -138,7 +139,7 @@ public class Grass implements BlockType
 		
 		if (!aboveIsSnow && betterGrass != BetterGrassMode.Fast)
 		{
-			Mesh alphaMesh = geometry.getMesh(grassSideTexture.texture, Geometry.MeshType.AlphaTest);
+			VertexSink alphaMesh = geometry.getMesh(grassSideTexture.texture, Geometry.MeshType.AlphaTest);
 			if (betterGrass != BetterGrassMode.Fancy)
 			{
 				BlockUtil.addNorth(world, rawChunk, alphaMesh, x, y, z, colour, grassSideTexture, registry);
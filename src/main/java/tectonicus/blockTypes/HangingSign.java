@@ -17,6 +17,7 @@ import tectonicus.rasteriser.SubMesh;
 import tectonicus.raw.BlockProperties;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 public class HangingSign extends Sign
@@ -64,7 +65,7 @@ public class HangingSign extends Sign
         }
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 final BlockProperties properties = rawChunk.getBlockState(x, y, z);
                 int data = getRotationData(x, y, z, rawChunk, properties);
@@ -17,12 +17,13 @@ import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 public class Hopper implements BlockType
@@ -62,17 +63,17 @@ public class Hopper implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
-		Mesh insideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
-		Mesh insideBottomMesh = geometry.getMesh(inside.texture, Geometry.MeshType.AlphaTest);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.AlphaTest);
+		VertexSink insideMesh = geometry.getMesh(side.texture, Geometry.MeshType.AlphaTest);
+		VertexSink insideBottomMesh = geometry.getMesh(inside.texture, Geometry.MeshType.AlphaTest);
 		SubMesh sideMesh = new SubMesh();
 		final float lightness = Chunk.getLight(world.getLightStyle(), LightFace.Top, rawChunk, x, y, z, world.getNightLightAdjustment());
 		
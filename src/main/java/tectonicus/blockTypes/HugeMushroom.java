@@ -12,9 +12,10 @@ package tectonicus.blockTypes;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -56,13 +57,13 @@ public class HugeMushroom implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, chunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		final int data = chunk.getBlockData(x, y, z);
 		
@@ -145,13 +146,13 @@ public class HugeMushroom implements BlockType
 		
 		top = cap;
 		
-		Mesh topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
-		Mesh bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(top.texture, Geometry.MeshType.Solid);
+		VertexSink bottomMesh = geometry.getMesh(bottom.texture, Geometry.MeshType.Solid);
 		
-		Mesh northMesh = geometry.getMesh(north.texture, Geometry.MeshType.Solid);
-		Mesh southMesh = geometry.getMesh(south.texture, Geometry.MeshType.Solid);
-		Mesh eastMesh = geometry.getMesh(east.texture, Geometry.MeshType.Solid);
-		Mesh westMesh = geometry.getMesh(west.texture, Geometry.MeshType.Solid);
+		VertexSink northMesh = geometry.getMesh(north.texture, Geometry.MeshType.Solid);
+		VertexSink southMesh = geometry.getMesh(south.texture, Geometry.MeshType.Solid);
+		VertexSink eastMesh = geometry.getMesh(east.texture, Geometry.MeshType.Solid);
+		VertexSink westMesh = geometry.getMesh(west.texture, Geometry.MeshType.Solid);
 		
 		BlockUtil.addTop(world, chunk, topMesh, x, y, z, colour, top, registry);
 		BlockUtil.addBottom(world, chunk, bottomMesh, x, y, z, colour, bottom, registry);
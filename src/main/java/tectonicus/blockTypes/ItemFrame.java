@@ -15,11 +15,12 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.PaintingEntity;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -63,17 +64,17 @@ public class ItemFrame implements BlockType
 	}
 
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh mesh = geometry.getMesh(border.texture, Geometry.MeshType.Solid);
-		Mesh backgroundMesh = geometry.getMesh(background.texture, Geometry.MeshType.Solid);
-		Mesh mapMesh = null;
+		VertexSink mesh = geometry.getMesh(border.texture, Geometry.MeshType.Solid);
+		VertexSink backgroundMesh = geometry.getMesh(background.texture, Geometry.MeshType.Solid);
+		VertexSink mapMesh = null;
 		if (map != null) { //Allow use of pre beta 1.6 minecraft jars
 			mapMesh = geometry.getMesh(map.texture, Geometry.MeshType.AlphaTest);
 		}
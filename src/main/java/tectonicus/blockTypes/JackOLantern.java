@@ -12,9 +12,10 @@ package tectonicus.blockTypes;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -69,17 +70,17 @@ public class JackOLantern implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
-		Mesh mesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
-		Mesh frontMesh = geometry.getMesh(front.texture, Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
+		VertexSink mesh = geometry.getMesh(topTexture.texture, Geometry.MeshType.Solid);
+		VertexSink frontMesh = geometry.getMesh(front.texture, Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, Geometry.MeshType.Solid);
 		
 		final int data = chunk.getBlockData(x, y, z);
 		
@@ -93,10 +94,10 @@ public class JackOLantern implements BlockType
 		SubTexture eastTex = data == 0x2 ? front : sideTexture;
 		SubTexture westTex = data == 0x0 ? front : sideTexture;
 		
-		Mesh northMesh = data == 0x1 ? frontMesh : sideMesh;
-		Mesh southMesh = data == 0x3 ? frontMesh : sideMesh;
-		Mesh eastMesh = data == 0x2 ? frontMesh : sideMesh;
-		Mesh westMesh = data == 0x0 ? frontMesh : sideMesh; 
+		VertexSink northMesh = data == 0x1 ? frontMesh : sideMesh;
+		VertexSink southMesh = data == 0x3 ? frontMesh : sideMesh;
+		VertexSink eastMesh = data == 0x2 ? frontMesh : sideMesh;
+		VertexSink westMesh = data == 0x0 ? frontMesh : sideMesh; 
 		
 		BlockUtil.addTop(world, chunk, mesh, x, y, z, colour, topTexture, registry);
 		BlockUtil.addBottom(world, chunk, mesh, x, y, z, colour, topTexture, registry);
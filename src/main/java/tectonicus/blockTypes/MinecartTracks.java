@@ -17,10 +17,11 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSION_4;
@@ -70,17 +71,17 @@ public class MinecartTracks implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
-		Mesh straightMesh = geometry.getMesh(straightTexture.texture, Geometry.MeshType.AlphaTest);
-		Mesh poweredMesh = geometry.getMesh(powered.texture, Geometry.MeshType.AlphaTest);
-		Mesh cornerMesh = geometry.getMesh(cornerTexture.texture, Geometry.MeshType.AlphaTest);
+		VertexSink straightMesh = geometry.getMesh(straightTexture.texture, Geometry.MeshType.AlphaTest);
+		VertexSink poweredMesh = geometry.getMesh(powered.texture, Geometry.MeshType.AlphaTest);
+		VertexSink cornerMesh = geometry.getMesh(cornerTexture.texture, Geometry.MeshType.AlphaTest);
 		
 		// TODO: Should we change the light if the track is inclined?
 		final float light = world.getLight(chunk.getChunkCoord(), x, y, z, LightFace.Top);
@@ -15,7 +15,7 @@ import tectonicus.BlockTypeRegistry;
 import tectonicus.blockregistry.BlockModel;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.raw.RawChunk;
-import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 
 public class Observer implements BlockType
 {
@@ -47,13 +47,13 @@ public class Observer implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		BlockModel model = world.getModelRegistry().getModel(stringId.replace("minecraft:", "block/"));
 		final int data = chunk.getBlockData(x, y, z);
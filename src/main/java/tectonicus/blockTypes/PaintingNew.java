@@ -18,11 +18,12 @@ import tectonicus.chunk.Chunk;
 import tectonicus.configuration.LightFace;
 import tectonicus.paintingregistry.PaintingRegistry;
 import tectonicus.paintingregistry.PaintingVariant;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.PaintingEntity;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
 
@@ -54,13 +55,13 @@ public class PaintingNew implements BlockType
 	}
 
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry) {
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry) {
 		final float texel = 1.0f/16.0f;
 		PaintingRegistry paintingRegistry = world.getPaintingRegistry();
 		TexturePack texturePack = world.getTexturePack();
@@ -69,8 +70,8 @@ public class PaintingNew implements BlockType
 			String motive = entity.getMotive().toLowerCase();
 			SubTexture painting = texturePack.getPackTexture(motive).getFullTexture();
 			SubTexture backing = texturePack.getPackTexture("minecraft:back").getFullTexture();
-			Mesh mesh = geometry.getMesh(painting.texture, Geometry.MeshType.AlphaTest);
-			Mesh backMesh = geometry.getMesh(backing.texture, Geometry.MeshType.AlphaTest);
+			VertexSink mesh = geometry.getMesh(painting.texture, Geometry.MeshType.AlphaTest);
+			VertexSink backMesh = geometry.getMesh(backing.texture, Geometry.MeshType.AlphaTest);
 
 			int tempX = entity.getLocalX();
 			int tempY = entity.getLocalY();
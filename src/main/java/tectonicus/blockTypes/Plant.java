@@ -17,10 +17,11 @@ import tectonicus.BlockIds;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.MeshUtil;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -65,15 +66,15 @@ public class Plant implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh mesh = geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest);
+		VertexSink mesh = geometry.getMesh(texture.texture, Geometry.MeshType.AlphaTest);
 		
 		final float lightVal = world.getLight(rawChunk.getChunkCoord(), x, y, z, LightFace.Top);
 		final int data = rawChunk.getBlockData(x, y, z);
@@ -83,7 +84,7 @@ public class Plant implements BlockType
 		//Vector4f colour = new Vector4f(lightVal, lightVal, lightVal, 1.0f);
 		if(blockId == BlockIds.LARGE_FLOWERS)
 		{
-			Mesh bottomMesh = geometry.getMesh(bottomTexture.texture, Geometry.MeshType.AlphaTest);
+			VertexSink bottomMesh = geometry.getMesh(bottomTexture.texture, Geometry.MeshType.AlphaTest);
 			addPlantGeometry(x, y, z, 0, bottomMesh, colour, bottomTexture);
 			addPlantGeometry(x, y, z, 1, mesh, colour, texture);
 		}
@@ -93,7 +94,7 @@ public class Plant implements BlockType
 		}
 	}
 	
-	public static void addPlantGeometry(final float x, final float y, final float z, final float heightOffGround, Mesh mesh, Vector4f colour, SubTexture texture)
+	public static void addPlantGeometry(final float x, final float y, final float z, final float heightOffGround, VertexSink mesh, Vector4f colour, SubTexture texture)
 	{
 		// NE corner to SW corner
 		MeshUtil.addQuad(mesh,	new Vector3f(x,		y+1+heightOffGround,	z),
@@ -19,10 +19,11 @@ import tectonicus.BlockTypeRegistry;
 import tectonicus.chunk.Chunk;
 import tectonicus.Version;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 import static tectonicus.Version.VERSIONS_9_TO_11;
@@ -69,18 +70,18 @@ public class RedstoneWire implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
 		// Figure out if we're connected to anything N/S/E/W
 		
-		Mesh mesh = geometry.getMesh(junction.texture, Geometry.MeshType.AlphaTest);
-		Mesh lineMesh = geometry.getMesh(line.texture, Geometry.MeshType.AlphaTest);
+		VertexSink mesh = geometry.getMesh(junction.texture, Geometry.MeshType.AlphaTest);
+		VertexSink lineMesh = geometry.getMesh(line.texture, Geometry.MeshType.AlphaTest);
 		
 		final int data = chunk.getBlockData(x, y, z);
 		
@@ -191,7 +192,7 @@ public class RedstoneWire implements BlockType
 												junction.u0 + leftTexOffset, junction.v0 + leftTexOffset,
 												junction.u1 - leftTexOffset, junction.v1 - leftTexOffset);
 			
-			Mesh centerMesh = geometry.getMesh(center.texture, Geometry.MeshType.AlphaTest);
+			VertexSink centerMesh = geometry.getMesh(center.texture, Geometry.MeshType.AlphaTest);
 			
 			MeshUtil.addQuad(centerMesh,	new Vector3f(x + leftOffset,	actualY, z + leftOffset),
 											new Vector3f(x + rightOffset,	actualY, z + leftOffset),
@@ -206,7 +207,7 @@ public class RedstoneWire implements BlockType
 							line.u0, line.v0,
 							line.u1, line.v0 + leftTexOffset);
 					
-					Mesh northMesh = geometry.getMesh(northTex.texture, Geometry.MeshType.AlphaTest);
+					VertexSink northMesh = geometry.getMesh(northTex.texture, Geometry.MeshType.AlphaTest);
 					
 					MeshUtil.addQuad(northMesh, new Vector3f(x,	actualY, z + 1),	
 												new Vector3f(x,	actualY, z),
@@ -219,7 +220,7 @@ public class RedstoneWire implements BlockType
 							junction.u0, junction.v0,
 							junction.u0 + leftTexOffset, junction.v1);
 					
-					Mesh northMesh = geometry.getMesh(northTex.texture, Geometry.MeshType.AlphaTest);
+					VertexSink northMesh = geometry.getMesh(northTex.texture, Geometry.MeshType.AlphaTest);
 					
 					MeshUtil.addQuad(northMesh,	new Vector3f(x,	actualY, z),
 												new Vector3f(x + leftOffset,	actualY, z),
@@ -236,7 +237,7 @@ public class RedstoneWire implements BlockType
 							line.u0, line.v1 - leftTexOffset,
 							line.u1, line.v1);
 					
-					Mesh southMesh = geometry.getMesh(southTex.texture, Geometry.MeshType.AlphaTest);
+					VertexSink southMesh = geometry.getMesh(southTex.texture, Geometry.MeshType.AlphaTest);
 					
 					MeshUtil.addQuad(southMesh,	new Vector3f(x + 1 - leftOffset,	actualY, z + 1),
 												new Vector3f(x + 1 - leftOffset,	actualY, z),
@@ -249,7 +250,7 @@ public class RedstoneWire implements BlockType
 							junction.u1 - leftTexOffset, junction.v0,
 							junction.u1, junction.v1);
 					
-					Mesh southMesh = geometry.getMesh(southTex.texture, Geometry.MeshType.AlphaTest);
+					VertexSink southMesh = geometry.getMesh(southTex.texture, Geometry.MeshType.AlphaTest);
 					
 					MeshUtil.addQuad(southMesh,	new Vector3f(x + 1 - leftOffset,	actualY, z),
 												new Vector3f(x + 1,	actualY, z),
@@ -274,7 +275,7 @@ public class RedstoneWire implements BlockType
 							junction.u1, junction.v0 + leftTexOffset);
 				}
 				
-				Mesh eastMesh = geometry.getMesh(eastTex.texture, Geometry.MeshType.AlphaTest);
+				VertexSink eastMesh = geometry.getMesh(eastTex.texture, Geometry.MeshType.AlphaTest);
 				
 				MeshUtil.addQuad(eastMesh,	new Vector3f(x,	actualY, z),
 											new Vector3f(x + 1,	actualY, z),
@@ -298,7 +299,7 @@ public class RedstoneWire implements BlockType
 							junction.u1, junction.v1);
 				}
 				
-				Mesh westMesh = geometry.getMesh(westTex.texture, Geometry.MeshType.AlphaTest);
+				VertexSink westMesh = geometry.getMesh(westTex.texture, Geometry.MeshType.AlphaTest);
 				
 				MeshUtil.addQuad(westMesh,	new Vector3f(x,	actualY, z + 1 - leftOffset),
 											new Vector3f(x + 1,	actualY, z + 1 - leftOffset),
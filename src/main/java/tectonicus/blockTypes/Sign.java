@@ -18,13 +18,14 @@ import tectonicus.chunk.Chunk;
 import tectonicus.TextLayout;
 import tectonicus.Version;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.rasteriser.SubMesh;
 import tectonicus.rasteriser.SubMesh.Rotation;
 import tectonicus.raw.BlockProperties;
 import tectonicus.raw.RawChunk;
 import tectonicus.raw.SignEntity;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 import tectonicus.world.Colors;
@@ -60,7 +61,7 @@ public class Sign implements BlockType
 	protected final boolean isWall;
 	protected final boolean obey;
 	
-	private Version texturePackVersion;
+	private final Version texturePackVersion;
 	
         protected Sign(String name, Version texturePackVersion, final boolean isWall, final boolean obey) {
 		this.name = name;
@@ -109,13 +110,13 @@ public class Sign implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
                 final BlockProperties properties = rawChunk.getBlockState(x, y, z);
                 int data = getRotationData(x, y, z, rawChunk, properties);
@@ -221,14 +222,14 @@ public class Sign implements BlockType
             }                
         }
         
-        protected void addText(int x, int y, int z, BlockContext world, RawChunk rawChunk, Geometry geometry, float xOffset, float yOffset, float zOffset, float angle) {
+        protected void addText(int x, int y, int z, BlockContext world, RawChunk rawChunk, GeometryBuilder geometry, float xOffset, float yOffset, float zOffset, float angle) {
 		// Add the text
 		if (!obey)
 		{
                         String xyz = "x" + x + "y" + y + "z" + z;
                         SignEntity sign = rawChunk.getSigns().get(xyz);
 
-                        Mesh textMesh = geometry.getMesh(world.getTexturePack().getFont().getTexture(), Geometry.MeshType.AlphaTest);
+                        VertexSink textMesh = geometry.getMesh(world.getTexturePack().getFont().getTexture(), Geometry.MeshType.AlphaTest);
 			
 			final float epsilon = 0.001f;
 						
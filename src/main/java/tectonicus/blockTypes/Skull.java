@@ -23,6 +23,7 @@ import tectonicus.raw.Player;
 import tectonicus.raw.RawChunk;
 import tectonicus.raw.SkullEntity;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -32,14 +33,14 @@ public class Skull implements BlockType
 {
 	private final String name;
 	
-	private SubTexture texture;
+	private final SubTexture texture;
 	private final SubTexture ctexture;
 	private final SubTexture stexture;
 	private final SubTexture wtexture;
 	private final SubTexture ztexture;
 	private final SubTexture dtexture;
 
-	private Colour4f colour;
+	private final Colour4f colour;
 
 	public Skull(String name, SubTexture texture, SubTexture ctexture, SubTexture stexture, SubTexture wtexture, SubTexture ztexture, SubTexture dtexture) 
 	{
@@ -77,14 +78,14 @@ public class Skull implements BlockType
 	}
 
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 
 	}
 
 	@Override
-	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
         {
 		String xyz = "x" + x + "y" + y + "z" + z;
                 SkullEntity skullEntity = rawChunk.getSkulls().get(xyz);
@@ -95,7 +96,7 @@ public class Skull implements BlockType
                 addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry, skullEntity);
         }
 
-        public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry, SkullEntity entity) 
+        public void addEdgeGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry, SkullEntity entity) 
         {				
 		SubMesh subMesh = new SubMesh();
 
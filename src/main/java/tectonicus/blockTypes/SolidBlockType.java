@@ -12,9 +12,10 @@ package tectonicus.blockTypes;
 import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 
@@ -100,10 +101,10 @@ public class SolidBlockType implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(topTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
 		
 		BlockUtil.addInteriorTop(world, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
 		BlockUtil.addInteriorBottom(world, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
@@ -115,10 +116,10 @@ public class SolidBlockType implements BlockType
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext context, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
-		Mesh topMesh = geometry.getMesh(topTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
-		Mesh sideMesh = geometry.getMesh(sideTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
+		VertexSink topMesh = geometry.getMesh(topTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
+		VertexSink sideMesh = geometry.getMesh(sideTexture.texture, alphaTest ? Geometry.MeshType.AlphaTest : Geometry.MeshType.Solid);
 		
 		BlockUtil.addTop(context, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
 		BlockUtil.addBottom(context, rawChunk, topMesh, x, y, z, colour, topTexture, registry);
@@ -15,9 +15,10 @@ import tectonicus.BlockContext;
 import tectonicus.BlockType;
 import tectonicus.BlockTypeRegistry;
 import tectonicus.configuration.LightFace;
-import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.VertexSink;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 
 public class Stairs implements BlockType
@@ -50,15 +51,15 @@ public class Stairs implements BlockType
 	}
 	
 	@Override
-	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, Geometry geometry)
+	public void addInteriorGeometry(int x, int y, int z, BlockContext world, BlockTypeRegistry registry, RawChunk rawChunk, GeometryBuilder geometry)
 	{
 		addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
 	}
 	
 	@Override
-	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, Geometry geometry)
+	public void addEdgeGeometry(final int x, final int y, final int z, BlockContext world, BlockTypeRegistry registry, RawChunk chunk, GeometryBuilder geometry)
 	{
-		Mesh mesh = geometry.getMesh(texture.texture, Geometry.MeshType.Solid);
+		VertexSink mesh = geometry.getMesh(texture.texture, Geometry.MeshType.Solid);
 		
 		Vector4f colour = new Vector4f(1, 1, 1, 1);
 		
@@ -132,7 +133,7 @@ public class Stairs implements BlockType
 	}
 	
 	
-	private void createNorthStair(Mesh mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
+	private void createNorthStair(VertexSink mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
 									Vector4f colour, final float topLight, final float northLight, final float southLight, final float eastLight, final float westLight)
 	{
 		final float ownLight = Math.max(topLight, Math.max(northLight, Math.max(southLight, Math.max(eastLight, westLight))));
@@ -170,7 +171,7 @@ public class Stairs implements BlockType
 	}
 	
 	
-	private void createSouthStair(Mesh mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
+	private void createSouthStair(VertexSink mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
 									Vector4f colour, final float topLight, final float northLight, final float southLight, final float eastLight, final float westLight)
 	{
 		final float ownLight = Math.max(topLight, Math.max(northLight, Math.max(southLight, Math.max(eastLight, westLight))));
@@ -210,7 +211,7 @@ public class Stairs implements BlockType
 	}
 	
 	
-	private void createWestStair(Mesh mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
+	private void createWestStair(VertexSink mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
 			Vector4f colour, final float topLight, final float northLight, final float southLight, final float eastLight, final float westLight)
 	{
 		final float ownLight = Math.max(topLight, Math.max(northLight, Math.max(southLight, Math.max(eastLight, westLight))));
@@ -248,7 +249,7 @@ public class Stairs implements BlockType
 	}
 	
 	
-	private void createEastStair(Mesh mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
+	private void createEastStair(VertexSink mesh, final int x, final int y, final int z, final int offSetY, BlockContext world, RawChunk chunk,
 			Vector4f colour, final float topLight, final float northLight, final float southLight, final float eastLight, final float westLight)
 	{
 		final float ownLight = Math.max(topLight, Math.max(northLight, Math.max(southLight, Math.max(eastLight, westLight))));
@@ -18,7 +18,7 @@ import tectonicus.RegionCoord;
 import tectonicus.chunk.ChunkCoord;
 import tectonicus.rasteriser.MeshUtil;
 import tectonicus.raw.RawChunk;
-import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.PackTexture;
 import tectonicus.texture.SubTexture;
 import tectonicus.texture.TexturePack;
@@ -66,7 +66,7 @@ public class BlockModel
 		}
 	}
 	
-	public void createGeometry(int x, int y, int z, BlockContext world, RawChunk rawChunk, Geometry geometry, int xRotation, int yRotation)
+	public void createGeometry(int x, int y, int z, BlockContext world, RawChunk rawChunk, GeometryBuilder geometry, int xRotation, int yRotation)
 	{
 		try {
 			MeshUtil.addBlock(world, rawChunk, x, y, z, this, geometry, xRotation, yRotation);
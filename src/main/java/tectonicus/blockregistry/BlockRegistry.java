@@ -20,6 +20,8 @@ import tectonicus.Minecraft;
 import tectonicus.Version;
 import tectonicus.configuration.MutableConfiguration;
 import tectonicus.rasteriser.Rasteriser;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
 import tectonicus.texture.TexturePack;
 import tectonicus.texture.ZipStack;
 import tools.jackson.core.JacksonException;
@@ -43,6 +45,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,6 +68,9 @@ public class BlockRegistry
 	@Getter
 	private final Cache<String, BlockStateModelsWeight> singleVariantBlocks = Caffeine.newBuilder().build();
 	private final Set<String> missingBlockModels = new HashSet<>();
+	/** Indexed by block state id, see {@link #resolve(int)}. Belongs to this registry so a new registry starts afresh */
+	private volatile ResolvedBlockState[] resolvedStates = new ResolvedBlockState[256];
+	private final Object resolvedStatesLock = new Object();
 	private TexturePack texturePack;
 	private ZipStack zips;
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -119,6 +125,59 @@ public class BlockRegistry
 		return singleVariantBlocks.getIfPresent(blockName) != null;
 	}
 	
+	/** Works out which models apply to a block state, caching the answer for each {@link BlockStates} id.
+	 *  Must not be called for {@link BlockStates#NONE}. */
+	public ResolvedBlockState resolve(final int blockStateId) {
+		ResolvedBlockState[] states = resolvedStates;
+		if (blockStateId < states.length && states[blockStateId] != null)
+			return states[blockStateId];
+
+		ResolvedBlockState resolved = resolve(BlockStates.getName(blockStateId), BlockStates.getProperties(blockStateId));
+
+		// Entries are only added under the lock, and the array is written back each time so readers see them
+		synchronized (resolvedStatesLock) {
+			states = resolvedStates;
+			if (blockStateId >= states.length)
+				states = Arrays.copyOf(states, Math.max(states.length * 2, blockStateId + 1));
+
+			// Another thread got here first, so keep its answer
+			if (states[blockStateId] != null)
+				return states[blockStateId];
+
+			states[blockStateId] = resolved;
+			resolvedStates = states;
+		}
+
+		return resolved;
+	}
+
+	private ResolvedBlockState resolve(String blockName, BlockProperties properties) {
+		//TODO: is there some way to avoid hard-coding these blocks?
+		final boolean waterlogged = properties != null && properties.containsKey("waterlogged") && properties.get("waterlogged").equals("true")
+				|| blockName.equals("minecraft:kelp") || blockName.equals("minecraft:kelp_plant") || blockName.contains("seagrass");
+
+		BlockStateModelsWeight singleVariant = singleVariantBlocks.getIfPresent(blockName);
+		if (singleVariant != null)
+			return new ResolvedBlockState(true, waterlogged, new BlockStateModelsWeight[] { singleVariant }, new boolean[] { true });
+
+		BlockStateWrapper stateWrapper = getBlock(blockName);
+		if (stateWrapper == null)
+			return waterlogged ? new ResolvedBlockState(false, true, new BlockStateModelsWeight[0], new boolean[0]) : ResolvedBlockState.MISSING;
+
+		List<BlockState> states = stateWrapper.getStates();
+		List<BlockStateModelsWeight> groups = new ArrayList<>();
+		boolean[] pickOne = new boolean[states.size()];
+		for (BlockState state : states) {
+			BlockState.Match match = state.match(properties);
+			if (match != BlockState.Match.NONE) {
+				pickOne[groups.size()] = match == BlockState.Match.ONE;
+				groups.add(state.getModelsAndWeight());
+			}
+		}
+
+		return new ResolvedBlockState(true, waterlogged, groups.toArray(new BlockStateModelsWeight[0]), Arrays.copyOf(pickOne, groups.size()));
+	}
+	
 	public void deserializeBlockstates() {
 		log.debug("Loading blockstate json from minecraft jar");
 		try (FileSystem fs = FileSystems.newFileSystem(Paths.get(zips.getBaseFileName()));
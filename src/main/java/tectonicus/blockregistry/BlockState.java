@@ -13,8 +13,25 @@ import java.util.List;
 import tectonicus.raw.BlockProperties;
 
 public abstract class BlockState {
+	/** How the models of a state apply to a block */
+	enum Match {
+		NONE,
+		/** Every model is drawn */
+		ALL,
+		/** One weighted model is picked at random */
+		ONE
+	}
+	
 	abstract BlockStateModelsWeight getModelsAndWeight();
-        abstract void addModels(List<BlockStateModel> models, BlockProperties properties);
+	abstract Match match(BlockProperties properties);
+	
+	void addModels(List<BlockStateModel> models, BlockProperties properties) {
+		switch (match(properties)) {
+			case ALL -> models.addAll(getModelsAndWeight().getModels());
+			case ONE -> models.add(getRandomWeightedModel(getModelsAndWeight()));
+			default -> { }
+		}
+	}
         
 	//TODO: We need to do similar to whatever Minecraft does so that the same model is always chosen for specific block coordinates
 	public static BlockStateModel getRandomWeightedModel(BlockStateModelsWeight modelsAndWeight) {
@@ -25,9 +25,9 @@ public class BlockStateCase extends BlockState {
 	BlockStateModelsWeight modelsAndWeight;
         
         @Override
-        void addModels(List<BlockStateModel> models, BlockProperties properties) {
+        Match match(BlockProperties properties) {
                 if (whenClauses.isEmpty()) {  // If no when clauses then always apply models
-                        models.addAll(modelsAndWeight.getModels());
+                        return Match.ALL;
                 } else {
                         for (Map<String, String> clause : whenClauses) {
                                 boolean addModel = true;
@@ -39,10 +39,10 @@ public class BlockStateCase extends BlockState {
                                         }
                                 }
                                 if (addModel) {
-                                        models.add(getRandomWeightedModel(modelsAndWeight));
-                                        break;
+                                        return Match.ONE;
                                 }
                         }
+                        return Match.NONE;
                 }
         }
 }
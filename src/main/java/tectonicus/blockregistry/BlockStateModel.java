@@ -15,7 +15,7 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.BlockContext;
 import tectonicus.raw.RawChunk;
-import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryBuilder;
 
 @Slf4j
 @Data
@@ -30,7 +30,7 @@ public class BlockStateModel {
 	private int weight = 1;
 	private boolean uvlock = false;
 
-	public void createGeometry(int x, int y, int z, BlockContext world, RawChunk rawChunk, Geometry geometry) {
+	public void createGeometry(int x, int y, int z, BlockContext world, RawChunk rawChunk, GeometryBuilder geometry) {
 		if(blockModel != null) {
 			blockModel.createGeometry(x, y, z, world, rawChunk, geometry, xRotation, yRotation);  //TODO: pass in weight and uvlock
 		} else {
@@ -12,7 +12,6 @@ package tectonicus.blockregistry;
 import lombok.Getter;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import tectonicus.raw.BlockProperties;
@@ -43,10 +42,11 @@ public class BlockVariant extends BlockState
 	}
         
         @Override
-        void addModels(List<BlockStateModel> models, BlockProperties properties) {
+        Match match(BlockProperties properties) {
                 String variantProperties = name;
                 if (variantProperties.equals(StringUtils.EMPTY) || properties.contains(variantProperties) || properties.containsAll(states)) {
-                        models.add(getRandomWeightedModel(modelsAndWeight));
+                        return Match.ONE;
                 }
+                return Match.NONE;
         }
 }
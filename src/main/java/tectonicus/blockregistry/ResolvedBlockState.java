@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.blockregistry;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static tectonicus.blockregistry.BlockState.getRandomWeightedModel;
+
+/** The blockstate variants and multipart cases which apply to one block state, worked out once per state by
+ *  {@link BlockRegistry#resolve(int)} rather than once per block.
+ *
+ *  Variants with several weighted models still pick one at random every time {@link #getModels()} is called.
+ */
+public class ResolvedBlockState {
+	static final ResolvedBlockState MISSING = new ResolvedBlockState(false, false, new BlockStateModelsWeight[0], new boolean[0]);
+
+	/** False if there's no blockstate json for the block */
+	@Getter
+	private final boolean found;
+	/** True if a water block needs to be drawn in the same place */
+	@Getter
+	private final boolean waterlogged;
+
+	private final BlockStateModelsWeight[] groups;
+	/** Whether to pick one weighted model from the matching group, or add all of them */
+	private final boolean[] pickOne;
+
+	/** The models when no random choice is needed, otherwise null */
+	private final List<BlockStateModel> fixedModels;
+
+	ResolvedBlockState(final boolean found, final boolean waterlogged, BlockStateModelsWeight[] groups, boolean[] pickOne) {
+		this.found = found;
+		this.waterlogged = waterlogged;
+		this.groups = groups;
+		this.pickOne = pickOne;
+
+		boolean random = false;
+		for (int i = 0; i < groups.length; i++)
+			random |= pickOne[i] && groups[i].getModels().size() > 1;
+
+		this.fixedModels = random ? null : Collections.unmodifiableList(collectModels());
+	}
+
+	/** @return the models to draw for a block in this state, which must not be modified */
+	public List<BlockStateModel> getModels() {
+		return fixedModels != null ? fixedModels : collectModels();
+	}
+
+	private List<BlockStateModel> collectModels() {
+		List<BlockStateModel> models = new ArrayList<>(groups.length);
+		for (int i = 0; i < groups.length; i++) {
+			if (pickOne[i])
+				models.add(getRandomWeightedModel(groups[i]));
+			else
+				models.addAll(groups[i].getModels());
+		}
+		return models;
+	}
+}
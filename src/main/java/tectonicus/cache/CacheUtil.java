@@ -189,13 +189,18 @@ public class CacheUtil
 	}
 	
 	public static BiomeCache createBiomeCache(Configuration config, Map map, MessageDigest hashAlgorithm)
+	{
+		return createBiomeCache(config, config.getCacheDir(), map, hashAlgorithm);
+	}
+	
+	public static BiomeCache createBiomeCache(Configuration config, File cacheDir, Map map, MessageDigest hashAlgorithm)
 	{
 		BiomeCache biomeCache = null;
 		if (map.useBiomeColours())
 		{
 			try
 			{
-				File actualDir = new File(config.getCacheDir(), map.getId());
+				File actualDir = new File(cacheDir, map.getId());
 				biomeCache = new FileBiomeCache(actualDir, map.getWorldDir(), config.getMinecraftJar(), hashAlgorithm);
 			}
 			catch (Exception e)
@@ -214,16 +219,18 @@ public class CacheUtil
 
 	public static TileCache createTileCache(final boolean useCache, String optionString, ImageFormat imageFormat, File rootCacheDir, tectonicus.configuration.Map map, Layer layer, MessageDigest hashAlgorithm) {
 		if (useCache) {
-			File subDir = new File(rootCacheDir, "tileHashes");
-			File mapDir = new File(subDir, layer.getMapId());
-			File layerDir = new File(mapDir, layer.getId());
-
-			return new FileTileCache(layerDir, imageFormat, map, layer, optionString, hashAlgorithm);
+			return new FileTileCache(getTileCacheDir(rootCacheDir, layer), imageFormat, map, layer, optionString, hashAlgorithm);
 		} else {
 			return new NullTileCache();
 		}
 	}
 
+	public static File getTileCacheDir(File rootCacheDir, Layer layer) {
+		File subDir = new File(rootCacheDir, "tileHashes");
+		File mapDir = new File(subDir, layer.getMapId());
+		return new File(mapDir, layer.getId());
+	}
+
 	public static FileViewCache createViewCache(File cacheDir, tectonicus.configuration.Map map, TempArea tempArea, MessageDigest hashAlgorithm, RegionHashStore regionHashStore) {
 		File viewsCache = new File(cacheDir, "views");
 		File mapViewsCache = new File(viewsCache, map.getId());
@@ -113,7 +113,7 @@ public class FileBiomeCache implements BiomeCache
 		return new File(cacheDir, "biomes.cache");
 	}
 	
-	public BiomeData loadBiomeData(ChunkCoord coord)
+	public synchronized BiomeData loadBiomeData(ChunkCoord coord)
 	{
 		BiomeData data;
 		
@@ -12,53 +12,88 @@ package tectonicus.cache;
 import lombok.extern.slf4j.Slf4j;
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
+import org.h2.mvstore.type.ByteArrayDataType;
+import org.h2.mvstore.type.LongDataType;
 import tectonicus.BlockRegistryParser;
 import tectonicus.TileCoord;
 import tectonicus.TileRenderer;
 import tectonicus.cache.swap.HddTileList;
 import tectonicus.cache.swap.HddTileListFactory;
-import tectonicus.chunk.ChunkCoord;
 import tectonicus.configuration.Configuration;
 import tectonicus.configuration.ImageFormat;
 import tectonicus.configuration.Layer;
-import tectonicus.renderer.OrthoCamera;
 import tectonicus.util.FileUtils;
-import tectonicus.world.World;
+import tectonicus.util.OrderedTaskQueue;
 
 import java.io.File;
 import java.io.InputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
 
 @Slf4j
 public class FileTileCache implements TileCache
 {
-	// Change this every time we have a major renderer change and need to invalidate the cache
-	private static final int RENDERER_VERSION = 16;
+	// Change this every time we have a major renderer change and need to invalidate the cache.
+	// Caches from before 17 used string keyed maps and are rebuilt rather than converted.
+	private static final int RENDERER_VERSION = 17;
+	
+	// Number of tiles or chunks handed to each task when looking for changes
+	private static final int KEYS_PER_TASK = 1024;
+	
+	private static final String BASE_HASHES_MAP = "baseTileHashes";
+	private static final String DOWNSAMPLE_MAP_PREFIX = "downsampleZoom";
 
 	private final File tileCacheDir;
 	
 	private final ImageFormat imageFormat;
 	
-	private final MessageDigest hashAlgorithm;
+	/** Each worker gets its own digest, since they can't be shared between threads */
+	private final ThreadLocal<MessageDigest> digests;
 	
+	/** New hashes of the changed tiles, read by {@link #writeImageCache} on the image writing threads */
 	private final Map<TileCoord, byte[]> tileHashes;
 	
 	private boolean wasExistingCacheValid;
 
 	private final MVStore store;
-	private final MVMap<String, byte[]> hashCache;
-	private final MVMap<String, Boolean> downsampleCache;
+	/** Hash of each base tile written out, keyed by {@link HddTileList#toKey} */
+	private final MVMap<Long, byte[]> hashCache;
+	
+	/** Downsampled tiles of each zoom level, keyed by {@link HddTileList#toKey}. True once the tile has been written out,
+	 *  false while it still needs downsampling */
+	private final Map<Integer, MVMap<Long, Boolean>> downsampleCaches = new ConcurrentHashMap<>();
+	private final MVMap<Long, byte[]> chunkHashes;
+	private final MVMap<Long, Boolean> dirtyTiles;
+	
+	private LongPredicate tileFilter = tileKey -> true;
 
 	public FileTileCache(File tileCacheDir, ImageFormat imageFormat, tectonicus.configuration.Map map, Layer layer, String optionString, MessageDigest hashAlgorithm)
 	{
-		this.hashAlgorithm = hashAlgorithm;
+		this.digests = ThreadLocal.withInitial(() ->
+		{
+			try
+			{
+				return MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
+			}
+			catch (NoSuchAlgorithmException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
 		this.imageFormat = imageFormat;
 		
 		this.tileCacheDir = tileCacheDir;
@@ -83,10 +118,11 @@ public class FileTileCache implements TileCache
 		}
 
 		store = new MVStore.Builder().fileName(tileCacheDir + "/tileRender.cache").compressHigh().open();
-		hashCache = store.openMap("tileHashes");
-		downsampleCache = store.openMap("tileDownsample");
+		hashCache = store.openMap(BASE_HASHES_MAP, new MVMap.Builder<Long, byte[]>().keyType(LongDataType.INSTANCE).valueType(ByteArrayDataType.INSTANCE));
+		chunkHashes = store.openMap("chunkHashes");
+		dirtyTiles = store.openMap("dirtyTiles");
 
-		tileHashes = new HashMap<>();
+		tileHashes = new ConcurrentHashMap<>();
 	}
 	
 	public boolean isUsingExistingCache()
@@ -96,7 +132,15 @@ public class FileTileCache implements TileCache
 
 	@Override
 	public boolean hasCreatedDownsampleCache() {
-		return downsampleCache.size() > 0;
+		for (String name : store.getMapNames()) {
+			if (name.startsWith(DOWNSAMPLE_MAP_PREFIX) && !getDownsampleCache(Integer.parseInt(name.substring(DOWNSAMPLE_MAP_PREFIX.length()))).isEmpty())
+				return true;
+		}
+		return false;
+	}
+	
+	private MVMap<Long, Boolean> getDownsampleCache(final int zoomLevel) {
+		return downsampleCaches.computeIfAbsent(zoomLevel, zoom -> store.openMap(DOWNSAMPLE_MAP_PREFIX + zoom, new MVMap.Builder<Long, Boolean>().keyType(LongDataType.INSTANCE)));
 	}
 	
 	private static boolean isCacheValid(File cacheDir, byte[] expectedHash, MessageDigest hashAlgo)
@@ -149,7 +193,7 @@ public class FileTileCache implements TileCache
 		return buffer.toString();
 	}
 	
-	private static String getMapString(tectonicus.configuration.Map map)
+	public static String getMapString(tectonicus.configuration.Map map)
 	{
 		String mapStr = "";
 		
@@ -164,7 +208,7 @@ public class FileTileCache implements TileCache
 		return mapStr;
 	}
 		
-	private static String getLayerString(Layer layer)
+	public static String getLayerString(Layer layer)
 	{
 		String layerStr = "";
 		
@@ -240,27 +284,188 @@ public class FileTileCache implements TileCache
 	public void closeTileCache() {
 		store.close();
 	}
+	
+	@Override
+	public void setTileFilter(LongPredicate filter)
+	{
+		this.tileFilter = filter;
+	}
+	
+	/** Tiles with a stored hash, read by {@link ShardSegments} when merging a shard's cache */
+	List<TileCoord> getHashedTiles()
+	{
+		List<TileCoord> result = new ArrayList<>(hashCache.size());
+		for (long tileKey : hashCache.keySet())
+			result.add(HddTileList.fromKey(tileKey));
+		return result;
+	}
+	
+	byte[] getTileHash(TileCoord coord)
+	{
+		return hashCache.get(HddTileList.toKey(coord.x, coord.y));
+	}
+	
+	/** Stores the hash of a tile rendered somewhere else, so it no longer needs rendering here */
+	void putTileHash(TileCoord coord, byte[] hash)
+	{
+		final long tileKey = HddTileList.toKey(coord.x, coord.y);
+		hashCache.put(tileKey, hash);
+		dirtyTiles.remove(tileKey);
+	}
+	
+	void removeTileHash(TileCoord coord)
+	{
+		hashCache.remove(HddTileList.toKey(coord.x, coord.y));
+	}
+	
+	@Override
+	public void commit()
+	{
+		store.commit();
+	}
 
 	@Override
-	public HddTileList findChangedTiles(HddTileListFactory factory, HddTileList visibleTiles, RegionHashStore regionHashStore, World world, tectonicus.configuration.Map map, OrthoCamera camera, final int zoom, final int tileWidth, final int tileHeight, File layerDir)
+	public HddTileList findChangedTiles(HddTileListFactory factory, HddTileList visibleTiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, File layerDir, ForkJoinPool pool)
 	{
 		final long start = System.currentTimeMillis();
 		
 		HddTileList result = factory.createList();
 		
-		int count = 0;
+		if (tileIndex.wasRebuilt() || chunkHashes.isEmpty())
+		{
+			// Nothing to compare against, so check every visible tile
+			checkTiles(tileKeys(visibleTiles), visibleTiles.size(), tileIndex, regionHashStore, layerDir, pool, result);
+			
+			chunkHashes.clear();
+			OrderedTaskQueue<Void> queue = new OrderedTaskQueue<>(pool, done -> {});
+			forEachBatch(tileIndex.getAllChunks().iterator(), batch -> queue.submit(() ->
+			{
+				for (long chunkKey : batch)
+				{
+					final byte[] hash = regionHashStore.getChunkHash(TileChunkIndex.fromKey(chunkKey));
+					if (hash != null)
+						chunkHashes.put(chunkKey, hash);
+				}
+				return null;
+			}));
+			queue.finish();
+		}
+		else
+		{
+			// Only tiles touched by a chunk whose hash has changed, plus any left over from an unfinished run.
+			// Removed chunks are kept with a null hash.
+			Map<Long, byte[]> changedChunks = new HashMap<>();
+			Set<Long> candidateTiles = new TreeSet<>(dirtyTiles.keySet());
+			
+			OrderedTaskQueue<Map<Long, byte[]>> queue = new OrderedTaskQueue<>(pool, changed ->
+			{
+				changedChunks.putAll(changed);
+				for (Long chunkKey : changed.keySet())
+				{
+					for (long tileKey : tileIndex.getTiles(chunkKey))
+						candidateTiles.add(tileKey);
+				}
+			});
+			forEachBatch(tileIndex.getCandidateChunks().iterator(), batch -> queue.submit(() -> findChangedChunks(batch, regionHashStore)));
+			queue.finish();
+			
+			Set<Long> visibleCandidates = new TreeSet<>();
+			for (Long tileKey : candidateTiles)
+			{
+				if (tileIndex.getChunks(tileKey).length > 0 && tileFilter.test(tileKey))
+					visibleCandidates.add(tileKey);
+				else
+					dirtyTiles.remove(tileKey);
+			}
+			
+			// Tiles whose image has gone from the output since the last run are drawn again, even if none of their chunks changed
+			OrderedTaskQueue<List<Long>> missingQueue = new OrderedTaskQueue<>(pool, visibleCandidates::addAll);
+			forEachBatch(tileKeys(visibleTiles), batch -> missingQueue.submit(() -> findMissingTiles(batch, layerDir)));
+			missingQueue.finish();
+			
+			checkTiles(visibleCandidates.iterator(), visibleCandidates.size(), tileIndex, regionHashStore, layerDir, pool, result);
+			
+			// Only move the baseline on once the affected tiles have been marked as dirty
+			for (Map.Entry<Long, byte[]> entry : changedChunks.entrySet())
+			{
+				if (entry.getValue() != null)
+					chunkHashes.put(entry.getKey(), entry.getValue());
+				else
+					chunkHashes.remove(entry.getKey());
+			}
+			
+			log.debug("{} changed chunks touched {} candidate tiles", changedChunks.size(), candidateTiles.size());
+		}
+		store.commit();
+		
+		System.out.println("100%");
 		
-		for (TileCoord coord : visibleTiles)
+		final long end = System.currentTimeMillis();
+		final long diff = end - start;
+		log.debug("FindChangedTiles took: "+(diff/1000.0f)+" seconds");
+		
+		return result;
+	}
+	
+	@Override
+	public void restoreChangedTiles(HddTileList tiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, ForkJoinPool pool)
+	{
+		OrderedTaskQueue<Map<TileCoord, byte[]>> queue = new OrderedTaskQueue<>(pool, hashes ->
 		{
-			// Check to see if the output tile exists
+			tileHashes.putAll(hashes);
+			for (TileCoord coord : hashes.keySet())
+				dirtyTiles.put(HddTileList.toKey(coord.x, coord.y), Boolean.TRUE);
+		});
+		forEachBatch(tileKeys(tiles), batch -> queue.submit(() ->
+		{
+			MessageDigest digest = digests.get();
+			Map<TileCoord, byte[]> hashes = new HashMap<>();
+			for (long tileKey : batch)
+				hashes.put(HddTileList.fromKey(tileKey), calculateTileHash(digest, tileIndex, regionHashStore, tileKey));
+			return hashes;
+		}));
+		queue.finish();
+	}
+	
+	/** Checks tiles in batches on the pool. Changed tiles are merged into the result in the order they were given. */
+	private void checkTiles(Iterator<Long> tileKeys, final int numTiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, File layerDir, ForkJoinPool pool, HddTileList result)
+	{
+		AtomicInteger count = new AtomicInteger();
+		OrderedTaskQueue<ChangedTiles> queue = new OrderedTaskQueue<>(pool, changed ->
+		{
+			for (int i = 0; i < changed.coords.size(); i++)
+			{
+				TileCoord coord = changed.coords.get(i);
+				result.add(coord);
+				tileHashes.put(coord, changed.hashes.get(i));
+				dirtyTiles.put(HddTileList.toKey(coord.x, coord.y), Boolean.TRUE);
+			}
+			
+			final int numDone = count.addAndGet(changed.numChecked);
+			final int percentage = (int)Math.floor((numDone / (float)numTiles) * 100);
+			System.out.print(percentage+"%\r"); //prints a carriage return after line
+		});
+		forEachBatch(tileKeys, batch -> queue.submit(() -> checkTiles(batch, tileIndex, regionHashStore, layerDir)));
+		queue.finish();
+	}
+	
+	private ChangedTiles checkTiles(long[] tileKeys, TileChunkIndex tileIndex, RegionHashStore regionHashStore, File layerDir)
+	{
+		MessageDigest digest = digests.get();
+		
+		ChangedTiles changed = new ChangedTiles();
+		for (long tileKey : tileKeys)
+		{
+			TileCoord coord = HddTileList.fromKey(tileKey);
 			
 			boolean cacheOk = false;
 			
-			final byte[] newHash = calculateTileHash(world, map, regionHashStore, camera, coord, zoom, tileWidth, tileHeight);
+			final byte[] newHash = calculateTileHash(digest, tileIndex, regionHashStore, tileKey);
 			
+			// Check to see if the output tile exists
 			File imgFile = TileRenderer.getImageFile(layerDir, coord.x, coord.y, imageFormat);
 			if (imgFile.exists()) {
-				final byte[] cachedHash = hashCache.get("tile_"+coord.x+"_"+coord.y);
+				final byte[] cachedHash = hashCache.get(tileKey);
 
 				if (cachedHash != null) {
 					cacheOk = CacheUtil.equal(cachedHash, newHash);
@@ -269,40 +474,98 @@ public class FileTileCache implements TileCache
 			
 			if (!cacheOk)
 			{
-				assert(newHash != null);
-				
-				result.add(coord);
-				tileHashes.put(coord, newHash);
+				changed.coords.add(coord);
+				changed.hashes.add(newHash);
 			}
-			
-			count++;
-			if (count % 100 == 0)
+			else if (dirtyTiles.containsKey(tileKey))
 			{
-				final int percentage = (int)Math.floor((count / (float)visibleTiles.size()) * 100);
-				System.out.print(percentage+"%\r"); //prints a carriage return after line
+				dirtyTiles.remove(tileKey);
 			}
 		}
+		changed.numChecked = tileKeys.length;
 		
-		System.out.println("100%");
-		
-		final long end = System.currentTimeMillis();
-		final long diff = end - start;
-		log.debug("FindChangedTiles took: "+(diff/1000.0f)+" seconds");
-		
-		return result;
+		return changed;
+	}
+	
+	/** @return the tiles whose image isn't in the output dir */
+	private List<Long> findMissingTiles(long[] tileKeys, File layerDir)
+	{
+		List<Long> missing = new ArrayList<>();
+		for (long tileKey : tileKeys)
+		{
+			TileCoord coord = HddTileList.fromKey(tileKey);
+			if (!TileRenderer.getImageFile(layerDir, coord.x, coord.y, imageFormat).exists())
+				missing.add(tileKey);
+		}
+		return missing;
+	}
+	
+	private Map<Long, byte[]> findChangedChunks(long[] chunkKeys, RegionHashStore regionHashStore)
+	{
+		Map<Long, byte[]> changed = new HashMap<>();
+		for (long chunkKey : chunkKeys)
+		{
+			final byte[] hash = regionHashStore.getChunkHash(TileChunkIndex.fromKey(chunkKey));
+			final byte[] previousHash = chunkHashes.get(chunkKey);
+			if (hash == null ? previousHash != null : (previousHash == null || !CacheUtil.equal(hash, previousHash)))
+				changed.put(chunkKey, hash);
+		}
+		return changed;
+	}
+	
+	private static Iterator<Long> tileKeys(HddTileList tiles)
+	{
+		Iterator<TileCoord> it = tiles.iterator();
+		return new Iterator<Long>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return it.hasNext();
+			}
+			
+			@Override
+			public Long next()
+			{
+				TileCoord coord = it.next();
+				return HddTileList.toKey(coord.x, coord.y);
+			}
+		};
+	}
+	
+	/** Splits keys up into batches of work for the pool */
+	private static void forEachBatch(Iterator<Long> keys, Consumer<long[]> action)
+	{
+		long[] batch = new long[KEYS_PER_TASK];
+		int numKeys = 0;
+		while (keys.hasNext())
+		{
+			batch[numKeys++] = keys.next();
+			if (numKeys == batch.length)
+			{
+				action.accept(batch);
+				batch = new long[KEYS_PER_TASK];
+				numKeys = 0;
+			}
+		}
+		if (numKeys > 0)
+			action.accept(Arrays.copyOf(batch, numKeys));
 	}
 
 	@Override
 	public void calculateDownsampledTileCoordinates(HddTileList baseTiles, int zoomLevel) {
-		Set<TileCoord> prevTiles = baseTiles.toSet();
+		Set<Long> prevTiles = new HashSet<>();
+		for (TileCoord c : baseTiles)
+			prevTiles.add(HddTileList.toKey(c.x, c.y));
 
 		while (zoomLevel >= 0) {
-			Set<TileCoord> nextTiles = new HashSet<>();
-			for (TileCoord c : prevTiles) {
-				final int x = (int) Math.floor(c.x / 2.0f);
-				final int y = (int) Math.floor(c.y / 2.0f);
-				nextTiles.add(new TileCoord(x, y));
-				downsampleCache.put("tile_" + x + "_" + y + "_zoom" + zoomLevel, false);
+			MVMap<Long, Boolean> downsampleCache = getDownsampleCache(zoomLevel);
+			Set<Long> nextTiles = new HashSet<>();
+			for (long tileKey : prevTiles) {
+				TileCoord c = HddTileList.fromKey(tileKey);
+				final long parentKey = HddTileList.toKey(Math.floorDiv(c.x, 2), Math.floorDiv(c.y, 2));
+				if (nextTiles.add(parentKey))
+					downsampleCache.put(parentKey, false);
 			}
 
 			zoomLevel--;
@@ -314,16 +577,14 @@ public class FileTileCache implements TileCache
 	public HddTileList findTilesForDownsampling(HddTileListFactory factory, int zoomLevel, File baseDir, ImageFormat imageFormat) {
 		HddTileList result = factory.createList();
 
-		for (Map.Entry<String, Boolean> entry : downsampleCache.entrySet()) {
-			String key = entry.getKey();
-                        String[] keyStr = key.split("_");
-                        
-                        TileCoord coord = new TileCoord(Integer.parseInt(keyStr[1]), Integer.parseInt(keyStr[2]));
-                        File tileFile = TileRenderer.getImageFile(baseDir, coord.x, coord.y, imageFormat);
-                        
-                        if (key.contains("zoom" + zoomLevel) && (Boolean.TRUE.equals(!entry.getValue()) || !tileFile.exists())) {
+		// Without the zoom level's dir, eg. because the output dir was erased, none of its tiles are there any more
+		final boolean dirExists = baseDir.exists();
+
+		for (Map.Entry<Long, Boolean> entry : getDownsampleCache(zoomLevel).entrySet()) {
+			TileCoord coord = HddTileList.fromKey(entry.getKey());
+			// Tiles which were written out are still downsampled again if their image has since been deleted
+			if (!dirExists || !entry.getValue() || !TileRenderer.getImageFile(baseDir, coord.x, coord.y, imageFormat).exists())
 				result.add(coord);
-			}
 		}
 
 		return result;
@@ -337,45 +598,32 @@ public class FileTileCache implements TileCache
 		if (hash == null)
 			throw new RuntimeException("No hash for tile coord "+coord);
 
-		hashCache.put("tile_" + coord.x + "_" + coord.y, hash);
+		final long tileKey = HddTileList.toKey(coord.x, coord.y);
+		hashCache.put(tileKey, hash);
+		dirtyTiles.remove(tileKey);
 	}
 
 	@Override
 	public void updateTileDownsampleStatus(TileCoord coord, int zoomLevel) {
-		downsampleCache.put("tile_" + coord.x + "_" + coord.y + "_zoom" + zoomLevel, true);
+		getDownsampleCache(zoomLevel).put(HddTileList.toKey(coord.x, coord.y), true);
 	}
 	
-	private byte[] calculateTileHash(World world, tectonicus.configuration.Map map, RegionHashStore regionHashStore, OrthoCamera camera, TileCoord tile, final int zoom, final int tileWidth, final int tileHeight)
+	/** Combines the hashes of every chunk which projects onto a tile, in the order they are kept in the index */
+	private static byte[] calculateTileHash(MessageDigest digest, TileChunkIndex tileIndex, RegionHashStore regionHashStore, final long tileKey)
 	{
-		assert (world != null);
-		assert (camera != null);
-		assert (tile != null);
-		
-		TileRenderer.setupCameraForTile(camera, tile, tileWidth, tileHeight, map.getCameraAngleRad(), map.getCameraElevationRad(), zoom);
+		long[] chunks = tileIndex.getChunks(tileKey);
 		
-		List<ChunkCoord> chunks = world.findVisible(camera);
-		
-		if (chunks.isEmpty())
+		if (chunks.length == 0)
 			return new byte[0];
 		
-		chunks.sort(ChunkSorter.instance);
-		
-		// Find hash of each chunk
-		List<byte[]> hashes = new ArrayList<>();
-		for (ChunkCoord coord : chunks)
+		digest.reset();
+		for (long chunkKey : chunks)
 		{
-			final byte[] hash = regionHashStore.getChunkHash(coord);
+			final byte[] hash = regionHashStore.getChunkHash(TileChunkIndex.fromKey(chunkKey));
 			if (hash != null)
-				hashes.add(hash);
+				digest.update(hash);
 		}
-		
-		// Create uber hash of all chunk's hashes combined
-		hashAlgorithm.reset();
-		for (byte[] b : hashes)
-		{
-			hashAlgorithm.update(b);
-		}
-		byte[] fullHash = hashAlgorithm.digest();
+		byte[] fullHash = digest.digest();
 		
 		assert (fullHash != null);
 		
@@ -386,15 +634,12 @@ public class FileTileCache implements TileCache
 	{
 		return new File(cacheDir, "tile_"+coord.x+"_"+coord.y+".cache");
 	}
-
-	public static class ChunkSorter implements Comparator<ChunkCoord>
+	
+	/** Tiles found to have changed by one batch, along with their new hashes */
+	private static class ChangedTiles
 	{
-		public static final ChunkSorter instance = new ChunkSorter();
-		
-		@Override
-		public int compare(ChunkCoord lhs, ChunkCoord rhs)
-		{
-			return lhs.compareTo(rhs);
-		}
+		private final List<TileCoord> coords = new ArrayList<>();
+		private final List<byte[]> hashes = new ArrayList<>();
+		private int numChecked;
 	}
 }
@@ -13,11 +13,10 @@ import tectonicus.TileCoord;
 import tectonicus.cache.swap.HddTileList;
 import tectonicus.cache.swap.HddTileListFactory;
 import tectonicus.configuration.ImageFormat;
-import tectonicus.configuration.Map;
-import tectonicus.renderer.OrthoCamera;
-import tectonicus.world.World;
 
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongPredicate;
 
 public class NullTileCache implements TileCache
 {
@@ -41,11 +40,23 @@ public class NullTileCache implements TileCache
 	
 	@Override
 	public HddTileList findChangedTiles(HddTileListFactory factory, HddTileList visibleTiles,
-										RegionHashStore regionHashStore, World world, Map map, OrthoCamera camera, int zoom, int tileWidth, int tileHeight, File layerDir)
+										TileChunkIndex tileIndex, RegionHashStore regionHashStore, File layerDir, ForkJoinPool pool)
 	{
 		return visibleTiles;
 	}
 
+	@Override
+	public void setTileFilter(LongPredicate filter)
+	{
+		
+	}
+
+	@Override
+	public void restoreChangedTiles(HddTileList tiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, ForkJoinPool pool)
+	{
+		
+	}
+
 	@Override
 	public void calculateDownsampledTileCoordinates(HddTileList baseTiles, int zoomLevel) {
 
@@ -67,6 +78,11 @@ public class NullTileCache implements TileCache
 
 	}
 
+	@Override
+	public void commit() {
+
+	}
+
 	@Override
 	public void closeTileCache() {
 
@@ -12,196 +12,490 @@ package tectonicus.cache;
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.RegionCoord;
 import tectonicus.chunk.ChunkCoord;
+import tectonicus.metrics.Counter;
+import tectonicus.metrics.Metrics;
 import tectonicus.util.FileUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/** Stores the hash of every chunk, one file per region.
+ *
+ *  The store persists between runs. Each region file is written along with a fingerprint of the region it
+ *  was calculated from and the records found in it, so that unchanged regions can be skipped entirely
+ *  by the preprocess pass on the next run.
+ */
 @Slf4j
 public class RegionHashStore
 {
+	private static final int MAGIC = 0xCAFED00D;
+	private static final int CHUNK_MAGIC = 0xFEEFEE;
+	private static final int RECORDS_MAGIC = 0xF00DFACE;
+
+	// Change this whenever the hash or record format changes to invalidate existing stores
+	private static final int STORE_VERSION = 2;
+
+	private static final int REGION_HEADER_BYTES = 8 * 1024;
+
+	private static final Counter CACHE_HITS = Metrics.counter("tectonicus_region_hash_cache_hits_total", "Chunk hash lookups whose region hashes were already in memory");
+	private static final Counter CACHE_MISSES = Metrics.counter("tectonicus_region_hash_cache_misses_total", "Chunk hash lookups which had to read region hashes from disk");
+
+	static
+	{
+		Metrics.gauge("tectonicus_region_hash_cache_hit_ratio", "Fraction of chunk hash lookups whose region hashes were already in memory", () -> {
+			final double total = CACHE_HITS.get() + CACHE_MISSES.get();
+			return total > 0 ? CACHE_HITS.get() / total : 1.0;
+		});
+	}
+
 	private final File hashStoreDir;
-	
-	private RegionHashes activeHashes;
-	
+
 	private final HashCache hashCache;
-	
+
+	private final Set<RegionCoord> visitedRegions;
+	private final Set<RegionCoord> reusedRegions;
+
+	private final AtomicInteger numReusedRegions;
+
 	public RegionHashStore(File cacheDir)
 	{
-		hashStoreDir = new File(cacheDir, "hashStore");
-		FileUtils.deleteDirectory(hashStoreDir);
-		hashStoreDir.mkdirs();
-		
+		this(cacheDir, null, "", false, null);
+	}
+
+	/**
+	 * @param storeName sub directory to use for this store, so that each map gets its own hashes
+	 * @param optionString anything which affects the stored hashes or records; the store is cleared if this changes
+	 * @param reuseExisting whether hashes from previous runs may be reused at all
+	 */
+	public RegionHashStore(File cacheDir, String storeName, String optionString, final boolean reuseExisting, MessageDigest hashAlgorithm)
+	{
+		File baseDir = new File(cacheDir, "hashStore");
+		hashStoreDir = storeName != null ? new File(baseDir, storeName) : baseDir;
+
+		final String cacheString = STORE_VERSION + "\n" + optionString;
+		File masterFile = new File(hashStoreDir, "hashStore.cache");
+
+		if (reuseExisting && hashAlgorithm != null && hashStoreDir.exists()
+				&& CacheUtil.equal(CacheUtil.hash(cacheString, hashAlgorithm), CacheUtil.calcHash(masterFile, hashAlgorithm)))
+		{
+			log.info("Reusing chunk hashes from {}", hashStoreDir.getAbsolutePath());
+		}
+		else
+		{
+			FileUtils.deleteDirectory(hashStoreDir);
+			hashStoreDir.mkdirs();
+			CacheUtil.writeCacheFile(masterFile, cacheString.getBytes());
+		}
+
 		hashCache = new HashCache(32);
 		hashCache.setMinSize(16);
+
+		visitedRegions = new HashSet<>();
+		reusedRegions = ConcurrentHashMap.newKeySet();
+		numReusedRegions = new AtomicInteger();
 	}
-	
-	public void startRegion(RegionCoord coord)
+
+	public ActiveRegion startRegion(RegionCoord coord)
 	{
-		if (activeHashes != null)
-			throw new RuntimeException("Region already active");
-		
-		activeHashes = new RegionHashes(coord);
+		return startRegion(coord, null);
 	}
-	
-	public void addHash(ChunkCoord chunkCoord, byte[] hash)
+
+	/** Starts collecting hashes and records for a region. Any number of regions may be active at once. */
+	public ActiveRegion startRegion(RegionCoord coord, RegionFingerprint fingerprint)
 	{
-		if (hash == null)
-			return;
-		
-		activeHashes.addHash(chunkCoord, hash);
+		synchronized (visitedRegions)
+		{
+			visitedRegions.add(coord);
+		}
+
+		RegionHashes hashes = new RegionHashes(coord, fingerprint);
+		hashes.records = new RegionRecords();
+		return new ActiveRegion(hashes);
+	}
+
+	public void endRegion(ActiveRegion region)
+	{
+		RegionHashes hashes = region.hashes;
+		hashes.write(hashStoreDir);
+
+		// Records are only needed while the region is being written
+		hashes.records = null;
+		synchronized (hashCache)
+		{
+			hashCache.put(hashes.getRegionCoord(), hashes);
+		}
+	}
+
+	/** Looks for stored hashes for a region which still matches the given fingerprint.
+	 *  @return the records previously found in the region, or null if the region needs processing again
+	 */
+	public RegionRecords findUnchangedRegion(RegionCoord coord, RegionFingerprint fingerprint)
+	{
+		if (coord == null || fingerprint == null)
+			return null;
+
+		RegionHashes hashes = new RegionHashes(coord, null);
+		if (!hashes.read(hashStoreDir, true) || !fingerprint.equals(hashes.fingerprint) || hashes.records == null)
+			return null;
+
+		RegionRecords records = hashes.records;
+		hashes.records = null;
+		synchronized (hashCache)
+		{
+			hashCache.put(coord, hashes);
+		}
+
+		synchronized (visitedRegions)
+		{
+			visitedRegions.add(coord);
+		}
+		reusedRegions.add(coord);
+		numReusedRegions.incrementAndGet();
+
+		return records;
+	}
+
+	public int getNumReusedRegions()
+	{
+		return numReusedRegions.get();
 	}
-	
-	public void endRegion()
+
+	/** @return true if the stored hashes for this region were reused as-is on this run, so none of its chunks can have changed */
+	public boolean isRegionReused(RegionCoord coord)
+	{
+		return reusedRegions.contains(coord);
+	}
+
+	/** Deletes the stored hashes for any region which wasn't seen on this run, eg. because it was deleted from the world */
+	public void removeUnvisitedRegions()
 	{
-		activeHashes.write(hashStoreDir);
-		
-		hashCache.put(activeHashes.getRegionCoord(), activeHashes);
-		
-		activeHashes = null;
+		File[] files = hashStoreDir.listFiles((dir, name) -> name.endsWith(".hashes"));
+		if (files == null)
+			return;
+
+		for (File f : files)
+		{
+			RegionCoord coord = RegionHashes.getRegionCoord(f);
+			if (coord != null && !visitedRegions.contains(coord))
+			{
+				log.trace("Removing hashes for missing region {}", coord);
+				synchronized (hashCache)
+				{
+					hashCache.remove(coord);
+				}
+				f.delete();
+			}
+		}
 	}
 
 	public byte[] getChunkHash(ChunkCoord chunkCoord)
 	{
 		RegionCoord regionCoord = RegionCoord.fromChunkCoord(chunkCoord);
-		
+
 		RegionHashes hashes = null;
-		
-		hashes = hashCache.get(regionCoord);
-		if (hashes != null)
+
+		synchronized (hashCache)
 		{
-			// Found in cache!
-			hashCache.touch(regionCoord);
+			hashes = hashCache.get(regionCoord);
+			if (hashes != null)
+			{
+				// Found in cache!
+				hashCache.touch(regionCoord);
+				CACHE_HITS.inc();
+				return hashes.getHash(chunkCoord);
+			}
 		}
-		else
+		CACHE_MISSES.inc();
+
+		// Load from disk without holding the lock so other threads can carry on with cached regions.
+		// Two threads may occasionally load the same region, but they'll read the same hashes.
+		hashes = new RegionHashes(regionCoord, null);
+		hashes.read(hashStoreDir, false);
+		synchronized (hashCache)
 		{
-			// Load from disk, insert into cache
-			hashes = new RegionHashes(regionCoord);
-			hashes.read(hashStoreDir);
-			hashCache.put(regionCoord, hashes);
+			RegionHashes existing = hashCache.get(regionCoord);
+			if (existing != null)
+				hashes = existing;
+			else
+				hashCache.put(regionCoord, hashes);
 		}
-		
+
 		return hashes.getHash(chunkCoord);
 	}
-	
+
+	/** Creates a fingerprint of a region file from its size, modification time and a digest of the chunk location and timestamp header */
+	public static RegionFingerprint fingerprint(File regionFile, MessageDigest hashAlgorithm)
+	{
+		try (RandomAccessFile file = new RandomAccessFile(regionFile, "r"))
+		{
+			byte[] header = new byte[(int) Math.min(REGION_HEADER_BYTES, file.length())];
+			file.readFully(header);
+
+			hashAlgorithm.reset();
+			hashAlgorithm.update(header);
+
+			return new RegionFingerprint(regionFile.length(), regionFile.lastModified(), hashAlgorithm.digest());
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to fingerprint region file {}", regionFile.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	/** Hashes and records being collected for a region which is still being processed */
+	public static class ActiveRegion
+	{
+		private final RegionHashes hashes;
+
+		private ActiveRegion(RegionHashes hashes)
+		{
+			this.hashes = hashes;
+		}
+
+		public RegionCoord getRegionCoord()
+		{
+			return hashes.getRegionCoord();
+		}
+
+		public RegionRecords getRecords()
+		{
+			return hashes.records;
+		}
+
+		/** Safe to call from multiple threads */
+		public void addHash(ChunkCoord chunkCoord, byte[] hash)
+		{
+			if (hash == null)
+				return;
+
+			hashes.addHash(chunkCoord, hash);
+		}
+	}
+
+	public static class RegionFingerprint
+	{
+		private final long fileSize;
+		private final long lastModified;
+		private final byte[] headerDigest;
+
+		public RegionFingerprint(final long fileSize, final long lastModified, byte[] headerDigest)
+		{
+			this.fileSize = fileSize;
+			this.lastModified = lastModified;
+			this.headerDigest = headerDigest;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof RegionFingerprint))
+				return false;
+
+			RegionFingerprint other = (RegionFingerprint) obj;
+			return fileSize == other.fileSize && lastModified == other.lastModified && Arrays.equals(headerDigest, other.headerDigest);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Long.hashCode(fileSize) ^ Long.hashCode(lastModified) ^ Arrays.hashCode(headerDigest);
+		}
+	}
+
 	private static class RegionHashes
 	{
 		private final RegionCoord regionCoord;
 		private final Map<ChunkCoord, byte[]> chunkHashes;
-		
-		public RegionHashes(RegionCoord coord)
+
+		private RegionFingerprint fingerprint;
+		private RegionRecords records;
+
+		public RegionHashes(RegionCoord coord, RegionFingerprint fingerprint)
 		{
 			this.regionCoord = coord;
-			
+			this.fingerprint = fingerprint;
+
 			chunkHashes = new ConcurrentHashMap<>();
 		}
-		
+
 		public RegionCoord getRegionCoord()
 		{
 			return regionCoord;
 		}
-		
+
 		public void addHash(ChunkCoord chunkCoord, byte[] hash)
 		{
 			chunkHashes.put(chunkCoord, hash);
 		}
-		
+
 		public void write(File baseDir) {
 			File outFile = getHashFile(baseDir, regionCoord);
-			try(FileOutputStream fOut = new FileOutputStream(outFile); DataOutputStream out = new DataOutputStream(fOut)) {
+			try(FileOutputStream fOut = new FileOutputStream(outFile); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fOut))) {
 				// Magic
-				out.writeInt(0xCAFEBABE);
-				
+				out.writeInt(MAGIC);
+
+				// Fingerprint of the region these hashes came from
+				out.writeBoolean(fingerprint != null);
+				if (fingerprint != null) {
+					out.writeLong(fingerprint.fileSize);
+					out.writeLong(fingerprint.lastModified);
+					out.writeInt(fingerprint.headerDigest.length);
+					out.write(fingerprint.headerDigest);
+				}
+
 				// Num hashes
 				out.writeInt(chunkHashes.size());
-				
-				for (ChunkCoord coord : chunkHashes.keySet()) {
-					byte[] hash = chunkHashes.get(coord);
-					
+
+				for (Map.Entry<ChunkCoord, byte[]> entry : chunkHashes.entrySet()) {
+					ChunkCoord coord = entry.getKey();
+					byte[] hash = entry.getValue();
+
 					// Chunk magic
-					out.writeInt(0xFEEFEE);
-					
+					out.writeInt(CHUNK_MAGIC);
+
 					// Chunk coord
 					out.writeLong(coord.x);
 					out.writeLong(coord.z);
-					
+
 					// Hash length
 					out.writeInt(hash.length);
-					
+
 					// Hash
 					out.write(hash);
 				}
+
+				// Records are written last so that hash lookups can stop reading early
+				if (records != null) {
+					out.writeInt(RECORDS_MAGIC);
+					records.writeTo(out);
+				}
 			} catch (Exception e) {
 				log.error("Exception: ", e);
+				outFile.delete();
 			}
 		}
-		
-		public void read(File baseDir) {
+
+		/** @return true if the hashes (and records, if requested) were read successfully */
+		public boolean read(File baseDir, final boolean readRecords) {
 			File inFile = getHashFile(baseDir, regionCoord);
-			try (FileInputStream fIn = new FileInputStream(inFile); DataInputStream in = new DataInputStream(fIn)) {
+			if (!inFile.exists())
+				return false;
+
+			try (FileInputStream fIn = new FileInputStream(inFile); DataInputStream in = new DataInputStream(new BufferedInputStream(fIn))) {
 				final int magic = in.readInt();
-				assert (magic == 0xCAFEBABE);
-				
+				if (magic != MAGIC) {
+					log.debug("Ignoring hashes in old format at {}", inFile.getAbsolutePath());
+					return false;
+				}
+
+				if (in.readBoolean()) {
+					final long fileSize = in.readLong();
+					final long lastModified = in.readLong();
+					byte[] digest = new byte[in.readInt()];
+					in.readFully(digest);
+					fingerprint = new RegionFingerprint(fileSize, lastModified, digest);
+				}
+
 				final int numHashes = in.readInt();
 				for (int i=0; i<numHashes; i++) {
 					final int chunkMagic = in.readInt();
-					assert (chunkMagic == 0xFEEFEE);
-					
+					if (chunkMagic != CHUNK_MAGIC)
+						throw new IOException("Corrupt hash file " + inFile.getAbsolutePath());
+
 					final long chunkX = in.readLong();
 					final long chunkZ = in.readLong();
-					
+
 					final int hashLen = in.readInt();
-					
+
 					byte[] hash = new byte[hashLen];
 					in.readFully(hash);
-					
+
 					addHash(new ChunkCoord(chunkX, chunkZ), hash);
 				}
+
+				if (readRecords && in.available() > 0 && in.readInt() == RECORDS_MAGIC) {
+					RegionRecords loaded = new RegionRecords();
+					loaded.readFrom(in);
+					records = loaded;
+				}
+
+				return true;
 			} catch (Exception e) {
 				log.error("Exception: ", e);
+				chunkHashes.clear();
+				records = null;
+				return false;
 			}
 		}
-		
+
 		public byte[] getHash(ChunkCoord chunkCoord)
 		{
 			return chunkHashes.get(chunkCoord);
 		}
-		
+
 		private static File getHashFile(File baseDir, RegionCoord coord)
 		{
 			return new File(baseDir, "r-"+coord.x+"-"+coord.z+".hashes");
 		}
+
+		private static RegionCoord getRegionCoord(File hashFile)
+		{
+			// r-x-z.hashes, where x and z may themselves be negative
+			String name = hashFile.getName();
+			String[] parts = name.substring(2, name.length() - ".hashes".length()).split("(?<=\\d)-");
+			if (parts.length != 2)
+				return null;
+
+			try
+			{
+				return new RegionCoord(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		}
 	}
-	
+
 	private static class HashCache extends LinkedHashMap<RegionCoord, RegionHashes>
 	{
 		private static final long serialVersionUID = 1L;
 
 		private int maxSize;
 		private int minSize;
-		
+
 		public HashCache(int maxSize)
 		{
 			this.maxSize = maxSize;
 		}
-		
+
 		public void setMinSize(final int size)
 		{
 			this.minSize = size;
 		}
-		
+
 		@Override
 		protected boolean removeEldestEntry(java.util.Map.Entry<RegionCoord, RegionHashes> eldest)
 		{
 			if (size() <= minSize)
 				return false;
-			
+
 			final boolean remove = size() > maxSize;
 			if (remove)
 			{
@@ -209,7 +503,7 @@ public class RegionHashStore
 			}
 			return remove;
 		}
-		
+
 		public void touch(RegionCoord coord)
 		{
 			RegionHashes c = remove(coord);
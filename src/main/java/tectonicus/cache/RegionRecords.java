@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import lombok.Getter;
+import tectonicus.Portal;
+import tectonicus.WorldStats;
+import tectonicus.cache.swap.HddObjectListWriter;
+import tectonicus.raw.ArmorTrimTag;
+import tectonicus.raw.BeaconEntity;
+import tectonicus.raw.BedEntity;
+import tectonicus.raw.ContainerEntity;
+import tectonicus.raw.CustomNameTag;
+import tectonicus.raw.DyedColorTag;
+import tectonicus.raw.EnchantmentTag;
+import tectonicus.raw.EnchantmentsTag;
+import tectonicus.raw.Item;
+import tectonicus.raw.PotionContentsTag;
+import tectonicus.raw.StoredEnchantmentsTag;
+import tectonicus.world.Effect;
+import tectonicus.world.Sign;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Everything the preprocess pass extracts from the chunks of a single region, so that it can be stored
+ *  alongside the region's chunk hashes and reused on the next run if the region file hasn't changed.
+ */
+@Getter
+public class RegionRecords
+{
+	private static final int COMPONENT_POTION_CONTENTS = 1;
+	private static final int COMPONENT_DYED_COLOR = 2;
+	private static final int COMPONENT_CUSTOM_NAME = 3;
+	private static final int COMPONENT_ENCHANTMENTS = 4;
+	private static final int COMPONENT_STORED_ENCHANTMENTS = 5;
+	private static final int COMPONENT_ARMOR_TRIM = 6;
+
+	private final WorldStats worldStats;
+
+	private final Queue<Portal> portals;
+	private final Queue<Sign> signs;
+	private final Queue<Sign> views;
+	private final ConcurrentLinkedQueue<ContainerEntity> chests;
+	private final Queue<BedEntity> beds;
+	private final Queue<BeaconEntity> beacons;
+
+	public RegionRecords()
+	{
+		worldStats = new WorldStats();
+
+		portals = new ConcurrentLinkedQueue<>();
+		signs = new ConcurrentLinkedQueue<>();
+		views = new ConcurrentLinkedQueue<>();
+		chests = new ConcurrentLinkedQueue<>();
+		beds = new ConcurrentLinkedQueue<>();
+		beacons = new ConcurrentLinkedQueue<>();
+	}
+
+	/** Adds all of the records from this region to the world-wide outputs */
+	public void copyTo(WorldStats worldStats, HddObjectListWriter<Portal> portals, HddObjectListWriter<Sign> signs, HddObjectListWriter<Sign> views,
+					   Queue<ContainerEntity> chests, Queue<BedEntity> beds, Queue<BeaconEntity> beacons)
+	{
+		worldStats.add(this.worldStats);
+
+		for (Portal p : this.portals)
+			portals.add(p);
+		for (Sign s : this.signs)
+			signs.add(s);
+		for (Sign v : this.views)
+			views.add(v);
+
+		chests.addAll(this.chests);
+		beds.addAll(this.beds);
+		beacons.addAll(this.beacons);
+	}
+
+	public void writeTo(DataOutputStream out) throws Exception
+	{
+		worldStats.writeTo(out);
+
+		out.writeInt(portals.size());
+		for (Portal p : portals)
+			p.writeTo(out);
+
+		out.writeInt(signs.size());
+		for (Sign s : signs)
+			s.writeTo(out);
+
+		out.writeInt(views.size());
+		for (Sign v : views)
+			v.writeTo(out);
+
+		out.writeInt(chests.size());
+		for (ContainerEntity c : chests)
+			writeChest(out, c);
+
+		out.writeInt(beds.size());
+		for (BedEntity b : beds)
+		{
+			writePosition(out, b.getX(), b.getY(), b.getZ(), b.getLocalX(), b.getLocalY(), b.getLocalZ());
+			out.writeInt(b.getColor());
+		}
+
+		out.writeInt(beacons.size());
+		for (BeaconEntity b : beacons)
+		{
+			writePosition(out, b.getX(), b.getY(), b.getZ(), b.getLocalX(), b.getLocalY(), b.getLocalZ());
+			out.writeInt(b.getLevels());
+			out.writeInt(b.getPrimaryEffect().getId());
+			out.writeInt(b.getSecondaryEffect().getId());
+		}
+	}
+
+	public void readFrom(DataInputStream in) throws Exception
+	{
+		worldStats.readFrom(in);
+
+		final int numPortals = in.readInt();
+		for (int i=0; i<numPortals; i++)
+		{
+			Portal p = new Portal();
+			p.readFrom(in);
+			portals.add(p);
+		}
+
+		final int numSigns = in.readInt();
+		for (int i=0; i<numSigns; i++)
+		{
+			Sign s = new Sign();
+			s.readFrom(in);
+			signs.add(s);
+		}
+
+		final int numViews = in.readInt();
+		for (int i=0; i<numViews; i++)
+		{
+			Sign v = new Sign();
+			v.readFrom(in);
+			views.add(v);
+		}
+
+		final int numChests = in.readInt();
+		for (int i=0; i<numChests; i++)
+			chests.add(readChest(in));
+
+		final int numBeds = in.readInt();
+		for (int i=0; i<numBeds; i++)
+		{
+			int[] pos = readPosition(in);
+			beds.add(new BedEntity(pos[0], pos[1], pos[2], pos[3], pos[4], pos[5], in.readInt()));
+		}
+
+		final int numBeacons = in.readInt();
+		for (int i=0; i<numBeacons; i++)
+		{
+			int[] pos = readPosition(in);
+			final int levels = in.readInt();
+			final Effect primary = Effect.byId(in.readInt());
+			final Effect secondary = Effect.byId(in.readInt());
+			beacons.add(new BeaconEntity(pos[0], pos[1], pos[2], pos[3], pos[4], pos[5], levels, primary, secondary));
+		}
+	}
+
+	private static void writeChest(DataOutputStream out, ContainerEntity chest) throws IOException
+	{
+		writePosition(out, chest.getX(), chest.getY(), chest.getZ(), chest.getLocalX(), chest.getLocalY(), chest.getLocalZ());
+		writeString(out, chest.getCustomName());
+		writeString(out, chest.getLock());
+		out.writeBoolean(chest.isUnopenedContainer());
+		writeString(out, chest.getFacing());
+		writeString(out, chest.getType());
+
+		List<Item> items = chest.getItems();
+		out.writeInt(items == null ? -1 : items.size());
+		if (items != null)
+		{
+			for (Item item : items)
+				writeItem(out, item);
+		}
+	}
+
+	private static ContainerEntity readChest(DataInputStream in) throws IOException
+	{
+		int[] pos = readPosition(in);
+		final String customName = readString(in);
+		final String lock = readString(in);
+		final boolean unopened = in.readBoolean();
+		final String facing = readString(in);
+		final String type = readString(in);
+
+		List<Item> items = null;
+		final int numItems = in.readInt();
+		if (numItems >= 0)
+		{
+			items = new ArrayList<>(numItems);
+			for (int i=0; i<numItems; i++)
+				items.add(readItem(in));
+		}
+
+		return new ContainerEntity(pos[0], pos[1], pos[2], pos[3], pos[4], pos[5], customName, lock, unopened, facing, type, items);
+	}
+
+	private static void writeItem(DataOutputStream out, Item item) throws IOException
+	{
+		writeString(out, item.id);
+		out.writeInt(item.damage);
+		out.writeInt(item.count);
+		out.writeInt(item.slot);
+
+		// Only the components we know how to parse can end up in here
+		List<Object> known = new ArrayList<>();
+		for (Object component : item.components)
+		{
+			if (component instanceof PotionContentsTag || component instanceof DyedColorTag || component instanceof CustomNameTag
+					|| component instanceof EnchantmentsTag || component instanceof StoredEnchantmentsTag || component instanceof ArmorTrimTag)
+				known.add(component);
+		}
+
+		out.writeInt(known.size());
+		for (Object component : known)
+		{
+			if (component instanceof PotionContentsTag potion)
+			{
+				out.writeByte(COMPONENT_POTION_CONTENTS);
+				writeString(out, potion.potion);
+			}
+			else if (component instanceof DyedColorTag dyedColor)
+			{
+				out.writeByte(COMPONENT_DYED_COLOR);
+				out.writeInt(dyedColor.color);
+			}
+			else if (component instanceof CustomNameTag customName)
+			{
+				out.writeByte(COMPONENT_CUSTOM_NAME);
+				writeString(out, customName.name);
+			}
+			else if (component instanceof EnchantmentsTag enchantments)
+			{
+				out.writeByte(COMPONENT_ENCHANTMENTS);
+				writeEnchantments(out, enchantments.enchantments);
+			}
+			else if (component instanceof StoredEnchantmentsTag enchantments)
+			{
+				out.writeByte(COMPONENT_STORED_ENCHANTMENTS);
+				writeEnchantments(out, enchantments.enchantments);
+			}
+			else if (component instanceof ArmorTrimTag trim)
+			{
+				out.writeByte(COMPONENT_ARMOR_TRIM);
+				writeString(out, trim.material);
+				writeString(out, trim.pattern);
+			}
+		}
+	}
+
+	private static Item readItem(DataInputStream in) throws IOException
+	{
+		final String id = readString(in);
+		final int damage = in.readInt();
+		final int count = in.readInt();
+		final int slot = in.readInt();
+
+		List<Object> components = new ArrayList<>();
+		final int numComponents = in.readInt();
+		for (int i=0; i<numComponents; i++)
+		{
+			final int type = in.readByte();
+			switch (type)
+			{
+				case COMPONENT_POTION_CONTENTS:
+					components.add(new PotionContentsTag(readString(in)));
+					break;
+				case COMPONENT_DYED_COLOR:
+					components.add(new DyedColorTag(in.readInt()));
+					break;
+				case COMPONENT_CUSTOM_NAME:
+					components.add(new CustomNameTag(readString(in)));
+					break;
+				case COMPONENT_ENCHANTMENTS:
+					components.add(new EnchantmentsTag(readEnchantments(in)));
+					break;
+				case COMPONENT_STORED_ENCHANTMENTS:
+					components.add(new StoredEnchantmentsTag(readEnchantments(in)));
+					break;
+				case COMPONENT_ARMOR_TRIM:
+					components.add(new ArmorTrimTag(readString(in), readString(in)));
+					break;
+				default:
+					throw new IOException("Unknown item component type " + type);
+			}
+		}
+
+		return new Item(id, damage, count, slot, components);
+	}
+
+	private static void writeEnchantments(DataOutputStream out, List<EnchantmentTag> enchantments) throws IOException
+	{
+		out.writeInt(enchantments.size());
+		for (EnchantmentTag e : enchantments)
+		{
+			writeString(out, e.id);
+			out.writeInt(e.level == null ? 0 : e.level);
+		}
+	}
+
+	private static List<EnchantmentTag> readEnchantments(DataInputStream in) throws IOException
+	{
+		final int num = in.readInt();
+		List<EnchantmentTag> enchantments = new ArrayList<>(num);
+		for (int i=0; i<num; i++)
+			enchantments.add(new EnchantmentTag(readString(in), in.readInt()));
+		return enchantments;
+	}
+
+	private static void writePosition(DataOutputStream out, int x, int y, int z, int localX, int localY, int localZ) throws IOException
+	{
+		out.writeInt(x);
+		out.writeInt(y);
+		out.writeInt(z);
+		out.writeInt(localX);
+		out.writeInt(localY);
+		out.writeInt(localZ);
+	}
+
+	private static int[] readPosition(DataInputStream in) throws IOException
+	{
+		return new int[] { in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt() };
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException
+	{
+		out.writeBoolean(str != null);
+		if (str != null)
+			out.writeUTF(str);
+	}
+
+	private static String readString(DataInputStream in) throws IOException
+	{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
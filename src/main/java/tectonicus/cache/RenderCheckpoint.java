@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import tectonicus.TileCoord;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.configuration.Layer;
+import tectonicus.util.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/** How far a render got, so that a render which was killed can carry on where it stopped with --resume.
+ *
+ *  For each map this keeps the visible tiles, and for each layer the tiles found to need rendering along with how many
+ *  of them have been written out, counting in the order they are rendered. The region hashes and records found by the
+ *  preprocess pass are already kept per region by {@link RegionHashStore}, so a resumed render reads those back rather
+ *  than keeping a copy here.
+ *
+ *  Everything is checked against a fingerprint of the settings and of each map's world, and anything which doesn't
+ *  match is thrown away so that part of the render starts again. Files are written to the side and moved into place,
+ *  so a render killed while saving leaves the previous checkpoint behind.
+ */
+@Slf4j
+public class RenderCheckpoint {
+	// Change this whenever the checkpoint format changes
+	private static final int VERSION = 1;
+
+	private static final String STATE_FILE = "checkpoint.json";
+
+	private final File dir;
+
+	private final MessageDigest hashAlgorithm;
+
+	private final State state;
+
+	/** @param settings anything which affects which tiles are rendered or the order they are rendered in
+	 *  @param resume whether to carry on from a checkpoint left by an earlier render, rather than starting a new one
+	 */
+	public RenderCheckpoint(File cacheDir, String settings, MessageDigest hashAlgorithm, final boolean resume) {
+		this.dir = new File(cacheDir, "checkpoint");
+		this.hashAlgorithm = hashAlgorithm;
+
+		final String settingsHash = hash(settings);
+		State loaded = resume ? read() : null;
+		if (loaded != null && loaded.getVersion() == VERSION && settingsHash.equals(loaded.getSettings())) {
+			log.info("Resuming render from checkpoint at {}", dir.getAbsolutePath());
+			state = loaded;
+		} else {
+			if (resume)
+				log.warn(loaded == null ? "No checkpoint to resume from, starting a new render" : "Settings have changed since the checkpoint, starting a new render");
+
+			FileUtils.deleteDirectory(dir);
+			dir.mkdirs();
+			state = new State();
+			state.setVersion(VERSION);
+			state.setSettings(settingsHash);
+			save();
+		}
+	}
+
+	/** Starts on a map, keeping its progress from the checkpoint if its world hasn't changed since
+	 *  @param worldFingerprint anything which changes when the world does, eg. the sizes and modification times of its region files
+	 *  @return true if the map's progress was kept
+	 */
+	public boolean startMap(tectonicus.configuration.Map map, String worldFingerprint) {
+		final String worldHash = hash(worldFingerprint);
+		MapProgress progress = state.getMaps().get(map.getId());
+		if (progress != null && worldHash.equals(progress.getWorld()))
+			return true;
+
+		if (progress != null)
+			log.warn("World for map {} has changed since the checkpoint, finding its tiles again", map.getId());
+
+		progress = new MapProgress();
+		progress.setWorld(worldHash);
+		state.getMaps().put(map.getId(), progress);
+		save();
+		return false;
+	}
+
+	/** @return the visible tiles of a map, or null if they weren't found before the checkpoint */
+	public HddTileList getVisibleTiles(tectonicus.configuration.Map map, HddTileListFactory factory) {
+		return getMap(map).isVisibleTiles() ? readTiles(getVisibleFile(map), factory) : null;
+	}
+
+	public void saveVisibleTiles(tectonicus.configuration.Map map, HddTileList tiles) {
+		if (writeTiles(getVisibleFile(map), tiles)) {
+			// Tiles found from an older list of visible tiles no longer apply
+			getMap(map).setVisibleTiles(true);
+			getMap(map).getLayers().clear();
+			save();
+		}
+	}
+
+	/** @return the tiles of a layer which needed rendering, or null if they weren't found before the checkpoint */
+	public HddTileList getChangedTiles(Layer layer, HddTileListFactory factory) {
+		LayerProgress progress = getMap(layer).getLayers().get(layer.getId());
+		return progress != null ? readTiles(getChangedFile(layer), factory) : null;
+	}
+
+	public void saveChangedTiles(Layer layer, HddTileList tiles) {
+		if (writeTiles(getChangedFile(layer), tiles)) {
+			getMap(layer).getLayers().put(layer.getId(), new LayerProgress());
+			save();
+		}
+	}
+
+	/** @return how many of a layer's changed tiles had been written out, in the order they are rendered */
+	public int getRenderedTiles(Layer layer) {
+		LayerProgress progress = getMap(layer).getLayers().get(layer.getId());
+		return progress != null ? progress.getRenderedTiles() : 0;
+	}
+
+	/** Call once the tile cache has been committed for every tile counted */
+	public void saveRenderedTiles(Layer layer, final int renderedTiles) {
+		LayerProgress progress = getMap(layer).getLayers().get(layer.getId());
+		if (progress == null || progress.getRenderedTiles() == renderedTiles)
+			return;
+
+		progress.setRenderedTiles(renderedTiles);
+		save();
+	}
+
+	/** Throws the checkpoint away once the render has finished, so there is nothing left to resume */
+	public void finish() {
+		FileUtils.deleteDirectory(dir);
+	}
+
+	private MapProgress getMap(tectonicus.configuration.Map map) {
+		return state.getMaps().get(map.getId());
+	}
+
+	private MapProgress getMap(Layer layer) {
+		return state.getMaps().get(layer.getMapId());
+	}
+
+	private File getVisibleFile(tectonicus.configuration.Map map) {
+		return new File(dir, map.getId() + ".visible");
+	}
+
+	private File getChangedFile(Layer layer) {
+		return new File(dir, layer.getMapId() + "." + layer.getId() + ".changed");
+	}
+
+	private String hash(String str) {
+		return HexFormat.of().formatHex(CacheUtil.hash(str, hashAlgorithm));
+	}
+
+	private State read() {
+		File file = new File(dir, STATE_FILE);
+		if (!file.exists())
+			return null;
+
+		try {
+			return FileUtils.getOBJECT_MAPPER().readValue(file, State.class);
+		} catch (Exception e) {
+			log.warn("Unable to read checkpoint at {}", file.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	private void save() {
+		Path target = new File(dir, STATE_FILE).toPath();
+		Path temp = new File(dir, STATE_FILE + ".tmp").toPath();
+
+		try {
+			FileUtils.getOBJECT_MAPPER().writeValue(temp.toFile(), state);
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+		}
+	}
+
+	private static boolean writeTiles(File file, HddTileList tiles) {
+		Path temp = new File(file.getPath() + ".tmp").toPath();
+
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(tiles.size());
+				for (TileCoord coord : tiles)
+					out.writeLong(HddTileList.toKey(coord.x, coord.y));
+			}
+			Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			log.error("Exception: ", e);
+			return false;
+		}
+	}
+
+	private static HddTileList readTiles(File file, HddTileListFactory factory) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			HddTileList tiles = factory.createList();
+			final int numTiles = in.readInt();
+			for (int i = 0; i < numTiles; i++)
+				tiles.add(HddTileList.fromKey(in.readLong()));
+			return tiles;
+		} catch (IOException e) {
+			log.warn("Unable to read tiles from checkpoint at {}", file.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	@Data
+	static class State {
+		private int version;
+		private String settings;
+		private Map<String, MapProgress> maps = new HashMap<>();
+	}
+
+	@Data
+	static class MapProgress {
+		private String world;
+		private boolean visibleTiles;
+		private Map<String, LayerProgress> layers = new HashMap<>();
+	}
+
+	@Data
+	static class LayerProgress {
+		private int renderedTiles;
+	}
+}
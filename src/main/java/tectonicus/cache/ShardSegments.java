@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import tectonicus.ChangeFile;
+import tectonicus.ShardPlan;
+import tectonicus.TileCoord;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.configuration.Layer;
+import tectonicus.configuration.Shard;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** The caches written by the shards of a map, see {@link Shard}.
+ *
+ *  Each shard keeps its region hashes, tile index and tile cache in a directory of its own, so the processes never
+ *  share a store. Afterwards the coordinator merges the tile hashes of every shard into the main tile cache, which then
+ *  only finds the tiles the shards didn't render.
+ */
+@Slf4j
+@UtilityClass
+public class ShardSegments {
+	public static File getShardDir(File rootCacheDir, Shard shard) {
+		return new File(getCountDir(rootCacheDir, shard.count()), String.valueOf(shard.index()));
+	}
+
+	/** Where a shard lists the tiles it rendered, for the coordinator to add to its own changed file */
+	public static File getChangedFile(File shardDir) {
+		return new File(shardDir, "changed.txt");
+	}
+
+	/** Copies the hash each shard stored for a tile it renders into the main cache, and drops any a shard stored for
+	 *  tiles which belong to another shard now that the visible tiles have changed. Shards which haven't been run are
+	 *  skipped, leaving their tiles for the coordinator to render.
+	 *
+	 *  @return the tiles whose hash was different from the main cache, which the shards have rendered since the last merge
+	 */
+	public static HddTileList mergeTileHashes(File rootCacheDir, final int numShards, FileTileCache mainCache, ShardPlan plan,
+											  tectonicus.configuration.Map map, Layer layer, String optionString, MessageDigest hashAlgorithm, HddTileListFactory factory) {
+		HddTileList merged = factory.createList();
+
+		for (int index = 0; index < numShards; index++) {
+			File segmentDir = CacheUtil.getTileCacheDir(getShardDir(rootCacheDir, new Shard(index, numShards)), layer);
+			if (!segmentDir.exists()) {
+				log.warn("No tile cache from shard {}/{} for layer {}, its tiles will be rendered now", index, numShards, layer.getId());
+				continue;
+			}
+
+			FileTileCache segment = new FileTileCache(segmentDir, layer.getImageFormat(), map, layer, optionString, hashAlgorithm);
+			List<TileCoord> stale = new ArrayList<>();
+			int numMerged = 0;
+			for (TileCoord coord : segment.getHashedTiles()) {
+				if (plan.getShard(coord.x, coord.y) != index) {
+					stale.add(coord);
+					continue;
+				}
+
+				final byte[] hash = segment.getTileHash(coord);
+				final byte[] mainHash = mainCache.getTileHash(coord);
+				if (mainHash == null || !CacheUtil.equal(hash, mainHash)) {
+					mainCache.putTileHash(coord, hash);
+					merged.add(coord);
+					numMerged++;
+				}
+			}
+
+			for (TileCoord coord : stale)
+				segment.removeTileHash(coord);
+			segment.closeTileCache();
+
+			log.info("Merged {} tiles from shard {}/{}, dropping {} it no longer renders", numMerged, index, numShards, stale.size());
+		}
+		mainCache.commit();
+
+		return merged;
+	}
+
+	/** Adds the tiles each shard rendered to the coordinator's changed file, then deletes the shard's list so they are
+	 *  only reported once
+	 */
+	public static void mergeChangedFiles(File rootCacheDir, final int numShards, ChangeFile changedFileList) {
+		for (int index = 0; index < numShards; index++) {
+			File changedFile = getChangedFile(getShardDir(rootCacheDir, new Shard(index, numShards)));
+			if (!changedFile.exists())
+				continue;
+
+			try (Stream<String> lines = Files.lines(changedFile.toPath())) {
+				lines.forEach(changedFileList::writeLine);
+			} catch (IOException e) {
+				log.error("Exception: ", e);
+				continue;
+			}
+			changedFile.delete();
+		}
+	}
+
+	/** Deletes the shards of earlier runs which were split a different number of ways */
+	public static void deleteOtherShardCounts(File rootCacheDir, final int numShards) {
+		File[] countDirs = new File(rootCacheDir, "shards").listFiles(File::isDirectory);
+		if (countDirs == null)
+			return;
+
+		for (File countDir : countDirs) {
+			if (!countDir.equals(getCountDir(rootCacheDir, numShards))) {
+				log.info("Deleting old shard caches at {}", countDir.getAbsolutePath());
+				FileUtils.deleteDirectory(countDir);
+			}
+		}
+	}
+
+	private static File getCountDir(File rootCacheDir, final int numShards) {
+		return new File(new File(rootCacheDir, "shards"), String.valueOf(numShards));
+	}
+}
@@ -13,11 +13,10 @@ import tectonicus.TileCoord;
 import tectonicus.cache.swap.HddTileList;
 import tectonicus.cache.swap.HddTileListFactory;
 import tectonicus.configuration.ImageFormat;
-import tectonicus.configuration.Map;
-import tectonicus.renderer.OrthoCamera;
-import tectonicus.world.World;
 
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongPredicate;
 
 public interface TileCache {
 	void reset();
@@ -26,15 +25,30 @@ public interface TileCache {
 	boolean hasCreatedDownsampleCache();
 	
 	/** Takes a set of visible output tiles and strips it down to only the tiles
-	 *  that actually need rendering.
+	 *  that actually need rendering. The index may be null if caching is disabled.
+	 *  The work is spread across the given pool, but the result is the same as checking each tile in turn.
 	 */
-	HddTileList findChangedTiles(HddTileListFactory factory, HddTileList visibleTiles, RegionHashStore regionHashStore, World world, Map map, OrthoCamera camera, final int zoom, final int tileWidth, final int tileHeight, File layerDir);
+	HddTileList findChangedTiles(HddTileListFactory factory, HddTileList visibleTiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, File layerDir, ForkJoinPool pool);
+	
+	/** Drops tiles the filter rejects when they are found from changed chunks rather than from the visible tiles,
+	 *  for a shard which only renders some of the map. Takes {@link HddTileList#toKey} keys.
+	 */
+	void setTileFilter(LongPredicate filter);
+	
+	/** Takes tiles found to need rendering by an earlier run which didn't finish, so that they are stored as they are
+	 *  rendered again without looking for changes from scratch
+	 */
+	void restoreChangedTiles(HddTileList tiles, TileChunkIndex tileIndex, RegionHashStore regionHashStore, ForkJoinPool pool);
 
 	void calculateDownsampledTileCoordinates(HddTileList baseTiles, int zoomLevel);
 	HddTileList findTilesForDownsampling(HddTileListFactory factory, int zoomLevel, File baseDir, ImageFormat imageFormat);
 
+	/** Stores the hash of a base tile once its image is on disk. Called from several image writing threads at once */
 	void writeImageCache(TileCoord coord);
 	void updateTileDownsampleStatus(TileCoord coord, int zoomLevel);
+	
+	/** Writes everything stored so far to disk, so that it survives the render being killed */
+	void commit();
 
 	void closeTileCache();
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Persistent inverted index between chunks and the base tiles they project onto.
+ *
+ *  The footprint of a chunk only depends on the camera setup, so it is calculated once when the chunk is first
+ *  seen and reused on every later run. From the index each tile's hash can be built straight from the stored chunk
+ *  hashes, and the tiles which may need rendering again can be found from the chunks which changed, rather than
+ *  by walking the whole world from every tile.
+ *
+ *  Chunk keys are packed with {@link #toKey(ChunkCoord)}, tile keys with {@link HddTileList#toKey(int, int)}.
+ */
+@Slf4j
+public class TileChunkIndex
+{
+	// Change this whenever the index format changes to invalidate existing indexes
+	private static final int INDEX_VERSION = 1;
+
+	private final boolean wasRebuilt;
+
+	private final MVStore store;
+	private final MVMap<Long, long[]> chunkTiles;
+	private final MVMap<Long, long[]> tileChunks;
+
+	/** Every chunk seen this run */
+	private final Set<Long> visitedChunks;
+
+	/** Chunks which may have changed since the last run: new chunks, chunks in regions which were processed again and removed chunks */
+	private final Set<Long> candidateChunks;
+
+	/** Candidate chunks which haven't been checked by every layer yet, so are carried over if the run doesn't finish */
+	private final MVMap<Long, Boolean> unsettledChunks;
+
+	/** Footprints of chunks which have been removed from the world, kept so their tiles can still be redrawn */
+	private final MVMap<Long, long[]> removedChunkTiles;
+
+	/**
+	 * @param optionString anything which affects where chunks project to; the index is rebuilt if this changes
+	 */
+	public TileChunkIndex(File cacheDir, String mapId, String optionString, MessageDigest hashAlgorithm)
+	{
+		File indexDir = new File(new File(cacheDir, "tileIndex"), mapId);
+
+		final String cacheString = INDEX_VERSION + "\n" + optionString;
+		File masterFile = new File(indexDir, "tileIndex.cache");
+
+		if (indexDir.exists() && CacheUtil.equal(CacheUtil.hash(cacheString, hashAlgorithm), CacheUtil.calcHash(masterFile, hashAlgorithm)))
+		{
+			log.info("Reusing chunk to tile index from {}", indexDir.getAbsolutePath());
+			wasRebuilt = false;
+		}
+		else
+		{
+			log.info("Creating new chunk to tile index at {}", indexDir.getAbsolutePath());
+			FileUtils.deleteDirectory(indexDir);
+			indexDir.mkdirs();
+			CacheUtil.writeCacheFile(masterFile, cacheString.getBytes());
+			wasRebuilt = true;
+		}
+
+		store = new MVStore.Builder().fileName(new File(indexDir, "tileIndex.store").getPath()).compress().open();
+		chunkTiles = store.openMap("chunkTiles");
+		tileChunks = store.openMap("tileChunks");
+		unsettledChunks = store.openMap("unsettledChunks");
+		removedChunkTiles = store.openMap("removedChunkTiles");
+
+		visitedChunks = ConcurrentHashMap.newKeySet();
+		candidateChunks = ConcurrentHashMap.newKeySet();
+		candidateChunks.addAll(unsettledChunks.keySet());
+	}
+
+	/** @return true if the index was created from scratch on this run, so nothing is known about previous runs */
+	public boolean wasRebuilt()
+	{
+		return wasRebuilt;
+	}
+
+	/** Marks a chunk as present in the world on this run.
+	 *  @param mayHaveChanged false only if the chunk is known to be identical to the last run, eg. because its region was reused
+	 *  @return the tiles the chunk projects onto, or null if its footprint isn't known yet and must be added with {@link #addChunk}
+	 */
+	public long[] visitChunk(ChunkCoord coord, final boolean mayHaveChanged)
+	{
+		final long key = toKey(coord);
+		visitedChunks.add(key);
+
+		long[] tiles = chunkTiles.get(key);
+		if (tiles == null || mayHaveChanged)
+			addCandidate(key);
+
+		return tiles;
+	}
+
+	/** Stores the footprint of a chunk which wasn't in the index yet */
+	public synchronized void addChunk(ChunkCoord coord, long[] tileKeys)
+	{
+		final long chunkKey = toKey(coord);
+
+		chunkTiles.put(chunkKey, tileKeys);
+		removedChunkTiles.remove(chunkKey);
+
+		for (long tileKey : tileKeys)
+			tileChunks.put(tileKey, insert(tileChunks.get(tileKey), chunkKey));
+	}
+
+	/** Drops every chunk which wasn't visited on this run, eg. because it was deleted or is now outside the world subset.
+	 *  The tiles they covered are remembered so that they are still checked for changes.
+	 */
+	public synchronized void removeUnvisitedChunks()
+	{
+		// MVMap iterators work on a snapshot, so removing entries as we go is safe
+		int numRemoved = 0;
+		for (Long chunkKey : chunkTiles.keySet())
+		{
+			if (visitedChunks.contains(chunkKey))
+				continue;
+
+			long[] tileKeys = chunkTiles.remove(chunkKey);
+			for (long tileKey : tileKeys)
+			{
+				long[] chunks = remove(tileChunks.get(tileKey), chunkKey);
+				if (chunks.length == 0)
+					tileChunks.remove(tileKey);
+				else
+					tileChunks.put(tileKey, chunks);
+			}
+
+			removedChunkTiles.put(chunkKey, tileKeys);
+			addCandidate(chunkKey);
+			numRemoved++;
+		}
+
+		if (numRemoved > 0)
+			log.debug("Removed {} chunks which are no longer in the world from the tile index", numRemoved);
+	}
+
+	/** @return keys of every chunk which might have a different hash from the last run */
+	public Set<Long> getCandidateChunks()
+	{
+		return Collections.unmodifiableSet(candidateChunks);
+	}
+
+	/** @return keys of every chunk in the index */
+	public Collection<Long> getAllChunks()
+	{
+		return chunkTiles.keySet();
+	}
+
+	/** @return keys of the tiles a chunk projects onto, including chunks removed on this run */
+	public long[] getTiles(final long chunkKey)
+	{
+		long[] tiles = chunkTiles.get(chunkKey);
+		if (tiles == null)
+			tiles = removedChunkTiles.get(chunkKey);
+		return tiles != null ? tiles : new long[0];
+	}
+
+	/** @return keys of every chunk which projects onto a tile, in ascending order */
+	public long[] getChunks(final long tileKey)
+	{
+		long[] chunks = tileChunks.get(tileKey);
+		return chunks != null ? chunks : new long[0];
+	}
+
+	/** Called once every layer has checked the candidate chunks, so they no longer need carrying over to the next run */
+	public void settle()
+	{
+		unsettledChunks.clear();
+		removedChunkTiles.clear();
+	}
+
+	/** Writes the index out to disk now rather than waiting for the store to get round to it */
+	public void commit()
+	{
+		store.commit();
+	}
+
+	public void close()
+	{
+		store.close();
+	}
+
+	private void addCandidate(final long chunkKey)
+	{
+		if (candidateChunks.add(chunkKey))
+			unsettledChunks.put(chunkKey, Boolean.TRUE);
+	}
+
+	public static long toKey(ChunkCoord coord)
+	{
+		return (coord.x << 32) | (coord.z & 0xFFFFFFFFL);
+	}
+
+	public static ChunkCoord fromKey(final long key)
+	{
+		return new ChunkCoord(key >> 32, (int) key);
+	}
+
+	static long[] insert(long[] keys, final long key)
+	{
+		if (keys == null)
+			return new long[] { key };
+
+		int index = Arrays.binarySearch(keys, key);
+		if (index >= 0)
+			return keys;
+
+		index = -index - 1;
+		long[] result = new long[keys.length + 1];
+		System.arraycopy(keys, 0, result, 0, index);
+		result[index] = key;
+		System.arraycopy(keys, index, result, index + 1, keys.length - index);
+		return result;
+	}
+
+	static long[] remove(long[] keys, final long key)
+	{
+		if (keys == null)
+			return new long[0];
+
+		final int index = Arrays.binarySearch(keys, key);
+		if (index < 0)
+			return keys;
+
+		long[] result = new long[keys.length - 1];
+		System.arraycopy(keys, 0, result, 0, index);
+		System.arraycopy(keys, index + 1, result, index, keys.length - index - 1);
+		return result;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/** Holds the raw ARGB pixels of recently rendered or downsampled tiles, keyed by zoom level and tile coord,
+ *  so that the next zoom level up can be built without decoding them from disk again.
+ *
+ *  Pixels are copied into direct buffers so they live outside the heap, and the cache is bounded by the number
+ *  of bytes held. Anything evicted simply has to be read back from disk.
+ */
+public class TilePixelCache
+{
+	private static final int COORD_BITS = 29;
+	private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+	private final Cache<Long, IntBuffer> tiles;
+
+	public TilePixelCache(final long maxBytes)
+	{
+		tiles = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((Long key, IntBuffer pixels) -> pixels.capacity() * Integer.BYTES)
+				.build();
+	}
+
+	public void put(final int zoom, final int x, final int y, int[] argb)
+	{
+		IntBuffer pixels = ByteBuffer.allocateDirect(argb.length * Integer.BYTES)
+										.order(ByteOrder.nativeOrder())
+										.asIntBuffer();
+		pixels.put(argb);
+		tiles.put(key(zoom, x, y), pixels);
+	}
+
+	/** Returns the pixels for the tile, or null if they are not (or no longer) held in memory */
+	public int[] get(final int zoom, final int x, final int y)
+	{
+		IntBuffer pixels = tiles.getIfPresent(key(zoom, x, y));
+		if (pixels == null)
+			return null;
+
+		int[] argb = new int[pixels.capacity()];
+		pixels.duplicate().clear().get(argb);
+		return argb;
+	}
+
+	public void remove(final int zoom, final int x, final int y)
+	{
+		tiles.invalidate(key(zoom, x, y));
+	}
+
+	public void clear()
+	{
+		tiles.invalidateAll();
+	}
+
+	/** Packs a zoom level and tile coord into a single key. Tile coords are well within 29 bits at any zoom level. */
+	public static long key(final int zoom, final int x, final int y)
+	{
+		return ((long) zoom << (2 * COORD_BITS)) | ((x & COORD_MASK) << COORD_BITS) | (y & COORD_MASK);
+	}
+}
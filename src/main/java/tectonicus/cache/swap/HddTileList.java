@@ -14,65 +14,141 @@ import tectonicus.TileCoord;
 import tectonicus.util.FileUtils;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+/** A set of tile coords which can grow larger than the heap.
+ *
+ *  Tiles are stored as packed 64 bit keys (see {@link #toKey(int, int)}). New keys are collected in
+ *  a pending buffer which is sorted and deduplicated into a run whenever it fills up. Runs are kept
+ *  in memory until the memory budget is exceeded, at which point they are merged and appended to a
+ *  single run file on disk. Iteration merges all runs back together in key order, so each tile is
+ *  returned exactly once.
+ */
 @Slf4j
 public class HddTileList implements Iterable<TileCoord>
 {
-	private final File baseDir;
-	
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+	private static final int MIN_PENDING_CAPACITY = 1024;
+	private static final int MAX_PENDING_CAPACITY = 1 << 20;
+
+	private final File runFile;
+
+	private final long maxMemoryKeys;
+	private final int pendingCapacity;
+
+	private long[] pending;
+	private int numPending;
+
+	/** Sorted, deduplicated runs held in memory. Each run is no more than half the size of the one before it. */
+	private final List<long[]> memoryRuns;
+	private long numMemoryKeys;
+
+	private final List<SpilledRun> spilledRuns;
+	private long runFileLength;
+
 	private int size;
-	
+	private boolean sizeValid;
+
 	private int minTileX, maxTileX;
 	private int minTileY, maxTileY;
-	
+
 	public HddTileList(File baseDir)
 	{
-		this.baseDir = baseDir;
-		
+		this(baseDir, DEFAULT_MEMORY_BUDGET);
+	}
+
+	public HddTileList(File baseDir, final long memoryBudgetBytes)
+	{
 		if (baseDir.exists())
 			FileUtils.deleteDirectory(baseDir);
 		baseDir.mkdirs();
-		
+
+		this.runFile = new File(baseDir, "tiles.runs");
+
+		this.maxMemoryKeys = Math.max(memoryBudgetBytes / Long.BYTES, 2 * MIN_PENDING_CAPACITY);
+		this.pendingCapacity = (int) Math.max(MIN_PENDING_CAPACITY, Math.min(MAX_PENDING_CAPACITY, maxMemoryKeys / 4));
+
+		this.pending = new long[MIN_PENDING_CAPACITY];
+		this.memoryRuns = new ArrayList<>();
+		this.spilledRuns = new ArrayList<>();
+		this.sizeValid = true;
+
 		minTileX = minTileY = Integer.MAX_VALUE;
 		maxTileX = maxTileY = Integer.MIN_VALUE;
 	}
-	
+
 	@Override
 	public java.util.Iterator<TileCoord> iterator()
 	{
-		return new HddTileListIterator(baseDir);
+		compact();
+
+		return new HddTileListIterator(new ArrayList<>(memoryRuns), new ArrayList<>(spilledRuns), runFile);
 	}
-	
+
 	public void add(TileCoord coord)
 	{
-		File coordFile = tileCoordToFile(coord, baseDir);
-		
-		if (!coordFile.exists())
-		{
-			coordFile.getParentFile().mkdirs();
+		final long key = toKey(coord.x, coord.y);
 
-			try (FileOutputStream fOut = new FileOutputStream(coordFile)) {
+		// Neighbouring chunks usually touch the same tiles, so catch the trivial repeat here
+		if (numPending > 0 && pending[numPending-1] == key)
+			return;
 
-				minTileX = Math.min(coord.x, minTileX);
-				maxTileX = Math.max(coord.x, maxTileX);
+		minTileX = Math.min(coord.x, minTileX);
+		maxTileX = Math.max(coord.x, maxTileX);
 
-				minTileY = Math.min(coord.y, minTileY);
-				maxTileY = Math.max(coord.y, maxTileY);
+		minTileY = Math.min(coord.y, minTileY);
+		maxTileY = Math.max(coord.y, maxTileY);
 
-				size++;
-			} catch (Exception e) {
-			}
+		if (numPending == pending.length)
+		{
+			if (pending.length < pendingCapacity)
+				pending = Arrays.copyOf(pending, Math.min(pending.length * 2, pendingCapacity));
+			else
+				flushPending();
 		}
+
+		pending[numPending++] = key;
+		sizeValid = false;
 	}
-	
+
 	public int size()
 	{
+		if (!sizeValid)
+		{
+			compact();
+
+			long count = 0;
+			if (spilledRuns.isEmpty())
+			{
+				for (long[] run : memoryRuns)
+					count += run.length;
+			}
+			else
+			{
+				HddTileListIterator it = new HddTileListIterator(new ArrayList<>(memoryRuns), new ArrayList<>(spilledRuns), runFile);
+				while (it.hasNext())
+				{
+					it.nextKey();
+					count++;
+				}
+			}
+
+			size = (int) count;
+			sizeValid = true;
+		}
+
 		return size;
 	}
-	
+
 	/** Returns a tile coord with the smallest x coord and the smallest y coord inserted.
 	 *  Note that this exact coord may not actually be present itself.
 	 */
@@ -88,44 +164,18 @@ public class HddTileList implements Iterable<TileCoord>
 	{
 		return new TileCoord(maxTileX, maxTileY);
 	}
-	
-	public static File tileCoordToFile(TileCoord coord, File baseDir)
+
+	/** Packs a tile coord into a key which sorts by x and then by y. */
+	public static long toKey(final int x, final int y)
 	{
-		final int xBucket  = coord.x / 4;
-		final int yBucket = coord.y / 4;
-		File first = new File(baseDir, ""+xBucket);
-		File second = new File(first, ""+yBucket);
-		return new File(second, "t_"+coord.x+"_"+coord.y+".tile");
-	}
-	
-	public static TileCoord fileToTileCoord(File file)
+		return ((long) x << 32) | ((y ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+	}
+
+	public static TileCoord fromKey(final long key)
 	{
-		// t_1_2.tile
-		try
-		{
-			String working = file.getName();
-			
-			final int firstDelim = working.indexOf('_');
-			final int secondDelim = working.indexOf('_', firstDelim+1);
-			final int thirdDelim = working.indexOf('.');
-			
-			if (firstDelim != -1 && secondDelim != -1 && thirdDelim != -1)
-			{
-				String xStr = working.substring(firstDelim+1, secondDelim);
-				String yStr = working.substring(secondDelim+1, thirdDelim);
-				
-				final int x = Integer.parseInt(xStr);
-				final int y = Integer.parseInt(yStr);
-				
-				return new TileCoord(x, y);
-			}
-		}
-		catch (Exception e)
-		{
-			log.error("Exception: ", e);
-		}
-		
-		return null;
+		final int x = (int) (key >> 32);
+		final int y = ((int) key) ^ Integer.MIN_VALUE;
+		return new TileCoord(x, y);
 	}
 
 	public Set<TileCoord> toSet() {
@@ -137,4 +187,129 @@ public class HddTileList implements Iterable<TileCoord>
 
 		return tileCoords;
 	}
+
+	/** Moves all pending keys into runs, and merges the in-memory runs into one where possible */
+	private void compact()
+	{
+		flushPending();
+
+		if (memoryRuns.size() > 1)
+		{
+			long[] merged = mergeRuns(memoryRuns);
+			memoryRuns.clear();
+			memoryRuns.add(merged);
+			numMemoryKeys = merged.length;
+		}
+	}
+
+	private void flushPending()
+	{
+		if (numPending == 0)
+			return;
+
+		Arrays.sort(pending, 0, numPending);
+		long[] run = dedupe(pending, numPending);
+		numPending = 0;
+
+		memoryRuns.add(run);
+		numMemoryKeys += run.length;
+
+		// Keep run lengths geometrically decreasing so the number of runs stays logarithmic
+		while (memoryRuns.size() > 1)
+		{
+			final int last = memoryRuns.size() - 1;
+			if (memoryRuns.get(last).length * 2 < memoryRuns.get(last-1).length)
+				break;
+
+			long[] merged = mergeRuns(memoryRuns.subList(last-1, last+1));
+			numMemoryKeys -= memoryRuns.get(last).length + memoryRuns.get(last-1).length - merged.length;
+			memoryRuns.remove(last);
+			memoryRuns.set(last-1, merged);
+		}
+
+		if (numMemoryKeys + pendingCapacity > maxMemoryKeys)
+			spill();
+	}
+
+	private void spill()
+	{
+		long[] run = mergeRuns(memoryRuns);
+
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		try (FileChannel channel = FileChannel.open(runFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+		{
+			for (long key : run)
+			{
+				if (!buffer.hasRemaining())
+				{
+					buffer.flip();
+					while (buffer.hasRemaining())
+						channel.write(buffer);
+					buffer.clear();
+				}
+				buffer.putLong(key);
+			}
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+		catch (IOException e)
+		{
+			// Can't spill, so just keep everything in memory and hope for the best
+			log.error("Unable to write tile list run file {}", runFile.getAbsolutePath(), e);
+			memoryRuns.clear();
+			memoryRuns.add(run);
+			numMemoryKeys = run.length;
+			return;
+		}
+
+		spilledRuns.add(new SpilledRun(runFileLength, run.length));
+		runFileLength += (long) run.length * Long.BYTES;
+
+		memoryRuns.clear();
+		numMemoryKeys = 0;
+	}
+
+	private static long[] dedupe(long[] sorted, final int length)
+	{
+		int unique = 0;
+		for (int i=0; i<length; i++)
+		{
+			if (unique == 0 || sorted[unique-1] != sorted[i])
+				sorted[unique++] = sorted[i];
+		}
+		return Arrays.copyOf(sorted, unique);
+	}
+
+	private static long[] mergeRuns(List<long[]> runs)
+	{
+		if (runs.size() == 1)
+			return runs.get(0);
+
+		long total = 0;
+		for (long[] run : runs)
+			total += run.length;
+
+		long[] merged = new long[(int) total];
+		int count = 0;
+
+		HddTileListIterator it = new HddTileListIterator(runs, new ArrayList<>(), null);
+		while (it.hasNext())
+			merged[count++] = it.nextKey();
+
+		return count == merged.length ? merged : Arrays.copyOf(merged, count);
+	}
+
+	/** A sorted run of keys stored in the run file */
+	static class SpilledRun
+	{
+		final long offset;
+		final int length;
+
+		SpilledRun(final long offset, final int length)
+		{
+			this.offset = offset;
+			this.length = length;
+		}
+	}
 }
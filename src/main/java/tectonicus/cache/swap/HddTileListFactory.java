@@ -19,9 +19,18 @@ public class HddTileListFactory
 	
 	private final File baseDir;
 	
+	private final long memoryBudget;
+	
 	public HddTileListFactory(File cacheDir)
+	{
+		this(cacheDir, HddTileList.DEFAULT_MEMORY_BUDGET);
+	}
+	
+	/** @param memoryBudget number of bytes each list may hold in memory before spilling to disk */
+	public HddTileListFactory(File cacheDir, final long memoryBudget)
 	{
 		baseDir = cacheDir;
+		this.memoryBudget = memoryBudget;
 		if (baseDir.exists())
 		{
 			FileUtils.deleteDirectory(baseDir);
@@ -40,7 +49,7 @@ public class HddTileListFactory
 		}
 		while (listDir.exists());
 			
-		return new HddTileList(listDir);
+		return new HddTileList(listDir, memoryBudget);
 	}
 	
 	public HddTileList createList(String name)
@@ -49,6 +58,6 @@ public class HddTileListFactory
 		if (listDir.exists())
 			throw new RuntimeException("Tile list already exists at "+listDir.getAbsolutePath());
 		
-		return new HddTileList(listDir);
+		return new HddTileList(listDir, memoryBudget);
 	}
 }
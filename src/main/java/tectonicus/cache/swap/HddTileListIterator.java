@@ -13,197 +13,194 @@ import lombok.extern.slf4j.Slf4j;
 import tectonicus.TileCoord;
 
 import java.io.File;
-import java.io.FileFilter;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
+/** Merges the sorted runs of a {@link HddTileList} back together, skipping duplicate keys */
 @Slf4j
 public class HddTileListIterator implements Iterator<TileCoord>
 {
-	private File[] xDirs;
-	private File[] yDirs;
-	private TileCoord[] tiles;
-	
-	private int xPosition, yPosition, tilePosition;
-	
-	private TileCoord next;
-	
-	public HddTileListIterator(File baseDir)
+	private static final int READ_BUFFER_KEYS = 8 * 1024;
+
+	private final PriorityQueue<RunCursor> cursors;
+
+	private FileChannel channel;
+
+	private boolean hasLast;
+	private long last;
+
+	HddTileListIterator(List<long[]> memoryRuns, List<HddTileList.SpilledRun> spilledRuns, File runFile)
 	{
-		xDirs = baseDir.listFiles( new DirectoryFilter() );
-		
-		if (xDirs.length > 0)
-			yDirs = xDirs[0].listFiles( new DirectoryFilter() );
-		else
-			yDirs = new File[0]	;
-		
-		if (yDirs.length > 0)
-			tiles = fetchTiles(yDirs[0]);
-		else
-			tiles = new TileCoord[0];
-		
-		xPosition = 0;
-		yPosition = 0;
-		tilePosition = -1;
-		
-		advance();	
+		cursors = new PriorityQueue<>(Math.max(1, memoryRuns.size() + spilledRuns.size()), (lhs, rhs) -> Long.compare(lhs.head, rhs.head));
+
+		for (long[] run : memoryRuns)
+		{
+			RunCursor cursor = new MemoryRunCursor(run);
+			if (cursor.advance())
+				cursors.add(cursor);
+		}
+
+		if (!spilledRuns.isEmpty())
+		{
+			try
+			{
+				channel = FileChannel.open(runFile.toPath(), StandardOpenOption.READ);
+				for (HddTileList.SpilledRun run : spilledRuns)
+				{
+					RunCursor cursor = new FileRunCursor(channel, run);
+					if (cursor.advance())
+						cursors.add(cursor);
+				}
+			}
+			catch (IOException e)
+			{
+				throw new RuntimeException("Unable to read tile list run file " + runFile.getAbsolutePath(), e);
+			}
+		}
+
+		closeIfFinished();
 	}
-	
-	
+
 	@Override
 	public boolean hasNext()
 	{
-		return next != null;
+		return !cursors.isEmpty();
 	}
-	
+
 	@Override
 	public TileCoord next()
 	{
-		if (!hasNext())
-			return null;
-		
-		TileCoord actualNext = next;
-		
-		advance();
-		
-		return actualNext;
+		return HddTileList.fromKey(nextKey());
+	}
+
+	long nextKey()
+	{
+		if (cursors.isEmpty())
+			throw new NoSuchElementException();
+
+		final long key = cursors.peek().head;
+		hasLast = true;
+		last = key;
+
+		// Step every cursor that's sitting on this key (or an earlier duplicate of it)
+		while (!cursors.isEmpty() && cursors.peek().head <= last)
+		{
+			RunCursor cursor = cursors.poll();
+			if (cursor.advance())
+				cursors.add(cursor);
+		}
+
+		closeIfFinished();
+
+		return key;
 	}
-	
+
 	@Override
 	public void remove()
 	{
-		throw new RuntimeException("not implemented");
+		throw new UnsupportedOperationException("not implemented");
 	}
-	
-	private void advance()
-	{	
-		boolean finished = false;
-		
-		// First try and find the next file in tileFiles
-		final boolean tileOk = advanceTile();
-		
-		if (!tileOk)
+
+	private void closeIfFinished()
+	{
+		if (cursors.isEmpty() && channel != null)
 		{
-			// Finished in this tile dir? Advance the y dir
-			final boolean yOk = advanceYDir();
-			
-			if (!yOk)
+			try
 			{
-				// Finished in the y dir? Advance the x dir
-				final boolean xOk = advanceXDir();
-				
-				if (!xOk)
-				{
-					// Finished?
-					next = null;
-					finished = true;
-				}
-			
-				if (!finished)
-					refreshYDir();
+				channel.close();
 			}
-			if (!finished)
+			catch (IOException e)
 			{
-				refreshTiles();
-				advance();
+				log.warn("Unable to close tile list run file", e);
 			}
+			channel = null;
 		}
 	}
-	
-	private boolean advanceTile()
-	{
-		tilePosition++;
-		
-		if (tiles == null || tiles.length <= tilePosition)
-			return false;
-		
-		next = tiles[tilePosition];
-		
-		return true;
-	}
-	
-	private boolean advanceYDir()
-	{
-		yPosition++;
-		
-		if (yDirs == null || yDirs.length <= yPosition)
-			return false;
-		
-		return true;
-	}
-	
-	private boolean advanceXDir()
-	{
-		xPosition++;
-		
-		if (xDirs == null || xDirs.length <= xPosition)
-			return false;
-		
-		return true;
-	}
-	
-	private void refreshTiles()
-	{
-                if (yDirs != null && yDirs.length > 0)
-                {
-                        // Refresh the tiles array
-                        tiles = fetchTiles(yDirs[yPosition]);
-                        tilePosition = -1;
-                }
-	}
-	
-	private void refreshYDir()
+
+	private abstract static class RunCursor
 	{
-		// Refresh the y dir
-		yDirs = xDirs[xPosition].listFiles( new DirectoryFilter() );
-                
-                if (yDirs == null)
-                {
-                    log.warn(String.format("Unable to read directories from directory %s", xDirs[xPosition].getAbsolutePath()));
-                }
-                
-		yPosition = 0;
+		long head;
+
+		/** Moves to the next key in the run, returns false if the run is exhausted */
+		abstract boolean advance();
 	}
-	
-	private static TileCoord[] fetchTiles(File dir)
+
+	private static class MemoryRunCursor extends RunCursor
 	{
-		File[] files = dir.listFiles( new TileCoordFilter() );
-                
-                if (files == null)
-                {
-                    log.warn(String.format("Unable to read tiles from directory %s", dir.getAbsolutePath()));
-                    return new TileCoord[0];
-                }
-		
-		ArrayList<TileCoord> coords = new ArrayList<TileCoord>();
-		
-		for (File f : files)
+		private final long[] run;
+		private int position;
+
+		MemoryRunCursor(long[] run)
 		{
-			TileCoord coord = HddTileList.fileToTileCoord(f);
-			if (coord != null)
-				coords.add(coord);
+			this.run = run;
 		}
-		
-		return coords.toArray(new TileCoord[0]);
-	}
-	
-	private static class DirectoryFilter implements FileFilter
-	{
+
 		@Override
-		public boolean accept(File pathname)
+		boolean advance()
 		{
-			return pathname.isDirectory();
+			if (position >= run.length)
+				return false;
+
+			head = run[position++];
+			return true;
 		}
 	}
-	private static class TileCoordFilter implements FileFilter
+
+	private static class FileRunCursor extends RunCursor
 	{
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+
+		private long filePosition;
+		private int remaining;
+
+		FileRunCursor(FileChannel channel, HddTileList.SpilledRun run)
+		{
+			this.channel = channel;
+			this.filePosition = run.offset;
+			this.remaining = run.length;
+			this.buffer = ByteBuffer.allocate(Math.min(READ_BUFFER_KEYS, Math.max(1, run.length)) * Long.BYTES);
+			this.buffer.limit(0);
+		}
+
 		@Override
-		public boolean accept(File pathname)
+		boolean advance()
 		{
-			// TODO: More checking here - actually parse out tile coord
-			
-			return pathname.isFile() && pathname.getName().endsWith(".tile");
+			if (!buffer.hasRemaining())
+			{
+				if (remaining == 0)
+					return false;
+
+				final int keys = Math.min(remaining, buffer.capacity() / Long.BYTES);
+				buffer.clear();
+				buffer.limit(keys * Long.BYTES);
+				try
+				{
+					while (buffer.hasRemaining())
+					{
+						final int read = channel.read(buffer, filePosition + buffer.position());
+						if (read < 0)
+							throw new IOException("Unexpected end of tile list run file");
+					}
+				}
+				catch (IOException e)
+				{
+					throw new RuntimeException(e);
+				}
+				buffer.flip();
+
+				filePosition += (long) keys * Long.BYTES;
+				remaining -= keys;
+			}
+
+			head = buffer.getLong();
+			return true;
 		}
-		
 	}
 }
@@ -19,22 +19,27 @@ import tectonicus.WorldStats;
 import tectonicus.blockTypes.Air;
 import tectonicus.blockregistry.BlockRegistry;
 import tectonicus.blockregistry.BlockStateModel;
-import tectonicus.blockregistry.BlockStateWrapper;
+import tectonicus.blockregistry.ResolvedBlockState;
 import tectonicus.cache.BiomeCache;
 import tectonicus.cache.BiomeData;
 import tectonicus.configuration.LightFace;
 import tectonicus.configuration.LightStyle;
+import tectonicus.metrics.Histogram;
+import tectonicus.metrics.Metrics;
 import tectonicus.rasteriser.Rasteriser;
 import tectonicus.raw.Biome;
-import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+import tectonicus.raw.ChunkField;
 import tectonicus.raw.RawChunk;
 import tectonicus.raw.SignEntity;
 import tectonicus.renderer.Camera;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryData;
 import tectonicus.renderer.OrthoCamera;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.BoundingBox;
 import tectonicus.util.Util;
+import tectonicus.world.ChunkNeighbourhood;
 import tectonicus.world.World;
 import tectonicus.world.WorldInfo;
 import tectonicus.world.filter.BlockFilter;
@@ -43,11 +48,16 @@ import java.io.IOException;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Chunk
 {	
+	private static final Histogram BUILD_TIME = Metrics.histogram("tectonicus_geometry_build_seconds", "Time taken to build the geometry of a chunk",
+			Histogram.exponentialBuckets(0.0005, 2, 14));
+	private static final Histogram VERTICES = Metrics.histogram("tectonicus_geometry_vertices", "Vertices in the geometry of a chunk",
+			Histogram.exponentialBuckets(256, 2, 12));
+	
 	private final ChunkCoord coord;
 	
 	private final BiomeCache biomeCache;
@@ -70,6 +80,13 @@ public class Chunk
 		this.bounds = new BoundingBox(origin, RawChunk.WIDTH, Minecraft.getChunkHeight(), RawChunk.DEPTH);
 	}
 	
+	/** Wraps a raw chunk which has already been loaded */
+	public Chunk(RawChunk rawChunk, BiomeCache biomeCache)
+	{
+		this(rawChunk.getChunkCoord(), biomeCache);
+		this.rawChunk = rawChunk;
+	}
+	
 	public ChunkCoord getCoord() { return coord; }
 	
 	public void calculateHash(MessageDigest hashAlgorithm)
@@ -88,9 +105,13 @@ public class Chunk
 	}
 	
 	public void loadRaw(ChunkData chunkData, BlockFilter filter, WorldStats worldStats, WorldInfo worldInfo) throws IOException {
+		loadRaw(chunkData, filter, worldStats, worldInfo, ChunkField.ALL);
+	}
+
+	public void loadRaw(ChunkData chunkData, BlockFilter filter, WorldStats worldStats, WorldInfo worldInfo, Set<ChunkField> fields) throws IOException {
 		if (rawChunk == null)
 		{
-			rawChunk = new RawChunk(chunkData, worldStats, worldInfo);
+			rawChunk = new RawChunk(chunkData, worldStats, worldInfo, fields);
 			filter.filter(rawChunk);
 		}
 		
@@ -115,82 +136,107 @@ public class Chunk
 	
 	public boolean createGeometry(Rasteriser rasteriser, World world, BlockTypeRegistry registry, BlockRegistry modelRegistry, BlockMaskFactory maskFactory, TexturePack texturePack)
 	{
-		if (rawChunk == null)
-			return false;
 		if (geometry != null)
 			return false;
-		if (!rawChunk.isFullChunk())
+		
+		GeometryData data = createGeometryData(world, registry, modelRegistry, maskFactory);
+		if (data == null)
 			return false;
 		
+		geometry = data.upload(rasteriser);
+		
+		return true;
+	}
+	
+	/** Builds the vertex data for this chunk without calling the rasteriser, so this can run off the render thread.
+	 *  Pass the result to {@link GeometryData#upload(Rasteriser)} on the render thread and then to {@link #setGeometry(Geometry)}.
+	 *  @return the finalised geometry data, or null if the raw chunk isn't loaded or isn't a full chunk */
+	public GeometryData createGeometryData(World world, BlockTypeRegistry registry, BlockRegistry modelRegistry, BlockMaskFactory maskFactory)
+	{
+		// The raw chunk can be unloaded by the render thread while we're building
+		final RawChunk rawChunk = this.rawChunk;
+		if (rawChunk == null)
+			return null;
+		if (!rawChunk.isFullChunk())
+			return null;
+		
+		final long start = System.nanoTime();
+		
 		BlockMask mask = maskFactory.createMask(coord, rawChunk);
 		
-		geometry = new Geometry(rasteriser);
+		// Neighbour lookups go through this rather than the world, see ChunkNeighbourhood
+		ChunkNeighbourhood context = new ChunkNeighbourhood(world, rawChunk);
 		
-		for (int y=0; y<Minecraft.getChunkHeight(); y++)
+		GeometryData geometry = new GeometryData();
+		geometry.enableQuadMerging(world.getTexturePack()::findRepeatingTexture);
+		
+		for (int section=0; section<rawChunk.getNumSections(); section++)
 		{
-			for (int x=0; x<RawChunk.WIDTH; x++)
+			// Sections with nothing but air, or which the mask hides completely, can't add any geometry. Sections
+			// of one solid block still have to be walked since their outside faces can be visible.
+			final RawChunk.SectionContents contents = rawChunk.getSectionContents(section);
+			if (contents == RawChunk.SectionContents.ABSENT || contents == RawChunk.SectionContents.AIR)
+				continue;
+			if (mask.getSectionCoverage(section) == BlockMask.Coverage.HIDDEN)
+				continue;
+			
+			final int minY = section * RawChunk.SECTION_HEIGHT;
+			for (int y=minY; y<minY+RawChunk.SECTION_HEIGHT; y++)
 			{
-				for (int z=0; z<RawChunk.DEPTH; z++)
+				for (int x=0; x<RawChunk.WIDTH; x++)
 				{
-					if (mask.isVisible(x, y, z))
+					for (int z=0; z<RawChunk.DEPTH; z++)
 					{
-						BlockType type;
-						final String blockName = rawChunk.getBlockName(x, y, z);
-						if (blockName != null)
+						if (mask.isVisible(x, y, z))
 						{
-							if (blockName.contains("minecraft:air") || blockName.contains("_air")) {
-								continue;
-							}
-
-							final BlockProperties properties = rawChunk.getBlockState(x, y, z);
+							BlockType type;
+							final int blockStateId = rawChunk.getBlockStateId(x, y, z);
+							if (blockStateId != BlockStates.NONE)
+							{
+								if (BlockStates.isAir(blockStateId)) {
+									continue;
+								}
 
-							// Blocks in the old registry either don't have models or they require special handling
-							type = registry.find(blockName);
+								final String blockName = BlockStates.getName(blockStateId);
+								final ResolvedBlockState resolved = modelRegistry.resolve(blockStateId);
 
-							if(type instanceof Air) { // If the type is air then no block was found in the old registry
-								if (modelRegistry.containsSingleVariantBlock(blockName)) {
-									modelRegistry.getSingleVariantModel(blockName).createGeometry(x, y, z, world, rawChunk, geometry);
-								} else {
-									//TODO: This is quite slow. Need to profile and figure out if it can be sped up
-									List<BlockStateModel> models;
-									BlockStateWrapper stateWrapper = modelRegistry.getBlock(blockName);
+								// Blocks in the old registry either don't have models or they require special handling
+								type = registry.find(blockName);
 
-									if (stateWrapper != null)
-										models = stateWrapper.getModels(properties);
-									else
+								if(type instanceof Air) { // If the type is air then no block was found in the old registry
+									if (!resolved.isFound())
 										continue;
 
-									for (BlockStateModel model : models) {
-										model.createGeometry(x, y, z, world, rawChunk, geometry);
+									for (BlockStateModel model : resolved.getModels()) {
+										model.createGeometry(x, y, z, context, rawChunk, geometry);
 									}
 								}
-							}
 
-							//Render a water block at this same location if waterlogged
-							if (properties != null && properties.containsKey("waterlogged") && properties.get("waterlogged").equals("true")
-									|| blockName.equals("minecraft:kelp") || blockName.equals("minecraft:kelp_plant") || blockName.contains("seagrass")) {  //TODO: is there some way to avoid hard-coding these blocks?
-								registry.find("minecraft:water").addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
+								//Render a water block at this same location if waterlogged
+								if (resolved.isWaterlogged()) {
+									registry.find("minecraft:water").addEdgeGeometry(x, y, z, context, registry, rawChunk, geometry);
+								}
 							}
-						}
-						else
-						{
-							final int blockId = rawChunk.getBlockId(x, y, z);
-							if (blockId == 0)
-								continue;
-							final int data = rawChunk.getBlockData(x, y, z);
-
-							type = registry.find(blockId, data);
-						}
-
-						if (type != null && !(type instanceof Air))
-						{
-							if (x == 0 || y == 0 || z == 0 || x == RawChunk.WIDTH-1 || y == Minecraft.getChunkHeight()-1 || z == RawChunk.DEPTH-1)
+							else
 							{
-								type.addEdgeGeometry(x, y, z, world, registry, rawChunk, geometry);
+								final int blockId = rawChunk.getBlockId(x, y, z);
+								if (blockId == 0)
+									continue;
+								final int data = rawChunk.getBlockData(x, y, z);
+
+								type = registry.find(blockId, data);
 							}
-							else
+
+							if (type != null && !(type instanceof Air))
 							{
-								type.addInteriorGeometry(x, y, z, world, registry, rawChunk, geometry);
+								if (x == 0 || y == 0 || z == 0 || x == RawChunk.WIDTH-1 || y == Minecraft.getChunkHeight()-1 || z == RawChunk.DEPTH-1)
+								{
+									type.addEdgeGeometry(x, y, z, context, registry, rawChunk, geometry);
+								}
+								else
+								{
+									type.addInteriorGeometry(x, y, z, context, registry, rawChunk, geometry);
+								}
 							}
 						}
 					}
@@ -201,17 +247,17 @@ public class Chunk
 		// Create painting geometry
 		BlockType type = registry.find(-1, 0);
 		if (type != null)
-			type.addEdgeGeometry(0, 0, 0, world, registry, rawChunk, geometry);
+			type.addEdgeGeometry(0, 0, 0, context, registry, rawChunk, geometry);
 		
 		// Create itemframe geometry
 		type = registry.find(-2, 0);
 		if (type != null)
-			type.addEdgeGeometry(0, 0, 0, world, registry, rawChunk, geometry);
+			type.addEdgeGeometry(0, 0, 0, context, registry, rawChunk, geometry);
                 
                 // Create armor stand geometry
 		type = registry.find(-3, 0);
 		if (type != null)
-			type.addEdgeGeometry(0, 0, 0, world, registry, rawChunk, geometry);
+			type.addEdgeGeometry(0, 0, 0, context, registry, rawChunk, geometry);
 		
 		/*
 		for (int y=0; y<RawChunk.HEIGHT; y++)
@@ -271,7 +317,18 @@ public class Chunk
 		
 		geometry.finalise();
 		
-		return true;
+		BUILD_TIME.observeNanos(System.nanoTime() - start);
+		VERTICES.observe(geometry.getTotalVertices());
+		
+		return geometry;
+	}
+	
+	/** Sets geometry uploaded from {@link #createGeometryData}, replacing any existing geometry */
+	public void setGeometry(Geometry geometry)
+	{
+		unloadGeometry();
+		
+		this.geometry = geometry;
 	}
 	
 	public void unloadRaw()
@@ -400,14 +457,18 @@ public class Chunk
 //		}
 	}
 	
+	/** @return approximate heap used by the raw chunk, or 0 if it isn't loaded */
 	public long getRawMemorySize()
 	{
-		return rawChunk.getMemorySize();
+		final RawChunk rawChunk = this.rawChunk;
+		return rawChunk != null ? rawChunk.getMemorySize() : 0;
 	}
 
+	/** @return the size of the vertex buffers, or 0 if there's no geometry. For VBO meshes this is GPU memory. */
 	public long getGeometryMemorySize()
 	{
-		return geometry.getMemorySize();
+		final Geometry geometry = this.geometry;
+		return geometry != null ? geometry.getMemorySize() : 0;
 	}
 
 	public void printGeometryStats()
@@ -463,8 +524,20 @@ public class Chunk
 		}
 	}
 
+	/** Passed as the sky and block light when there is no light data for a position, eg. because its chunk isn't loaded */
+	public static final int NO_LIGHT = -1;
+
 	//TODO: is there any way to make this method faster?
 	public static float getLight(LightStyle lightStyle, LightFace face, RawChunk c, final int x, final int y, final int z, float nightLightAdjustment)
+	{
+		if (c == null || y >= Minecraft.getChunkHeight() || y < 0 || lightStyle == LightStyle.None)
+			return getLight(lightStyle, face, NO_LIGHT, NO_LIGHT, y, nightLightAdjustment);
+
+		return getLight(lightStyle, face, getSkyLight(c, x, y, z), getBlockLight(c, x, y, z), y, nightLightAdjustment);
+	}
+
+	/** Same as above but from light values which have already been read from the chunk, or {@link #NO_LIGHT} */
+	public static float getLight(LightStyle lightStyle, LightFace face, final int skyLight, final int blockLight, final int y, float nightLightAdjustment)
 	{
 		float result = 0;
 
@@ -472,15 +545,12 @@ public class Chunk
 		{
 			case Day:
 			{
-				if (c == null || y >= Minecraft.getChunkHeight() || y < 0)
+				if (skyLight == NO_LIGHT)
 				{
 					result = 1.0f;
 				}
 				else
 				{
-					final int skyLight = c.getSkyLight(x, y, z);
-					final int blockLight = c.getBlockLight(x, y, z);
-
 					result = Util.clamp((skyLight * 0.7f + blockLight) / RawChunk.MAX_LIGHT + 0.3f, 0, 1);
 				}
 
@@ -497,16 +567,13 @@ public class Chunk
 			}
 			case Night:
 			{
-				if (c == null || y >= Minecraft.getChunkHeight() || y < 0)
+				if (skyLight == NO_LIGHT)
 				{
 					result = 0.1f;
 				}
 				else
 				{
-					final float skyLight = getSkyLight(c, x, y, z);
-					final float blockLight = getBlockLight(c, x, y, z);
-					
-					result = Util.clamp((skyLight * 0.1f + blockLight * 0.7f) / RawChunk.MAX_LIGHT + nightLightAdjustment, 0, 1);
+					result = Util.clamp(((float) skyLight * 0.1f + (float) blockLight * 0.7f) / RawChunk.MAX_LIGHT + nightLightAdjustment, 0, 1);
 				}
 
 				if (face == LightFace.NorthSouth)
@@ -522,16 +589,16 @@ public class Chunk
 			}
 			case Cave:
 			{
-				if (c == null || y >= Minecraft.getChunkHeight() || y < 0)
+				if (blockLight == NO_LIGHT)
 				{
 					result = 0.1f;
 				}
 				else
 				{
-					final float blockLight = getBlockLight(c, x, y, z) / (float)RawChunk.MAX_LIGHT;
+					final float blockLightScale = blockLight / (float)RawChunk.MAX_LIGHT;
 					final float heightScale = (y / (float)Minecraft.getChunkHeight()) * 0.6f + 0.1f;
 					
-					result = Util.clamp(heightScale + blockLight * 0.5f, 0f, 1f);
+					result = Util.clamp(heightScale + blockLightScale * 0.5f, 0f, 1f);
 				}
 
 				if (face == LightFace.NorthSouth)
@@ -10,12 +10,127 @@
 package tectonicus.chunk;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.jnbt.NBTInputStream.Compression;
+import tectonicus.metrics.Counter;
+import tectonicus.metrics.Metrics;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/** Compressed NBT data for a single chunk. The data may be a slice of a memory mapped region file, so it is never modified. */
 @Getter
-@RequiredArgsConstructor
 public class ChunkData {
-	private final byte[] bytes;
+	private static final int STREAM_BUFFER_SIZE = 8 * 1024;
+
+	private static final Counter BYTES_INFLATED = Metrics.counter("tectonicus_chunk_bytes_inflated_total", "Bytes of chunk NBT inflated from region files");
+
+	private final ByteBuffer buffer;
 	private final Compression compressionType;
+
+	public ChunkData(byte[] bytes, Compression compressionType) {
+		this(ByteBuffer.wrap(bytes), compressionType);
+	}
+
+	public ChunkData(ByteBuffer buffer, Compression compressionType) {
+		this.buffer = buffer.asReadOnlyBuffer();
+		this.compressionType = compressionType;
+	}
+
+	/** Opens a stream of the uncompressed data, suitable for NBTInputStream(DataInputStream). Safe to call from several threads at once. */
+	public DataInputStream openStream() throws IOException {
+		ByteBuffer data = buffer.duplicate();
+
+		InputStream in;
+		if (compressionType == Compression.Deflate)
+			in = new ByteBufferInflaterInputStream(data);
+		else if (compressionType == Compression.Gzip)
+			in = new GZIPInputStream(new ByteBufferInputStream(data), STREAM_BUFFER_SIZE);
+		else
+			throw new IOException("Unknown compression type: " + compressionType);
+
+		return new DataInputStream(new BufferedInputStream(in, STREAM_BUFFER_SIZE));
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] dest, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+
+			final int count = Math.min(length, buffer.remaining());
+			buffer.get(dest, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+	/** Inflates straight from the source buffer, rather than copying it into the inflater through an intermediate array */
+	private static class ByteBufferInflaterInputStream extends InputStream {
+		private final Inflater inflater;
+		private final byte[] single = new byte[1];
+		private boolean closed;
+
+		ByteBufferInflaterInputStream(ByteBuffer buffer) {
+			this.inflater = new Inflater();
+			this.inflater.setInput(buffer);
+		}
+
+		@Override
+		public int read() throws IOException {
+			return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] dest, int offset, int length) throws IOException {
+			if (length == 0)
+				return 0;
+
+			try {
+				int count;
+				while ((count = inflater.inflate(dest, offset, length)) == 0) {
+					if (inflater.finished() || inflater.needsDictionary())
+						return -1;
+					if (inflater.needsInput())
+						throw new EOFException("Unexpected end of chunk data");
+				}
+				return count;
+			} catch (DataFormatException e) {
+				throw new IOException("Corrupt chunk data", e);
+			}
+		}
+
+		@Override
+		public void close() {
+			if (closed)
+				return;
+			closed = true;
+
+			BYTES_INFLATED.add(inflater.getBytesWritten());
+			inflater.end();
+		}
+	}
 }
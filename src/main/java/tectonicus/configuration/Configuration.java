@@ -32,7 +32,8 @@ public interface Configuration  //TODO: is this interface needed?
 	}
 	
 	enum RasteriserType {
-		LWJGL
+		LWJGL,
+		SOFTWARE
 	}
 	
 	enum RenderStyle {
@@ -56,10 +57,16 @@ public interface Configuration  //TODO: is this interface needed?
 	
 	File getCacheDir();
 	
+	/** Where render metrics are written, or null for the cache dir */
+	File getMetricsDir();
+	
 	File getWorldDir();
 	
 	boolean useCache();
 	
+	/** Whether to carry on from the checkpoint left by a render which didn't finish */
+	boolean isResume();
+	
 	Level getLoggingLevel();
 	
 	void setLoggingLevel(Level loggingLevel);
@@ -116,6 +123,34 @@ public interface Configuration  //TODO: is this interface needed?
 	
 	int getNumDownsampleThreads();
 	
+	int getTileListMemory();
+	
+	int getTileBandWidth();
+	
+	/** Percentage of the max heap which loaded raw chunks may use */
+	int getRawCacheMemory();
+	
+	/** MB of vertex buffers which loaded chunk geometry may use, on the GPU when VBOs are used */
+	int getGeometryCacheMemory();
+	
+	/** MB of direct memory which freshly rendered tiles may use while they wait to be downsampled */
+	int getDownsampleCacheMemory();
+	
+	/** Regions whose chunks are sampled in profile mode */
+	int getProfileRegions();
+	
+	/** Tiles drawn, read back, encoded and downsampled in profile mode */
+	int getProfileTiles();
+	
+	/** Where profile mode writes a Java Flight Recorder recording, or null for no recording */
+	File getProfileRecording();
+	
+	/** The share of the base tiles this process renders, or null to render the whole map */
+	Shard getShard();
+	
+	/** Number of shards whose base tiles are merged in before downsampling, or 0 when the map wasn't rendered in shards */
+	int getMergeShards();
+	
 	String getSinglePlayerName();
 	
 	String getCustomStyle();
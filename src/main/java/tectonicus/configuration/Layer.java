@@ -27,6 +27,7 @@ public interface Layer
 	
 	public ImageFormat getImageFormat();
 	public float getImageCompressionLevel();
+	public int getPngCompressionLevel();
 	public String getBackgroundColor();
 	public Color getBackgroundColorRGB();
 	
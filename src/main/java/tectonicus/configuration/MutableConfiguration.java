@@ -14,6 +14,7 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
+import tectonicus.TileScheduler;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -43,6 +44,7 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 	@Option(names = {"-m", "--mode", "mode"}, paramLabel = "<string>")
 	private Mode mode;
 	
+	@Option(names = {"--rasteriser", "rasteriser"}, paramLabel = "<string>")
 	private RasteriserType rasteriserType;
 
 	@Option(names = {"--useEGL"}, paramLabel = "<boolean>")
@@ -63,9 +65,15 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 	@Option(names = {"-C", "--useCache", "useCache"}, arity = "0..1", paramLabel = "<boolean>")
 	private boolean useCache;
 
+	@Option(names = {"--resume", "resume"}, arity = "0..1", paramLabel = "<boolean>")
+	private boolean resume;
+
 	@Option(names = {"--cacheDir", "cacheDir"}, paramLabel = "<String>")
 	private File cacheDir;
 
+	@Option(names = {"--metricsDir", "metricsDir"}, paramLabel = "<String>")
+	private File metricsDir;
+
 	@Option(names = {"-j", "--minecraftJar", "minecraftJar"}, paramLabel = "<String>")
 	private File minecraftJar;
 
@@ -137,6 +145,36 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 	@Option(names = {"--numDownsampleThreads", "numDownsampleThreads"}, paramLabel = "<integer>")
 	private int numDownsampleThreads;
 
+	@Option(names = {"--tileListMemory", "tileListMemory"}, paramLabel = "<integer>")
+	private int tileListMemory;
+
+	@Option(names = {"--tileBandWidth", "tileBandWidth"}, paramLabel = "<integer>")
+	private int tileBandWidth;
+
+	@Option(names = {"--rawCacheMemory", "rawCacheMemory"}, paramLabel = "<integer>")
+	private int rawCacheMemory;
+
+	@Option(names = {"--geometryCacheMemory", "geometryCacheMemory"}, paramLabel = "<integer>")
+	private int geometryCacheMemory;
+
+	@Option(names = {"--downsampleCacheMemory", "downsampleCacheMemory"}, paramLabel = "<integer>")
+	private int downsampleCacheMemory;
+
+	@Option(names = {"--profileRegions", "profileRegions"}, paramLabel = "<integer>")
+	private int profileRegions;
+
+	@Option(names = {"--profileTiles", "profileTiles"}, paramLabel = "<integer>")
+	private int profileTiles;
+
+	@Option(names = {"--profileRecording", "profileRecording"}, paramLabel = "<String>")
+	private File profileRecording;
+
+	@Option(names = {"--shard", "shard"}, paramLabel = "<index/count>")
+	private Shard shard;
+
+	@Option(names = {"--mergeShards", "mergeShards"}, paramLabel = "<integer>")
+	private int mergeShards;
+
 	private boolean forceLoadAwt;
 
 	private String singlePlayerName;
@@ -174,6 +212,13 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 		cacheDir = new File(outputDir, "Cache");
 		defaultSkin = "steve";
 		numDownsampleThreads = 1;
+		tileListMemory = 64;
+		tileBandWidth = TileScheduler.DEFAULT_BAND_WIDTH;
+		rawCacheMemory = 25;
+		geometryCacheMemory = 512;
+		downsampleCacheMemory = 512;
+		profileRegions = 1;
+		profileTiles = 16;
 		singlePlayerName = "";
 		maps = new ArrayList<>();
 		smoothLit = false;
@@ -192,7 +237,9 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 		log.debug("\tuseEGL: {}", isUseEGL());
 		log.debug("\toutputDir:{}", outputDir.getAbsolutePath());
 		log.debug("\tuseCache:{}", useCache());
+		log.debug("\tresume:{}", isResume());
 		log.debug("\tcacheDir:{}", cacheDir.getAbsolutePath());
+		log.debug("\tmetricsDir:{}", metricsDir != null ? metricsDir.getAbsolutePath() : cacheDir.getAbsolutePath());
 		log.debug("\ttexturePack:{}", texturePack != null ? texturePack.getAbsolutePath() : "none");
 		log.debug("\tuseOldColorPalette:{}", useOldColorPalette());
 		log.debug("\tcolourDepth:{}", this.getColourDepth());
@@ -215,6 +262,20 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 		log.debug("\toutputHtmlName:{}", getOutputHtmlName());
 		log.debug("\thtmlTitle: {}", getHtmlTitle());
 		log.debug("\tnumDownsampleThreads:{}", getNumDownsampleThreads());
+		log.debug("\ttileListMemory:{}MB", getTileListMemory());
+		log.debug("\ttileBandWidth:{}", getTileBandWidth());
+		log.debug("\trawCacheMemory:{}%", getRawCacheMemory());
+		log.debug("\tgeometryCacheMemory:{}MB", getGeometryCacheMemory());
+		log.debug("\tdownsampleCacheMemory:{}MB", getDownsampleCacheMemory());
+		if (mode == Mode.PROFILE) {
+			log.debug("\tprofileRegions:{}", getProfileRegions());
+			log.debug("\tprofileTiles:{}", getProfileTiles());
+			log.debug("\tprofileRecording:{}", profileRecording != null ? profileRecording.getAbsolutePath() : "none");
+		}
+		if (shard != null)
+			log.debug("\tshard:{}", shard);
+		if (mergeShards > 0)
+			log.debug("\tmergeShards:{}", mergeShards);
 		log.debug("\tsinglePlayerName:{}", getSinglePlayerName());
 		log.debug("\tuseCdn: {}", getUseCdn());
 
@@ -242,6 +303,8 @@ public class MutableConfiguration implements Configuration, Callable<MutableConf
 
 				if (l.getImageFormat() == ImageFormat.JPG)
 					log.debug("\t\timageCompressionLevel: {}", l.getImageCompressionLevel());
+				else if (l.getImageFormat() == ImageFormat.PNG)
+					log.debug("\t\tpngCompressionLevel: {}", l.getPngCompressionLevel());
 
 				if (l.getCustomBlockConfig() != null)
 					log.debug("\t\tcustomBlockConfig: {}", l.getCustomBlockConfig());
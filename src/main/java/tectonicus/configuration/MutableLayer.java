@@ -11,6 +11,7 @@ package tectonicus.configuration;
 
 import java.awt.Color;
 
+import tectonicus.PngEncoder;
 import tectonicus.configuration.Configuration.RenderStyle;
 
 public class MutableLayer implements Layer
@@ -24,6 +25,7 @@ public class MutableLayer implements Layer
 	
 	private ImageFormat imageFormat;
 	private float imageCompressionLevel;
+	private int pngCompressionLevel;
 	private String backgroundColor;
 	
 	private String customBlockConfig;
@@ -38,6 +40,7 @@ public class MutableLayer implements Layer
 		this.renderStyle = RenderStyle.REGULAR;
 		this.imageFormat = ImageFormat.PNG;
 		this.imageCompressionLevel = 1.0f;
+		this.pngCompressionLevel = PngEncoder.DEFAULT_COMPRESSION_LEVEL;
 		this.useDefaultBlockConfig = true;
 	}
 	
@@ -107,6 +110,16 @@ public class MutableLayer implements Layer
 		this.imageCompressionLevel = level;
 	}
 	
+	@Override
+	public int getPngCompressionLevel()
+	{
+		return pngCompressionLevel;
+	}
+	public void setPngCompressionLevel(final int level)
+	{
+		this.pngCompressionLevel = level;
+	}
+	
 	@Override
 	public String getCustomBlockConfig()
 	{
@@ -12,7 +12,10 @@ package tectonicus.configuration;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import tectonicus.PngEncoder;
+import tectonicus.TileScheduler;
 import tectonicus.configuration.Configuration.Mode;
+import tectonicus.configuration.Configuration.RasteriserType;
 import tectonicus.configuration.Configuration.RenderStyle;
 import tectonicus.configuration.filter.BeaconFilterType;
 import tectonicus.configuration.filter.ChestFilterType;
@@ -50,6 +53,16 @@ public class ParseUtil
 		return mode;
 	}
 	
+	public static RasteriserType parseRasteriserType(String typeStr)
+	{
+		RasteriserType type = RasteriserType.LWJGL;
+		
+		if (typeStr.equalsIgnoreCase("software"))
+			type = RasteriserType.SOFTWARE;
+		
+		return type;
+	}
+	
 	public static RenderStyle parseRenderStyle(String renderStyleStr)
 	{
 		renderStyleStr = renderStyleStr.toLowerCase();
@@ -113,6 +126,19 @@ public class ParseUtil
 		return 0.75f;
 	}
 	
+	public static int parsePngCompressionLevel(String levelStr)
+	{
+		try
+		{
+			final int level = Integer.parseInt(levelStr);
+			
+			return Math.max(0, Math.min(9, level));
+		}
+		catch (Exception e) {}
+		
+		return PngEncoder.DEFAULT_COMPRESSION_LEVEL;
+	}
+	
 	public static String parseCustomBlockConfig(String blockConfig)
 	{
 		return blockConfig;
@@ -399,6 +425,14 @@ public class ParseUtil
 		return new File(cacheDir);
 	}
 	
+	public static File parseMetricsDir(String metricsDir, File cacheDir)
+	{
+		if (metricsDir == null || metricsDir.equals(""))
+			return cacheDir;
+		
+		return new File(metricsDir);
+	}
+	
 	public static String parseDefaultSkin(String skin)
 	{
 		if (skin == null || skin.equals(""))
@@ -420,6 +454,126 @@ public class ParseUtil
 		return Runtime.getRuntime().availableProcessors(); 
 	}
 	
+	public static int parseTileListMemory(String memoryStr)
+	{
+		try
+		{
+			final int memory = Integer.parseInt(memoryStr);
+			if (memory >= 1)
+				return memory;
+		}
+		catch (Exception e) {}
+		
+		return 64;
+	}
+	
+	public static int parseTileBandWidth(String bandWidthStr)
+	{
+		try
+		{
+			final int bandWidth = Integer.parseInt(bandWidthStr);
+			if (bandWidth >= 1)
+				return bandWidth;
+		}
+		catch (Exception e) {}
+		
+		return TileScheduler.DEFAULT_BAND_WIDTH;
+	}
+	
+	public static int parseRawCacheMemory(String percentStr)
+	{
+		try
+		{
+			final int percent = Integer.parseInt(percentStr);
+			if (percent >= 1 && percent <= 90)
+				return percent;
+		}
+		catch (Exception e) {}
+		
+		return 25;
+	}
+	
+	public static int parseGeometryCacheMemory(String memoryStr)
+	{
+		try
+		{
+			final int memory = Integer.parseInt(memoryStr);
+			if (memory >= 1)
+				return memory;
+		}
+		catch (Exception e) {}
+		
+		return 512;
+	}
+	
+	public static int parseDownsampleCacheMemory(String memoryStr)
+	{
+		try
+		{
+			final int memory = Integer.parseInt(memoryStr);
+			if (memory >= 1)
+				return memory;
+		}
+		catch (Exception e) {}
+		
+		return 512;
+	}
+	
+	public static int parseProfileRegions(String numRegionsStr)
+	{
+		try
+		{
+			final int numRegions = Integer.parseInt(numRegionsStr);
+			if (numRegions >= 1)
+				return numRegions;
+		}
+		catch (Exception e) {}
+		
+		return 1;
+	}
+	
+	public static int parseProfileTiles(String numTilesStr)
+	{
+		try
+		{
+			final int numTiles = Integer.parseInt(numTilesStr);
+			if (numTiles >= 1)
+				return numTiles;
+		}
+		catch (Exception e) {}
+		
+		return 16;
+	}
+	
+	public static File parseProfileRecording(String recording)
+	{
+		if (recording == null || recording.equals(""))
+			return null;
+		
+		return new File(recording);
+	}
+	
+	public static Shard parseShard(String shardStr)
+	{
+		if (shardStr == null || shardStr.trim().equals(""))
+			return null;
+		
+		return Shard.parse(shardStr);
+	}
+	
+	public static int parseMergeShards(String numShardsStr)
+	{
+		try
+		{
+			final int numShards = Integer.parseInt(numShardsStr);
+			if (numShards >= 1)
+				return numShards;
+		}
+		catch (Exception e) {}
+		
+		return 0;
+	}
+	
 	public static int parseColourDepth(String depthStr)
 	{
 		try
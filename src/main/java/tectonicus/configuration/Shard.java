@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.configuration;
+
+/** One of {@code count} processes sharing the base tile render, written as {@code index/count} with the index
+ *  counting from zero. */
+public record Shard(int index, int count) {
+	public Shard {
+		if (count < 1 || index < 0 || index >= count)
+			throw new IllegalArgumentException("Shard must be <index>/<count> with 0 <= index < count, not " + index + "/" + count);
+	}
+
+	public static Shard parse(String shardStr) {
+		String[] parts = shardStr.trim().split("/");
+		if (parts.length != 2)
+			throw new IllegalArgumentException("Shard must be <index>/<count>, not " + shardStr);
+
+		try {
+			return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Shard must be <index>/<count>, not " + shardStr, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return index + "/" + count;
+	}
+}
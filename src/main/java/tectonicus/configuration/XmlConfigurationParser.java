@@ -19,7 +19,6 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import tectonicus.Minecraft;
 import tectonicus.configuration.Configuration.Mode;
-import tectonicus.configuration.Configuration.RasteriserType;
 import tectonicus.configuration.filter.BeaconFilter;
 import tectonicus.configuration.filter.BeaconFilterType;
 import tectonicus.configuration.filter.ChestFilter;
@@ -55,14 +54,18 @@ import static tectonicus.configuration.ParseUtil.parseColourDepth;
 import static tectonicus.configuration.ParseUtil.parseCustomBlockConfig;
 import static tectonicus.configuration.ParseUtil.parseDefaultSkin;
 import static tectonicus.configuration.ParseUtil.parseDimension;
+import static tectonicus.configuration.ParseUtil.parseDownsampleCacheMemory;
 import static tectonicus.configuration.ParseUtil.parseDrawDistance;
 import static tectonicus.configuration.ParseUtil.parseElevationAngle;
 import static tectonicus.configuration.ParseUtil.parseFOV;
+import static tectonicus.configuration.ParseUtil.parseGeometryCacheMemory;
 import static tectonicus.configuration.ParseUtil.parseHeight;
 import static tectonicus.configuration.ParseUtil.parseImageCompression;
 import static tectonicus.configuration.ParseUtil.parseImageFormat;
 import static tectonicus.configuration.ParseUtil.parseLightStyle;
 import static tectonicus.configuration.ParseUtil.parseMaxTiles;
+import static tectonicus.configuration.ParseUtil.parseMergeShards;
+import static tectonicus.configuration.ParseUtil.parseMetricsDir;
 import static tectonicus.configuration.ParseUtil.parseMode;
 import static tectonicus.configuration.ParseUtil.parseNorthDirection;
 import static tectonicus.configuration.ParseUtil.parseNumDownsampleThreads;
@@ -72,10 +75,19 @@ import static tectonicus.configuration.ParseUtil.parseOrigin;
 import static tectonicus.configuration.ParseUtil.parseOutputDir;
 import static tectonicus.configuration.ParseUtil.parsePlayerFilterFile;
 import static tectonicus.configuration.ParseUtil.parsePlayerFilterType;
+import static tectonicus.configuration.ParseUtil.parsePngCompressionLevel;
 import static tectonicus.configuration.ParseUtil.parsePortalFilter;
+import static tectonicus.configuration.ParseUtil.parseProfileRecording;
+import static tectonicus.configuration.ParseUtil.parseProfileRegions;
+import static tectonicus.configuration.ParseUtil.parseProfileTiles;
+import static tectonicus.configuration.ParseUtil.parseRasteriserType;
+import static tectonicus.configuration.ParseUtil.parseRawCacheMemory;
 import static tectonicus.configuration.ParseUtil.parseRenderStyle;
+import static tectonicus.configuration.ParseUtil.parseShard;
 import static tectonicus.configuration.ParseUtil.parseSignFilter;
 import static tectonicus.configuration.ParseUtil.parseSinglePlayerName;
+import static tectonicus.configuration.ParseUtil.parseTileBandWidth;
+import static tectonicus.configuration.ParseUtil.parseTileListMemory;
 import static tectonicus.configuration.ParseUtil.parseTileSize;
 import static tectonicus.configuration.ParseUtil.parseUseDefaultBlockConfig;
 import static tectonicus.configuration.ParseUtil.parseViewFilter;
@@ -148,12 +160,29 @@ public class XmlConfigurationParser
 			final int numDownsampleThreads = parseNumDownsampleThreads( getString(configNode, "numDownsampleThreads") );
 			config.setNumDownsampleThreads(numDownsampleThreads);
 			
+			config.setTileListMemory( parseTileListMemory( getString(configNode, "tileListMemory") ) );
+			config.setTileBandWidth( parseTileBandWidth( getString(configNode, "tileBandWidth") ) );
+			config.setRawCacheMemory( parseRawCacheMemory( getString(configNode, "rawCacheMemory") ) );
+			config.setGeometryCacheMemory( parseGeometryCacheMemory( getString(configNode, "geometryCacheMemory") ) );
+			config.setDownsampleCacheMemory( parseDownsampleCacheMemory( getString(configNode, "downsampleCacheMemory") ) );
+			
+			config.setProfileRegions( parseProfileRegions( getString(configNode, "profileRegions") ) );
+			config.setProfileTiles( parseProfileTiles( getString(configNode, "profileTiles") ) );
+			config.setProfileRecording( parseProfileRecording( getString(configNode, "profileRecording") ) );
+			
+			config.setShard( parseShard( getString(configNode, "shard") ) );
+			config.setMergeShards( parseMergeShards( getString(configNode, "mergeShards") ) );
+			
 			config.setEraseOutputDir(getBoolean(configNode, "eraseOutputDir", false));
 			
 			config.setUseCache(getBoolean(configNode, "useCache", true));
 			
+			config.setResume(getBoolean(configNode, "resume", false));
+			
 			config.setCacheDir( parseCacheDir( getString(configNode, "cacheDir"), config.getOutputDir() ) );
 			
+			config.setMetricsDir( parseMetricsDir( getString(configNode, "metricsDir"), config.getCacheDir() ) );
+			
 			String logLevel = getString(configNode, "loggingLevel");
 			if (StringUtils.isEmpty(logLevel)) {
 				logLevel = getString(configNode, "logLevel");
@@ -178,7 +207,7 @@ public class XmlConfigurationParser
 		// Parse rasteriser config
 		Element rasteriserNode = getChild(root, "rasteriser");
 		if (rasteriserNode != null) {
-			config.setRasteriserType(RasteriserType.LWJGL);
+			config.setRasteriserType(parseRasteriserType(getString(rasteriserNode, "type")));
 			
 			config.setColourDepth(parseColourDepth(getString(rasteriserNode, "colourDepth")));
 			config.setAlphaBits(parseAlphaBits(getString(rasteriserNode, "alphaBits")));
@@ -323,6 +352,7 @@ public class XmlConfigurationParser
 				
 				layer.setImageFormat( parseImageFormat(getString(layerElement, "imageFormat")));
 				layer.setImageCompressionLevel( parseImageCompression(getString(layerElement, "imageCompressionLevel")));
+				layer.setPngCompressionLevel( parsePngCompressionLevel(getString(layerElement, "pngCompressionLevel")));
 				layer.setBackgroundColor( parseBackgroundColor( getString(layerElement, "backgroundColor"), dimensionInfo.dimension() ) );
 				
 				layer.setUseDefaultBlockConfig( parseUseDefaultBlockConfig( getString(layerElement, "useDefaultBlocks")));
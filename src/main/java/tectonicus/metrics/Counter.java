@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/** A total which only goes up. Safe to update from any thread. */
+public class Counter extends Metric {
+	private final DoubleAdder value = new DoubleAdder();
+
+	/** When the counter was first and last added to, so the JSON snapshot can give a rate */
+	private volatile long firstUpdate;
+	private volatile long lastUpdate;
+
+	Counter(String name, String help, String labelName, String labelValue) {
+		super(name, help, labelName, labelValue);
+	}
+
+	public void inc() {
+		add(1);
+	}
+
+	public void add(final double amount) {
+		final long now = System.nanoTime();
+		if (firstUpdate == 0)
+			firstUpdate = now;
+		lastUpdate = now;
+
+		value.add(amount);
+	}
+
+	public double get() {
+		return value.sum();
+	}
+
+	/** @return the average increase per second between the first and last updates */
+	public double getRate() {
+		final double seconds = (lastUpdate - firstUpdate) / 1e9;
+		return seconds > 0 ? get() / seconds : 0.0;
+	}
+
+	@Override
+	String getType() {
+		return "counter";
+	}
+
+	@Override
+	void writePrometheus(Writer out) throws IOException {
+		writeSample(out, getSeriesName(), get());
+	}
+
+	@Override
+	Object snapshot() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("value", get());
+		result.put("perSecond", getRate());
+		return result;
+	}
+}
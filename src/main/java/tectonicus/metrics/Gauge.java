@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.DoubleSupplier;
+
+/** A value which is read from its source each time the metrics are written */
+class Gauge extends Metric {
+	private final DoubleSupplier source;
+
+	Gauge(String name, String help, String labelName, String labelValue, DoubleSupplier source) {
+		super(name, help, labelName, labelValue);
+		this.source = source;
+	}
+
+	double get() {
+		try {
+			return source.getAsDouble();
+		} catch (RuntimeException e) {
+			// Whatever the gauge reads from may be half torn down at the end of a render
+			return Double.NaN;
+		}
+	}
+
+	@Override
+	String getType() {
+		return "gauge";
+	}
+
+	@Override
+	void writePrometheus(Writer out) throws IOException {
+		writeSample(out, getSeriesName(), get());
+	}
+
+	@Override
+	Object snapshot() {
+		return get();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts observed values into fixed buckets, along with their total. Safe to update from any thread. */
+public class Histogram extends Metric {
+	/** Upper bounds of every bucket except the last, which takes everything larger */
+	private final double[] bounds;
+	private final LongAdder[] buckets;
+
+	private final LongAdder count = new LongAdder();
+	private final DoubleAdder sum = new DoubleAdder();
+
+	Histogram(String name, String help, double[] bounds) {
+		super(name, help, null, null);
+
+		this.bounds = bounds.clone();
+		Arrays.sort(this.bounds);
+
+		this.buckets = new LongAdder[this.bounds.length + 1];
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] = new LongAdder();
+	}
+
+	/** @return {@code count} bucket bounds starting at {@code start}, each {@code factor} times the one before */
+	public static double[] exponentialBuckets(final double start, final double factor, final int count) {
+		double[] bounds = new double[count];
+		bounds[0] = start;
+		for (int i = 1; i < count; i++)
+			bounds[i] = bounds[i - 1] * factor;
+		return bounds;
+	}
+
+	public void observe(final double value) {
+		int bucket = Arrays.binarySearch(bounds, value);
+		if (bucket < 0)
+			bucket = -bucket - 1;
+
+		buckets[bucket].increment();
+		count.increment();
+		sum.add(value);
+	}
+
+	/** Observes a duration in seconds */
+	public void observeNanos(final long nanos) {
+		observe(nanos / 1e9);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public double getSum() {
+		return sum.sum();
+	}
+
+	@Override
+	String getType() {
+		return "histogram";
+	}
+
+	@Override
+	void writePrometheus(Writer out) throws IOException {
+		long cumulative = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			cumulative += buckets[i].sum();
+			writeSample(out, seriesName(getName() + "_bucket", getLabel(), "le=\"" + format(bounds[i]) + "\""), cumulative);
+		}
+		cumulative += buckets[bounds.length].sum();
+		writeSample(out, seriesName(getName() + "_bucket", getLabel(), "le=\"+Inf\""), cumulative);
+
+		writeSample(out, seriesName(getName() + "_sum", getLabel(), null), getSum());
+		writeSample(out, seriesName(getName() + "_count", getLabel(), null), getCount());
+	}
+
+	@Override
+	Object snapshot() {
+		final long total = getCount();
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("count", total);
+		result.put("sum", getSum());
+		result.put("mean", total > 0 ? getSum() / total : 0.0);
+
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (int i = 0; i < bounds.length; i++)
+			counts.put(format(bounds[i]), buckets[i].sum());
+		counts.put("+Inf", buckets[bounds.length].sum());
+		result.put("buckets", counts);
+
+		return result;
+	}
+}
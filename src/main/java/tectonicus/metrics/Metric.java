@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** A single series in {@link Metrics}, with at most one label */
+@Getter
+abstract class Metric {
+	private final String name;
+	private final String help;
+	/** Null, or the label in Prometheus form as name="value" */
+	private final String label;
+
+	Metric(String name, String help, String labelName, String labelValue) {
+		this.name = name;
+		this.help = help;
+		this.label = label(labelName, labelValue);
+	}
+
+	static String label(String labelName, String labelValue) {
+		return labelName != null ? labelName + "=\"" + labelValue + "\"" : null;
+	}
+
+	/** @return the Prometheus type of the metric */
+	abstract String getType();
+
+	/** Writes the sample lines for this series, without the HELP and TYPE lines */
+	abstract void writePrometheus(Writer out) throws IOException;
+
+	/** @return the current value, as something which can be written out as JSON */
+	abstract Object snapshot();
+
+	String getSeriesName() {
+		return seriesName(name, label, null);
+	}
+
+	/** @return the name of one sample line, adding an extra label to the series label if it isn't null */
+	static String seriesName(String name, String label, String extraLabel) {
+		if (label == null && extraLabel == null)
+			return name;
+		if (label == null)
+			return name + "{" + extraLabel + "}";
+		if (extraLabel == null)
+			return name + "{" + label + "}";
+		return name + "{" + label + "," + extraLabel + "}";
+	}
+
+	static void writeSample(Writer out, String series, final double value) throws IOException {
+		out.write(series);
+		out.write(' ');
+		out.write(format(value));
+		out.write('\n');
+	}
+
+	static String format(final double value) {
+		if (Double.isNaN(value))
+			return "NaN";
+		if (Double.isInfinite(value))
+			return value > 0 ? "+Inf" : "-Inf";
+		if (value == Math.rint(value) && Math.abs(value) < 1e15)
+			return Long.toString((long) value);
+		return Double.toString(value);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+
+/** Counters, histograms and gauges describing a render, which {@link MetricsExporter} writes out as Prometheus text
+ *  while rendering and as JSON at the end.
+ *
+ *  Counters and histograms are created on first use and live for the whole run, so hot code should keep hold of them
+ *  in a static field rather than looking them up each time. Label values must not need escaping.
+ */
+@UtilityClass
+public class Metrics {
+	/** Sorted by series name, which keeps all the series of one metric together */
+	private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+	public Counter counter(String name, String help) {
+		return counter(name, help, null, null);
+	}
+
+	public Counter counter(String name, String help, String labelName, String labelValue) {
+		return (Counter) metrics.computeIfAbsent(Metric.seriesName(name, Metric.label(labelName, labelValue), null),
+				series -> new Counter(name, help, labelName, labelValue));
+	}
+
+	public Histogram histogram(String name, String help, double... bounds) {
+		return (Histogram) metrics.computeIfAbsent(name, series -> new Histogram(name, help, bounds));
+	}
+
+	/** Registers a value to read whenever the metrics are written, replacing any earlier gauge of the same name.
+	 *  The supplier is kept until it's replaced, so it shouldn't hold on to anything large. */
+	public void gauge(String name, String help, DoubleSupplier source) {
+		gauge(name, help, null, null, source);
+	}
+
+	public void gauge(String name, String help, String labelName, String labelValue, DoubleSupplier source) {
+		metrics.put(Metric.seriesName(name, Metric.label(labelName, labelValue), null), new Gauge(name, help, labelName, labelValue, source));
+	}
+
+	/** Registers a value read from an object which is only weakly held, so registering a gauge doesn't keep something
+	 *  like a whole world in memory after it's finished with. The gauge reads NaN once the object has gone. */
+	public <T> void gauge(String name, String help, T owner, ToDoubleFunction<T> source) {
+		WeakReference<T> ref = new WeakReference<>(owner);
+		gauge(name, help, () -> {
+			T o = ref.get();
+			return o != null ? source.applyAsDouble(o) : Double.NaN;
+		});
+	}
+
+	/** Writes every metric in the Prometheus text exposition format */
+	public void writePrometheus(Writer out) throws IOException {
+		String family = null;
+		for (Metric metric : metrics.values()) {
+			if (!metric.getName().equals(family)) {
+				family = metric.getName();
+				out.write("# HELP " + family + " " + metric.getHelp() + "\n");
+				out.write("# TYPE " + family + " " + metric.getType() + "\n");
+			}
+			metric.writePrometheus(out);
+		}
+	}
+
+	/** @return every metric by series name, as numbers or maps of numbers */
+	public Map<String, Object> snapshot() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Metric> entry : metrics.entrySet())
+			result.put(entry.getKey(), entry.getValue().snapshot());
+		return result;
+	}
+
+	/** @return a single number for each counter and gauge, plus the count and sum of each histogram and the rate of
+	 *  each counter, keyed by names which are valid javascript identifiers */
+	public Map<String, Object> summary() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		for (Metric metric : metrics.values()) {
+			String key = metric.getName();
+			if (metric.getLabel() != null) {
+				final String label = metric.getLabel();
+				key += "_" + label.substring(label.indexOf('"') + 1, label.length() - 1);
+			}
+			key = key.replaceAll("[^A-Za-z0-9_]", "_");
+
+			if (metric instanceof Counter counter) {
+				result.put(key, counter.get());
+				result.put(key + "_perSecond", counter.getRate());
+			} else if (metric instanceof Histogram histogram) {
+				result.put(key + "_count", histogram.getCount());
+				result.put(key + "_sum", histogram.getSum());
+			} else if (metric instanceof Gauge gauge) {
+				result.put(key, gauge.get());
+			}
+		}
+		return result;
+	}
+}
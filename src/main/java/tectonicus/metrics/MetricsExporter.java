@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** Writes {@link Metrics} to a Prometheus text file every few seconds during a render, so long renders can be scraped
+ *  through the node exporter's textfile collector, and to a JSON file once the render is finished.
+ *
+ *  The Prometheus file is written to a temporary file and moved into place so a scrape never sees half a file.
+ */
+@Slf4j
+public class MetricsExporter implements AutoCloseable {
+	public static final String PROMETHEUS_FILE = "tectonicus.prom";
+	public static final String JSON_FILE = "metrics.json";
+
+	private static final long INTERVAL_SECONDS = 15;
+
+	private final File dir;
+	private final ScheduledExecutorService scheduler;
+
+	public MetricsExporter(File dir) {
+		this.dir = dir;
+		FileUtils.ensureExists(dir);
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Metrics exporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleAtFixedRate(this::writePrometheus, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	public void writePrometheus() {
+		Path target = new File(dir, PROMETHEUS_FILE).toPath();
+		Path temp = new File(dir, PROMETHEUS_FILE + ".tmp").toPath();
+
+		try {
+			try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				Metrics.writePrometheus(out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+		}
+	}
+
+	public void writeJson() {
+		File file = new File(dir, JSON_FILE);
+		log.info("Exporting metrics to {}", file.getAbsolutePath());
+
+		try {
+			FileUtils.getOBJECT_MAPPER().writerWithDefaultPrettyPrinter().writeValue(file, Metrics.snapshot());
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+		}
+	}
+
+	/** Stops the periodic export and writes both files a final time */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		writePrometheus();
+		writeJson();
+	}
+}
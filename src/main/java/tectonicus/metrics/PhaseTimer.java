@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+/** Adds the time spent in each of a series of phases to a counter labelled with the phase. Each phase runs until the
+ *  next one starts or {@link #stop()} is called. */
+public class PhaseTimer {
+	private final String name;
+	private final String help;
+	private final String labelName;
+
+	private Counter current;
+	private long startTime;
+
+	public PhaseTimer(String name, String help, String labelName) {
+		this.name = name;
+		this.help = help;
+		this.labelName = labelName;
+	}
+
+	public synchronized void start(String phase) {
+		stop();
+
+		current = Metrics.counter(name, help, labelName, phase);
+		startTime = System.nanoTime();
+	}
+
+	public synchronized void stop() {
+		if (current != null)
+			current.add((System.nanoTime() - startTime) / 1e9);
+
+		current = null;
+	}
+}
@@ -10,11 +10,8 @@
 package tectonicus.rasteriser;
 
 import com.jogamp.opengl.GL2;
-import org.joml.Vector3f;
-import org.joml.Vector4f;
-import tectonicus.util.Colour4f;
 
-public interface Mesh {
+public interface Mesh extends VertexSink {
 	void destroy();
 	
 	void finalise();
@@ -33,13 +30,5 @@ public interface Mesh {
 	int getMemorySize();
 	
 	int getTotalVertices();
-	
-	
-	void addVertex(Vector3f position, Vector4f colour, final float u, final float v);
-	
-	void addVertex(Vector3f position, final float u, final float v);
-	
-	void addVertex(org.joml.Vector3f position, Colour4f color, float u, float v);
-	
 }
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser;
+
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import tectonicus.util.Colour4f;
+
+import java.util.Arrays;
+
+/** Vertices collected in plain float arrays without touching any rasteriser, so it can be filled on any thread.
+ *  It can't be drawn; once complete it is copied into a real mesh on the rasteriser's thread with {@link #copyTo(VertexSink)}. */
+public class MeshData implements VertexSink {
+	private static final int INITIAL_VERTICES = 256;
+
+	private final Texture texture;
+
+	private float[] positions;
+	private float[] colours;
+	private float[] texCoords;
+
+	private int numVertices;
+
+	public MeshData(Texture texture) {
+		this.texture = texture;
+	}
+
+	/** Adds every vertex to the given mesh, in the order they were added here */
+	public void copyTo(VertexSink mesh) {
+		Vector3f position = new Vector3f();
+		Vector4f colour = new Vector4f();
+
+		for (int i = 0; i < numVertices; i++) {
+			position.set(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+			colour.set(colours[i * 4], colours[i * 4 + 1], colours[i * 4 + 2], colours[i * 4 + 3]);
+			mesh.addVertex(position, colour, texCoords[i * 2], texCoords[i * 2 + 1]);
+		}
+	}
+
+	public Texture getTexture() {
+		return texture;
+	}
+
+	public int getMemorySize() {
+		if (positions == null)
+			return 0;
+
+		return (positions.length + colours.length + texCoords.length) * 4;
+	}
+
+	public int getTotalVertices() {
+		return numVertices;
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Vector4f colour, final float u, final float v) {
+		addVertex(position, colour.x, colour.y, colour.z, colour.w, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, final float u, final float v) {
+		addVertex(position, 1, 1, 1, 1, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Colour4f color, final float u, final float v) {
+		addVertex(position, color.r, color.g, color.b, color.a, u, v);
+	}
+
+	private void addVertex(Vector3f position, final float r, final float g, final float b, final float a, final float u, final float v) {
+		if (positions == null || numVertices * 3 == positions.length) {
+			final int newMax = Math.max(INITIAL_VERTICES, numVertices * 2);
+			positions = positions == null ? new float[newMax * 3] : Arrays.copyOf(positions, newMax * 3);
+			colours = colours == null ? new float[newMax * 4] : Arrays.copyOf(colours, newMax * 4);
+			texCoords = texCoords == null ? new float[newMax * 2] : Arrays.copyOf(texCoords, newMax * 2);
+		}
+
+		positions[numVertices * 3] = position.x;
+		positions[numVertices * 3 + 1] = position.y;
+		positions[numVertices * 3 + 2] = position.z;
+
+		colours[numVertices * 4] = r;
+		colours[numVertices * 4 + 1] = g;
+		colours[numVertices * 4 + 2] = b;
+		colours[numVertices * 4 + 3] = a;
+
+		texCoords[numVertices * 2] = u;
+		texCoords[numVertices * 2 + 1] = v;
+
+		numVertices++;
+	}
+}
@@ -27,6 +27,7 @@ import tectonicus.raw.BlockProperties;
 import tectonicus.raw.RawChunk;
 import tectonicus.renderer.Geometry;
 import tectonicus.renderer.Geometry.MeshType;
+import tectonicus.renderer.GeometryBuilder;
 import tectonicus.texture.SubTexture;
 import tectonicus.util.Colour4f;
 import tectonicus.util.Util;
@@ -40,7 +41,7 @@ public class MeshUtil
 
 	public void addCube(final float x, final float y, final float z, Vector4f colour, final boolean addTop,
 							   final boolean addNorth, final boolean addSouth, final boolean addEast, final boolean addWest,
-							   Mesh geometry)
+							   VertexSink geometry)
 	{
 		final float inc = 0.2f;
 		Vector4f lightColour = new Vector4f(colour.x + inc, colour.y + inc, colour.z + inc, colour.w);
@@ -95,7 +96,7 @@ public class MeshUtil
 		}
 	}
 
-	public void addQuad(Mesh mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, SubTexture texture)
+	public void addQuad(VertexSink mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, SubTexture texture)
 	{
 		mesh.addVertex(p0, colour, texture.u0, texture.v0);
 		mesh.addVertex(p1, colour, texture.u1, texture.v0);
@@ -103,7 +104,7 @@ public class MeshUtil
 		mesh.addVertex(p3, colour, texture.u0, texture.v1);
 	}
 	
-	public void addDoubleSidedQuad(Mesh mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, SubTexture texture)
+	public void addDoubleSidedQuad(VertexSink mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, SubTexture texture)
 	{
 		// Clockwise
 		mesh.addVertex(p0, colour, texture.u0, texture.v0);
@@ -118,7 +119,7 @@ public class MeshUtil
 		mesh.addVertex(p1, colour, texture.u1, texture.v0);
 	}
 	
-	public void addDoubleSidedQuad(Mesh mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, Vector2f uv0, Vector2f uv1, Vector2f uv2, Vector2f uv3)
+	public void addDoubleSidedQuad(VertexSink mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, Vector2f uv0, Vector2f uv1, Vector2f uv2, Vector2f uv3)
 	{
 		// Clockwise
 		mesh.addVertex(p0, colour, uv0.x, uv0.y);
@@ -133,7 +134,7 @@ public class MeshUtil
 		mesh.addVertex(p1, colour, uv1.x, uv1.y);
 	}
 
-	public void addQuad(Mesh mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, Vector2f uv0, Vector2f uv1, Vector2f uv2, Vector2f uv3)
+	public void addQuad(VertexSink mesh, Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, Vector4f colour, Vector2f uv0, Vector2f uv1, Vector2f uv2, Vector2f uv3)
 	{
 		mesh.addVertex(p0, colour, uv0.x, uv0.y);
 		mesh.addVertex(p1, colour, uv1.x, uv1.y);
@@ -141,7 +142,7 @@ public class MeshUtil
 		mesh.addVertex(p3, colour, uv3.x, uv3.y);
 	}
 	
-	public void addBlock(BlockContext world, RawChunk rawChunk, int x, int y, int z, BlockModel model, Geometry geometry, int xRotation, int yRotation)
+	public void addBlock(BlockContext world, RawChunk rawChunk, int x, int y, int z, BlockModel model, GeometryBuilder geometry, int xRotation, int yRotation)
 	{
 		List<BlockElement> elements = model.getElements();
 
@@ -707,6 +708,10 @@ public class MeshUtil
 			}
 		}
 
+		// Faces of plain cubes can be merged with their neighbours' into larger quads
+		final boolean isPlainCube = geometry.isMergingQuads() && selfFull && model.isFullBlock() && model.isSolid()
+				&& elements.size() == 1 && blockRotation == null;
+
 		for(BlockElement element : elements)
 		{
 			Matrix4f elementRotation = null;
@@ -766,6 +771,8 @@ public class MeshUtil
 				}
 			}
 
+			final boolean mergeable = isPlainCube && elementRotation == null && !isGrassOverlay;
+
 			if (upFace != null && !(upFaceCovered && upFace.isFaceCulled()))
 	        {
 				Colour4f color = new Colour4f(topLightTemp, topLightTemp, topLightTemp, 1);
@@ -780,9 +787,9 @@ public class MeshUtil
 
 		        if (useSmoothLighting && model.isAmbientlyOccluded()) {
 					addVerticesShaded(geometry, color, upFace, topLeft, topRight, bottomRight, bottomLeft, topShadedTemp,
-							elementRotation, blockRotation, model, false);
+							elementRotation, blockRotation, model, false, mergeable);
 				} else {
-					addVertices(geometry, color, upFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, false);
+					addVertices(geometry, color, upFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, false, mergeable);
 				}
 	        }
 
@@ -798,7 +805,7 @@ public class MeshUtil
 		        bottomRight = new Vector3f(x2, y1, z1);
 		        bottomLeft = new Vector3f(x1, y1, z1);
 
-		        addVertices(geometry, color, downFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, false);
+		        addVertices(geometry, color, downFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, false, mergeable);
 	        }
 
 			if (northFace != null && !(northFaceCovered && northFace.isFaceCulled()))
@@ -815,9 +822,9 @@ public class MeshUtil
 
 				if (useSmoothLighting && model.isAmbientlyOccluded() && xRotation == 0 ) {
 					addVerticesShaded(geometry, color, northFace, topLeft, topRight, bottomRight, bottomLeft, northShadedTemp,
-							elementRotation, blockRotation, model, isGrassOverlay);
+							elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				} else {
-					addVertices(geometry, color, northFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay);
+					addVertices(geometry, color, northFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				}
 	        }
 
@@ -835,9 +842,9 @@ public class MeshUtil
 
 				if (useSmoothLighting && model.isAmbientlyOccluded() && xRotation == 0 ) {
 					addVerticesShaded(geometry, color, southFace, topLeft, topRight, bottomRight, bottomLeft, southShadedTemp,
-							elementRotation, blockRotation, model, isGrassOverlay);
+							elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				} else {
-					addVertices(geometry, color, southFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay);
+					addVertices(geometry, color, southFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				}
 	        }
 
@@ -855,9 +862,9 @@ public class MeshUtil
 
 				if (useSmoothLighting && model.isAmbientlyOccluded() && xRotation == 0) {
 					addVerticesShaded(geometry, color, eastFace, topLeft, topRight, bottomRight, bottomLeft, eastShadedTemp,
-							elementRotation, blockRotation, model, isGrassOverlay);
+							elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				} else {
-					addVertices(geometry, color, eastFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay);
+					addVertices(geometry, color, eastFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				}
 	        }
 
@@ -875,9 +882,9 @@ public class MeshUtil
 
 				if (useSmoothLighting && model.isAmbientlyOccluded() && xRotation == 0 ) {
 					addVerticesShaded(geometry, color, westFace, topLeft, topRight, bottomRight, bottomLeft, westShadedTemp,
-							elementRotation, blockRotation, model, isGrassOverlay);
+							elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				} else {
-					addVertices(geometry, color, westFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay);
+					addVertices(geometry, color, westFace, topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation, model, isGrassOverlay, mergeable);
 				}
 	        }
 		}
@@ -939,26 +946,41 @@ public class MeshUtil
 		}
 	}
 
-	private Mesh getMesh(Geometry geometry, SubTexture tex, BlockModel model, boolean isGrassOverlay) {
-		Mesh mesh;
+	private MeshType getMeshType(BlockModel model, boolean isGrassOverlay) {
 		if (model.isSolid() || model.getName().contains("grass_block") && !isGrassOverlay) {
-			mesh = geometry.getMesh(tex.texture, MeshType.Solid);
+			return MeshType.Solid;
 		} else if (model.isTranslucent()) {
-			mesh = geometry.getMesh(tex.texture, MeshType.Transparent);
+			return MeshType.Transparent;
 		} else {
-			mesh = geometry.getMesh(tex.texture, MeshType.AlphaTest);
+			return MeshType.AlphaTest;
 		}
+	}
 
-		return mesh;
+	private VertexSink getMesh(GeometryBuilder geometry, SubTexture tex, BlockModel model, boolean isGrassOverlay) {
+		return geometry.getMesh(tex.texture, getMeshType(model, isGrassOverlay));
+	}
+
+	/** Hands a face to the geometry's quad merger if it covers its whole texture the right way up */
+	private boolean mergeFace(GeometryBuilder geometry, Colour4f color, ElementFace face, Vector3f topLeft, Vector3f topRight,
+							  Vector3f bottomRight, Vector3f bottomLeft, BlockModel model, boolean isGrassOverlay) {
+		SubTexture tex = face.getTexture();
+		if (face.getTextureRotation() != 0 || tex.u0 != 0 || tex.v0 != 0 || tex.u1 != 1 || tex.v1 != 1)
+			return false;
+
+		return geometry.addMergeableFace(tex.texture, getMeshType(model, isGrassOverlay), color, topLeft, topRight, bottomRight, bottomLeft);
 	}
 	
-	private void addVertices(Geometry geometry, Colour4f color, ElementFace face, Vector3f topLeft, Vector3f topRight,
-							 Vector3f bottomRight, Vector3f bottomLeft, Matrix4f elementRotation, Matrix4f blockRotation, BlockModel model, boolean isGrassOverlay)
+	private void addVertices(GeometryBuilder geometry, Colour4f color, ElementFace face, Vector3f topLeft, Vector3f topRight,
+							 Vector3f bottomRight, Vector3f bottomLeft, Matrix4f elementRotation, Matrix4f blockRotation, BlockModel model,
+							 boolean isGrassOverlay, boolean mergeable)
 	{
 		doTransforms(topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation);
 
+		if (mergeable && mergeFace(geometry, color, face, topLeft, topRight, bottomRight, bottomLeft, model, isGrassOverlay))
+			return;
+
 		SubTexture tex = face.getTexture();
-		Mesh mesh = getMesh(geometry, tex, model, isGrassOverlay);
+		VertexSink mesh = getMesh(geometry, tex, model, isGrassOverlay);
 		
 		int texRotation = face.getTextureRotation();
 		if(texRotation == 0)
@@ -991,14 +1013,19 @@ public class MeshUtil
 		}
 	}
 
-	private void addVerticesShaded(Geometry geometry, Colour4f color, ElementFace face, Vector3f topLeft, Vector3f topRight,
+	private void addVerticesShaded(GeometryBuilder geometry, Colour4f color, ElementFace face, Vector3f topLeft, Vector3f topRight,
 								   Vector3f bottomRight, Vector3f bottomLeft, Vector4f ao, Matrix4f elementRotation, Matrix4f blockRotation,
-								   BlockModel model, boolean isGrassOverlay)
+								   BlockModel model, boolean isGrassOverlay, boolean mergeable)
 	{
 		doTransforms(topLeft, topRight, bottomRight, bottomLeft, elementRotation, blockRotation);
 
+		// Only faces lit evenly across all four corners can be merged
+		if (mergeable && ao.x == ao.y && ao.x == ao.z && ao.x == ao.w
+				&& mergeFace(geometry, new Colour4f(color.r*ao.x, color.g*ao.x, color.b*ao.x, color.a), face, topLeft, topRight, bottomRight, bottomLeft, model, isGrassOverlay))
+			return;
+
 		SubTexture tex = face.getTexture();
-		Mesh mesh = getMesh(geometry, tex, model, isGrassOverlay);
+		VertexSink mesh = getMesh(geometry, tex, model, isGrassOverlay);
 
 		//TODO: if the block has ambient occlusion we should figure out smooth lighting
 
@@ -54,6 +54,11 @@ public interface Rasteriser {
 	// Texturing
 	Texture createTexture(BufferedImage image, TextureFilter filter);
 	
+	/**
+	 * @param repeat wrap texture coordinates outside of 0-1 around rather than clamping them to the edges
+	 */
+	Texture createTexture(BufferedImage image, TextureFilter filter, boolean repeat);
+	
 	Texture createTexture(BufferedImage[] mips, TextureFilter filter);
 	
 	void bindTexture(Texture texture);
@@ -12,6 +12,7 @@ package tectonicus.rasteriser;
 import lombok.extern.slf4j.Slf4j;
 import tectonicus.configuration.Configuration.RasteriserType;
 import tectonicus.rasteriser.lwjgl.LwjglRasteriser;
+import tectonicus.rasteriser.software.SoftwareRasteriser;
 
 @Slf4j
 public class RasteriserFactory {
@@ -25,8 +26,11 @@ public class RasteriserFactory {
 	public static Rasteriser createRasteriser(RasteriserType type, DisplayType displayType, final int displayWidth, final int displayHeight, final int colourDepth, final int alphaBits, final int depthBits, final int numSamples) {
 		Rasteriser result = null;
 		
-		//We only have one rasterizer type at the moment, there were others meant for software rendering but they were never finished and have been removed
-		if (type == RasteriserType.LWJGL) {
+		if (type == RasteriserType.SOFTWARE) {
+			// Renders on the CPU, for headless servers without a usable OpenGL driver. No window can be shown so
+			// the display type, colour depth and sample count are ignored.
+			result = new SoftwareRasteriser(displayType, displayWidth, displayHeight);
+		} else if (type == RasteriserType.LWJGL) {
 			try {
 				result = new LwjglRasteriser(displayType, displayWidth, displayHeight, colourDepth, alphaBits, depthBits, numSamples);
 			} catch (Exception e) {
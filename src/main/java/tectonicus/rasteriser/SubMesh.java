@@ -76,11 +76,11 @@ public class SubMesh
 		addVertex(p1, colour, texture.u1, texture.v0);
 	}
 	
-	public void pushTo(Mesh mesh, final float xOffset, final float yOffset, final float zOffset, Rotation rotation, final float angleDeg)
+	public void pushTo(VertexSink mesh, final float xOffset, final float yOffset, final float zOffset, Rotation rotation, final float angleDeg)
 	{
 		pushTo(mesh, xOffset, yOffset, zOffset, rotation, angleDeg, Rotation.None, 0);
 	}
-	public void pushTo(Mesh mesh, final float xOffset, final float yOffset, final float zOffset, Rotation horizRotation, final float horizAngleDeg, Rotation vertRotation, final float vertAngleDeg)
+	public void pushTo(VertexSink mesh, final float xOffset, final float yOffset, final float zOffset, Rotation horizRotation, final float horizAngleDeg, Rotation vertRotation, final float vertAngleDeg)
 	{
 		Matrix4f transform = createTransform(horizRotation, horizAngleDeg, vertRotation, vertAngleDeg);
 		
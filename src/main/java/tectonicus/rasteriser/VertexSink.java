@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser;
+
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import tectonicus.util.Colour4f;
+
+/** Anything block geometry can be added to, either a rasteriser {@link Mesh} or plain {@link MeshData} */
+public interface VertexSink {
+	void addVertex(Vector3f position, Vector4f colour, final float u, final float v);
+
+	void addVertex(Vector3f position, final float u, final float v);
+
+	void addVertex(Vector3f position, Colour4f color, float u, float v);
+}
@@ -150,8 +150,15 @@ public class LwjglRasteriser implements Rasteriser {
 	
 	private long prevMillis;
 	
+	/** Vertex buffer objects are core from OpenGL 1.5, which even Mesa's software renderers provide */
+	private boolean useVertexBuffers;
+	
+	/** The thread the GL context is current on. Textures created from any other thread are uploaded when first bound */
+	private final Thread glThread;
+	
 	public LwjglRasteriser(DisplayType type, final int displayWidth, final int displayHeight, final int colourDepth, final int alphaBits, final int depthBits, final int numSamples) throws Exception {
 		this.type = type;
+		this.glThread = Thread.currentThread();
 		
 		this.width = displayWidth;
 		this.height = displayHeight;
@@ -321,7 +328,7 @@ public class LwjglRasteriser implements Rasteriser {
 			glfwMakeContextCurrent(window);
 		}
 		
-		GL.createCapabilities();
+		useVertexBuffers = GL.createCapabilities().OpenGL15;
 		
 		if (!isMac && (type == DisplayType.OFFSCREEN || type == DisplayType.OFFSCREEN_EGL)) {
 			int fbo = glGenFramebuffers();
@@ -378,6 +385,7 @@ public class LwjglRasteriser implements Rasteriser {
 		log.debug("\tOpenGL Vendor: {}", glGetString(GL_VENDOR));
 		log.debug("\tOpenGL Renderer: {}", glGetString(GL_RENDERER));
 		log.debug("\tOpenGL Version: {}", glGetString(GL_VERSION));
+		log.debug("\tVertex buffers: {}", useVertexBuffers);
 	}
 	
 	@Override
@@ -441,16 +449,29 @@ public class LwjglRasteriser implements Rasteriser {
 	}
 	
 	public Texture createTexture(BufferedImage image, TextureFilter filter) {
-		final int id = LwjglTextureUtils.createTexture(image, filter);
+		return createTexture(image, filter, false);
+	}
+	
+	public Texture createTexture(BufferedImage image, TextureFilter filter, boolean repeat) {
+		if (Thread.currentThread() != glThread)
+			return new LwjglTexture(() -> LwjglTextureUtils.createTexture(image, filter, repeat), image.getWidth(), image.getHeight());
+		
+		final int id = LwjglTextureUtils.createTexture(image, filter, repeat);
 		return new LwjglTexture(id, image.getWidth(), image.getHeight());
 	}
 	
 	public Texture createTexture(BufferedImage[] mips, TextureFilter filter) {
+		if (Thread.currentThread() != glThread)
+			return new LwjglTexture(() -> LwjglTextureUtils.createTexture(mips, filter), mips[0].getWidth(), mips[0].getHeight());
+		
 		final int id = LwjglTextureUtils.createTexture(mips, filter);
 		return new LwjglTexture(id, mips[0].getWidth(), mips[0].getHeight());
 	}
 	
 	public Mesh createMesh(Texture texture) {
+		if (useVertexBuffers)
+			return new LwjglVboMesh((LwjglTexture) texture);
+		
 		return new LwjglMesh((LwjglTexture) texture);
 	}
 	
@@ -10,13 +10,38 @@
 package tectonicus.rasteriser.lwjgl;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import tectonicus.rasteriser.Texture;
 
-@RequiredArgsConstructor
-@Getter
+import java.util.function.IntSupplier;
+
 public class LwjglTexture implements Texture {
-	private final int id;
+	private int id;
+	@Getter
 	private final int width;
+	@Getter
 	private final int height;
+
+	/** Creates the GL texture, for textures created off the GL thread. Run by the first {@link #getId()}. */
+	private IntSupplier upload;
+
+	public LwjglTexture(final int id, final int width, final int height) {
+		this.id = id;
+		this.width = width;
+		this.height = height;
+	}
+
+	LwjglTexture(IntSupplier upload, final int width, final int height) {
+		this.upload = upload;
+		this.width = width;
+		this.height = height;
+	}
+
+	/** Only call this on the GL thread, as it creates the GL texture first if that was deferred */
+	public int getId() {
+		if (upload != null) {
+			id = upload.getAsInt();
+			upload = null;
+		}
+		return id;
+	}
 }
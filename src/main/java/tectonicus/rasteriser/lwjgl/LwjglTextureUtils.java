@@ -74,6 +74,10 @@ public class LwjglTextureUtils {
 	}
 	
 	public static int createTexture(BufferedImage imageData, TextureFilter filterMode) {
+		return createTexture(imageData, filterMode, false);
+	}
+	
+	public static int createTexture(BufferedImage imageData, TextureFilter filterMode, boolean repeat) {
 		imageData = convertToGlFormat(imageData);
 		
 		IntBuffer buff = BufferUtils.createIntBuffer(16);
@@ -91,8 +95,9 @@ public class LwjglTextureUtils {
 			GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
 		}
 		
-		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+		final int wrapMode = repeat ? GL11.GL_REPEAT : GL12.GL_CLAMP_TO_EDGE;
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, wrapMode);
+		GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, wrapMode);
 		
 		ByteBuffer scratch = ByteBuffer.allocateDirect(4 * imageData.getWidth() * imageData.getHeight());
 		
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser.lwjgl;
+
+import com.jogamp.opengl.GL2;
+import lombok.RequiredArgsConstructor;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.Texture;
+import tectonicus.util.Colour4f;
+
+import java.nio.ByteBuffer;
+
+/** A mesh which is uploaded once into a static vertex buffer object when finalised, rather than being sent from
+ *  client memory on every draw like {@link LwjglMesh}. Vertices are interleaved as position, colour then uv. */
+@RequiredArgsConstructor
+public class LwjglVboMesh implements Mesh
+{
+	private static final int POSITION_OFFSET = 0;
+	private static final int COLOUR_OFFSET = 3 * 4;
+	private static final int TEX_COORD_OFFSET = COLOUR_OFFSET + 4;
+	private static final int STRIDE = TEX_COORD_OFFSET + 2 * 4;
+
+	private static final int INITIAL_VERTICES = 1024;
+
+	private final LwjglTexture texture;
+
+	/** Interleaved vertex data, only held until the mesh is finalised */
+	private ByteBuffer vertexData;
+
+	private int numVertices;
+
+	private int vertexBuffer;
+	private int bufferSize;
+
+	private boolean isFinalised;
+
+	@Override
+	public void destroy()
+	{
+		if (vertexBuffer != 0)
+		{
+			GL15.glDeleteBuffers(vertexBuffer);
+			vertexBuffer = 0;
+			bufferSize = 0;
+		}
+		vertexData = null;
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Vector4f colour, final float u, final float v)
+	{
+		addVertex(position, colour.x, colour.y, colour.z, colour.w, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, final float u, final float v)
+	{
+		addVertex(position, 1, 1, 1, 1, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Colour4f color, final float u, final float v)
+	{
+		addVertex(position, color.r, color.g, color.b, color.a, u, v);
+	}
+
+	private void addVertex(Vector3f position, final float r, final float g, final float b, final float a, final float u, final float v)
+	{
+		assert(!isFinalised);
+
+		if (vertexData == null || vertexData.remaining() < STRIDE)
+			vertexData = realloc(vertexData, Math.max(INITIAL_VERTICES, numVertices * 2) * STRIDE);
+
+		vertexData.putFloat(position.x);
+		vertexData.putFloat(position.y);
+		vertexData.putFloat(position.z);
+
+		vertexData.put( (byte)(r * 255) );
+		vertexData.put( (byte)(g * 255) );
+		vertexData.put( (byte)(b * 255) );
+		vertexData.put( (byte)(a * 255) );
+
+		vertexData.putFloat(u);
+		vertexData.putFloat(v);
+
+		numVertices++;
+	}
+
+	@Override
+	public void finalise()
+	{
+		assert (!isFinalised);
+
+		if (numVertices > 0)
+		{
+			vertexData.flip();
+
+			vertexBuffer = GL15.glGenBuffers();
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffer);
+			GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertexData, GL15.GL_STATIC_DRAW);
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+			bufferSize = numVertices * STRIDE;
+		}
+
+		// Everything lives on the GPU from now on
+		vertexData = null;
+		isFinalised = true;
+	}
+
+	@Override
+	public Texture getTexture()
+	{
+		return texture;
+	}
+
+	@Override
+	public void bind()
+	{
+		if (vertexBuffer == 0)
+			return;
+
+		assert (isFinalised);
+
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffer);
+
+		GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+		GL11.glVertexPointer(3, GL11.GL_FLOAT, STRIDE, POSITION_OFFSET);
+
+		GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+		GL11.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, STRIDE, COLOUR_OFFSET);
+
+		GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+		GL11.glTexCoordPointer(2, GL11.GL_FLOAT, STRIDE, TEX_COORD_OFFSET);
+
+		if (texture != null)
+		{
+			GL11.glEnable(GL11.GL_TEXTURE_2D);
+			GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture.getId());
+		}
+		else
+		{
+			GL11.glDisable(GL11.GL_TEXTURE_2D);
+			GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+		}
+	}
+
+	@Override
+	public void bind(GL2 gl2) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void draw(final float xOffset, final float yOffset, final float zOffset) {
+		if (vertexBuffer == 0)
+			return;
+
+		GL11.glPushMatrix();
+		GL11.glTranslatef(xOffset, yOffset, zOffset);
+
+		GL11.glDrawArrays(GL11.GL_QUADS, 0, numVertices);
+
+		GL11.glPopMatrix();
+	}
+
+	@Override
+	public void draw(final float xOffset, final float yOffset, final float zOffset, GL2 gl2) {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Size of the vertex buffer on the GPU once finalised, or of the vertex data gathered so far before that */
+	@Override
+	public int getMemorySize()
+	{
+		if (isFinalised)
+			return bufferSize;
+
+		return vertexData != null ? vertexData.capacity() : 0;
+	}
+
+	@Override
+	public int getTotalVertices()
+	{
+		return numVertices;
+	}
+
+	private static ByteBuffer realloc(ByteBuffer existing, final int newSize)
+	{
+		ByteBuffer newBuffer = BufferUtils.createByteBuffer(newSize);
+
+		if (existing != null)
+		{
+			existing.flip();
+			newBuffer.put(existing);
+		}
+
+		return newBuffer;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser.software;
+
+import com.jogamp.opengl.GL2;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.Texture;
+import tectonicus.util.Colour4f;
+
+import java.util.Arrays;
+
+/** A list of quads kept in plain float arrays, drawn by handing them straight to the owning {@link SoftwareRasteriser} */
+public class SoftwareMesh implements Mesh {
+	private static final int INITIAL_VERTICES = 1024;
+
+	private final SoftwareRasteriser rasteriser;
+	private final SoftwareTexture texture;
+
+	private float[] positions;
+	private float[] colours;
+	private float[] texCoords;
+
+	private int numVertices;
+
+	private boolean isFinalised;
+
+	SoftwareMesh(SoftwareRasteriser rasteriser, SoftwareTexture texture) {
+		this.rasteriser = rasteriser;
+		this.texture = texture;
+	}
+
+	@Override
+	public void destroy() {
+		positions = null;
+		colours = null;
+		texCoords = null;
+		numVertices = 0;
+	}
+
+	@Override
+	public void finalise() {
+		assert (!isFinalised);
+
+		if (positions != null) {
+			positions = Arrays.copyOf(positions, numVertices * 3);
+			colours = Arrays.copyOf(colours, numVertices * 4);
+			texCoords = Arrays.copyOf(texCoords, numVertices * 2);
+		}
+
+		isFinalised = true;
+	}
+
+	@Override
+	public Texture getTexture() {
+		return texture;
+	}
+
+	@Override
+	public void bind() {
+		rasteriser.bindTexture(texture, texture != null);
+	}
+
+	@Override
+	public void bind(GL2 gl2) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void draw(final float xOffset, final float yOffset, final float zOffset) {
+		draw(4, xOffset, yOffset, zOffset);
+	}
+
+	void draw(final int verticesPerPrimitive, final float xOffset, final float yOffset, final float zOffset) {
+		if (numVertices > 0)
+			rasteriser.draw(positions, colours, texCoords, numVertices, verticesPerPrimitive, xOffset, yOffset, zOffset);
+	}
+
+	@Override
+	public void draw(final float xOffset, final float yOffset, final float zOffset, GL2 gl2) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int getMemorySize() {
+		if (positions == null)
+			return 0;
+
+		return (positions.length + colours.length + texCoords.length) * 4;
+	}
+
+	@Override
+	public int getTotalVertices() {
+		return numVertices;
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Vector4f colour, final float u, final float v) {
+		addVertex(position, colour.x, colour.y, colour.z, colour.w, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, final float u, final float v) {
+		addVertex(position, 1, 1, 1, 1, u, v);
+	}
+
+	@Override
+	public void addVertex(Vector3f position, Colour4f color, final float u, final float v) {
+		addVertex(position, color.r, color.g, color.b, color.a, u, v);
+	}
+
+	void addVertex(Vector3f position, final float r, final float g, final float b, final float a, final float u, final float v) {
+		addVertex(position.x, position.y, position.z, r, g, b, a, u, v);
+	}
+
+	void addVertex(final float x, final float y, final float z, final float r, final float g, final float b, final float a, final float u, final float v) {
+		assert (!isFinalised);
+
+		if (positions == null || numVertices * 3 == positions.length) {
+			final int newMax = Math.max(INITIAL_VERTICES, numVertices * 2);
+			positions = positions == null ? new float[newMax * 3] : Arrays.copyOf(positions, newMax * 3);
+			colours = colours == null ? new float[newMax * 4] : Arrays.copyOf(colours, newMax * 4);
+			texCoords = texCoords == null ? new float[newMax * 2] : Arrays.copyOf(texCoords, newMax * 2);
+		}
+
+		positions[numVertices * 3] = x;
+		positions[numVertices * 3 + 1] = y;
+		positions[numVertices * 3 + 2] = z;
+
+		colours[numVertices * 4] = r;
+		colours[numVertices * 4 + 1] = g;
+		colours[numVertices * 4 + 2] = b;
+		colours[numVertices * 4 + 3] = a;
+
+		texCoords[numVertices * 2] = u;
+		texCoords[numVertices * 2 + 1] = v;
+
+		numVertices++;
+	}
+}
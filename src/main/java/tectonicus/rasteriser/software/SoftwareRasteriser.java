@@ -0,0 +1,785 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser.software;
+
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.rasteriser.AlphaFunc;
+import tectonicus.rasteriser.BlendFunc;
+import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.PrimitiveType;
+import tectonicus.rasteriser.Rasteriser;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+import tectonicus.rasteriser.Texture;
+import tectonicus.rasteriser.TextureFilter;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** A pure Java rasteriser for machines without any OpenGL at all.
+ *
+ *  It covers the fixed function subset the renderers use: textured, coloured quads with depth testing, alpha testing,
+ *  regular and additive blending and colour/alpha write masks, following the same conventions as OpenGL (bottom row first,
+ *  clockwise front faces with back faces culled after resetState(), textures sampled nearest and clamped to the edges).
+ *
+ *  Draw calls only transform, clip and queue triangles. The queue is rasterised when the framebuffer is next read or cleared,
+ *  by splitting the framebuffer into bins and filling each bin on a fork-join pool. Each bin draws its triangles in submission
+ *  order, so blending comes out the same as drawing everything in sequence.
+ */
+@Slf4j
+public class SoftwareRasteriser implements Rasteriser {
+	private static final int BIN_SIZE = 64;
+
+	/** Queued triangles are rasterised once there are this many, to keep the memory used for them bounded */
+	private static final int MAX_QUEUED_TRIANGLES = 1 << 18;
+
+	// Clip space vertex: x, y, z, w, u, v, r, g, b, a
+	private static final int CLIP_STRIDE = 10;
+
+	// Window space vertex: x, y, z, 1/w, then u, v, r, g, b, a all multiplied by 1/w for perspective correct interpolation
+	private static final int VERTEX_STRIDE = 10;
+	private static final int TRIANGLE_STRIDE = 3 * VERTEX_STRIDE;
+
+	private final int width, height;
+
+	/** ARGB, bottom row first as OpenGL reads it back */
+	private final int[] colourBuffer;
+	private final float[] depthBuffer;
+
+	private final ForkJoinPool pool;
+
+	private final Matrix4f projectionMatrix = new Matrix4f();
+	private final Matrix4f cameraMatrix = new Matrix4f();
+	private final Matrix4f transform = new Matrix4f();
+
+	private int viewportX, viewportY, viewportWidth, viewportHeight;
+
+	private boolean depthTest;
+	private boolean depthWrite = true;
+	private boolean alphaTest;
+	private AlphaFunc alphaFunc;
+	private float alphaRef;
+	private boolean blending;
+	private BlendFunc blendFunc = BlendFunc.REGULAR;
+	private boolean colourWrite = true;
+	private boolean alphaWrite = true;
+	private boolean cullBackFaces;
+
+	private SoftwareTexture boundTexture;
+	private boolean texturing;
+
+	/** Snapshot of the current draw state, or null if it has changed since the last draw */
+	private DrawState state;
+	private final List<DrawState> states = new ArrayList<>();
+
+	private float[] triangles = new float[1024 * TRIANGLE_STRIDE];
+	private int[] triangleStates = new int[1024];
+	private int numTriangles;
+
+	// Scratch space used while clipping, enough for a triangle clipped by two planes
+	private final float[] clipIn = new float[8 * CLIP_STRIDE];
+	private final float[] clipOut = new float[8 * CLIP_STRIDE];
+
+	private int[] binStarts;
+	private int[] binTriangles = new int[1024];
+
+	// Immediate mode
+	private SoftwareMesh shape;
+	private PrimitiveType shapeType;
+	private float shapeR = 1, shapeG = 1, shapeB = 1, shapeA = 1;
+	private float shapeU, shapeV;
+
+	public SoftwareRasteriser(DisplayType type, final int displayWidth, final int displayHeight) {
+		if (type == DisplayType.WINDOW)
+			log.warn("The software rasteriser can only render offscreen, nothing will be shown in the window");
+
+		this.width = displayWidth;
+		this.height = displayHeight;
+
+		this.colourBuffer = new int[width * height];
+		this.depthBuffer = new float[width * height];
+		Arrays.fill(depthBuffer, 1.0f);
+
+		this.viewportWidth = width;
+		this.viewportHeight = height;
+
+		this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	public void destroy() {
+		numTriangles = 0;
+		states.clear();
+		state = null;
+		pool.shutdown();
+	}
+
+	@Override
+	public void printInfo() {
+		log.debug(" -- Software Rasteriser -- ");
+		log.debug("\twidth: {}", width);
+		log.debug("\theight: {}", height);
+		log.debug("\tthreads: {}", pool.getParallelism());
+		log.debug("\tbin size: {}", BIN_SIZE);
+	}
+
+	@Override
+	public void sync() {
+	}
+
+	@Override
+	public boolean isCloseRequested() {
+		return false;
+	}
+
+	@Override
+	public boolean isKeyDown(final int vkKey) {
+		return false;
+	}
+
+	@Override
+	public boolean isKeyJustDown(final int vkKey) {
+		return false;
+	}
+
+	@Override
+	public long getWindowId() {
+		return 0;
+	}
+
+	@Override
+	public int getDisplayWidth() {
+		return width;
+	}
+
+	@Override
+	public int getDisplayHeight() {
+		return height;
+	}
+
+	@Override
+	public void setViewport(final int x, final int y, final int width, final int height) {
+		viewportX = x;
+		viewportY = y;
+		viewportWidth = width;
+		viewportHeight = height;
+		state = null;
+	}
+
+	@Override
+	public void beginFrame() {
+	}
+
+	@Override
+	public void resetState() {
+		colourWrite = true;
+		alphaWrite = true;
+		depthTest = true;
+		cullBackFaces = true;
+		blending = false;
+		alphaTest = false;
+		state = null;
+	}
+
+	@Override
+	public void clear(Color clearColour) {
+		flush();
+
+		// Alpha is cleared to zero, as the OpenGL rasteriser does
+		final int colour = clearColour.getRGB() & 0x00FFFFFF;
+		if (colourWrite && alphaWrite) {
+			Arrays.fill(colourBuffer, colour);
+		} else if (colourWrite || alphaWrite) {
+			final int mask = colourWrite ? 0x00FFFFFF : 0xFF000000;
+			for (int i = 0; i < colourBuffer.length; i++)
+				colourBuffer[i] = (colourBuffer[i] & ~mask) | (colour & mask);
+		}
+
+		clearDepthBuffer();
+	}
+
+	@Override
+	public void clearDepthBuffer() {
+		flush();
+
+		if (depthWrite)
+			Arrays.fill(depthBuffer, 1.0f);
+	}
+
+	@Override
+	public BufferedImage takeScreenshot(final int startX, final int startY, final int width, final int height, ImageFormat imageFormat) {
+		flush();
+
+		BufferedImage img;
+		if (imageFormat.hasAlpha()) {
+			img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+
+			for (int y = 0; y < height; y++)
+				System.arraycopy(colourBuffer, (startY + height - 1 - y) * this.width + startX, pixels, y * width, width);
+		} else {
+			img = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+			byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+
+			int out = 0;
+			for (int y = 0; y < height; y++) {
+				final int rowStart = (startY + height - 1 - y) * this.width + startX;
+				for (int x = 0; x < width; x++) {
+					final int argb = colourBuffer[rowStart + x];
+					pixels[out++] = (byte) argb;
+					pixels[out++] = (byte) (argb >> 8);
+					pixels[out++] = (byte) (argb >> 16);
+				}
+			}
+		}
+
+		return img;
+	}
+
+	@Override
+	public Texture createTexture(BufferedImage image, TextureFilter filter) {
+		return new SoftwareTexture(image, false);
+	}
+
+	@Override
+	public Texture createTexture(BufferedImage image, TextureFilter filter, boolean repeat) {
+		return new SoftwareTexture(image, repeat);
+	}
+
+	@Override
+	public Texture createTexture(BufferedImage[] mips, TextureFilter filter) {
+		return new SoftwareTexture(mips[0], false);
+	}
+
+	@Override
+	public void bindTexture(Texture texture) {
+		boundTexture = (SoftwareTexture) texture;
+		state = null;
+	}
+
+	/** Binds a texture and enables or disables texturing, as binding a mesh does */
+	void bindTexture(SoftwareTexture texture, final boolean enableTexturing) {
+		boundTexture = texture;
+		texturing = enableTexturing;
+		state = null;
+	}
+
+	@Override
+	public Mesh createMesh(Texture texture) {
+		return new SoftwareMesh(this, (SoftwareTexture) texture);
+	}
+
+	@Override
+	public void setProjectionMatrix(Matrix4f matrix) {
+		projectionMatrix.set(matrix);
+	}
+
+	@Override
+	public void setCameraMatrix(Matrix4f matrix, Vector3f lookAt, Vector3f eye, Vector3f up) {
+		cameraMatrix.set(matrix);
+	}
+
+	@Override
+	public void beginShape(PrimitiveType type) {
+		shapeType = type;
+		shape = new SoftwareMesh(this, null);
+	}
+
+	@Override
+	public void colour(final float r, final float g, final float b, final float a) {
+		shapeR = r;
+		shapeG = g;
+		shapeB = b;
+		shapeA = a;
+	}
+
+	@Override
+	public void texCoord(final float u, final float v) {
+		shapeU = u;
+		shapeV = v;
+	}
+
+	@Override
+	public void vertex(final float x, final float y, final float z) {
+		shape.addVertex(x, y, z, shapeR, shapeG, shapeB, shapeA, shapeU, shapeV);
+	}
+
+	@Override
+	public void endShape() {
+		shape.finalise();
+
+		if (shapeType == PrimitiveType.QUADS || shapeType == PrimitiveType.TRIANGLES) {
+			shape.draw(shapeType == PrimitiveType.QUADS ? 4 : 3, 0, 0, 0);
+		} else {
+			log.trace("Ignoring unsupported primitive type {}", shapeType);
+		}
+
+		shape = null;
+	}
+
+	@Override
+	public void enableBlending(final boolean enable) {
+		blending = enable;
+		state = null;
+	}
+
+	@Override
+	public void enableDepthTest(final boolean enable) {
+		depthTest = enable;
+		state = null;
+	}
+
+	@Override
+	public void enableAlphaTest(final boolean enable) {
+		alphaTest = enable;
+		state = null;
+	}
+
+	@Override
+	public void enableColourWriting(final boolean colourMask, final boolean alphaMask) {
+		colourWrite = colourMask;
+		alphaWrite = alphaMask;
+		state = null;
+	}
+
+	@Override
+	public void enableDepthWriting(final boolean enable) {
+		depthWrite = enable;
+		state = null;
+	}
+
+	@Override
+	public void setBlendFunc(BlendFunc func) {
+		blendFunc = func;
+		state = null;
+	}
+
+	@Override
+	public void setAlphaFunc(AlphaFunc func, final float refValue) {
+		alphaFunc = func;
+		alphaRef = refValue;
+		state = null;
+	}
+
+	/** Transforms, clips and culls the primitives, then queues up the resulting triangles */
+	void draw(float[] positions, float[] colours, float[] texCoords, final int numVertices, final int verticesPerPrimitive,
+					final float xOffset, final float yOffset, final float zOffset) {
+		transform.set(projectionMatrix).mul(cameraMatrix).translate(xOffset, yOffset, zOffset);
+
+		float[] clip = new float[verticesPerPrimitive * CLIP_STRIDE];
+		for (int first = 0; first + verticesPerPrimitive <= numVertices; first += verticesPerPrimitive) {
+			for (int i = 0; i < verticesPerPrimitive; i++) {
+				final int vertex = first + i;
+				final float x = positions[vertex * 3], y = positions[vertex * 3 + 1], z = positions[vertex * 3 + 2];
+
+				final int c = i * CLIP_STRIDE;
+				clip[c] = transform.m00() * x + transform.m10() * y + transform.m20() * z + transform.m30();
+				clip[c + 1] = transform.m01() * x + transform.m11() * y + transform.m21() * z + transform.m31();
+				clip[c + 2] = transform.m02() * x + transform.m12() * y + transform.m22() * z + transform.m32();
+				clip[c + 3] = transform.m03() * x + transform.m13() * y + transform.m23() * z + transform.m33();
+				clip[c + 4] = texCoords[vertex * 2];
+				clip[c + 5] = texCoords[vertex * 2 + 1];
+				clip[c + 6] = colours[vertex * 4];
+				clip[c + 7] = colours[vertex * 4 + 1];
+				clip[c + 8] = colours[vertex * 4 + 2];
+				clip[c + 9] = colours[vertex * 4 + 3];
+			}
+
+			// Quads are split along the 0-2 diagonal, as OpenGL implementations do
+			for (int t = 1; t + 1 < verticesPerPrimitive; t++)
+				clipAndQueue(clip, 0, t, t + 1);
+		}
+	}
+
+	private void clipAndQueue(float[] clip, final int i0, final int i1, final int i2) {
+		System.arraycopy(clip, i0 * CLIP_STRIDE, clipIn, 0, CLIP_STRIDE);
+		System.arraycopy(clip, i1 * CLIP_STRIDE, clipIn, CLIP_STRIDE, CLIP_STRIDE);
+		System.arraycopy(clip, i2 * CLIP_STRIDE, clipIn, 2 * CLIP_STRIDE, CLIP_STRIDE);
+
+		// Only the near and far planes need clipping, the sides are handled by limiting rasterisation to the viewport
+		int count = clipPolygon(clipIn, 3, clipOut, +1);
+		count = clipPolygon(clipOut, count, clipIn, -1);
+		if (count < 3)
+			return;
+
+		// Project to window space
+		for (int i = 0; i < count; i++) {
+			final int c = i * CLIP_STRIDE;
+			final float invW = 1.0f / clipIn[c + 3];
+			final float x = clipIn[c] * invW, y = clipIn[c + 1] * invW, z = clipIn[c + 2] * invW;
+
+			clipIn[c] = viewportX + (x + 1) * 0.5f * viewportWidth;
+			clipIn[c + 1] = viewportY + (y + 1) * 0.5f * viewportHeight;
+			clipIn[c + 2] = (z + 1) * 0.5f;
+			clipIn[c + 3] = invW;
+			for (int a = 4; a < CLIP_STRIDE; a++)
+				clipIn[c + a] *= invW;
+		}
+
+		for (int t = 1; t + 1 < count; t++) {
+			final int a = 0, b = t * CLIP_STRIDE, c = (t + 1) * CLIP_STRIDE;
+			final float area = (clipIn[b] - clipIn[a]) * (clipIn[c + 1] - clipIn[a + 1]) - (clipIn[b + 1] - clipIn[a + 1]) * (clipIn[c] - clipIn[a]);
+
+			// Front faces wind clockwise, which is a negative area with y pointing up
+			if (area == 0 || (cullBackFaces && area > 0))
+				continue;
+
+			queueTriangle(a, b, c);
+		}
+	}
+
+	/** Sutherland-Hodgman clip against z >= -w (side +1) or z <= w (side -1) */
+	private static int clipPolygon(float[] in, final int count, float[] out, final int side) {
+		int outCount = 0;
+		for (int i = 0; i < count; i++) {
+			final int current = i * CLIP_STRIDE;
+			final int next = ((i + 1) % count) * CLIP_STRIDE;
+
+			final float currentDist = in[current + 3] + side * in[current + 2];
+			final float nextDist = in[next + 3] + side * in[next + 2];
+
+			if (currentDist >= 0) {
+				System.arraycopy(in, current, out, outCount * CLIP_STRIDE, CLIP_STRIDE);
+				outCount++;
+			}
+
+			if ((currentDist >= 0) != (nextDist >= 0)) {
+				final float t = currentDist / (currentDist - nextDist);
+				final int o = outCount * CLIP_STRIDE;
+				for (int a = 0; a < CLIP_STRIDE; a++)
+					out[o + a] = in[current + a] + (in[next + a] - in[current + a]) * t;
+				outCount++;
+			}
+		}
+		return outCount;
+	}
+
+	private void queueTriangle(final int a, final int b, final int c) {
+		if (numTriangles == triangleStates.length) {
+			triangleStates = Arrays.copyOf(triangleStates, numTriangles * 2);
+			triangles = Arrays.copyOf(triangles, numTriangles * 2 * TRIANGLE_STRIDE);
+		}
+
+		final int offset = numTriangles * TRIANGLE_STRIDE;
+		System.arraycopy(clipIn, a, triangles, offset, VERTEX_STRIDE);
+		System.arraycopy(clipIn, b, triangles, offset + VERTEX_STRIDE, VERTEX_STRIDE);
+		System.arraycopy(clipIn, c, triangles, offset + 2 * VERTEX_STRIDE, VERTEX_STRIDE);
+		triangleStates[numTriangles] = getStateIndex();
+		numTriangles++;
+
+		if (numTriangles >= MAX_QUEUED_TRIANGLES)
+			flush();
+	}
+
+	/** Index of the current state, which is always the last one in the list */
+	private int getStateIndex() {
+		if (state == null) {
+			state = new DrawState(this);
+			states.add(state);
+		}
+		return states.size() - 1;
+	}
+
+	/** Rasterises everything queued so far */
+	private void flush() {
+		if (numTriangles == 0)
+			return;
+
+		final int binsX = (width + BIN_SIZE - 1) / BIN_SIZE;
+		final int binsY = (height + BIN_SIZE - 1) / BIN_SIZE;
+		final int numBins = binsX * binsY;
+
+		// Counting sort of the triangles into bins, which keeps them in submission order within each bin
+		if (binStarts == null || binStarts.length < numBins + 1)
+			binStarts = new int[numBins + 1];
+		Arrays.fill(binStarts, 0);
+
+		int[] bounds = new int[4];
+		int total = 0;
+		for (int t = 0; t < numTriangles; t++) {
+			if (findBinBounds(t, binsX, binsY, bounds)) {
+				for (int by = bounds[1]; by <= bounds[3]; by++) {
+					for (int bx = bounds[0]; bx <= bounds[2]; bx++) {
+						binStarts[by * binsX + bx + 1]++;
+						total++;
+					}
+				}
+			}
+		}
+		for (int i = 0; i < numBins; i++)
+			binStarts[i + 1] += binStarts[i];
+
+		if (binTriangles.length < total)
+			binTriangles = new int[total];
+
+		int[] fill = Arrays.copyOf(binStarts, numBins);
+		for (int t = 0; t < numTriangles; t++) {
+			if (findBinBounds(t, binsX, binsY, bounds)) {
+				for (int by = bounds[1]; by <= bounds[3]; by++) {
+					for (int bx = bounds[0]; bx <= bounds[2]; bx++)
+						binTriangles[fill[by * binsX + bx]++] = t;
+				}
+			}
+		}
+
+		pool.invoke(new BinRange(0, numBins, binsX));
+
+		numTriangles = 0;
+
+		// Keep the current state, it may be in the middle of a draw
+		states.clear();
+		if (state != null)
+			states.add(state);
+	}
+
+	/** Finds the range of bins a triangle may touch. Returns false if it can't touch any pixels at all. */
+	private boolean findBinBounds(final int triangle, final int binsX, final int binsY, int[] bounds) {
+		DrawState s = states.get(triangleStates[triangle]);
+		final int offset = triangle * TRIANGLE_STRIDE;
+
+		float minX = triangles[offset], maxX = minX;
+		float minY = triangles[offset + 1], maxY = minY;
+		for (int v = 1; v < 3; v++) {
+			final float x = triangles[offset + v * VERTEX_STRIDE];
+			final float y = triangles[offset + v * VERTEX_STRIDE + 1];
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+
+		final int x0 = Math.max(s.minX, (int) Math.floor(minX));
+		final int x1 = Math.min(s.maxX, (int) Math.ceil(maxX));
+		final int y0 = Math.max(s.minY, (int) Math.floor(minY));
+		final int y1 = Math.min(s.maxY, (int) Math.ceil(maxY));
+		if (x0 > x1 || y0 > y1)
+			return false;
+
+		bounds[0] = x0 / BIN_SIZE;
+		bounds[1] = y0 / BIN_SIZE;
+		bounds[2] = Math.min(binsX - 1, x1 / BIN_SIZE);
+		bounds[3] = Math.min(binsY - 1, y1 / BIN_SIZE);
+		return true;
+	}
+
+	private void rasteriseBin(final int bin, final int binsX) {
+		final int binX0 = (bin % binsX) * BIN_SIZE;
+		final int binY0 = (bin / binsX) * BIN_SIZE;
+		final int binX1 = Math.min(width, binX0 + BIN_SIZE) - 1;
+		final int binY1 = Math.min(height, binY0 + BIN_SIZE) - 1;
+
+		for (int i = binStarts[bin]; i < binStarts[bin + 1]; i++) {
+			final int triangle = binTriangles[i];
+			rasteriseTriangle(triangle, states.get(triangleStates[triangle]), binX0, binY0, binX1, binY1);
+		}
+	}
+
+	private void rasteriseTriangle(final int triangle, DrawState s, final int binX0, final int binY0, final int binX1, final int binY1) {
+		final int offset = triangle * TRIANGLE_STRIDE;
+
+		int v0 = offset, v1 = offset + VERTEX_STRIDE, v2 = offset + 2 * VERTEX_STRIDE;
+		float area = (triangles[v1] - triangles[v0]) * (triangles[v2 + 1] - triangles[v0 + 1])
+				- (triangles[v1 + 1] - triangles[v0 + 1]) * (triangles[v2] - triangles[v0]);
+		if (area < 0) {
+			// Make the winding anticlockwise so that the inside of every edge is positive
+			final int tmp = v1;
+			v1 = v2;
+			v2 = tmp;
+			area = -area;
+		}
+
+		final float x0 = triangles[v0], y0 = triangles[v0 + 1];
+		final float x1 = triangles[v1], y1 = triangles[v1 + 1];
+		final float x2 = triangles[v2], y2 = triangles[v2 + 1];
+
+		final int minX = Math.max(Math.max(binX0, s.minX), (int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+		final int maxX = Math.min(Math.min(binX1, s.maxX), (int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+		final int minY = Math.max(Math.max(binY0, s.minY), (int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+		final int maxY = Math.min(Math.min(binY1, s.maxY), (int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+		if (minX > maxX || minY > maxY)
+			return;
+
+		// Edge functions, each zero along one edge and equal to the area at the opposite vertex
+		final float e0dx = -(y2 - y1), e0dy = x2 - x1;
+		final float e1dx = -(y0 - y2), e1dy = x0 - x2;
+		final float e2dx = -(y1 - y0), e2dy = x1 - x0;
+
+		// Top-left rule, so pixels exactly on an edge shared by two triangles are only drawn once
+		final boolean e0Inclusive = isTopLeft(x1, y1, x2, y2);
+		final boolean e1Inclusive = isTopLeft(x2, y2, x0, y0);
+		final boolean e2Inclusive = isTopLeft(x0, y0, x1, y1);
+
+		final float invArea = 1.0f / area;
+
+		for (int py = minY; py <= maxY; py++) {
+			final float cy = py + 0.5f;
+			final float startX = minX + 0.5f;
+
+			float e0 = e0dy * (cy - y1) + e0dx * (startX - x1);
+			float e1 = e1dy * (cy - y2) + e1dx * (startX - x2);
+			float e2 = e2dy * (cy - y0) + e2dx * (startX - x0);
+
+			for (int px = minX; px <= maxX; px++, e0 += e0dx, e1 += e1dx, e2 += e2dx) {
+				if (!inside(e0, e0Inclusive) || !inside(e1, e1Inclusive) || !inside(e2, e2Inclusive))
+					continue;
+
+				final float l0 = e0 * invArea, l1 = e1 * invArea, l2 = e2 * invArea;
+				shadeFragment(py * width + px, s, v0, v1, v2, l0, l1, l2);
+			}
+		}
+	}
+
+	private void shadeFragment(final int pixel, DrawState s, final int v0, final int v1, final int v2, final float l0, final float l1, final float l2) {
+		final float z = l0 * triangles[v0 + 2] + l1 * triangles[v1 + 2] + l2 * triangles[v2 + 2];
+		if (s.depthTest && z > depthBuffer[pixel])
+			return;
+
+		final float w = 1.0f / (l0 * triangles[v0 + 3] + l1 * triangles[v1 + 3] + l2 * triangles[v2 + 3]);
+
+		float r = interpolate(v0, v1, v2, l0, l1, l2, 6) * w;
+		float g = interpolate(v0, v1, v2, l0, l1, l2, 7) * w;
+		float b = interpolate(v0, v1, v2, l0, l1, l2, 8) * w;
+		float a = interpolate(v0, v1, v2, l0, l1, l2, 9) * w;
+
+		if (s.texture != null) {
+			final int texel = s.texture.sample(interpolate(v0, v1, v2, l0, l1, l2, 4) * w, interpolate(v0, v1, v2, l0, l1, l2, 5) * w);
+			r *= ((texel >> 16) & 0xFF) / 255.0f;
+			g *= ((texel >> 8) & 0xFF) / 255.0f;
+			b *= (texel & 0xFF) / 255.0f;
+			a *= (texel >>> 24) / 255.0f;
+		}
+
+		if (s.alphaFunc != null && !passesAlphaTest(s.alphaFunc, a, s.alphaRef))
+			return;
+
+		if (s.depthTest && s.depthWrite)
+			depthBuffer[pixel] = z;
+
+		final int dest = colourBuffer[pixel];
+		if (s.blendFunc != null) {
+			final float dr = ((dest >> 16) & 0xFF) / 255.0f;
+			final float dg = ((dest >> 8) & 0xFF) / 255.0f;
+			final float db = (dest & 0xFF) / 255.0f;
+			final float da = (dest >>> 24) / 255.0f;
+			final float srcA = a;
+
+			if (s.blendFunc == BlendFunc.ADDITIVE) {
+				r = r * srcA + dr;
+				g = g * srcA + dg;
+				b = b * srcA + db;
+				a = a * srcA + da;
+			} else {
+				r = r * srcA + dr * (1 - srcA);
+				g = g * srcA + dg * (1 - srcA);
+				b = b * srcA + db * (1 - srcA);
+				a = a * srcA + da * (1 - srcA);
+			}
+		}
+
+		final int src = (toByte(a) << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+		colourBuffer[pixel] = (src & s.writeMask) | (dest & ~s.writeMask);
+	}
+
+	private float interpolate(final int v0, final int v1, final int v2, final float l0, final float l1, final float l2, final int attribute) {
+		return l0 * triangles[v0 + attribute] + l1 * triangles[v1 + attribute] + l2 * triangles[v2 + attribute];
+	}
+
+	private static boolean passesAlphaTest(AlphaFunc func, final float alpha, final float ref) {
+		switch (func) {
+			case GREATER:
+				return alpha > ref;
+			case GREATER_OR_EQUAL:
+				return alpha >= ref;
+			case EQUAL:
+				return alpha == ref;
+			case LESS:
+				return alpha < ref;
+			case LESS_OR_EQUAL:
+				return alpha <= ref;
+			default:
+				return true;
+		}
+	}
+
+	private static boolean inside(final float edge, final boolean inclusive) {
+		return edge > 0 || (edge == 0 && inclusive);
+	}
+
+	/** With anticlockwise winding and y up, top edges run right to left and left edges run downwards */
+	private static boolean isTopLeft(final float ax, final float ay, final float bx, final float by) {
+		return by < ay || (by == ay && bx < ax);
+	}
+
+	private static int toByte(final float value) {
+		if (value <= 0)
+			return 0;
+		if (value >= 1)
+			return 255;
+		return (int) (value * 255 + 0.5f);
+	}
+
+	/** Everything needed to shade a triangle, captured when it was drawn */
+	private static class DrawState {
+		private final int minX, minY, maxX, maxY;
+		private final boolean depthTest;
+		private final boolean depthWrite;
+		private final AlphaFunc alphaFunc;
+		private final float alphaRef;
+		private final BlendFunc blendFunc;
+		private final int writeMask;
+		private final SoftwareTexture texture;
+
+		DrawState(SoftwareRasteriser r) {
+			minX = Math.max(0, r.viewportX);
+			minY = Math.max(0, r.viewportY);
+			maxX = Math.min(r.width, r.viewportX + r.viewportWidth) - 1;
+			maxY = Math.min(r.height, r.viewportY + r.viewportHeight) - 1;
+
+			depthTest = r.depthTest;
+			depthWrite = r.depthWrite;
+			alphaFunc = r.alphaTest ? r.alphaFunc : null;
+			alphaRef = r.alphaRef;
+			blendFunc = r.blending ? r.blendFunc : null;
+			writeMask = (r.colourWrite ? 0x00FFFFFF : 0) | (r.alphaWrite ? 0xFF000000 : 0);
+			texture = r.texturing ? r.boundTexture : null;
+		}
+	}
+
+	private class BinRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int start, end, binsX;
+
+		BinRange(final int start, final int end, final int binsX) {
+			this.start = start;
+			this.end = end;
+			this.binsX = binsX;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1) {
+				rasteriseBin(start, binsX);
+			} else {
+				final int mid = (start + end) >>> 1;
+				invokeAll(new BinRange(start, mid, binsX), new BinRange(mid, end, binsX));
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser.software;
+
+import tectonicus.rasteriser.Texture;
+
+import java.awt.image.BufferedImage;
+
+/** A texture held as plain ARGB ints, top row first. Always sampled with nearest filtering, and either clamped to the
+ *  edges or repeated. */
+public class SoftwareTexture implements Texture {
+	private final int width;
+	private final int height;
+	private final int[] pixels;
+	private final boolean repeat;
+
+	SoftwareTexture(BufferedImage image, boolean repeat) {
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		this.pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		this.repeat = repeat;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	int sample(float u, float v) {
+		// Coordinates inside 0-1 are still clamped so the far edges don't pick up texels from the other side
+		if (repeat && (u < 0 || u > 1))
+			u -= (float) Math.floor(u);
+		if (repeat && (v < 0 || v > 1))
+			v -= (float) Math.floor(v);
+
+		int x = (int) Math.floor(u * width);
+		int y = (int) Math.floor(v * height);
+
+		x = Math.max(0, Math.min(width - 1, x));
+		y = Math.max(0, Math.min(height - 1, y));
+
+		return pixels[y * width + x];
+	}
+}
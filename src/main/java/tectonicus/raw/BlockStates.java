@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Interns every distinct block name and property combination to a small int, so that chunks only need to store ints.
+ *
+ *  Ids are handed out in the order states are first seen, so they differ between runs and must never be persisted
+ *  or hashed. Id 0 ({@link #NONE}) means no block state, as used by chunks from before 1.13.
+ */
+@UtilityClass
+public class BlockStates
+{
+	public static final int NONE = 0;
+
+	private static final Object lock = new Object();
+
+	private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private static volatile State[] states = new State[] { new State(null, null) };
+	private static int numStates = 1;
+
+	public static int intern(String name, BlockProperties properties)
+	{
+		if (name == null)
+			return NONE;
+
+		final String key = createKey(name, properties);
+		Integer id = ids.get(key);
+		if (id != null)
+			return id;
+
+		synchronized (lock)
+		{
+			id = ids.get(key);
+			if (id != null)
+				return id;
+
+			State[] current = states;
+			if (numStates == current.length)
+				current = Arrays.copyOf(current, current.length * 2);
+			current[numStates] = new State(name, properties);
+
+			// Publish the new state before the id can be seen by anyone else
+			states = current;
+			id = numStates++;
+			ids.put(key, id);
+
+			return id;
+		}
+	}
+
+	public static String getName(final int id)
+	{
+		return states[id].name;
+	}
+
+	public static BlockProperties getProperties(final int id)
+	{
+		return states[id].properties;
+	}
+
+	/** A stable description of the state, suitable for hashing */
+	public static String getKey(final int id)
+	{
+		State state = states[id];
+		return state.name == null ? "" : createKey(state.name, state.properties);
+	}
+
+	public static boolean isAir(final int id)
+	{
+		return states[id].air;
+	}
+
+	public static int size()
+	{
+		synchronized (lock)
+		{
+			return numStates;
+		}
+	}
+
+	private static String createKey(String name, BlockProperties properties)
+	{
+		return properties == null ? name : name + '[' + properties.getPropertiesString() + ']';
+	}
+
+	private static class State
+	{
+		private final String name;
+		private final BlockProperties properties;
+		private final boolean air;
+
+		State(String name, BlockProperties properties)
+		{
+			this.name = name;
+			this.properties = properties;
+			this.air = name != null && (name.contains("minecraft:air") || name.contains("_air"));
+		}
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Optional parts of a chunk which {@link RawChunk} can be asked to load. Block states and light are always loaded. */
+public enum ChunkField
+{
+	BIOMES,
+	BLOCK_ENTITIES,
+	ENTITIES;
+
+	/** Everything, as needed to build geometry */
+	public static final Set<ChunkField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ChunkField.class));
+
+	/** Just what preprocessing needs to hash chunks and find signs, portals, beds and so on */
+	public static final Set<ChunkField> PREPROCESS = Collections.unmodifiableSet(EnumSet.of(BLOCK_ENTITIES));
+}
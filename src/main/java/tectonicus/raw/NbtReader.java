@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import org.jnbt.ByteArrayTag;
+import org.jnbt.ByteTag;
+import org.jnbt.CompoundTag;
+import org.jnbt.DoubleTag;
+import org.jnbt.FloatTag;
+import org.jnbt.IntArrayTag;
+import org.jnbt.IntTag;
+import org.jnbt.ListTag;
+import org.jnbt.LongArrayTag;
+import org.jnbt.LongTag;
+import org.jnbt.NBTConstants;
+import org.jnbt.NBTUtils;
+import org.jnbt.ShortTag;
+import org.jnbt.StringTag;
+import org.jnbt.Tag;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Reads uncompressed NBT data as a stream of tags, rather than building the whole tree as NBTInputStream does.
+ *
+ *  Use {@link #nextTag()} to walk the children of a compound, then either read the payload with one of the read
+ *  methods (arrays come back as plain primitive arrays), build it with {@link #readTag}, or {@link #skip} it.
+ *  Skipping never creates any objects; arrays and lists of numbers are skipped over by length in one go.
+ */
+public class NbtReader implements Closeable
+{
+	private final DataInputStream in;
+
+	private String name = "";
+
+	public NbtReader(DataInputStream in)
+	{
+		this.in = in;
+	}
+
+	/** Reads the root tag, building only the selected parts of it. Returns null if the root is not a compound. */
+	public CompoundTag readRoot(NbtSelection selection) throws IOException
+	{
+		final int type = nextTag();
+		if (type != NBTConstants.TYPE_COMPOUND)
+		{
+			if (type != NBTConstants.TYPE_END)
+				skip(type);
+			return null;
+		}
+
+		return (CompoundTag) readTag(type, selection);
+	}
+
+	/** Reads the type and name of the next tag in the current compound. Returns TYPE_END once there are no more. */
+	public int nextTag() throws IOException
+	{
+		final int type = in.readUnsignedByte();
+		name = type == NBTConstants.TYPE_END ? "" : readString();
+		return type;
+	}
+
+	/** The name of the tag last returned by {@link #nextTag()} */
+	public String getName()
+	{
+		return name;
+	}
+
+	public byte readByte() throws IOException
+	{
+		return in.readByte();
+	}
+
+	public short readShort() throws IOException
+	{
+		return in.readShort();
+	}
+
+	public int readInt() throws IOException
+	{
+		return in.readInt();
+	}
+
+	public long readLong() throws IOException
+	{
+		return in.readLong();
+	}
+
+	public float readFloat() throws IOException
+	{
+		return in.readFloat();
+	}
+
+	public double readDouble() throws IOException
+	{
+		return in.readDouble();
+	}
+
+	public String readString() throws IOException
+	{
+		byte[] bytes = new byte[in.readUnsignedShort()];
+		in.readFully(bytes);
+		return new String(bytes, NBTConstants.CHARSET);
+	}
+
+	public byte[] readByteArray() throws IOException
+	{
+		byte[] result = new byte[readLength()];
+		in.readFully(result);
+		return result;
+	}
+
+	public int[] readIntArray() throws IOException
+	{
+		int[] result = new int[readLength()];
+		for (int i=0; i<result.length; i++)
+			result[i] = in.readInt();
+		return result;
+	}
+
+	public long[] readLongArray() throws IOException
+	{
+		long[] result = new long[readLength()];
+		for (int i=0; i<result.length; i++)
+			result[i] = in.readLong();
+		return result;
+	}
+
+	/** Reads the header of a list, returning the element type. Follow with {@link #readLength()} for the number of elements. */
+	public int readListType() throws IOException
+	{
+		return in.readUnsignedByte();
+	}
+
+	public int readLength() throws IOException
+	{
+		final int length = in.readInt();
+		if (length < 0)
+			throw new IOException("Negative NBT array or list length: " + length);
+		return length;
+	}
+
+	/** Builds the payload of a tag of the given type, using the name from the last call to {@link #nextTag()}.
+	 *  Only the selected children of compounds are built, the rest are skipped. */
+	public Tag readTag(final int type, NbtSelection selection) throws IOException
+	{
+		final String tagName = name;
+		switch (type)
+		{
+			case NBTConstants.TYPE_BYTE:
+				return new ByteTag(tagName, in.readByte());
+			case NBTConstants.TYPE_SHORT:
+				return new ShortTag(tagName, in.readShort());
+			case NBTConstants.TYPE_INT:
+				return new IntTag(tagName, in.readInt());
+			case NBTConstants.TYPE_LONG:
+				return new LongTag(tagName, in.readLong());
+			case NBTConstants.TYPE_FLOAT:
+				return new FloatTag(tagName, in.readFloat());
+			case NBTConstants.TYPE_DOUBLE:
+				return new DoubleTag(tagName, in.readDouble());
+			case NBTConstants.TYPE_BYTE_ARRAY:
+				return new ByteArrayTag(tagName, readByteArray());
+			case NBTConstants.TYPE_STRING:
+				return new StringTag(tagName, readString());
+			case NBTConstants.TYPE_INT_ARRAY:
+				return new IntArrayTag(tagName, readIntArray());
+			case NBTConstants.TYPE_LONG_ARRAY:
+				return new LongArrayTag(tagName, readLongArray());
+			case NBTConstants.TYPE_LIST:
+			{
+				final int elementType = readListType();
+				final int length = readLength();
+
+				List<Tag> elements = new ArrayList<>(length);
+				for (int i=0; i<length; i++)
+				{
+					name = "";
+					elements.add(readTag(elementType, selection));
+				}
+				return new ListTag(tagName, NBTUtils.getTypeClass(elementType), elements);
+			}
+			case NBTConstants.TYPE_COMPOUND:
+			{
+				Map<String, Tag> children = new HashMap<>();
+				int childType;
+				while ((childType = nextTag()) != NBTConstants.TYPE_END)
+				{
+					NbtSelection childSelection = selection.get(name);
+					if (childSelection != null)
+						children.put(name, readTag(childType, childSelection));
+					else
+						skip(childType);
+				}
+				return new CompoundTag(tagName, children);
+			}
+			default:
+				throw new IOException("Invalid NBT tag type: " + type);
+		}
+	}
+
+	/** Skips over the payload of a tag of the given type */
+	public void skip(final int type) throws IOException
+	{
+		switch (type)
+		{
+			case NBTConstants.TYPE_END:
+				break;
+			case NBTConstants.TYPE_BYTE_ARRAY:
+				skipBytes(readLength());
+				break;
+			case NBTConstants.TYPE_STRING:
+				skipBytes(in.readUnsignedShort());
+				break;
+			case NBTConstants.TYPE_INT_ARRAY:
+				skipBytes(readLength() * 4L);
+				break;
+			case NBTConstants.TYPE_LONG_ARRAY:
+				skipBytes(readLength() * 8L);
+				break;
+			case NBTConstants.TYPE_LIST:
+			{
+				final int elementType = readListType();
+				final int length = readLength();
+				final int width = getFixedWidth(elementType);
+				if (width >= 0)
+				{
+					skipBytes((long) length * width);
+				}
+				else
+				{
+					for (int i=0; i<length; i++)
+						skip(elementType);
+				}
+				break;
+			}
+			case NBTConstants.TYPE_COMPOUND:
+			{
+				int childType;
+				while ((childType = in.readUnsignedByte()) != NBTConstants.TYPE_END)
+				{
+					skipBytes(in.readUnsignedShort());
+					skip(childType);
+				}
+				break;
+			}
+			default:
+			{
+				final int width = getFixedWidth(type);
+				if (width < 0)
+					throw new IOException("Invalid NBT tag type: " + type);
+				skipBytes(width);
+			}
+		}
+	}
+
+	private void skipBytes(long count) throws IOException
+	{
+		while (count > 0)
+		{
+			final int skipped = in.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+			if (skipped <= 0)
+			{
+				// skipBytes gives up quietly at the end of the stream, so check whether that is why
+				if (in.read() < 0)
+					throw new EOFException("Unexpected end of NBT data");
+				count--;
+			}
+			else
+			{
+				count -= skipped;
+			}
+		}
+	}
+
+	/** Size in bytes of the payload of a fixed size tag type, or -1 if the size is variable */
+	private static int getFixedWidth(final int type)
+	{
+		switch (type)
+		{
+			case NBTConstants.TYPE_END:
+				return 0;
+			case NBTConstants.TYPE_BYTE:
+				return 1;
+			case NBTConstants.TYPE_SHORT:
+				return 2;
+			case NBTConstants.TYPE_INT:
+			case NBTConstants.TYPE_FLOAT:
+				return 4;
+			case NBTConstants.TYPE_LONG:
+			case NBTConstants.TYPE_DOUBLE:
+				return 8;
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+}
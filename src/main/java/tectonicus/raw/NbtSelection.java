@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Describes which tags of an NBT compound {@link NbtReader} should build, by name and recursively by path.
+ *
+ *  Anything not selected is skipped over by length without creating any objects. A selection applied to a list
+ *  applies to each compound in the list. Names match regardless of case, in the same way as {@link NbtUtil#getChild}
+ *  falls back to the lower case name.
+ */
+public final class NbtSelection
+{
+	/** Selects everything below this point */
+	public static final NbtSelection ALL = new NbtSelection(null);
+
+	/** Child selections by tag name, or null to select every child */
+	private final Map<String, NbtSelection> children;
+
+	private NbtSelection(Map<String, NbtSelection> children)
+	{
+		this.children = children;
+	}
+
+	/** Selects only the named tags, along with everything below them */
+	public static NbtSelection of(String... names)
+	{
+		return new NbtSelection(new TreeMap<>(String.CASE_INSENSITIVE_ORDER)).with(names);
+	}
+
+	/** Returns a copy of this selection which also includes the named tags, along with everything below them */
+	public NbtSelection with(String... names)
+	{
+		NbtSelection result = this;
+		for (String name : names)
+			result = result.with(name, ALL);
+		return result;
+	}
+
+	/** Returns a copy of this selection which also includes the named tag, with only the given parts of it selected */
+	public NbtSelection with(String name, NbtSelection child)
+	{
+		if (children == null)
+			return this;
+
+		Map<String, NbtSelection> newChildren = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		newChildren.putAll(children);
+		newChildren.put(name, child);
+		return new NbtSelection(newChildren);
+	}
+
+	/** Returns the selection for the named child, or null if it should be skipped */
+	public NbtSelection get(String name)
+	{
+		return children == null ? ALL : children.get(name);
+	}
+
+	public boolean isAll()
+	{
+		return children == null;
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/** A fixed size array of ints stored as a small palette of distinct values plus packed indices into it.
+ *
+ *  While every entry holds the same value no index array is allocated at all. Indices are packed 1, 2, 4, 8
+ *  or 16 bits to an entry so that an entry never spans two longs, and the index width grows as the palette does.
+ *  The number of entries pointing at each palette slot is kept, so an array which was written to but ended up holding
+ *  a single value can still be told apart from a mixed one without reading the indices.
+ */
+class PalettedArray
+{
+	private final int size;
+
+	private int[] palette;
+	private int paletteSize;
+	
+	/** Number of entries pointing at each palette slot */
+	private int[] counts;
+
+	/** log2 of the bits per index, or -1 while the array is uniform */
+	private int bitsShift;
+	private long[] data;
+
+	// Filters tend to write the same value many times in a row
+	private int lastValue;
+	private int lastPaletteIndex;
+
+	PalettedArray(final int size, final int initialValue)
+	{
+		this.size = size;
+		this.palette = new int[] { initialValue };
+		this.paletteSize = 1;
+		this.counts = new int[] { size };
+		this.bitsShift = -1;
+	}
+
+	/** Creates an array using the given palette, with every entry initially set to palette index 0.
+	 *  Fill it in with {@link #setPaletteIndex(int, int)}. */
+	PalettedArray(final int size, int[] palette)
+	{
+		this(size, palette[0]);
+
+		if (palette.length > 1)
+		{
+			this.palette = palette.clone();
+			this.paletteSize = palette.length;
+			this.counts = new int[palette.length];
+			this.counts[0] = size;
+			resize(shiftFor(paletteSize));
+		}
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	int get(final int index)
+	{
+		if (data == null)
+			return palette[0];
+
+		return palette[getPaletteIndex(index)];
+	}
+
+	void set(final int index, final int value)
+	{
+		int paletteIndex;
+		if (value == lastValue && lastPaletteIndex < paletteSize && palette[lastPaletteIndex] == value)
+			paletteIndex = lastPaletteIndex;
+		else
+			paletteIndex = findOrAdd(value);
+
+		lastValue = value;
+		lastPaletteIndex = paletteIndex;
+
+		if (data == null && paletteIndex == 0)
+			return;
+
+		setPaletteIndex(index, paletteIndex);
+	}
+
+	/** Points an entry directly at a palette slot, bypassing the palette lookup */
+	void setPaletteIndex(final int index, final int paletteIndex)
+	{
+		if (paletteIndex < 0 || paletteIndex >= paletteSize)
+			throw new IndexOutOfBoundsException("Palette index " + paletteIndex + " out of range for palette of " + paletteSize);
+		if (data == null)
+		{
+			if (paletteIndex == 0)
+				return;
+			resize(shiftFor(paletteSize));
+		}
+
+		counts[getPaletteIndex(index)]--;
+		counts[paletteIndex]++;
+		putPaletteIndex(index, paletteIndex);
+	}
+
+	/** Writes an index without counting it, for when the indices are repacked */
+	private void putPaletteIndex(final int index, final int paletteIndex)
+	{
+		final int bits = 1 << bitsShift;
+		final int entriesShift = 6 - bitsShift;
+		final int word = index >>> entriesShift;
+		final int bitOffset = (index & ((1 << entriesShift) - 1)) << bitsShift;
+		final long mask = ((1L << bits) - 1) << bitOffset;
+
+		data[word] = (data[word] & ~mask) | (((long) paletteIndex << bitOffset) & mask);
+	}
+
+	boolean isUniform()
+	{
+		return data == null;
+	}
+
+	int getPaletteSize()
+	{
+		return paletteSize;
+	}
+
+	/** @return the palette slot every entry points at, or -1 if the entries hold different values. Unlike
+	 *  {@link #isUniform()} this is also found for arrays which were written to but ended up holding a single value. */
+	int getSinglePaletteIndex()
+	{
+		for (int i=0; i<paletteSize; i++)
+		{
+			if (counts[i] == size)
+				return i;
+		}
+		return -1;
+	}
+
+	int getPaletteValue(final int paletteIndex)
+	{
+		return palette[paletteIndex];
+	}
+
+	long getMemorySize()
+	{
+		return 16L + palette.length * 8L + (data != null ? data.length * 8L : 0);
+	}
+
+	/** Adds the packed indices to the digest. Together with the palette values this fully describes the contents. */
+	void updateIndices(MessageDigest digest)
+	{
+		if (data == null)
+		{
+			digest.update((byte) 0);
+			return;
+		}
+
+		byte[] bytes = new byte[data.length * 8];
+		for (int i=0; i<data.length; i++)
+		{
+			final long val = data[i];
+			for (int b=0; b<8; b++)
+				bytes[i*8 + b] = (byte) (val >>> (b * 8));
+		}
+		digest.update((byte) bitsShift);
+		digest.update(bytes);
+	}
+
+	private int getPaletteIndex(final int index)
+	{
+		final int entriesShift = 6 - bitsShift;
+		final long word = data[index >>> entriesShift];
+		final int bitOffset = (index & ((1 << entriesShift) - 1)) << bitsShift;
+		return (int) ((word >>> bitOffset) & ((1L << (1 << bitsShift)) - 1));
+	}
+
+	private int findOrAdd(final int value)
+	{
+		for (int i=0; i<paletteSize; i++)
+		{
+			if (palette[i] == value)
+				return i;
+		}
+
+		if (paletteSize == palette.length)
+		{
+			palette = Arrays.copyOf(palette, Math.max(4, palette.length * 2));
+			counts = Arrays.copyOf(counts, palette.length);
+		}
+		palette[paletteSize] = value;
+		paletteSize++;
+
+		if (data != null && shiftFor(paletteSize) > bitsShift)
+			resize(shiftFor(paletteSize));
+
+		return paletteSize - 1;
+	}
+
+	/** Repacks the indices with a new width, or allocates them if the array was uniform */
+	private void resize(final int newShift)
+	{
+		final int entriesPerLong = 64 >>> newShift;
+		long[] newData = new long[(size + entriesPerLong - 1) / entriesPerLong];
+
+		long[] oldData = data;
+		final int oldShift = bitsShift;
+
+		data = newData;
+		bitsShift = newShift;
+
+		if (oldData != null)
+		{
+			long[] current = data;
+			int currentShift = bitsShift;
+
+			// Read with the old layout, write with the new
+			data = oldData;
+			bitsShift = oldShift;
+			int[] indices = new int[size];
+			for (int i=0; i<size; i++)
+				indices[i] = getPaletteIndex(i);
+
+			data = current;
+			bitsShift = currentShift;
+			for (int i=0; i<size; i++)
+			{
+				if (indices[i] != 0)
+					putPaletteIndex(i, indices[i]);
+			}
+		}
+	}
+
+	/** Smallest power of two bit width (as a shift) which can index the given number of palette entries */
+	private static int shiftFor(final int paletteSize)
+	{
+		final int bitsNeeded = Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+		int shift = 0;
+		while ((1 << shift) < bitsNeeded)
+			shift++;
+		return shift;
+	}
+}
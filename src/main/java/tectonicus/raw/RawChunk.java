@@ -10,7 +10,6 @@
 package tectonicus.raw;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.jnbt.ByteArrayTag;
 import org.jnbt.ByteTag;
@@ -19,7 +18,6 @@ import org.jnbt.IntArrayTag;
 import org.jnbt.IntTag;
 import org.jnbt.ListTag;
 import org.jnbt.LongArrayTag;
-import org.jnbt.NBTInputStream;
 import org.jnbt.NBTInputStream.Compression;
 import org.jnbt.ShortTag;
 import org.jnbt.StringTag;
@@ -30,6 +28,8 @@ import tectonicus.WorldStats;
 import tectonicus.blockTypes.Banner.Pattern;
 import tectonicus.chunk.ChunkCoord;
 import tectonicus.chunk.ChunkData;
+import tectonicus.metrics.Histogram;
+import tectonicus.metrics.Metrics;
 import tectonicus.util.FileUtils;
 import tectonicus.world.Colors;
 import tectonicus.world.Effect;
@@ -39,10 +39,8 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.ObjectWriter;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.MessageDigest;
@@ -54,6 +52,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -75,8 +75,24 @@ public class RawChunk {
 
 	public static final int MAX_LIGHT = 16;
 
+	/** What a 16 block high section of the chunk contains, see {@link #getSectionContents(int)} */
+	public enum SectionContents {
+		/** Never written to, so it only contains air */
+		ABSENT,
+		/** Only air */
+		AIR,
+		/** A single type of block that isn't air */
+		UNIFORM,
+		/** Anything else */
+		MIXED
+	}
+
 	private final int maxSections;
 
+	/** Its count is the number of chunks parsed */
+	private static final Histogram PARSE_TIME = Metrics.histogram("tectonicus_chunk_parse_seconds", "Time taken to parse the NBT of a chunk",
+			Histogram.exponentialBuckets(0.0001, 2, 14));
+
 	private static final ObjectReader OBJECT_READER = FileUtils.getOBJECT_MAPPER().reader();
 	private static final ObjectWriter OBJECT_WRITER = FileUtils.getOBJECT_MAPPER().writer();
 
@@ -107,32 +123,49 @@ public class RawChunk {
 
 	private final Map<String, Object> filterData = new HashMap<>();
 
+	private static final Map<Set<ChunkField>, NbtSelection> SELECTIONS = new ConcurrentHashMap<>();
+	private static final NbtSelection ENTITY_SELECTION = NbtSelection.of("Entities");
+
 	public RawChunk() {
 		maxSections = Minecraft.getChunkHeight() / SECTION_HEIGHT;
 		clear();
 	}
 
+	/** An empty chunk at the given coord */
+	public RawChunk(ChunkCoord coord) {
+		this();
+		chunkX = (int) coord.x;
+		chunkZ = (int) coord.z;
+	}
+
 	public RawChunk(File file) throws IOException {
 		maxSections = Minecraft.getChunkHeight() / SECTION_HEIGHT;
-		init(new ChunkData(Files.readAllBytes(file.toPath()), Compression.Gzip), null, new WorldInfo(VERSION_UNKNOWN, false));
+		init(new ChunkData(Files.readAllBytes(file.toPath()), Compression.Gzip), null, new WorldInfo(VERSION_UNKNOWN, false), ChunkField.ALL);
 	}
 
 	public RawChunk(ChunkData chunkData, WorldStats worldStats, WorldInfo worldInfo) throws IOException {
+		this(chunkData, worldStats, worldInfo, ChunkField.ALL);
+	}
+
+	/** Loads only the given optional parts of the chunk, skipping straight over the rest of the NBT data */
+	public RawChunk(ChunkData chunkData, WorldStats worldStats, WorldInfo worldInfo, Set<ChunkField> fields) throws IOException {
 		maxSections = Minecraft.getChunkHeight() / SECTION_HEIGHT;
-		init(chunkData, worldStats, worldInfo);
+
+		final long start = System.nanoTime();
+		init(chunkData, worldStats, worldInfo, fields);
+		PARSE_TIME.observeNanos(System.nanoTime() - start);
 	}
 
 	public RawChunk(ChunkData chunkData, ChunkData entityChunkData, WorldStats worldStats, WorldInfo worldInfo) throws IOException {
 		this(chunkData, worldStats, worldInfo);
 
-		byte[] chunkBytes = entityChunkData.getBytes();
-		try (InputStream in = new ByteArrayInputStream(chunkBytes, 0, chunkBytes.length);
-			 NBTInputStream nbtIn = new NBTInputStream(in, entityChunkData.getCompressionType())) {
-			Tag tag = nbtIn.readTag();
-			if (tag instanceof CompoundTag) {
-				parseEntities(NbtUtil.getChild((CompoundTag) tag, "Entities", ListTag.class),
-						worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
-			}
+		CompoundTag root;
+		try (NbtReader reader = new NbtReader(entityChunkData.openStream())) {
+			root = reader.readRoot(ENTITY_SELECTION);
+		}
+		if (root != null) {
+			parseEntities(NbtUtil.getChild(root, "Entities", ListTag.class),
+					worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
 		}
 	}
 
@@ -165,67 +198,97 @@ public class RawChunk {
 		sections = new Section[maxSections];
 	}
 
-	private void init(ChunkData chunkData, WorldStats worldStats, WorldInfo worldInfo) throws IOException {
+	private void init(ChunkData chunkData, WorldStats worldStats, WorldInfo worldInfo, Set<ChunkField> fields) throws IOException {
 		clear();
 
-		byte [] chunkBytes = chunkData.getBytes();
-		try (InputStream in = new ByteArrayInputStream(chunkBytes, 0, chunkBytes.length);
-			 NBTInputStream nbtIn = new NBTInputStream(in, chunkData.getCompressionType())) {
-			Tag tag = nbtIn.readTag();
-			if (tag instanceof CompoundTag) {
-				CompoundTag root = (CompoundTag) tag;
+		CompoundTag root;
+		try (NbtReader reader = new NbtReader(chunkData.openStream())) {
+			root = reader.readRoot(getSelection(fields));
+		}
 
-				dataVersion = NbtUtil.getInt(root,"DataVersion", 0);
+		if (root != null) {
+			dataVersion = NbtUtil.getInt(root,"DataVersion", 0);
 
-				CompoundTag level = NbtUtil.getChild(root, "Level", CompoundTag.class);
-				if (level != null) { //Chunk was generated by Minecraft 1.17 or lower
-					loadStatus(level);
-					if (!fullChunk){ //Don't do anything else because we are going to ignore this chunk
-						return;
-					}
-					
-					parseChunkPosition(level);
+			CompoundTag level = NbtUtil.getChild(root, "Level", CompoundTag.class);
+			if (level != null) { //Chunk was generated by Minecraft 1.17 or lower
+				loadStatus(level);
+				if (!fullChunk){ //Don't do anything else because we are going to ignore this chunk
+					return;
+				}
+				
+				parseChunkPosition(level);
 
-					ListTag sectionsTag = NbtUtil.getChild(level, "Sections", ListTag.class);
-					if (sectionsTag != null) {
-						// Parse as anvil format
-						parseAnvilData(level, sectionsTag, worldStats, worldInfo);
-					} else {
-						// Parse as McRegion format
-						parseMcRegionData(level);
-					}
+				ListTag sectionsTag = NbtUtil.getChild(level, "Sections", ListTag.class);
+				if (sectionsTag != null) {
+					// Parse as anvil format
+					parseAnvilData(level, sectionsTag, worldStats, worldInfo);
+				} else {
+					// Parse as McRegion format
+					parseMcRegionData(level);
+				}
 
-					ListTag entitiesTag = NbtUtil.getChild(level, "Entities", ListTag.class);
-					if (entitiesTag != null && !entitiesTag.getValue().isEmpty()) {
-						parseEntities(entitiesTag, worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
-					}
+				ListTag entitiesTag = NbtUtil.getChild(level, "Entities", ListTag.class);
+				if (entitiesTag != null && !entitiesTag.getValue().isEmpty()) {
+					parseEntities(entitiesTag, worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
+				}
 
-					ListTag tileEntitiesTag = NbtUtil.getChild(level, "TileEntities", ListTag.class);
-					if (tileEntitiesTag != null) {
-						parseBlockEntities(tileEntitiesTag, worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
-					}
+				ListTag tileEntitiesTag = NbtUtil.getChild(level, "TileEntities", ListTag.class);
+				if (tileEntitiesTag != null) {
+					parseBlockEntities(tileEntitiesTag, worldInfo.version().getNumVersion() >= VERSION_18.getNumVersion());
 				}
-				else { //Chunk was generated by Minecraft 1.18+
-					loadStatus(root);
-					if (!fullChunk){ //Don't do anything else because we are going to ignore this chunk
-						return;
-					}
-					
-					parseChunkPosition(root);
+			}
+			else { //Chunk was generated by Minecraft 1.18+
+				loadStatus(root);
+				if (!fullChunk){ //Don't do anything else because we are going to ignore this chunk
+					return;
+				}
+				
+				parseChunkPosition(root);
 
-					//yPos is the minimum or lowest section position in the chunk (-4 in 1.18)
-					minSectionY = NbtUtil.getInt(root, "yPos", -4);
+				//yPos is the minimum or lowest section position in the chunk (-4 in 1.18)
+				minSectionY = NbtUtil.getInt(root, "yPos", -4);
 
-					ListTag sectionsTag = NbtUtil.getChild(root, "sections", ListTag.class);
-					parseAnvilDataNew(root, sectionsTag, worldStats);
+				ListTag sectionsTag = NbtUtil.getChild(root, "sections", ListTag.class);
+				parseAnvilDataNew(root, sectionsTag, worldStats, fields.contains(ChunkField.BIOMES));
 
-					ListTag blockEntitiesTag = NbtUtil.getChild(root, "block_entities", ListTag.class);
+				ListTag blockEntitiesTag = NbtUtil.getChild(root, "block_entities", ListTag.class);
+				if (blockEntitiesTag != null) {
 					parseBlockEntities(blockEntitiesTag, true);
 				}
 			}
 		}
 	}
 
+	private static NbtSelection getSelection(Set<ChunkField> fields) {
+		NbtSelection selection = SELECTIONS.get(fields);
+		if (selection == null) {
+			selection = createSelection(fields);
+			SELECTIONS.put(Set.copyOf(fields), selection);
+		}
+		return selection;
+	}
+
+	/** Everything the parse methods below read, for both the 1.18+ layout and the older one nested inside "Level".
+	 *  Everything else (heightmaps, structures, ticks, post processing and so on) is skipped without being built. */
+	private static NbtSelection createSelection(Set<ChunkField> fields) {
+		NbtSelection section = NbtSelection.of("Y", "Blocks", "Add", "Data", "SkyLight", "BlockLight", "BlockStates", "Palette", "block_states");
+		NbtSelection chunk = NbtSelection.of("DataVersion", "Status", "xPos", "zPos", "yPos", "Blocks", "Data", "SkyLight", "BlockLight");
+
+		if (fields.contains(ChunkField.BIOMES)) {
+			section = section.with("biomes");
+			chunk = chunk.with("Biomes");
+		}
+		if (fields.contains(ChunkField.BLOCK_ENTITIES)) {
+			chunk = chunk.with("TileEntities", "block_entities");
+		}
+		if (fields.contains(ChunkField.ENTITIES)) {
+			chunk = chunk.with("Entities");
+		}
+
+		chunk = chunk.with("Sections", section);
+		return chunk.with("Level", chunk);
+	}
+
 	private void loadStatus(CompoundTag root) {
 		Optional.ofNullable(NbtUtil.getChild(root, "Status", StringTag.class)).ifPresent(statusTag -> {
 			String status = statusTag.getValue();
@@ -891,7 +954,7 @@ public class RawChunk {
 		return "x" + x + "y" + y + "z" + z;
 	}
 
-	private void parseAnvilDataNew(CompoundTag tag, ListTag sectionsTag, WorldStats worldStats) {
+	private void parseAnvilDataNew(CompoundTag tag, ListTag sectionsTag, WorldStats worldStats, boolean loadBiomes) {
 		for (Tag t : sectionsTag.getValue()) {
 			CompoundTag compound = (CompoundTag) t;
 
@@ -910,39 +973,21 @@ public class RawChunk {
 			if (blockStatesContainer != null) {
 				ListTag blockPaletteTag = NbtUtil.getChild(blockStatesContainer, "palette", ListTag.class);
 				LongArrayTag blockDataTag = NbtUtil.getChild(blockStatesContainer, "data", LongArrayTag.class);
-				List<BlockState> blockStatesPalette = parseBlockStates(blockPaletteTag);
-
-				int bitsPerBlock = 0;
-				int blockBitMask = 0;
-				int blocksPerLong = 0;
-				boolean packedBits = false;
-				BlockState singleBlockState = null;
+				int[] blockStatesPalette = internBlockStates(blockPaletteTag);
 
-				if (blockDataTag != null) {
+				if (blockDataTag != null && blockDataTag.getValue() != null) {
+					final long[] blockData = blockDataTag.getValue();
 					int sectionVolume = SECTION_WIDTH * SECTION_HEIGHT * SECTION_DEPTH;
-					int dataTagLength = blockDataTag.getValue().length;
-					bitsPerBlock = dataTagLength * 64 / sectionVolume;
-					blockBitMask = (1 << bitsPerBlock) - 1;
-
-					if (Math.ceil(sectionVolume / (64f / bitsPerBlock)) == dataTagLength) {
-						packedBits = true;
-					}
-					blocksPerLong = 64 / bitsPerBlock;
-				} else {
-					//If the data tag doesn't exist that means there is only one block in the palette
-					singleBlockState = blockStatesPalette.get(0);
-				}
-
-				for (int x = 0; x < SECTION_WIDTH; x++) {
-					for (int y = 0; y < SECTION_HEIGHT; y++) {
-						if (blockDataTag == null && singleBlockState != null) {
-							//If no data tag the section should be filled with the only block in the palette
-                                                        final int fromIndex = Section.getIndex(x, y, 0);
-							Arrays.fill(newSection.blockNames, fromIndex, fromIndex + SECTION_DEPTH, singleBlockState.name);
-							Arrays.fill(newSection.blockStates, fromIndex, fromIndex + SECTION_DEPTH, singleBlockState.properties);
-						}
-						for (int z = 0; z < SECTION_DEPTH; z++) {
-							if (blockDataTag != null && blockDataTag.getValue() != null) {
+					int dataTagLength = blockData.length;
+					int bitsPerBlock = dataTagLength * 64 / sectionVolume;
+					int blockBitMask = (1 << bitsPerBlock) - 1;
+					boolean packedBits = Math.ceil(sectionVolume / (64f / bitsPerBlock)) == dataTagLength;
+					int blocksPerLong = 64 / bitsPerBlock;
+
+					PalettedArray blockStates = new PalettedArray(SECTION_SIZE, blockStatesPalette);
+					for (int x = 0; x < SECTION_WIDTH; x++) {
+						for (int y = 0; y < SECTION_HEIGHT; y++) {
+							for (int z = 0; z < SECTION_DEPTH; z++) {
 								final int index = calcAnvilIndex(x, y, z);
 								int longIndex;
 								int bitOffset;
@@ -955,31 +1000,28 @@ public class RawChunk {
 									bitOffset = (index % blocksPerLong) * bitsPerBlock;
 								}
 
-								long paletteIndex = (blockDataTag.getValue()[longIndex] >>> bitOffset) & blockBitMask;
-
-								BlockState blockState = blockStatesPalette.get((int) paletteIndex);
-								newSection.blockNames[Section.getIndex(x, y, z)] = blockState.name;
-								newSection.blockStates[Section.getIndex(x, y, z)] = blockState.properties;
+								long paletteIndex = (blockData[longIndex] >>> bitOffset) & blockBitMask;
+								blockStates.setPaletteIndex(Section.getIndex(x, y, z), (int) paletteIndex);
 
 								//TODO: add back the block counting code here
 //							if (worldStats != null)
 //								worldStats.incBlockId(id, data);
 							}
-
-							if (skylightTag != null) {
-								newSection.skylight[Section.getIndex(x, y, z)] = getAnvil4Bit(skylightTag, x, y, z);
-							}
-
-							if (blocklightTag != null) {
-								newSection.blocklight[Section.getIndex(x, y, z)] = getAnvil4Bit(blocklightTag, x, y, z);
-							}
 						}
 					}
+					newSection.blockStates = blockStates;
+				} else {
+					//If the data tag doesn't exist that means there is only one block in the palette
+					newSection.blockStates = new PalettedArray(SECTION_SIZE, blockStatesPalette[0]);
 				}
-			}
 
+				readAnvilLight(newSection, skylightTag, blocklightTag);
+			}
 
+			if (!loadBiomes)
+				continue;
 
+			newSection.biomeIds = new String[64];
 			CompoundTag biomesContainer = NbtUtil.getChild(compound, "biomes", CompoundTag.class);
 			if (biomesContainer != null) {
 				ListTag biomePaletteTag = NbtUtil.getChild(biomesContainer, "palette", ListTag.class);
@@ -1047,7 +1089,6 @@ public class RawChunk {
 			int bitsPerBlock = 0;
 			int blockBitMask = 0;
 			int blocksPerLong = 0;
-			List<BlockState> blockStatesPalette = null;
 			boolean packedBits = false;
 
 			if (blockStatesTag != null) {
@@ -1061,7 +1102,7 @@ public class RawChunk {
 				}
 				blocksPerLong = 64 / bitsPerBlock;
 
-				blockStatesPalette = parseBlockStates(paletteTag);
+				newSection.blockStates = new PalettedArray(SECTION_SIZE, internBlockStates(paletteTag));
 			}
 
 			for (int x = 0; x < SECTION_WIDTH; x++) {
@@ -1071,15 +1112,13 @@ public class RawChunk {
 
 						if (blocksTag != null) {
 							int id = blocksTag.getValue()[index] & 0xFF;
-							newSection.blockIds[Section.getIndex(x, y, z)] = id;
-
 							if (addTag != null) {
 								id = id | (getAnvil4Bit(addTag, x, y, z) << 8);
-								newSection.blockIds[Section.getIndex(x, y, z)] = id;
 							}
+							newSection.blockIds.set(Section.getIndex(x, y, z), id);
 
 							final byte data = getAnvil4Bit(dataTag, x, y, z);
-							newSection.blockData[Section.getIndex(x, y, z)] = data;
+							newSection.blockData.set(Section.getIndex(x, y, z), data);
 
 							if (worldStats != null)
 								worldStats.incBlockId(id, data);
@@ -1107,21 +1146,15 @@ public class RawChunk {
 									paletteIndex |= (blockStatesTag.getValue()[longIndex + 1] & carryMask) << carryShift;
 								}
 
-								BlockState blockState = blockStatesPalette.get((int) paletteIndex);
-								newSection.blockNames[Section.getIndex(x, y, z)] = blockState.name;
-								newSection.blockStates[Section.getIndex(x, y, z)] = blockState.properties;
+								newSection.blockStates.setPaletteIndex(Section.getIndex(x, y, z), (int) paletteIndex);
 							}
 						}
-
-						if (skylightTag != null && newSection != null) {
-							newSection.skylight[Section.getIndex(x, y, z)] = getAnvil4Bit(skylightTag, x, y, z);
-						}
-						if (blocklightTag != null && newSection != null) {
-							newSection.blocklight[Section.getIndex(x, y, z)] = getAnvil4Bit(blocklightTag, x, y, z);
-						}
 					}
 				}
 			}
+
+			if (newSection != null)
+				readAnvilLight(newSection, skylightTag, blocklightTag);
 		}
 
 		// Parse "Biomes" data (16x16) or 1.15+ (one int is biome id for 4x4x4 volume)
@@ -1160,17 +1193,39 @@ public class RawChunk {
 		}
 	}
 
-	private List<BlockState> parseBlockStates(ListTag paletteTag) {
-		List<BlockState> blockStatesPalette = new ArrayList<>();
-		for (Tag paletteEntry : paletteTag.getValue()) {
-			String name = NbtUtil.getChild((CompoundTag) paletteEntry, "Name", StringTag.class).getValue();
-			BlockProperties properties = NbtUtil.getProperties(NbtUtil.getChild((CompoundTag) paletteEntry, "Properties", CompoundTag.class));
-			blockStatesPalette.add(new BlockState(name, properties));
+	private static int[] internBlockStates(ListTag paletteTag) {
+		List<Tag> entries = paletteTag.getValue();
+		int[] blockStatesPalette = new int[entries.size()];
+		for (int i = 0; i < blockStatesPalette.length; i++) {
+			CompoundTag paletteEntry = (CompoundTag) entries.get(i);
+			String name = NbtUtil.getChild(paletteEntry, "Name", StringTag.class).getValue();
+			BlockProperties properties = NbtUtil.getProperties(NbtUtil.getChild(paletteEntry, "Properties", CompoundTag.class));
+			blockStatesPalette[i] = BlockStates.intern(name, properties);
 		}
 
 		return blockStatesPalette;
 	}
 
+	private static void readAnvilLight(Section section, ByteArrayTag skylightTag, ByteArrayTag blocklightTag) {
+		if (skylightTag != null)
+			section.skylight = readAnvilNibbles(skylightTag);
+		if (blocklightTag != null)
+			section.blocklight = readAnvilNibbles(blocklightTag);
+	}
+
+	private static PalettedArray readAnvilNibbles(ByteArrayTag tag) {
+		// Start out filled with the first value so that uniform light (eg. open sky) needs no index array at all
+		PalettedArray result = new PalettedArray(SECTION_SIZE, getAnvil4Bit(tag, 0, 0, 0));
+		for (int x = 0; x < SECTION_WIDTH; x++) {
+			for (int y = 0; y < SECTION_HEIGHT; y++) {
+				for (int z = 0; z < SECTION_DEPTH; z++) {
+					result.set(Section.getIndex(x, y, z), getAnvil4Bit(tag, x, y, z));
+				}
+			}
+		}
+		return result;
+	}
+
 	private void parseMcRegionData(CompoundTag level) {
 		// McRegion chunks are only 128 high, so just create the lower half of the sections
 		for (int i = 0; i < 8; i++) {
@@ -1278,36 +1333,22 @@ public class RawChunk {
 
 		Section s = sections[sectionY];
 		if (s != null)
-			return s.blockIds[Section.getIndex(x, localY, z)];
+			return s.blockIds.get(Section.getIndex(x, localY, z));
 		else
 			return BlockIds.AIR;
 	}
 
 	public void setBlockId(final int x, final int y, final int z, final int blockId) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
+		Section s = getOrCreateSection(y);
+		final int index = Section.getIndex(x, y % SECTION_HEIGHT, z);
 
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
-
-		s.blockIds[Section.getIndex(x, localY, z)] = blockId;
-		s.blockNames[Section.getIndex(x, localY, z)] = null;
+		s.blockIds.set(index, blockId);
+		s.blockStates.set(index, BlockStates.NONE);
 	}
 
 	public void setBlockData(final int x, final int y, final int z, final byte val) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
-
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
-
-		s.blockData[Section.getIndex(x, localY, z)] = val;
+		Section s = getOrCreateSection(y);
+		s.blockData.set(Section.getIndex(x, y % SECTION_HEIGHT, z), val);
 	}
 
 	public int getBlockData(final int x, final int y, final int z) {
@@ -1319,34 +1360,63 @@ public class RawChunk {
 
 		Section s = sections[sectionY];
 		if (s != null && x >= 0 && x <= 15 && z >= 0 && z <= 15)  //TODO:  Fix this (workaround for painting and stair problems)
-			return s.blockData[Section.getIndex(x, localY, z)];
+			return s.blockData.get(Section.getIndex(x, localY, z));
 		else
 			return 0;
 	}
 
-	public String getBlockName(final int x, final int y, final int z) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
+	/** The interned block state at this position, see {@link BlockStates}. Returns {@link BlockStates#NONE} for pre 1.13 blocks. */
+	public int getBlockStateId(final int x, final int y, final int z) {
+		if (y < 0 || y >= Minecraft.getChunkHeight() || x < 0 || x >= RawChunk.WIDTH || z < 0 || z >= RawChunk.DEPTH)
+			return BlockStates.NONE;
+
+		Section s = sections[y / SECTION_HEIGHT];
+		if (s != null)
+			return s.blockStates.get(Section.getIndex(x, y % SECTION_HEIGHT, z));
+		else
+			return BlockStates.NONE;
+	}
 
+	public int getNumSections() {
+		return maxSections;
+	}
+
+	/** Summarises a section from its palettes and how many blocks use each entry, without looking at any blocks */
+	public SectionContents getSectionContents(final int sectionY) {
 		Section s = sections[sectionY];
+		if (s == null)
+			return SectionContents.ABSENT;
+
+		final int stateIndex = s.blockStates.getSinglePaletteIndex();
+		final int idIndex = s.blockIds.getSinglePaletteIndex();
+		if (stateIndex < 0 || idIndex < 0)
+			return SectionContents.MIXED;
+
+		final int blockStateId = s.blockStates.getPaletteValue(stateIndex);
+		final boolean air = blockStateId == BlockStates.NONE || BlockStates.isAir(blockStateId);
+		return air && s.blockIds.getPaletteValue(idIndex) == BlockIds.AIR ? SectionContents.AIR : SectionContents.UNIFORM;
+	}
+
+	public void setBlockStateId(final int x, final int y, final int z, final int blockStateId) {
+		Section s = getOrCreateSection(y);
+		s.blockStates.set(Section.getIndex(x, y % SECTION_HEIGHT, z), blockStateId);
+	}
+
+	public String getBlockName(final int x, final int y, final int z) {
+		Section s = sections[y / SECTION_HEIGHT];
 		if (s != null) {
-			return s.blockNames[Section.getIndex(x, localY, z)];
+			return BlockStates.getName(s.blockStates.get(Section.getIndex(x, y % SECTION_HEIGHT, z)));
 		} else {
 			return null;
 		}
 	}
 
 	public void setBlockName(final int x, final int y, final int z, final String blockName) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
+		Section s = getOrCreateSection(y);
+		final int index = Section.getIndex(x, y % SECTION_HEIGHT, z);
 
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
-
-		s.blockNames[Section.getIndex(x, localY, z)] = blockName;
+		final BlockProperties properties = BlockStates.getProperties(s.blockStates.get(index));
+		s.blockStates.set(index, BlockStates.intern(blockName, properties));
 	}
 
 	public BlockProperties getBlockState(final int x, final int y, final int z) {
@@ -1358,35 +1428,23 @@ public class RawChunk {
 
 		Section s = sections[sectionY];
 		if (s != null)
-			return s.blockStates[Section.getIndex(x, localY, z)];
+			return BlockStates.getProperties(s.blockStates.get(Section.getIndex(x, localY, z)));
 		else
 			return null;
 	}
 
 	public void setBlockState(final int x, final int y, final int z, final BlockProperties blockState) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
-
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
+		Section s = getOrCreateSection(y);
+		final int index = Section.getIndex(x, y % SECTION_HEIGHT, z);
 
-		s.blockStates[Section.getIndex(x, localY, z)] = blockState;
+		// Properties are interned along with the block name, so a position without a name has nowhere to keep them
+		final String name = BlockStates.getName(s.blockStates.get(index));
+		s.blockStates.set(index, BlockStates.intern(name, blockState));
 	}
 
 	public void setSkyLight(final int x, final int y, final int z, final byte val) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
-
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
-
-		s.skylight[Section.getIndex(x, localY, z)] = val;
+		Section s = getOrCreateSection(y);
+		s.skylight.set(Section.getIndex(x, y % SECTION_HEIGHT, z), val);
 	}
 
 	public byte getSkyLight(final int x, final int y, final int z) {
@@ -1395,22 +1453,14 @@ public class RawChunk {
 
 		Section s = sections[sectionY];
 		if (s != null && x >= 0 && localY >= 0 && z >= 0)  //TODO: Fix this (workaround for painting and stair problems)
-			return s.skylight[Section.getIndex(x, localY, z)];
+			return (byte) s.skylight.get(Section.getIndex(x, localY, z));
 		else
 			return MAX_LIGHT - 1;
 	}
 
 	public void setBlockLight(final int x, final int y, final int z, final byte val) {
-		final int sectionY = y / SECTION_HEIGHT;
-		final int localY = y % SECTION_HEIGHT;
-
-		Section s = sections[sectionY];
-		if (s == null) {
-			s = new Section();
-			sections[sectionY] = s;
-		}
-
-		s.blocklight[Section.getIndex(x, localY, z)] = val;
+		Section s = getOrCreateSection(y);
+		s.blocklight.set(Section.getIndex(x, y % SECTION_HEIGHT, z), val);
 	}
 
 	public byte getBlockLight(final int x, final int y, final int z) {
@@ -1419,11 +1469,22 @@ public class RawChunk {
 
 		Section s = sections[sectionY];
 		if (s != null && x >= 0 && localY >= 0 && z >= 0)  //TODO: Fix this (workaround for painting and stair problems)
-			return s.blocklight[Section.getIndex(x, localY, z)];
+			return (byte) s.blocklight.get(Section.getIndex(x, localY, z));
 		else
 			return 0;
 	}
 
+	private Section getOrCreateSection(final int y) {
+		final int sectionY = y / SECTION_HEIGHT;
+
+		Section s = sections[sectionY];
+		if (s == null) {
+			s = new Section();
+			sections[sectionY] = s;
+		}
+		return s;
+	}
+
 	public int getBlockIdClamped(final int x, final int y, final int z, final int defaultId) {
 		if (x < 0 || x >= WIDTH)
 			return defaultId;
@@ -1439,21 +1500,16 @@ public class RawChunk {
 		return new ChunkCoord(chunkX, chunkZ);
 	}
 
+	/** Approximate heap used by the block and light data, in bytes */
 	public long getMemorySize() {
-		int blockIdTotal = 0;
-		int skyLightTotal = 0;
-		int blockLightTotal = 0;
-		int blockDataTotal = 0;
+		long total = 0;
 		for (Section s : sections) {
 			if (s != null) {
-				blockIdTotal += s.blockIds.length;
-				skyLightTotal += s.skylight.length;
-				blockLightTotal += s.blocklight.length;
-				blockDataTotal += s.blockData.length;
+				total += s.getMemorySize();
 			}
 		}
 
-		return (long) blockIdTotal + blockDataTotal + skyLightTotal + blockLightTotal;
+		return total;
 	}
 
 	public Map<String, SignEntity> getSigns() {
@@ -1517,12 +1573,12 @@ public class RawChunk {
 
 		for (Section s : sections) {
 			if (s != null) {
-				update(hashAlgorithm, s.blockIds);
-				update(hashAlgorithm, s.blockData);
-				update(hashAlgorithm, s.blockNames);
+				update(hashAlgorithm, s.blockIds, false);
+				update(hashAlgorithm, s.blockData, false);
+				update(hashAlgorithm, s.blockStates, true);
 
-				update(hashAlgorithm, s.skylight);
-				update(hashAlgorithm, s.blocklight);
+				update(hashAlgorithm, s.skylight, false);
+				update(hashAlgorithm, s.blocklight, false);
 			} else {
 				byte[] dummy = new byte[3];
 				update(hashAlgorithm, dummy);
@@ -1542,21 +1598,23 @@ public class RawChunk {
 		return hashAlgorithm.digest();
 	}
 
-	private static void update(MessageDigest hashAlgorithm, int[] data) {
-                for (int val : data) {
-                        hashAlgorithm.update((byte) ((val) & 0xFF));
-                        hashAlgorithm.update((byte) ((val >> 8) & 0xFF));
-                        hashAlgorithm.update((byte) ((val >> 16) & 0xFF));
-                        hashAlgorithm.update((byte) ((val >> 24) & 0xFF));
+	private static void update(MessageDigest hashAlgorithm, PalettedArray data, boolean blockStates) {
+		// Interned ids vary between runs, so hash the states they stand for
+		hashAlgorithm.update(intToBytes(data.getPaletteSize()));
+		for (int i = 0; i < data.getPaletteSize(); i++) {
+			final int value = data.getPaletteValue(i);
+			if (blockStates) {
+				hashAlgorithm.update(BlockStates.getKey(value).getBytes());
+				hashAlgorithm.update((byte) 0);
+			} else {
+				hashAlgorithm.update(intToBytes(value));
+			}
 		}
+		data.updateIndices(hashAlgorithm);
 	}
 
-	private static void update(MessageDigest hashAlgorithm, String[] data) {
-            for (String s : data) {
-                if (s != null) {
-                    hashAlgorithm.update(s.getBytes());
-                }
-            }
+	private static byte[] intToBytes(final int val) {
+		return new byte[] { (byte) (val & 0xFF), (byte) ((val >> 8) & 0xFF), (byte) ((val >> 16) & 0xFF), (byte) ((val >> 24) & 0xFF) };
 	}
 
 	private static void update(MessageDigest hashAlgorithm, byte[] data) {
@@ -1577,7 +1635,7 @@ public class RawChunk {
 			final int localY = y % SECTION_HEIGHT;
 
 			Section s = sections[sectionY];
-			if (s != null) {
+			if (s != null && s.biomeIds != null) {
 				int xIndex = Math.floorDiv(x, 4);
 				int yIndex = Math.floorDiv(localY, 4);
 				int zIndex = Math.floorDiv(z, 4);
@@ -1595,57 +1653,37 @@ public class RawChunk {
 	}
 
 	private static class Section {
-		public int[] blockIds;
-		public byte[] blockData;
-		public String[] blockNames;
-		public BlockProperties[] blockStates;
+		/** Interned block states for 1.13+ chunks, see {@link BlockStates} */
+		private PalettedArray blockStates;
+
+		// Numeric ids and data values for chunks from before 1.13
+		private final PalettedArray blockIds;
+		private final PalettedArray blockData;
 
-		private final String[] biomeIds;
+		private PalettedArray skylight;
+		private PalettedArray blocklight;
 
-		public byte[] skylight;
-		public byte[] blocklight;
+		/** One id per 4x4x4 volume, only present for 1.18+ chunks */
+		private String[] biomeIds;
 
-		public Section() {                    
-			blockIds = new int[SECTION_SIZE];
-			blockData = new byte[SECTION_SIZE];
-			blockNames = new String[SECTION_SIZE];
-			blockStates = new BlockProperties[SECTION_SIZE];
-			biomeIds = new String[64];
+		public Section() {
+			// Every array starts out uniform, which costs next to nothing until something different is written to it
+			blockStates = new PalettedArray(SECTION_SIZE, BlockStates.NONE);
+			blockIds = new PalettedArray(SECTION_SIZE, BlockIds.AIR);
+			blockData = new PalettedArray(SECTION_SIZE, 0);
 
-			skylight = new byte[SECTION_SIZE];
-			blocklight = new byte[SECTION_SIZE];
+			skylight = new PalettedArray(SECTION_SIZE, 0);
+			blocklight = new PalettedArray(SECTION_SIZE, 0);
+		}
+
+		public long getMemorySize() {
+			return blockStates.getMemorySize() + blockIds.getMemorySize() + blockData.getMemorySize()
+					+ skylight.getMemorySize() + blocklight.getMemorySize() + (biomeIds != null ? 16 + biomeIds.length * 4L : 0);
 		}
-                
-                public static int getIndex(int x, int y, int z) {
-                    return x * SECTION_WIDTH * SECTION_WIDTH + y * SECTION_HEIGHT + z;
-                }
-	}
 
-	//TODO: for versions newer than 1.13 can we switch to using sections without the blockId and blockData arrays?
-//	private static class SectionNew {
-//		public String[][][] blockNames;
-//		public BlockProperties[][][] blockStates;
-//
-//		@Getter
-//		private final String[] biomeIds;
-//
-//		public byte[][][] skylight;
-//		public byte[][][] blocklight;
-//
-//		public SectionNew() {
-//			blockNames = new String[SECTION_WIDTH][SECTION_HEIGHT][SECTION_DEPTH];
-//			blockStates = new BlockProperties[SECTION_WIDTH][SECTION_HEIGHT][SECTION_DEPTH];
-//			biomeIds = new String[64];
-//
-//			skylight = new byte[SECTION_WIDTH][SECTION_HEIGHT][SECTION_DEPTH];
-//			blocklight = new byte[SECTION_WIDTH][SECTION_HEIGHT][SECTION_DEPTH];
-//		}
-//	}
-
-	@RequiredArgsConstructor
-	private static class BlockState {
-		private final String name;
-		private final BlockProperties properties;
+		public static int getIndex(int x, int y, int z) {
+			return x * SECTION_WIDTH * SECTION_WIDTH + y * SECTION_HEIGHT + z;
+		}
 	}
 
 	private static String textFromJSON(String rawMessage) {
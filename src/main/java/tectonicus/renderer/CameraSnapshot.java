@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/** An immutable copy of an {@link OrthoCamera}'s projection, which can be shared between threads
+ *  while the camera itself carries on being moved around.
+ *
+ *  Projects points exactly as {@link OrthoCamera#project(Vector3f)} would have at the time the snapshot was taken.
+ */
+public class CameraSnapshot
+{
+	private final Matrix4f viewProjection;
+	private final int[] viewport;
+	private final float viewportHeight;
+
+	CameraSnapshot(Matrix4f projectionMatrix, Matrix4f cameraMatrix, Rectangle viewport)
+	{
+		this.viewProjection = projectionMatrix.mul(cameraMatrix, new Matrix4f());
+		this.viewport = new int[] {(int)viewport.getX(), (int)viewport.getY(), (int)viewport.getWidth(), (int)viewport.getHeight()};
+		this.viewportHeight = (float)viewport.getHeight();
+	}
+
+	public Point project(Vector3f worldPos)
+	{
+		Vector3f windowCoords = viewProjection.project(worldPos.x, worldPos.y, worldPos.z, viewport, new Vector3f());
+		return new Point(Math.round(windowCoords.x), Math.round(viewportHeight - windowCoords.y));
+	}
+}
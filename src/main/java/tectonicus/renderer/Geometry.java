@@ -10,16 +10,20 @@
 package tectonicus.renderer;
 
 import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector3f;
 import tectonicus.rasteriser.Mesh;
 import tectonicus.rasteriser.Rasteriser;
 import tectonicus.rasteriser.Texture;
+import tectonicus.util.Colour4f;
 
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
+/** Block geometry in the rasteriser's meshes, ready to draw. See {@link GeometryData} for building it off the render thread. */
 @Slf4j
-public class Geometry
+public class Geometry implements GeometryBuilder
 {
 	public enum MeshType
 	{
@@ -34,6 +38,8 @@ public class Geometry
 	private final Mesh transparentMesh;
 	
 	private final Map<MeshType, Map<Texture, Mesh>> meshes;
+	
+	private QuadMerger quadMerger;
 
 	public Geometry(Rasteriser rasteriser)
 	{
@@ -67,8 +73,10 @@ public class Geometry
 	}
 	
 	// TODO: Refactor to remove these
+	@Override
 	public Mesh getBaseMesh() { return baseMesh; }
 	
+	@Override
 	public Mesh getMesh(Texture texture, MeshType type)
 	{
 		Map<Texture, Mesh> meshList = meshes.get(type);
@@ -83,8 +91,35 @@ public class Geometry
 		}
 	}
 	
+	@Override
+	public void enableQuadMerging(UnaryOperator<Texture> repeatingTextures)
+	{
+		quadMerger = new QuadMerger(repeatingTextures);
+	}
+	
+	/** Keeps the stats of a quad merger which has already been flushed into this geometry's meshes */
+	void setMergedQuadStats(QuadMerger quadMerger)
+	{
+		this.quadMerger = quadMerger;
+	}
+	
+	@Override
+	public boolean isMergingQuads()
+	{
+		return quadMerger != null;
+	}
+	
+	@Override
+	public boolean addMergeableFace(Texture texture, MeshType type, Colour4f colour, Vector3f topLeft, Vector3f topRight, Vector3f bottomRight, Vector3f bottomLeft)
+	{
+		return quadMerger != null && quadMerger.add(texture, type, colour, topLeft, topRight, bottomRight, bottomLeft);
+	}
+	
 	public void finalise()
 	{
+		if (quadMerger != null)
+			quadMerger.flush(this);
+		
 		baseMesh.finalise();
 		transparentMesh.finalise();
 		
@@ -142,6 +177,12 @@ public class Geometry
 		return baseSize + size;
 	}
 
+	public int getTotalVertices()
+	{
+		return baseMesh.getTotalVertices() + transparentMesh.getTotalVertices()
+				+ countVertices(MeshType.Solid) + countVertices(MeshType.AlphaTest) + countVertices(MeshType.Transparent);
+	}
+
 	public void printGeometryStats()
 	{
 		final int baseVerts = countVertices(MeshType.Solid);
@@ -152,6 +193,15 @@ public class Geometry
 		log.info("\tbase vertices: {}", baseMesh.getTotalVertices() + baseVerts);
 		log.info("\talpha vertices: {}", alphaTestVerts);
 		log.info("\ttransparent vertices: {}", transparentMesh.getTotalVertices() + transparentVerts);
+		
+		if (quadMerger != null)
+		{
+			final int mergedFaces = quadMerger.getNumFacesAdded();
+			final int mergedQuads = quadMerger.getNumQuadsEmitted();
+			
+			log.info("\tmerged cube faces: {} into {} quads", mergedFaces, mergedQuads);
+			log.info("\tbase vertices before merging: {}", baseMesh.getTotalVertices() + baseVerts + (mergedFaces - mergedQuads) * 4);
+		}
 	}
 	
 	private int countVertices(MeshType type)
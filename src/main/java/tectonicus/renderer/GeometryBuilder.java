@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Vector3f;
+import tectonicus.rasteriser.Texture;
+import tectonicus.rasteriser.VertexSink;
+import tectonicus.renderer.Geometry.MeshType;
+import tectonicus.util.Colour4f;
+
+import java.util.function.UnaryOperator;
+
+/** What block types add their geometry to. Implemented by {@link Geometry}, which writes straight into rasteriser
+ *  meshes, and by {@link GeometryData}, which only collects vertex arrays so it can be filled off the render thread. */
+public interface GeometryBuilder {
+	VertexSink getBaseMesh();
+
+	VertexSink getMesh(Texture texture, MeshType type);
+
+	/** Merges the faces of plain cubes into larger quads from now on, see {@link QuadMerger}.
+	 *  @param repeatingTextures gives the repeat wrapped copy of a texture the merged quads are drawn with, or null if
+	 *  faces with that texture can't be merged */
+	void enableQuadMerging(UnaryOperator<Texture> repeatingTextures);
+
+	boolean isMergingQuads();
+
+	/** @return true if the face was taken by the quad merger, false if it must be added to a mesh as normal */
+	boolean addMergeableFace(Texture texture, MeshType type, Colour4f colour, Vector3f topLeft, Vector3f topRight, Vector3f bottomRight, Vector3f bottomLeft);
+}
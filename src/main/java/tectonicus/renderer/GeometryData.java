@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Vector3f;
+import tectonicus.rasteriser.MeshData;
+import tectonicus.rasteriser.Rasteriser;
+import tectonicus.rasteriser.Texture;
+import tectonicus.renderer.Geometry.MeshType;
+import tectonicus.util.Colour4f;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/** The vertex arrays of block geometry, per mesh type and texture, built without calling the rasteriser so it can
+ *  be filled on any thread. Turn it into drawable {@link Geometry} on the rasteriser's thread with {@link #upload(Rasteriser)}. */
+public class GeometryData implements GeometryBuilder {
+	private final MeshData baseMesh;
+
+	private final Map<MeshType, Map<Texture, MeshData>> meshes;
+
+	private QuadMerger quadMerger;
+
+	public GeometryData() {
+		baseMesh = new MeshData(null);
+
+		meshes = new EnumMap<>(MeshType.class);
+		for (MeshType type : MeshType.values())
+			meshes.put(type, new HashMap<>());
+	}
+
+	@Override
+	public MeshData getBaseMesh() {
+		return baseMesh;
+	}
+
+	@Override
+	public MeshData getMesh(Texture texture, MeshType type) {
+		return meshes.get(type).computeIfAbsent(texture, MeshData::new);
+	}
+
+	/** @return the meshes of one type, keyed by their texture */
+	public Map<Texture, MeshData> getMeshes(MeshType type) {
+		return meshes.get(type);
+	}
+
+	@Override
+	public void enableQuadMerging(UnaryOperator<Texture> repeatingTextures) {
+		quadMerger = new QuadMerger(repeatingTextures);
+	}
+
+	@Override
+	public boolean isMergingQuads() {
+		return quadMerger != null;
+	}
+
+	@Override
+	public boolean addMergeableFace(Texture texture, MeshType type, Colour4f colour, Vector3f topLeft, Vector3f topRight, Vector3f bottomRight, Vector3f bottomLeft) {
+		return quadMerger != null && quadMerger.add(texture, type, colour, topLeft, topRight, bottomRight, bottomLeft);
+	}
+
+	/** Adds the quads still held by the quad merger, call this once all blocks have been added */
+	public void finalise() {
+		if (quadMerger != null)
+			quadMerger.flush(this);
+	}
+
+	/** Copies the vertex arrays into meshes of the rasteriser. This is the only part of building chunk geometry
+	 *  which has to happen on the rasteriser's thread.
+	 *  @return new finalised geometry ready to draw */
+	public Geometry upload(Rasteriser rasteriser) {
+		Geometry geometry = new Geometry(rasteriser);
+
+		baseMesh.copyTo(geometry.getBaseMesh());
+
+		for (Map.Entry<MeshType, Map<Texture, MeshData>> entry : meshes.entrySet()) {
+			for (MeshData m : entry.getValue().values()) {
+				if (m.getTotalVertices() > 0)
+					m.copyTo(geometry.getMesh(m.getTexture(), entry.getKey()));
+			}
+		}
+
+		geometry.finalise();
+
+		// Already flushed into the meshes above, only kept for the stats
+		geometry.setMergedQuadStats(quadMerger);
+
+		return geometry;
+	}
+
+	public long getMemorySize() {
+		long size = baseMesh.getMemorySize();
+		for (Map<Texture, MeshData> meshMap : meshes.values())
+			for (MeshData m : meshMap.values())
+				size += m.getMemorySize();
+
+		return size;
+	}
+
+	public int getTotalVertices() {
+		int vertCount = baseMesh.getTotalVertices();
+		for (Map<Texture, MeshData> meshMap : meshes.values())
+			for (MeshData m : meshMap.values())
+				vertCount += m.getTotalVertices();
+
+		return vertCount;
+	}
+}
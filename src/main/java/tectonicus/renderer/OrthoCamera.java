@@ -179,6 +179,12 @@ public class OrthoCamera implements Camera
 		return new Point(Math.round(p.x), Math.round(p.y));
 	}
 	
+	/** Takes a copy of the current projection which can be used from any thread */
+	public CameraSnapshot snapshot()
+	{
+		return new CameraSnapshot(projectionMatrix, cameraMatrix, viewport);
+	}
+	
 	public Vector2f projectf(Vector3f worldPos)
 	{
 		return Project.project(worldPos, projectionMatrix, cameraMatrix, viewport);
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Vector3f;
+import tectonicus.rasteriser.Texture;
+import tectonicus.rasteriser.VertexSink;
+import tectonicus.renderer.Geometry.MeshType;
+import tectonicus.util.Colour4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/** Collects the whole faces of plain cube blocks and greedily merges neighbouring faces which lie in the same plane
+ *  and share a texture and colour into larger quads.
+ *
+ *  Faces are given as a unit square on the block grid, with the texture covering it exactly once. The merged quad
+ *  repeats the texture once per block, so it is drawn with a copy of the face's texture which has repeat wrapping.
+ */
+public class QuadMerger
+{
+	/** Gives the repeat wrapped copy of a texture, or null if there isn't one */
+	private final UnaryOperator<Texture> repeatingTextures;
+
+	private final Map<FaceGroup, Set<Long>> groups;
+
+	private int numFacesAdded;
+	private int numQuadsEmitted;
+
+	public QuadMerger(UnaryOperator<Texture> repeatingTextures)
+	{
+		this.repeatingTextures = repeatingTextures;
+		groups = new HashMap<>();
+	}
+
+	/** Adds a face if it can be merged
+	 *  @return false if the face isn't a unit square on the block grid or its texture has no repeat wrapped copy,
+	 *  in which case the caller must add it itself
+	 */
+	public boolean add(Texture texture, MeshType meshType, Colour4f colour, Vector3f topLeft, Vector3f topRight, Vector3f bottomRight, Vector3f bottomLeft)
+	{
+		if (!isGridPoint(topLeft))
+			return false;
+
+		final int uAxis = findUnitAxis(topLeft, topRight);
+		final int vAxis = findUnitAxis(topLeft, bottomLeft);
+		if (uAxis == 0 || vAxis == 0 || Math.abs(uAxis) == Math.abs(vAxis))
+			return false;
+
+		// The last corner has to close the square
+		if (bottomRight.x != topRight.x + bottomLeft.x - topLeft.x
+				|| bottomRight.y != topRight.y + bottomLeft.y - topLeft.y
+				|| bottomRight.z != topRight.z + bottomLeft.z - topLeft.z)
+			return false;
+
+		final Texture repeatingTexture = repeatingTextures.apply(texture);
+		if (repeatingTexture == null)
+			return false;
+
+		final int normalAxis = 6 - Math.abs(uAxis) - Math.abs(vAxis);
+
+		FaceGroup group = new FaceGroup(repeatingTexture, meshType, uAxis, vAxis, (int) component(topLeft, normalAxis), colour);
+		final int u = (int) (component(topLeft, uAxis) * Integer.signum(uAxis));
+		final int v = (int) (component(topLeft, vAxis) * Integer.signum(vAxis));
+
+		groups.computeIfAbsent(group, g -> new HashSet<>()).add(toKey(u, v));
+		numFacesAdded++;
+
+		return true;
+	}
+
+	/** Merges every face added so far and adds the resulting quads to the geometry */
+	public void flush(GeometryBuilder geometry)
+	{
+		for (Map.Entry<FaceGroup, Set<Long>> entry : groups.entrySet())
+		{
+			FaceGroup group = entry.getKey();
+			VertexSink mesh = geometry.getMesh(group.texture, group.meshType);
+
+			for (Quad quad : merge(entry.getValue()))
+			{
+				Vector3f topLeft = group.toPosition(quad.u, quad.v);
+				Vector3f topRight = group.toPosition(quad.u + quad.width, quad.v);
+				Vector3f bottomRight = group.toPosition(quad.u + quad.width, quad.v + quad.height);
+				Vector3f bottomLeft = group.toPosition(quad.u, quad.v + quad.height);
+
+				mesh.addVertex(topLeft, group.colour, 0, 0);
+				mesh.addVertex(topRight, group.colour, quad.width, 0);
+				mesh.addVertex(bottomRight, group.colour, quad.width, quad.height);
+				mesh.addVertex(bottomLeft, group.colour, 0, quad.height);
+				numQuadsEmitted++;
+			}
+		}
+
+		groups.clear();
+	}
+
+	/** @return the number of faces passed to the merger */
+	public int getNumFacesAdded()
+	{
+		return numFacesAdded;
+	}
+
+	/** @return the number of quads the faces were merged into */
+	public int getNumQuadsEmitted()
+	{
+		return numQuadsEmitted;
+	}
+
+	/** Greedily covers a set of cells with rectangles, growing each one along u first and then along v */
+	static List<Quad> merge(Set<Long> cells)
+	{
+		List<Long> sorted = new ArrayList<>(cells);
+		sorted.sort((a, b) -> {
+			final int result = Integer.compare(vOf(a), vOf(b));
+			return result != 0 ? result : Integer.compare(uOf(a), uOf(b));
+		});
+
+		Set<Long> remaining = new HashSet<>(cells);
+		List<Quad> quads = new ArrayList<>();
+
+		for (long cell : sorted)
+		{
+			if (!remaining.contains(cell))
+				continue;
+
+			final int u = uOf(cell);
+			final int v = vOf(cell);
+
+			int width = 1;
+			while (remaining.contains(toKey(u + width, v)))
+				width++;
+
+			int height = 1;
+			while (isRowFree(remaining, u, v + height, width))
+				height++;
+
+			for (int dv=0; dv<height; dv++)
+				for (int du=0; du<width; du++)
+					remaining.remove(toKey(u + du, v + dv));
+
+			quads.add(new Quad(u, v, width, height));
+		}
+
+		return quads;
+	}
+
+	private static boolean isRowFree(Set<Long> remaining, final int u, final int v, final int width)
+	{
+		for (int du=0; du<width; du++)
+		{
+			if (!remaining.contains(toKey(u + du, v)))
+				return false;
+		}
+		return true;
+	}
+
+	static long toKey(final int u, final int v)
+	{
+		return ((long) u << 32) | (v & 0xFFFFFFFFL);
+	}
+
+	private static int uOf(final long key)
+	{
+		return (int) (key >> 32);
+	}
+
+	private static int vOf(final long key)
+	{
+		return (int) key;
+	}
+
+	private static boolean isGridPoint(Vector3f p)
+	{
+		return p.x == Math.floor(p.x) && p.y == Math.floor(p.y) && p.z == Math.floor(p.z);
+	}
+
+	/** @return the axis from one corner to the other as +/-1, 2 or 3 for x, y or z, or 0 if they aren't one block apart along a single axis */
+	private static int findUnitAxis(Vector3f from, Vector3f to)
+	{
+		final float dx = to.x - from.x;
+		final float dy = to.y - from.y;
+		final float dz = to.z - from.z;
+
+		if (Math.abs(dx) == 1 && dy == 0 && dz == 0)
+			return (int) dx;
+		if (dx == 0 && Math.abs(dy) == 1 && dz == 0)
+			return 2 * (int) dy;
+		if (dx == 0 && dy == 0 && Math.abs(dz) == 1)
+			return 3 * (int) dz;
+
+		return 0;
+	}
+
+	private static float component(Vector3f p, final int axis)
+	{
+		switch (Math.abs(axis))
+		{
+			case 1: return p.x;
+			case 2: return p.y;
+			default: return p.z;
+		}
+	}
+
+	static class Quad
+	{
+		final int u, v;
+		final int width, height;
+
+		Quad(final int u, final int v, final int width, final int height)
+		{
+			this.u = u;
+			this.v = v;
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+	/** Faces which can be merged with each other: same plane, same orientation and same appearance */
+	private static class FaceGroup
+	{
+		private final Texture texture;
+		private final MeshType meshType;
+		private final int uAxis, vAxis;
+		private final int plane;
+		private final Colour4f colour;
+
+		private FaceGroup(Texture texture, MeshType meshType, final int uAxis, final int vAxis, final int plane, Colour4f colour)
+		{
+			this.texture = texture;
+			this.meshType = meshType;
+			this.uAxis = uAxis;
+			this.vAxis = vAxis;
+			this.plane = plane;
+			this.colour = new Colour4f(colour);
+		}
+
+		private Vector3f toPosition(final int u, final int v)
+		{
+			Vector3f position = new Vector3f();
+			set(position, 6 - Math.abs(uAxis) - Math.abs(vAxis), plane);
+			set(position, uAxis, u * Integer.signum(uAxis));
+			set(position, vAxis, v * Integer.signum(vAxis));
+			return position;
+		}
+
+		private static void set(Vector3f p, final int axis, final float value)
+		{
+			switch (Math.abs(axis))
+			{
+				case 1: p.x = value; break;
+				case 2: p.y = value; break;
+				default: p.z = value; break;
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof FaceGroup))
+				return false;
+
+			FaceGroup other = (FaceGroup) obj;
+			return texture == other.texture && meshType == other.meshType
+					&& uAxis == other.uAxis && vAxis == other.vAxis && plane == other.plane
+					&& Float.compare(colour.r, other.colour.r) == 0 && Float.compare(colour.g, other.colour.g) == 0
+					&& Float.compare(colour.b, other.colour.b) == 0 && Float.compare(colour.a, other.colour.a) == 0;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int hash = System.identityHashCode(texture);
+			hash = 31 * hash + meshType.hashCode();
+			hash = 31 * hash + uAxis;
+			hash = 31 * hash + vAxis;
+			hash = 31 * hash + plane;
+			hash = 31 * hash + Float.hashCode(colour.r);
+			hash = 31 * hash + Float.hashCode(colour.g);
+			hash = 31 * hash + Float.hashCode(colour.b);
+			hash = 31 * hash + Float.hashCode(colour.a);
+			return hash;
+		}
+	}
+}
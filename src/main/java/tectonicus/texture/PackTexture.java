@@ -43,6 +43,8 @@ public class PackTexture
 	
 	private Texture fullTexture;
 	private Texture tileTexture;
+	/** A copy of the full texture with repeat wrapping, only made for textures used by merged quads */
+	private Texture repeatingTexture;
 	
 	private Map<TextureRequest, SubTexture> subTextures;
 	
@@ -97,6 +99,18 @@ public class PackTexture
 		return new SubTexture(fullTexture, 0, 0, 1, 1);
 	}
 	
+	/** @return a copy of the full texture with repeat wrapping if the given texture is the full texture, otherwise null */
+	public Texture findRepeatingTexture(Texture texture)
+	{
+		if (texture != fullTexture)
+			return null;
+		
+		if (repeatingTexture == null)
+			repeatingTexture = rasteriser.createTexture(image, TextureFilter.NEAREST, true);
+		
+		return repeatingTexture;
+	}
+	
 	private void genTileTexture()
 	{
 		BufferedImage[] mipmaps = PackTexture.generateTileMips(image);
@@ -100,7 +100,10 @@ public class TexturePack
 	@Getter
 	private final ZipStack zipStack;
 	
+	// Textures are also looked up while building chunk geometry off the render thread, so access is synchronized on the pack
 	private final Map<String, PackTexture> loadedPackTextures;
+	/** Repeat wrapped copies of pack textures, keyed by the texture they copy, see {@link #findRepeatingTexture(Texture)} */
+	private final Map<Texture, Texture> repeatingTextures;
 	@Getter
 	private final Map<String, BufferedImage> bannerPatternImages;
 	private final List<String> dataPacks;
@@ -117,6 +120,7 @@ public class TexturePack
 		this.dataPacks = dataPacks;
 		
 		loadedPackTextures = new HashMap<>();
+		repeatingTextures = new HashMap<>();
 
 		try {
 			if (config.isUsingProgrammerArt()) { //programmer art resource pack added in 1.14
@@ -332,11 +336,11 @@ public class TexturePack
 		return result.trim();
 	}
 
-	public PackTexture getPackTexture(String path) {
+	public synchronized PackTexture getPackTexture(String path) {
 		return loadedPackTextures.get(path);
 	}
 	
-	public SubTexture findTextureOrDefault(String texturePath, SubTexture defaultTexture) {
+	public synchronized SubTexture findTextureOrDefault(String texturePath, SubTexture defaultTexture) {
 		SubTexture result;
 		TextureRequest request = parseRequest(texturePath);
 		PackTexture tex = findTexture(request); // find existing PackTexture or load
@@ -354,7 +358,7 @@ public class TexturePack
 		return findTextureOrDefault(texturePath, null);
 	}
 	
-	public SubTexture findPalettedTexture(String texturePath, String palettePath, String keyPalettePath) {
+	public synchronized SubTexture findPalettedTexture(String texturePath, String palettePath, String keyPalettePath) {
 		if (texturePath == null || palettePath == null || keyPalettePath == null)
 			return null;
 		
@@ -507,7 +511,25 @@ public class TexturePack
 		return tex;
 	}
 	
-	public SubTexture findTexture(BufferedImage img, String path) {
+	/** Finds the copy with repeat wrapping of a full pack texture, making it the first time it's asked for. Only textures
+	 *  drawn on merged quads need one, the rest keep just the default clamped texture.
+	 *  @return the repeating copy, or null if the texture isn't the full texture of a pack texture */
+	public synchronized Texture findRepeatingTexture(Texture texture) {
+		Texture repeating = repeatingTextures.get(texture);
+		if (repeating == null) {
+			for (PackTexture packTexture : loadedPackTextures.values()) {
+				repeating = packTexture.findRepeatingTexture(texture);
+				if (repeating != null) {
+					repeatingTextures.put(texture, repeating);
+					break;
+				}
+			}
+		}
+		
+		return repeating;
+	}
+	
+	public synchronized SubTexture findTexture(BufferedImage img, String path) {
 		return loadedPackTextures.computeIfAbsent(path, p -> new PackTexture(rasteriser, p, img)).getFullTexture();
 	}
         
@@ -14,7 +14,6 @@ import tectonicus.Block;
 import tectonicus.BlockIds;
 import tectonicus.Minecraft;
 import tectonicus.Portal;
-import tectonicus.cache.swap.HddObjectListWriter;
 import tectonicus.chunk.ChunkCoord;
 import tectonicus.configuration.filter.BeaconFilter;
 import tectonicus.configuration.filter.ChestFilter;
@@ -35,7 +34,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 @UtilityClass
 public class FindEntityUtil {
-	public static void findSigns(RawChunk chunk, HddObjectListWriter<Sign> signs, SignFilter filter) {
+	public static void findSigns(RawChunk chunk, Queue<Sign> signs, SignFilter filter) {
                 for (SignEntity s : chunk.getSigns().values()) {
                         if (filter.passesFilter(s)) {
                                 Sign sign = new Sign(s);
@@ -44,7 +43,7 @@ public class FindEntityUtil {
                 }
 	}
 
-	public static void findPortals(RawChunk chunk, HddObjectListWriter<Portal> portals, PortalFilter filter) {
+	public static void findPortals(RawChunk chunk, Queue<Portal> portals, PortalFilter filter) {
 		for (int x = 0; x < RawChunk.WIDTH; x++) {
 			for (int y = 1; y < Minecraft.getChunkHeight() - 1; y++) {
 				for (int z = 0; z < RawChunk.DEPTH; z++) {
@@ -107,7 +106,7 @@ public class FindEntityUtil {
 		}
 	}
 
-	public static void findViews(RawChunk chunk, HddObjectListWriter<Sign> views, ViewFilter filter) {
+	public static void findViews(RawChunk chunk, Queue<Sign> views, ViewFilter filter) {
                 for (SignEntity s : chunk.getSigns().values()) {
                         if (filter.passesFilter(s)) {
                                 Sign sign = new Sign(s);
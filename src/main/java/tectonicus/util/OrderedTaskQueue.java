@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/** Runs tasks on a fork join pool but hands their results back on the calling thread in the order they were submitted,
+ *  so that merging them gives exactly the same output as running them one after another.
+ *
+ *  Only a limited number of tasks are kept in flight so that results don't pile up faster than they are consumed.
+ */
+public class OrderedTaskQueue<T>
+{
+	private final ForkJoinPool pool;
+	private final int maxInFlight;
+	private final Consumer<T> consumer;
+
+	private final ArrayDeque<ForkJoinTask<T>> inFlight;
+
+	public OrderedTaskQueue(ForkJoinPool pool, Consumer<T> consumer)
+	{
+		this.pool = pool;
+		this.maxInFlight = pool.getParallelism() * 4;
+		this.consumer = consumer;
+		this.inFlight = new ArrayDeque<>();
+	}
+
+	public void submit(Callable<T> task)
+	{
+		inFlight.add(pool.submit(task));
+
+		while (inFlight.size() > maxInFlight)
+			consumer.accept(inFlight.poll().join());
+	}
+
+	/** Waits for every submitted task and consumes the remaining results */
+	public void finish()
+	{
+		while (!inFlight.isEmpty())
+			consumer.accept(inFlight.poll().join());
+	}
+}
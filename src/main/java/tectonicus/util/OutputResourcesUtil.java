@@ -33,6 +33,7 @@ import tectonicus.itemmodeldefinitionregistry.ItemModelDefinition;
 import tectonicus.itemmodeldefinitionregistry.ItemModelDefinitionRegistry;
 import tectonicus.itemregistry.ItemModel;
 import tectonicus.itemregistry.ItemRegistry;
+import tectonicus.metrics.Metrics;
 import tectonicus.rasteriser.Rasteriser;
 import tectonicus.raw.ArmorTrimTag;
 import tectonicus.raw.BeaconEntity;
@@ -1285,6 +1286,7 @@ public class OutputResourcesUtil {
 			stats.put("peakMemoryBytes", memoryMonitor.getPeakMemory());
 
 			jsWriter.write("stats", stats);
+			jsWriter.write("renderMetrics", Metrics.summary());
 		} catch (Exception e) {
 			log.error("Exception: ", e);
 		}
@@ -13,10 +13,12 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import java.util.Collection;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import tectonicus.chunk.Chunk;
 import tectonicus.chunk.ChunkCoord;
@@ -32,22 +34,36 @@ class ChunkCache
         
         }
     
+	/** Chunks are weighed in kilobytes so large budgets and chunks fit in Caffeine's int weights */
+	private static final long WEIGHT_UNIT = 1024;
+	
 	protected final Cache<ChunkCoord, Chunk> chunks;
         private final Function<ChunkCoord, Chunk> getChunk;
         private final ConcurrentLinkedQueue<Chunk> invalidatedChunks;
 	
-	public ChunkCache(int maxSize, Function<ChunkCoord, Chunk> getChunk)
+	/** @param maxBytes how much memory the cached chunks may use in total, as measured by {@code sizeOf} */
+	public ChunkCache(long maxBytes, ToLongFunction<Chunk> sizeOf, Function<ChunkCoord, Chunk> getChunk)
 	{
 		chunks = Caffeine.newBuilder()
-                        .maximumSize(maxSize)
+                        .maximumWeight(Math.max(maxBytes / WEIGHT_UNIT, 1))
+                        .weigher((ChunkCoord coord, Chunk chunk) -> toWeight(sizeOf.applyAsLong(chunk)))
                         .evictionListener(new RawCacheRemovalListener())
+                        .recordStats()
                         .build();
                 this.getChunk = getChunk;
                 invalidatedChunks = new ConcurrentLinkedQueue<>();
 	}
 	
+	/** Every chunk weighs at least one unit, since Caffeine never evicts entries with no weight */
+	private static int toWeight(final long bytes)
+	{
+		return (int) Math.min(Math.max(bytes / WEIGHT_UNIT, 1), Integer.MAX_VALUE);
+	}
+	
 	public void unloadAll()
 	{
+		// The eviction listener isn't told about explicit invalidation, so queue everything up for unloading here
+		invalidatedChunks.addAll(chunks.asMap().values());
 		chunks.invalidateAll();
                 unloadInvalidatedChunks();
 	}
@@ -62,6 +78,18 @@ class ChunkCache
 		return chunks.get(coord, getChunk);
 	}
 	
+	/** @return true if the chunk is in the cache, without loading it if it isn't */
+	public boolean contains(ChunkCoord coord)
+	{
+		return chunks.asMap().containsKey(coord);
+	}
+	
+	/** @return hits, misses and loads since the cache was created. Only {@link #get} counts towards these */
+	public CacheStats stats()
+	{
+		return chunks.stats();
+	}
+	
 	public Collection<Chunk> values()
 	{
 		return chunks.asMap().values();
@@ -77,8 +105,8 @@ class ChunkCache
                 while ((chunk = invalidatedChunks.poll()) != null) {
                         
                         // Check whether the chunk is not currently in cache. It could have been re-added
-                        // in which case we can not unload it.
-                        if (chunks.getIfPresent(chunk.getCoord()) != null)
+                        // in which case we can not unload it. Checked through the map so it doesn't count as a miss.
+                        if (chunks.asMap().containsKey(chunk.getCoord()))
                         {
                             continue;
                         }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.world;
+
+import tectonicus.BlockContext;
+import tectonicus.BlockType;
+import tectonicus.Minecraft;
+import tectonicus.blockregistry.BlockRegistry;
+import tectonicus.blockregistry.BlockStateWrapper;
+import tectonicus.cache.PlayerSkinCache;
+import tectonicus.chunk.Chunk;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.configuration.LightFace;
+import tectonicus.configuration.LightStyle;
+import tectonicus.paintingregistry.PaintingRegistry;
+import tectonicus.raw.Biome;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+import tectonicus.raw.RawChunk;
+import tectonicus.texture.TexturePack;
+import tectonicus.util.Colour4f;
+
+/** A chunk and the eight chunks around it, for building the chunk's geometry without going through the world for
+ *  every neighbour lookup.
+ *
+ *  Block states and light for the chunk plus a one block border are copied into flat arrays up front, so the lookups
+ *  made for every face (neighbour culling and smooth lighting) are just index arithmetic. Anything else inside the
+ *  surrounding chunks is read straight from them, and anything further away, along with biome colours, is passed
+ *  on to the world. Results are always the same as asking the world directly.
+ */
+public class ChunkNeighbourhood implements BlockContext
+{
+	private static final int PADDED_WIDTH = RawChunk.WIDTH + 2;
+	private static final int PADDED_DEPTH = RawChunk.DEPTH + 2;
+
+	private final World world;
+	private final ChunkCoord centre;
+	private final int height;
+
+	/** Raw chunks in rows of increasing z, null where a chunk isn't loaded */
+	private final RawChunk[] chunks;
+
+	private final int[] blockStateIds;
+	private final byte[] skyLight;
+	private final byte[] blockLight;
+
+	// What the world returns for positions with no chunk
+	private final int defaultBlockId;
+	private final BlockType defaultBlockType;
+	private final BlockStateWrapper defaultBlock;
+	private final Biome defaultBiome;
+
+	private final LightStyle lightStyle;
+	private final float nightLightAdjustment;
+
+	public ChunkNeighbourhood(World world, RawChunk rawChunk)
+	{
+		this.world = world;
+		this.centre = rawChunk.getChunkCoord();
+		this.height = Minecraft.getChunkHeight();
+
+		chunks = new RawChunk[9];
+		for (int dz=-1; dz<=1; dz++)
+		{
+			for (int dx=-1; dx<=1; dx++)
+			{
+				chunks[(dz+1) * 3 + (dx+1)] = (dx == 0 && dz == 0) ? rawChunk : world.getRawChunk(new ChunkCoord(centre.x + dx, centre.z + dz));
+			}
+		}
+
+		// Positions below the world never have a chunk, so these are the world's defaults
+		defaultBlockId = world.getBlockId(centre, 0, -1, 0);
+		defaultBlockType = world.getBlockType(centre, 0, -1, 0);
+		defaultBlock = world.getBlock(centre, 0, -1, 0);
+		defaultBiome = world.getBiome(centre, 0, -1, 0);
+
+		lightStyle = world.getLightStyle();
+		nightLightAdjustment = world.getNightLightAdjustment();
+
+		final int size = PADDED_WIDTH * PADDED_DEPTH * height;
+		blockStateIds = new int[size];
+		skyLight = new byte[size];
+		blockLight = new byte[size];
+
+		for (int pz=0; pz<PADDED_DEPTH; pz++)
+		{
+			for (int px=0; px<PADDED_WIDTH; px++)
+			{
+				RawChunk raw = findChunk(px - 1, pz - 1);
+				if (raw == null)
+					continue;
+
+				final int x = Math.floorMod(px - 1, RawChunk.WIDTH);
+				final int z = Math.floorMod(pz - 1, RawChunk.DEPTH);
+
+				for (int y=0; y<height; y++)
+				{
+					final int index = getPaddedIndex(px, y, pz);
+					blockStateIds[index] = raw.getBlockStateId(x, y, z);
+
+					// Light isn't used at all without a light style
+					if (lightStyle != LightStyle.None)
+					{
+						skyLight[index] = (byte) Chunk.getSkyLight(raw, x, y, z);
+						blockLight[index] = (byte) Chunk.getBlockLight(raw, x, y, z);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public int getBlockId(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (!isInNeighbourhood(rx, rz))
+			return world.getBlockId(chunkCoord, x, y, z);
+
+		if (y < 0 || y >= height)
+			return defaultBlockId;
+
+		RawChunk raw = findChunk(rx, rz);
+		if (raw == null)
+			return defaultBlockId;
+
+		return raw.getBlockId(Math.floorMod((int) rx, RawChunk.WIDTH), y, Math.floorMod((int) rz, RawChunk.DEPTH));
+	}
+
+	@Override
+	public BlockType getBlockType(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (!isInNeighbourhood(rx, rz))
+			return world.getBlockType(chunkCoord, x, y, z);
+
+		if (y < 0 || y >= height)
+			return defaultBlockType;
+
+		RawChunk raw = findChunk(rx, rz);
+		if (raw == null)
+			return defaultBlockType;
+
+		final int localX = Math.floorMod((int) rx, RawChunk.WIDTH);
+		final int localZ = Math.floorMod((int) rz, RawChunk.DEPTH);
+
+		final int blockStateId = raw.getBlockStateId(localX, y, localZ);
+		if (blockStateId != BlockStates.NONE)
+			return world.getBlockTypeRegistry().find(BlockStates.getName(blockStateId));
+
+		return world.getBlockTypeRegistry().find(raw.getBlockId(localX, y, localZ), raw.getBlockData(localX, y, localZ));
+	}
+
+	@Override
+	public BlockStateWrapper getBlock(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		if (y < 0 || y >= height)
+			return defaultBlock;
+
+		final String name = BlockStates.getName(getBlockStateId(chunkCoord, x, y, z));
+		if (name == null)
+			return defaultBlock;
+
+		BlockStateWrapper block = world.getModelRegistry().getBlock(name);
+		if (block == null)
+			return world.getBlock(chunkCoord, x, y, z); // Let the world report the unknown block
+
+		return block;
+	}
+
+	@Override
+	public BlockStateWrapper getBlock(RawChunk rawChunk, int x, int y, int z)
+	{
+		return world.getBlock(rawChunk, x, y, z);
+	}
+
+	@Override
+	public BlockProperties getBlockState(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (!isInNeighbourhood(rx, rz))
+			return world.getBlockState(chunkCoord, x, y, z);
+
+		if (y < 0 || y >= height)
+			return null;
+
+		RawChunk raw = findChunk(rx, rz);
+		if (raw == null)
+			return null;
+
+		return raw.getBlockState(Math.floorMod((int) rx, RawChunk.WIDTH), y, Math.floorMod((int) rz, RawChunk.DEPTH));
+	}
+
+	@Override
+	public int getBlockStateId(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		if (y < 0 || y >= height)
+			return BlockStates.NONE;
+
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (isInPadding(rx, rz))
+			return blockStateIds[getPaddedIndex((int) rx + 1, y, (int) rz + 1)];
+
+		if (!isInNeighbourhood(rx, rz))
+			return world.getBlockStateId(chunkCoord, x, y, z);
+
+		RawChunk raw = findChunk(rx, rz);
+		if (raw == null)
+			return BlockStates.NONE;
+
+		return raw.getBlockStateId(Math.floorMod((int) rx, RawChunk.WIDTH), y, Math.floorMod((int) rz, RawChunk.DEPTH));
+	}
+
+	@Override
+	public float getLight(ChunkCoord chunkCoord, final int x, final int y, final int z, LightFace face)
+	{
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (!isInPadding(rx, rz))
+			return world.getLight(chunkCoord, x, y, z, face);
+
+		if (y < 0 || y >= height || lightStyle == LightStyle.None || findChunk(rx, rz) == null)
+			return Chunk.getLight(lightStyle, face, Chunk.NO_LIGHT, Chunk.NO_LIGHT, y, nightLightAdjustment);
+
+		final int index = getPaddedIndex((int) rx + 1, y, (int) rz + 1);
+		return Chunk.getLight(lightStyle, face, skyLight[index], blockLight[index], y, nightLightAdjustment);
+	}
+
+	@Override
+	public Biome getBiome(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		final long rx = toRelativeX(chunkCoord, x);
+		final long rz = toRelativeZ(chunkCoord, z);
+		if (!isInNeighbourhood(rx, rz))
+			return world.getBiome(chunkCoord, x, y, z);
+
+		if (y < 0 || y >= height)
+			return defaultBiome;
+
+		RawChunk raw = findChunk(rx, rz);
+		if (raw == null)
+			return defaultBiome;
+
+		return raw.getBiome(Math.floorMod((int) rx, RawChunk.WIDTH), y, Math.floorMod((int) rz, RawChunk.DEPTH));
+	}
+
+	@Override
+	public LightStyle getLightStyle()
+	{
+		return lightStyle;
+	}
+
+	@Override
+	public float getNightLightAdjustment()
+	{
+		return nightLightAdjustment;
+	}
+
+	@Override
+	public boolean isSmoothLit()
+	{
+		return world.isSmoothLit();
+	}
+
+	@Override
+	public TexturePack getTexturePack()
+	{
+		return world.getTexturePack();
+	}
+
+	@Override
+	public Colour4f getGrassColor(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		return world.getGrassColor(chunkCoord, x, y, z);
+	}
+
+	@Override
+	public Colour4f getFoliageColor(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		return world.getFoliageColor(chunkCoord, x, y, z);
+	}
+
+	@Override
+	public Colour4f getDryFoliageColor(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		return world.getDryFoliageColor(chunkCoord, x, y, z);
+	}
+
+	@Override
+	public Colour4f getWaterColor(RawChunk rawChunk, int x, int y, int z)
+	{
+		return world.getWaterColor(rawChunk, x, y, z);
+	}
+
+	@Override
+	public PlayerSkinCache getPlayerSkinCache()
+	{
+		return world.getPlayerSkinCache();
+	}
+
+	@Override
+	public BlockRegistry getModelRegistry()
+	{
+		return world.getModelRegistry();
+	}
+
+	@Override
+	public PaintingRegistry getPaintingRegistry()
+	{
+		return world.getPaintingRegistry();
+	}
+
+	private long toRelativeX(ChunkCoord chunkCoord, final int x)
+	{
+		return (chunkCoord.x - centre.x) * RawChunk.WIDTH + x;
+	}
+
+	private long toRelativeZ(ChunkCoord chunkCoord, final int z)
+	{
+		return (chunkCoord.z - centre.z) * RawChunk.DEPTH + z;
+	}
+
+	private static boolean isInPadding(final long rx, final long rz)
+	{
+		return rx >= -1 && rx <= RawChunk.WIDTH && rz >= -1 && rz <= RawChunk.DEPTH;
+	}
+
+	private static boolean isInNeighbourhood(final long rx, final long rz)
+	{
+		return rx >= -RawChunk.WIDTH && rx < 2 * RawChunk.WIDTH && rz >= -RawChunk.DEPTH && rz < 2 * RawChunk.DEPTH;
+	}
+
+	/** @return the chunk containing a position relative to the centre chunk, which must be inside the neighbourhood */
+	private RawChunk findChunk(final long rx, final long rz)
+	{
+		final int dx = (int) Math.floorDiv(rx, RawChunk.WIDTH);
+		final int dz = (int) Math.floorDiv(rz, RawChunk.DEPTH);
+		return chunks[(dz+1) * 3 + (dx+1)];
+	}
+
+	private static int getPaddedIndex(final int px, final int y, final int pz)
+	{
+		return (y * PADDED_DEPTH + pz) * PADDED_WIDTH + px;
+	}
+}
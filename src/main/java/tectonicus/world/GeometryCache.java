@@ -16,9 +16,9 @@ import tectonicus.chunk.ChunkCoord;
 
 class GeometryCache extends ChunkCache
 {	
-	public GeometryCache(int maxSize, Function<ChunkCoord, Chunk> getChunk)
+	public GeometryCache(long maxBytes, Function<ChunkCoord, Chunk> getChunk)
         {		
-                super(maxSize, getChunk);
+                super(maxBytes, Chunk::getGeometryMemorySize, getChunk);
 	}
 	
 	public long getGeometryMemorySize()
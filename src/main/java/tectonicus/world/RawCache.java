@@ -16,9 +16,9 @@ import tectonicus.chunk.ChunkCoord;
 
 class RawCache extends ChunkCache
 {
-    	public RawCache(int maxSize, Function<ChunkCoord, Chunk> getChunk)
+    	public RawCache(long maxBytes, Function<ChunkCoord, Chunk> getChunk)
 	{
-		super(maxSize, getChunk);
+		super(maxBytes, Chunk::getRawMemorySize, getChunk);
 	}
         
 	public long getRawMemorySize()
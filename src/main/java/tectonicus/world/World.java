@@ -9,6 +9,7 @@
 
 package tectonicus.world;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.Getter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,7 @@ import tectonicus.configuration.LightFace;
 import tectonicus.configuration.LightStyle;
 import tectonicus.configuration.filter.SignFilter;
 import tectonicus.exceptions.IncompatibleVersionException;
+import tectonicus.metrics.Metrics;
 import tectonicus.paintingregistry.PaintingRegistry;
 import tectonicus.rasteriser.AlphaFunc;
 import tectonicus.rasteriser.BlendFunc;
@@ -56,6 +58,7 @@ import tectonicus.raw.BiomeUtils;
 import tectonicus.raw.Biomes;
 import tectonicus.raw.BiomesOld;
 import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
 import tectonicus.raw.ContainerEntity;
 import tectonicus.raw.LevelDat;
 import tectonicus.raw.Player;
@@ -64,6 +67,7 @@ import tectonicus.raw.RawChunk;
 import tectonicus.raw.SignEntity;
 import tectonicus.renderer.Camera;
 import tectonicus.renderer.Geometry;
+import tectonicus.renderer.GeometryData;
 import tectonicus.texture.TexturePack;
 import tectonicus.util.BoundingBox;
 import tectonicus.util.Colour4f;
@@ -83,16 +87,24 @@ import java.awt.Point;
 import java.io.File;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static tectonicus.Version.VERSIONS_6_TO_8;
 import static tectonicus.Version.VERSIONS_9_TO_11;
@@ -106,6 +118,8 @@ import static tectonicus.Version.VERSION_UNKNOWN;
 public class World implements BlockContext
 {
 	private static final int BATCH_SIZE = 128;
+	/** Most chunks that can be waiting to have their geometry built, see {@link #prefetchGeometry(Camera)} */
+	private static final int MAX_PENDING_GEOMETRY = 512;
 	
 	private final Version textureVersion;
 	
@@ -151,6 +165,12 @@ public class World implements BlockContext
 	private final RawCache rawLoadedChunks;
 	private final GeometryCache geometryLoadedChunks;
 	
+	/** Builds chunk geometry data off the render thread, see {@link #prefetchGeometry(Camera)}.
+	 *  Block types keep no state between blocks, but skull and armor stand geometry fetches player skins through the
+	 *  {@link PlayerSkinCache}, which isn't thread safe and may download the skin, so there is only a single builder thread. */
+	private final ThreadPoolExecutor geometryBuilder;
+	private final Map<ChunkCoord, GeometryBuild> pendingGeometry;
+	
 	private LightStyle lightStyle;
 	@Getter
 	private final boolean smoothLit;
@@ -161,6 +181,7 @@ public class World implements BlockContext
 	private String defaultBlockName = Block.AIR.getName();
 	
 	private BlockFilter blockFilter;
+	@Getter
 	private BlockMaskFactory blockMaskFactory;
 	
 	private final BiomeCache biomeCache;
@@ -295,33 +316,89 @@ public class World implements BlockContext
 		
 		log.debug("worldSubset: {}", this.worldSubset);
                 
-		rawLoadedChunks = new RawCache(2048, (coord) -> {
+		// Chunks vary a lot in size, so the caches are limited by how much memory the chunks in them use rather than how many there are
+		final long rawCacheBytes = Runtime.getRuntime().maxMemory() / 100 * config.getRawCacheMemory();
+		final long geometryCacheBytes = config.getGeometryCacheMemory() * 1024L * 1024L;
+		log.debug("Chunk cache budgets: raw {}MB, geometry {}MB", rawCacheBytes / 1024 / 1024, geometryCacheBytes / 1024 / 1024);
+		
+		rawLoadedChunks = new RawCache(rawCacheBytes, (coord) -> {
                         CompositeBlockFilter composite = new CompositeBlockFilter();
                         composite.add(blockFilter);
                         composite.add(worldSubset.getBlockFilter(coord));
 
                         return chunkLocator.loadChunk(coord, composite, null, worldInfo);
                 });
-		geometryLoadedChunks = new GeometryCache(512, (coord) -> {
-                        Chunk chunk = rawLoadedChunks.get(coord);
-
-                        final boolean ok = chunk.createGeometry(rasteriser, this, registry, modelRegistry, blockMaskFactory, texturePack);
-                        assert ok;
-
-                        return chunk;
-                });
+		geometryLoadedChunks = new GeometryCache(geometryCacheBytes, this::uploadGeometry);
+		
+		// Only ever given GeometryBuilds, which order themselves so chunks needed for drawing go first
+		geometryBuilder = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "Geometry builder");
+			thread.setDaemon(true);
+			return thread;
+		});
+		geometryBuilder.allowCoreThreadTimeOut(true);
+		pendingGeometry = new ConcurrentHashMap<>();
+		
+		Metrics.gauge("tectonicus_raw_cache_hit_ratio", "Fraction of raw chunk lookups found in the cache", this, w -> w.rawLoadedChunks.stats().hitRate());
+		Metrics.gauge("tectonicus_geometry_cache_hit_ratio", "Fraction of chunk geometry lookups found in the cache", this, w -> w.geometryLoadedChunks.stats().hitRate());
+		Metrics.gauge("tectonicus_geometry_build_queue_depth", "Chunks waiting for their geometry to be built", this, w -> w.pendingGeometry.size());
 		
 		this.lightStyle = LightStyle.None;
 		
 		this.daySkybox = SkyboxUtil.generateDaySkybox(rasteriser);
 		this.nightSkybox = SkyboxUtil.generateNightSkybox(rasteriser);
 
-		this.unknownBlocks = new HashMap<>();
+		this.unknownBlocks = new ConcurrentHashMap<>();
 
 		this.smoothLit = map.isSmoothLit();
 		this.nightLightAdjustment = smoothLit ? 0.3f : 0.1f;
 	}
-	
+
+	/** A world made up of raw chunks which are already in memory, with no world dir, textures or rasteriser behind it.
+	 *  Only the block, light and biome lookups work, which is enough to check other {@link tectonicus.BlockContext}s against. */
+	World(Collection<RawChunk> chunks, BlockTypeRegistry registry, BlockRegistry modelRegistry, LightStyle lightStyle, final boolean smoothLit)
+	{
+		Map<ChunkCoord, RawChunk> loaded = new HashMap<>();
+		for (RawChunk chunk : chunks)
+			loaded.put(chunk.getChunkCoord(), chunk);
+
+		this.textureVersion = VERSION_UNKNOWN;
+		this.rasteriser = null;
+		this.worldDir = null;
+		this.dimensionDir = null;
+		this.dimension = Dimension.OVERWORLD;
+		this.dimensionInfo = null;
+		this.alphaWorld = false;
+		this.registry = registry;
+		this.modelRegistry = modelRegistry;
+		this.levelDat = null;
+		this.worldInfo = null;
+		this.players = new ArrayList<>();
+		this.playerSkinCache = null;
+		this.chests = new ConcurrentLinkedQueue<>();
+		this.beds = new ConcurrentLinkedQueue<>();
+		this.beacons = new ConcurrentLinkedQueue<>();
+		this.texturePack = null;
+		this.regionCache = null;
+		this.chunkLocator = null;
+		this.rawLoadedChunks = new RawCache(Long.MAX_VALUE, coord -> loaded.containsKey(coord) ? new Chunk(loaded.get(coord), null) : null);
+		this.geometryLoadedChunks = null;
+		this.geometryBuilder = null;
+		this.pendingGeometry = new ConcurrentHashMap<>();
+		this.lightStyle = lightStyle;
+		this.smoothLit = smoothLit;
+		this.nightLightAdjustment = smoothLit ? 0.3f : 0.1f;
+		this.defaultBlockId = BlockIds.AIR;
+		this.blockFilter = new NullBlockFilter();
+		this.blockMaskFactory = new NullBlockMaskFactory();
+		this.biomeCache = null;
+		this.worldSubset = new FullWorldSubset();
+		this.daySkybox = null;
+		this.nightSkybox = null;
+		this.signFilter = null;
+		this.unknownBlocks = new ConcurrentHashMap<>();
+	}
+
 	//If world spawn is set in a dimension other than the dimension we're rendering then we need to find a reasonable default origin for the subset
 	//For Overworld we check for a player or bed closest to (0,64,0) and use that as the origin
 	//otherwise we just use (0,64,0) as the origin
@@ -597,6 +674,96 @@ public class World implements BlockContext
 		return result;
 	}
 	
+	/** Starts building the geometry of every chunk visible from the camera which doesn't have any yet. These builds
+	 *  wait behind any chunks needed by the view being drawn. Call this with the cameras for the next few views while
+	 *  drawing the current one so their geometry is ready when it's needed. */
+	public void prefetchGeometry(Camera camera)
+	{
+		for (ChunkCoord coord : findVisible(camera))
+		{
+			// Don't let prefetched chunks which never get drawn build up without limit
+			if (pendingGeometry.size() >= MAX_PENDING_GEOMETRY)
+				break;
+			
+			if (!geometryLoadedChunks.contains(coord))
+				pendingGeometry.computeIfAbsent(coord, c -> buildGeometry(c, false));
+		}
+	}
+	
+	/** Makes sure the geometry of every chunk about to be drawn is being built, ahead of any prefetched chunks.
+	 *  The builder then works through them while the render thread uploads and draws the ones before. */
+	private void requestGeometry(List<ChunkCoord> chunks)
+	{
+		for (ChunkCoord coord : chunks)
+		{
+			if (geometryLoadedChunks.contains(coord))
+				continue;
+			
+			GeometryBuild pending = pendingGeometry.computeIfAbsent(coord, c -> buildGeometry(c, true));
+			
+			// A prefetch still waiting in the queue is moved to the front. Once it's been taken off the queue
+			// it's running or done, and is left alone.
+			if (!pending.isOnDemand() && geometryBuilder.remove(pending))
+			{
+				pending.setOnDemand();
+				geometryBuilder.execute(pending);
+			}
+		}
+	}
+	
+	private GeometryBuild buildGeometry(ChunkCoord coord, final boolean onDemand)
+	{
+		GeometryBuild build = new GeometryBuild(() -> rawLoadedChunks.get(coord).createGeometryData(this, registry, modelRegistry, blockMaskFactory), onDemand);
+		geometryBuilder.execute(build);
+		return build;
+	}
+	
+	/** Loads the geometry for a chunk into the geometry cache. Only the upload of the finished vertex data happens here
+	 *  on the render thread, the data itself is built on the geometry builder thread.
+	 *
+	 *  This is where the render thread can still stall. It waits for a build which hasn't finished, including when the
+	 *  builder is part way through a prefetch as the chunk is asked for, or has fallen behind the drawing. A build which
+	 *  downloads a player skin for a skull holds up every chunk queued behind it. */
+	private Chunk uploadGeometry(ChunkCoord coord)
+	{
+		Chunk chunk = rawLoadedChunks.get(coord);
+		
+		try
+		{
+			GeometryBuild pending = pendingGeometry.remove(coord);
+			GeometryData data = (pending != null ? pending : buildGeometry(coord, true)).get();
+			if (data == null)
+			{
+				// The raw chunk was unloaded before the builder got to it
+				data = buildGeometry(coord, true).get();
+			}
+			
+			if (data != null)
+				chunk.setGeometry(data.upload(rasteriser));
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			log.error("Exception: ", e);
+		}
+		catch (ExecutionException e)
+		{
+			log.error("Exception: ", e);
+		}
+		
+		return chunk;
+	}
+	
+	private void cancelPendingGeometry()
+	{
+		for (GeometryBuild pending : pendingGeometry.values())
+			pending.cancel(false);
+		
+		pendingGeometry.clear();
+		geometryBuilder.purge();
+	}
+	
+	/** Draws every chunk visible from the camera, waiting for any whose geometry is still being built, see {@link #uploadGeometry(ChunkCoord)} */
 	public void draw(Camera camera, final boolean showSky, final boolean genAlphaMask)
 	{
 		// Find visible chunks
@@ -605,6 +772,8 @@ public class World implements BlockContext
 		// Sort back to front
 		Collections.sort(visible, new BackToFrontSorter(camera));
 		
+		requestGeometry(visible);
+		
 		// Clear the alpha buffer
 		if (genAlphaMask)
 		{
@@ -777,6 +946,13 @@ public class World implements BlockContext
 	}
 	
 	
+	/** @return the raw data for a chunk, loading it if needed, or null if there is no such chunk */
+	RawChunk getRawChunk(ChunkCoord coord)
+	{
+		Chunk c = rawLoadedChunks.get(coord);
+		return c != null ? c.getRawChunk() : null;
+	}
+	
 	private Location resolve(ChunkCoord chunkCoord, int x, int y, int z)
 	{
 		long chunkX = chunkCoord.x;
@@ -847,10 +1023,10 @@ public class World implements BlockContext
 		}
 		else
 		{
-			final String name = c.getRawChunk().getBlockName(loc.x, loc.y, loc.z);
+			final int blockStateId = c.getRawChunk().getBlockStateId(loc.x, loc.y, loc.z);
 
-			if (name != null)
-				return registry.find(name);
+			if (blockStateId != BlockStates.NONE)
+				return registry.find(BlockStates.getName(blockStateId));
 
 			final int id = c.getBlockId(loc.x, loc.y, loc.z, defaultBlockId);
 			final int data = c.getRawChunk().getBlockData(loc.x, loc.y, loc.z);
@@ -872,7 +1048,7 @@ public class World implements BlockContext
 		}
 		else
 		{
-			final String name = c.getRawChunk().getBlockName(location.x, location.y, location.z);
+			final String name = BlockStates.getName(c.getRawChunk().getBlockStateId(location.x, location.y, location.z));
 
 			if (name != null) {
 				BlockStateWrapper block = modelRegistry.getBlock(name);
@@ -928,6 +1104,20 @@ public class World implements BlockContext
 		}
 	}
 	
+	@Override
+	public int getBlockStateId(ChunkCoord chunkCoord, int x, int y, int z)
+	{
+		if (y < 0 || y >= Minecraft.getChunkHeight())
+			return BlockStates.NONE;
+		
+		Location loc = resolve(chunkCoord, x, y, z);
+		Chunk c = rawLoadedChunks.get(loc.coord);
+		if (c == null)
+			return BlockStates.NONE;
+		else
+			return c.getRawChunk().getBlockStateId(loc.x, loc.y, loc.z);
+	}
+	
 	@Override
 	public Biome getBiome(ChunkCoord chunkCoord, int x, int y, int z)
 	{
@@ -986,11 +1176,24 @@ public class World implements BlockContext
 	}
 	*/
 	
+	/** @return hits and loads of the raw chunk cache since the world was loaded */
+	public CacheStats getRawCacheStats()
+	{
+		return rawLoadedChunks.stats();
+	}
+	
+	/** @return hits and loads of the chunk geometry cache since the world was loaded */
+	public CacheStats getGeometryCacheStats()
+	{
+		return geometryLoadedChunks.stats();
+	}
+	
 	public void flushChunkCache()
 	{
 		if (rawLoadedChunks != null)
 		{
 			// Flush geometry
+			cancelPendingGeometry();
 			geometryLoadedChunks.unloadAll();
 			
 			// Flush raw loaded chunks
@@ -1002,6 +1205,7 @@ public class World implements BlockContext
 	{
 		if (geometryLoadedChunks != null)
 		{
+			cancelPendingGeometry();
 			geometryLoadedChunks.unloadAll();
 		}
 	}
@@ -1086,6 +1290,37 @@ public class World implements BlockContext
 		}
 	}
 
+	/** A chunk geometry build. Builds for chunks which are about to be drawn run before prefetched ones,
+	 *  otherwise they run in the order they were queued. */
+	private static class GeometryBuild extends FutureTask<GeometryData> implements Comparable<GeometryBuild>
+	{
+		private static final AtomicLong nextSequence = new AtomicLong();
+		
+		private final long sequence = nextSequence.getAndIncrement();
+		
+		/** Only changed while the build isn't in the queue, since that would break the queue's ordering */
+		private volatile boolean onDemand;
+		
+		public GeometryBuild(Callable<GeometryData> build, final boolean onDemand)
+		{
+			super(build);
+			this.onDemand = onDemand;
+		}
+		
+		public boolean isOnDemand() { return onDemand; }
+		
+		public void setOnDemand() { onDemand = true; }
+		
+		@Override
+		public int compareTo(GeometryBuild other)
+		{
+			if (onDemand != other.onDemand)
+				return onDemand ? -1 : 1;
+			
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+
 	@Value
 	private static class Location
 	{
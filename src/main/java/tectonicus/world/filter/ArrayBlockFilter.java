@@ -61,4 +61,17 @@ public class ArrayBlockFilter implements BlockFilter
 		
 	}
 	
+	/** The allowed columns, one row of x per line of z */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("ArrayBlockFilter");
+		for (int z = 0; z < columns[0].length; z++)
+		{
+			builder.append(z == 0 ? '[' : ',');
+			for (int x = 0; x < columns.length; x++)
+				builder.append(columns[x][z] ? '1' : '0');
+		}
+		return builder.append(']').toString();
+	}
 }
@@ -11,6 +11,10 @@ package tectonicus.world.filter;
 
 import tectonicus.raw.RawChunk;
 
+/**
+ * Removes blocks from chunks as they're loaded. The region hash store keeps the world's filter in its options, so
+ * implementations describe everything that changes what they remove in {@link #toString()}.
+ */
 public interface BlockFilter
 {
 	public void filter(RawChunk rawChunk);
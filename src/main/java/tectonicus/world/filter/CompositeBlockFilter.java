@@ -45,4 +45,10 @@ public class CompositeBlockFilter implements BlockFilter
 		}
 	}
 	
+	
+	@Override
+	public String toString()
+	{
+		return "CompositeBlockFilter" + filters;
+	}
 }
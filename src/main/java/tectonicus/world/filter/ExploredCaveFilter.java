@@ -165,4 +165,10 @@ public class ExploredCaveFilter implements BlockFilter
 		}
 		return false;
 	}
+	
+	@Override
+	public String toString()
+	{
+		return "ExploredCaveFilter";
+	}
 }
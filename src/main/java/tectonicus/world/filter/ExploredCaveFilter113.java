@@ -154,4 +154,10 @@ public class ExploredCaveFilter113 implements BlockFilter
 	{
 		return Math.max(v0, Math.max(v1, Math.max(v2, Math.max(v3, Math.max(v4, v5)))));
 	}
+	
+	@Override
+	public String toString()
+	{
+		return "ExploredCaveFilter113";
+	}
 }
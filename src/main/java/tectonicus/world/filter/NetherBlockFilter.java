@@ -55,4 +55,10 @@ public class NetherBlockFilter implements BlockFilter
 	{
 		
 	}
+	
+	@Override
+	public String toString()
+	{
+		return "NetherBlockFilter";
+	}
 }
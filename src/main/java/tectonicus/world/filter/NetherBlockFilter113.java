@@ -57,4 +57,10 @@ public class NetherBlockFilter113 implements BlockFilter
 	{
 
 	}
+	
+	@Override
+	public String toString()
+	{
+		return "NetherBlockFilter113";
+	}
 }
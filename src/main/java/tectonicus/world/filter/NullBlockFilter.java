@@ -18,4 +18,10 @@ public class NullBlockFilter implements BlockFilter
 	
 	@Override
 	public void preGeometryFilter(RawChunk center, RawChunk north, RawChunk south, RawChunk east, RawChunk west) {}
+	
+	@Override
+	public String toString()
+	{
+		return "NullBlockFilter";
+	}
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+import tectonicus.raw.RawChunk;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class BlockMaskTests {
+	@BeforeAll
+	static void setChunkHeight() {
+		Minecraft.setChunkHeight(256);
+	}
+
+	@Test
+	void sectionsOnlyBecomeMixedWhenABlockDiffers() {
+		BlockMask mask = new BlockMask();
+		assertThat(mask.getSectionCoverage(3), is(BlockMask.Coverage.VISIBLE));
+
+		mask.setVisible(5, 50, 7, true);
+		assertThat(mask.getSectionCoverage(3), is(BlockMask.Coverage.VISIBLE));
+
+		mask.setVisible(5, 50, 7, false);
+		assertThat(mask.getSectionCoverage(3), is(BlockMask.Coverage.MIXED));
+		assertThat(mask.isVisible(5, 50, 7), is(false));
+		assertThat(mask.isVisible(5, 50, 8), is(true));
+		assertThat(mask.isVisible(5, 51, 7), is(true));
+
+		mask.setAllInvisible();
+		assertThat(mask.getSectionCoverage(3), is(BlockMask.Coverage.HIDDEN));
+		assertThat(mask.isVisible(5, 50, 8), is(false));
+	}
+
+	@Test
+	void hiddenFromMatchesPerBlockMask() {
+		int[][] heights = new int[RawChunk.WIDTH][RawChunk.DEPTH];
+		for (int x = 0; x < RawChunk.WIDTH; x++)
+			for (int z = 0; z < RawChunk.DEPTH; z++)
+				heights[x][z] = 60 + x + z;
+
+		BlockMask mask = new BlockMask();
+		mask.setHiddenFrom(heights);
+
+		for (int x = 0; x < RawChunk.WIDTH; x++)
+			for (int y = 0; y < Minecraft.getChunkHeight(); y++)
+				for (int z = 0; z < RawChunk.DEPTH; z++)
+					assertThat(mask.isVisible(x, y, z), is(y < heights[x][z]));
+
+		assertThat(mask.getSectionCoverage(2), is(BlockMask.Coverage.VISIBLE));
+		assertThat(mask.getSectionCoverage(3), is(BlockMask.Coverage.MIXED));
+		assertThat(mask.getSectionCoverage(5), is(BlockMask.Coverage.MIXED));
+		assertThat(mask.getSectionCoverage(6), is(BlockMask.Coverage.HIDDEN));
+	}
+
+	@Test
+	void sectionContentsComeFromPalettes() {
+		RawChunk chunk = new RawChunk();
+		final int stone = BlockStates.intern("minecraft:stone", new BlockProperties(Map.of()));
+		final int air = BlockStates.intern("minecraft:air", new BlockProperties(Map.of()));
+
+		for (int x = 0; x < RawChunk.WIDTH; x++)
+			for (int y = 0; y < RawChunk.SECTION_HEIGHT; y++)
+				for (int z = 0; z < RawChunk.DEPTH; z++) {
+					chunk.setBlockStateId(x, y, z, stone);
+					chunk.setBlockStateId(x, y + 16, z, air);
+				}
+		chunk.setBlockStateId(3, 40, 3, stone);
+		chunk.setBlockId(3, 60, 3, BlockIds.AIR);
+
+		assertThat(chunk.getSectionContents(0), is(RawChunk.SectionContents.UNIFORM));
+		assertThat(chunk.getSectionContents(1), is(RawChunk.SectionContents.AIR));
+		assertThat(chunk.getSectionContents(2), is(RawChunk.SectionContents.MIXED));
+		assertThat(chunk.getSectionContents(3), is(RawChunk.SectionContents.AIR));
+		assertThat(chunk.getSectionContents(4), is(RawChunk.SectionContents.ABSENT));
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import tectonicus.cache.NullTileCache;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.configuration.MutableLayer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class DownsamplerTests {
+	private static final int TILE_SIZE = 8;
+	private static final int RED = 0xFFFF0000;
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void averagesOpaquePixels() {
+		assertThat(Downsampler.average(0xFF000000, 0xFFFFFFFF, 0xFF000000, 0xFFFFFFFF), is(0xFF808080));
+		assertThat(Downsampler.average(0xFF102030, 0xFF102030, 0xFF102030, 0xFF102030), is(0xFF102030));
+	}
+
+	@Test
+	void transparentPixelsDoNotDarkenColour() {
+		assertThat(Downsampler.average(0xFFFF0000, 0, 0, 0), is(0x40FF0000));
+		assertThat(Downsampler.average(0, 0, 0, 0), is(0));
+	}
+
+	@Test
+	@Timeout(60)
+	void buildsEveryZoomLevelFromRenderedTiles() throws IOException {
+		HddTileListFactory factory = new HddTileListFactory(new File(tempDir, "tileLists"));
+		Downsampler downsampler = createDownsampler(factory, baseTiles(factory));
+
+		for (int x = -2; x < 2; x++) {
+			for (int y = -2; y < 2; y++)
+				render(downsampler, new TileCoord(x, y));
+		}
+		downsampler.finish(new CommandLineOutput(), false);
+
+		BufferedImage zoom1 = readTile(1, -1, -1);
+		assertThat(zoom1.getRGB(0, 0), is(RED));
+		assertThat(zoom1.getRGB(TILE_SIZE - 1, TILE_SIZE - 1), is(RED));
+
+		// Only the bottom right child of this tile is in the world
+		BufferedImage zoom0 = readTile(0, -1, -1);
+		assertThat(zoom0.getRGB(TILE_SIZE - 1, TILE_SIZE - 1), is(RED));
+		assertThat(zoom0.getRGB(0, 0) >>> 24, is(0));
+
+		for (int x = -1; x < 1; x++) {
+			for (int y = -1; y < 1; y++) {
+				assertThat(tileFile(0, x, y).exists(), is(true));
+				assertThat(tileFile(1, x, y).exists(), is(true));
+			}
+		}
+	}
+
+	@Test
+	@Timeout(60)
+	void parentOfAnUnwrittenTileIsStillBuilt() throws IOException {
+		HddTileListFactory factory = new HddTileListFactory(new File(tempDir, "tileLists"));
+		Downsampler downsampler = createDownsampler(factory, baseTiles(factory));
+
+		for (int x = -2; x < 2; x++) {
+			for (int y = -2; y < 2; y++) {
+				if (x != 1 || y != 1)
+					render(downsampler, new TileCoord(x, y));
+			}
+		}
+		downsampler.finish(new CommandLineOutput(), false);
+
+		BufferedImage zoom1 = readTile(1, 0, 0);
+		assertThat(zoom1.getRGB(0, 0), is(RED));
+		assertThat(zoom1.getRGB(TILE_SIZE - 1, TILE_SIZE - 1) >>> 24, is(0));
+		assertThat(tileFile(0, 0, 0).exists(), is(true));
+	}
+
+	private HddTileList baseTiles(HddTileListFactory factory) {
+		HddTileList tiles = factory.createList();
+		for (int x = -2; x < 2; x++) {
+			for (int y = -2; y < 2; y++)
+				tiles.add(new TileCoord(x, y));
+		}
+		return tiles;
+	}
+
+	private Downsampler createDownsampler(HddTileListFactory factory, HddTileList baseTiles) {
+		MutableLayer layer = new MutableLayer("layer", "map");
+		layer.setBackgroundColor("#000000");
+		Downsampler downsampler = new Downsampler(2, new ChangeFile(new File(tempDir, "changed.txt")), new NullTileCache(),
+				layer, TILE_SIZE, TILE_SIZE, zoomDir(2), 2, 1024 * 1024);
+
+		HddTileList childTiles = baseTiles;
+		for (int zoom = 1; zoom >= 0; zoom--) {
+			HddTileList tiles = factory.createList();
+			for (TileCoord child : childTiles)
+				tiles.add(new TileCoord(Math.floorDiv(child.x, 2), Math.floorDiv(child.y, 2)));
+			downsampler.addZoomLevel(zoom, zoomDir(zoom), tiles);
+			childTiles = tiles;
+		}
+
+		downsampler.start(baseTiles);
+		return downsampler;
+	}
+
+	private void render(Downsampler downsampler, TileCoord tile) {
+		BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+		Arrays.fill(pixels, RED);
+		image.setRGB(0, 0, TILE_SIZE, TILE_SIZE, pixels, 0, TILE_SIZE);
+
+		downsampler.tileRendered(tile, image);
+		Screenshot.write(tileFile(2, tile.x, tile.y), image, ImageFormat.PNG, 1.0f, PngEncoder.DEFAULT_COMPRESSION_LEVEL);
+		downsampler.tileWritten(tile);
+	}
+
+	private BufferedImage readTile(final int zoom, final int x, final int y) throws IOException {
+		return ImageIO.read(tileFile(zoom, x, y));
+	}
+
+	private File tileFile(final int zoom, final int x, final int y) {
+		return TileRenderer.getImageFile(zoomDir(zoom), x, y, ImageFormat.PNG);
+	}
+
+	private File zoomDir(final int zoom) {
+		return new File(tempDir, "zoom" + zoom);
+	}
+}
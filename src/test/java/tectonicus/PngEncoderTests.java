@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+
+class PngEncoderTests {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writesImageWithAlpha() throws IOException {
+		assertRoundTrip(createImage(BufferedImage.TYPE_INT_ARGB, 512, 512), 4);
+	}
+
+	@Test
+	void writesImageWithoutAlpha() throws IOException {
+		assertRoundTrip(createImage(BufferedImage.TYPE_3BYTE_BGR, 300, 200), 9);
+	}
+
+	@Test
+	void writesUncompressedImage() throws IOException {
+		assertRoundTrip(createImage(BufferedImage.TYPE_4BYTE_ABGR, 17, 5), 0);
+	}
+
+	@Test
+	void keepsABoundedNumberOfDeflaters() {
+		BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB, 1024, 1024);
+
+		// Many images written at once use more deflaters than the pool keeps
+		IntStream.range(0, 16).parallel().forEach(i -> {
+			try {
+				PngEncoder.fromImage(image, 3).write(tempDir.resolve("image" + i + ".png"));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		assertThat(PngEncoder.pooledDeflaters(3), is(lessThanOrEqualTo(Runtime.getRuntime().availableProcessors() + 1)));
+	}
+
+	private void assertRoundTrip(BufferedImage image, final int compressionLevel) throws IOException {
+		Path file = tempDir.resolve("image.png");
+		PngEncoder.fromImage(image, compressionLevel).write(file);
+
+		BufferedImage decoded = ImageIO.read(file.toFile());
+		assertThat(decoded.getColorModel().hasAlpha(), is(image.getColorModel().hasAlpha()));
+		assertThat(decoded.getRGB(0, 0, decoded.getWidth(), decoded.getHeight(), null, 0, decoded.getWidth()),
+				is(image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth())));
+	}
+
+	private static BufferedImage createImage(final int type, final int width, final int height) {
+		Random random = new Random(1234);
+		BufferedImage image = new BufferedImage(width, height, type);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				// Mix smooth gradients with noise so every filter gets picked somewhere
+				final int argb = (x * y) % 5 == 0 ? random.nextInt() : 0xFF000000 | (x & 0xFF) << 16 | (y & 0xFF) << 8 | ((x ^ y) & 0xFF);
+				image.setRGB(x, y, argb);
+			}
+		}
+		return image;
+	}
+}
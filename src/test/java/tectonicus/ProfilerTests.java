@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.Test;
+import tectonicus.Profiler.StageResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ProfilerTests {
+	@Test
+	void percentilesUseNearestRank() {
+		long[] sorted = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+		assertThat(StageResult.percentile(sorted, 50), is(5L));
+		assertThat(StageResult.percentile(sorted, 99), is(10L));
+		assertThat(StageResult.percentile(sorted, 0), is(1L));
+		assertThat(StageResult.percentile(new long[0], 50), is(0L));
+	}
+
+	@Test
+	void resultsAreCalculatedFromUnsortedLatencies() {
+		long[] latencies = new long[100];
+		for (int i = 0; i < latencies.length; i++)
+			latencies[i] = (i * 37 % 100 + 1) * 1_000_000L;
+
+		StageResult result = StageResult.of("test", "ops", latencies, 2_000_000_000L, 4_000_000L);
+
+		assertThat(result.operations(), is(100));
+		assertThat(result.p50Nanos(), is(50_000_000L));
+		assertThat(result.p99Nanos(), is(99_000_000L));
+		assertThat(result.throughput(), is(50.0));
+		assertThat(result.allocationRate(), is(2_000_000.0));
+		assertThat(result.allocatedBytesPerOperation(), is(40_000.0));
+	}
+
+	@Test
+	void unknownAllocationsAreNaN() {
+		StageResult result = StageResult.of("test", "ops", new long[] { 1 }, 1_000_000_000L, -1);
+
+		assertThat(Double.isNaN(result.allocationRate()), is(true));
+		assertThat(Double.isNaN(result.allocatedBytesPerOperation()), is(true));
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class ShardPlanTests {
+	@Test
+	void everyVisibleTileHasOneShard() {
+		List<TileCoord> tiles = createTiles(-20, 20, -13, 30);
+		ShardPlan plan = new ShardPlan(tiles, 5, 3);
+
+		int total = 0;
+		for (int shard = 0; shard < 3; shard++)
+			total += plan.getNumTiles(shard);
+		assertThat(total, is(tiles.size()));
+
+		for (TileCoord tile : tiles) {
+			final int shard = plan.getShard(tile.x, tile.y);
+			assertThat(shard >= 0 && shard < 3, is(true));
+		}
+		assertThat(plan.getShard(100, 100), is(-1));
+	}
+
+	@Test
+	void shardsAreEvenWithWholeSquares() {
+		// 8 bands of 8 squares, each 4 x 4 tiles
+		ShardPlan plan = new ShardPlan(createTiles(-16, 16, -16, 16), 4, 4);
+
+		for (int shard = 0; shard < 4; shard++)
+			assertThat(plan.getNumTiles(shard), is(256));
+	}
+
+	@Test
+	void shardsAreContiguousInRenderOrder() {
+		List<TileCoord> tiles = createTiles(-20, 20, -13, 30);
+		ShardPlan plan = new ShardPlan(tiles, 8, 5);
+
+		int previous = 0;
+		for (TileCoord tile : new TileScheduler(tiles, 8)) {
+			final int shard = plan.getShard(tile.x, tile.y);
+			assertThat(shard == previous || shard == previous + 1, is(true));
+			previous = shard;
+		}
+		assertThat(previous, is(4));
+	}
+
+	@Test
+	void moreShardsThanSquaresLeavesSomeEmpty() {
+		ShardPlan plan = new ShardPlan(createTiles(0, 4, 0, 4), 4, 3);
+
+		assertThat(plan.getNumTiles(0) + plan.getNumTiles(1) + plan.getNumTiles(2), is(16));
+		assertThat(plan.getShard(0, 0), is(plan.getShard(3, 3)));
+	}
+
+	/** Tiles in the same x then y order as a tile list */
+	private static List<TileCoord> createTiles(final int minX, final int maxX, final int minY, final int maxY) {
+		List<TileCoord> tiles = new ArrayList<>();
+		for (int x = minX; x < maxX; x++) {
+			for (int y = minY; y < maxY; y++)
+				tiles.add(new TileCoord(x, y));
+		}
+		return tiles;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class TileSchedulerTests {
+	@Test
+	void everyTileIsScheduledOnce() {
+		List<TileCoord> tiles = createTiles(-20, 20, -13, 30);
+
+		Set<TileCoord> scheduled = new HashSet<>();
+		int count = 0;
+		for (TileCoord tile : new TileScheduler(tiles, 5)) {
+			scheduled.add(tile);
+			count++;
+		}
+
+		assertThat(count, is(tiles.size()));
+		assertThat(scheduled, is(new HashSet<>(tiles)));
+	}
+
+	@Test
+	void consecutiveTilesAreNeighboursInFullBands() {
+		// Whole squares only, so the curve never has to skip a missing tile
+		List<TileCoord> tiles = createTiles(-16, 16, -32, 32);
+
+		TileCoord previous = null;
+		for (TileCoord tile : new TileScheduler(tiles, 8)) {
+			if (previous != null) {
+				final int distance = Math.abs(tile.x - previous.x) + Math.abs(tile.y - previous.y);
+				final boolean nextBand = Math.floorDiv(tile.x, 8) != Math.floorDiv(previous.x, 8);
+				assertThat(distance == 1 || (nextBand && distance == 8), is(true));
+			}
+			previous = tile;
+		}
+	}
+
+	@Test
+	void bandWidthIsRoundedUpToAPowerOfTwo() {
+		assertThat(new TileScheduler(new ArrayList<>(), 0).getBandWidth(), is(1));
+		assertThat(new TileScheduler(new ArrayList<>(), 12).getBandWidth(), is(16));
+		assertThat(new TileScheduler(new ArrayList<>(), 32).getBandWidth(), is(32));
+		assertThat(TileScheduler.roundBandWidth(-4), is(1));
+		assertThat(TileScheduler.roundBandWidth(Integer.MAX_VALUE), is(1 << 15));
+	}
+
+	/** @return every tile in the range, in the x then y order a tile list iterates in */
+	private static List<TileCoord> createTiles(final int minX, final int maxX, final int minY, final int maxY) {
+		List<TileCoord> tiles = new ArrayList<>();
+		for (int x = minX; x < maxX; x++)
+			for (int y = minY; y < maxY; y++)
+				tiles.add(new TileCoord(x, y));
+		return tiles;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.blockregistry;
+
+import org.junit.jupiter.api.Test;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+class ResolvedBlockStateTests {
+	@Test
+	void multipartCasesAreResolvedOncePerState() {
+		BlockRegistry registry = createRegistry();
+
+		final int north = BlockStates.intern("test:fence", new BlockProperties(Map.of("north", "true", "waterlogged", "true")));
+		ResolvedBlockState resolved = registry.resolve(north);
+
+		assertThat(resolved.isFound(), is(true));
+		assertThat(resolved.isWaterlogged(), is(true));
+		assertThat(modelNames(resolved), is(List.of("post", "side")));
+		assertThat(registry.resolve(north), is(sameInstance(resolved)));
+		assertThat(resolved.getModels(), is(sameInstance(resolved.getModels())));
+
+		final int south = BlockStates.intern("test:fence", new BlockProperties(Map.of("north", "false", "waterlogged", "false")));
+		assertThat(registry.resolve(south).isWaterlogged(), is(false));
+		assertThat(modelNames(registry.resolve(south)), is(List.of("post")));
+	}
+
+	@Test
+	void unknownBlocksAreNotFound() {
+		BlockRegistry registry = createRegistry();
+
+		final int id = BlockStates.intern("test:unknown", new BlockProperties(Map.of()));
+
+		assertThat(registry.resolve(id).isFound(), is(false));
+		assertThat(registry.resolve(id).getModels().isEmpty(), is(true));
+	}
+
+	@Test
+	void statesResolvedOnSeveralThreadsAreAllKept() throws Exception {
+		BlockRegistry registry = createRegistry();
+
+		// Enough states to grow the cache a few times while the threads are filling it
+		final int[] ids = new int[2000];
+		for (int i = 0; i < ids.length; i++)
+			ids[i] = BlockStates.intern("test:fence", new BlockProperties(Map.of("north", "true", "power", String.valueOf(i))));
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ResolvedBlockState[]>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				results.add(executor.submit(() -> {
+					ResolvedBlockState[] resolved = new ResolvedBlockState[ids.length];
+					for (int i = 0; i < ids.length; i++)
+						resolved[i] = registry.resolve(ids[i]);
+					return resolved;
+				}));
+			}
+
+			for (Future<ResolvedBlockState[]> result : results) {
+				ResolvedBlockState[] resolved = result.get();
+				for (int i = 0; i < ids.length; i++)
+					assertThat(resolved[i], is(sameInstance(registry.resolve(ids[i]))));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static BlockRegistry createRegistry() {
+		BlockStateWrapper fence = new BlockStateWrapper("test:fence");
+		fence.addState(BlockStateCase.builder()
+				.whenClauses(List.of())
+				.modelsAndWeight(new BlockStateModelsWeight(List.of(createModel("post"))))
+				.build());
+		fence.addState(BlockStateCase.builder()
+				.whenClauses(List.of(Map.of("north", "true")))
+				.modelsAndWeight(new BlockStateModelsWeight(List.of(createModel("side"))))
+				.build());
+
+		BlockRegistry registry = new BlockRegistry();
+		registry.getBlockStates().put("test:fence", fence);
+		return registry;
+	}
+
+	private static BlockStateModel createModel(String name) {
+		BlockStateModel model = new BlockStateModel();
+		model.setModel(name);
+		return model;
+	}
+
+	private static List<String> modelNames(ResolvedBlockState resolved) {
+		return resolved.getModels().stream().map(BlockStateModel::getModel).collect(Collectors.toList());
+	}
+}
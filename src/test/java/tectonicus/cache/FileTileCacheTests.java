@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tectonicus.RegionCoord;
+import tectonicus.TileCoord;
+import tectonicus.TileRenderer;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.configuration.MutableLayer;
+import tectonicus.configuration.MutableMap;
+import tectonicus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class FileTileCacheTests {
+	@TempDir
+	File tempDir;
+
+	private File cacheDir;
+	private File zoomDir;
+	private MessageDigest hashAlgorithm;
+	private HddTileListFactory factory;
+	private MutableMap map;
+	private MutableLayer layer;
+
+	@BeforeEach
+	void setUp() throws NoSuchAlgorithmException {
+		hashAlgorithm = MessageDigest.getInstance("sha1");
+		cacheDir = new File(tempDir, "cache");
+		zoomDir = new File(tempDir, "zoom");
+		zoomDir.mkdirs();
+		factory = new HddTileListFactory(new File(tempDir, "tileLists"));
+		map = new MutableMap("map");
+		layer = new MutableLayer("layer", "map");
+	}
+
+	@Test
+	void downsampleLevelsAreKeptApart() throws IOException {
+		FileTileCache cache = openCache();
+		HddTileList baseTiles = factory.createList();
+		baseTiles.add(new TileCoord(-3, 5));
+		cache.calculateDownsampledTileCoordinates(baseTiles, 10);
+
+		assertThat(findTiles(cache, 10), is(Set.of(new TileCoord(-2, 2))));
+		assertThat(findTiles(cache, 1), is(Set.of(new TileCoord(-1, 0))));
+
+		writeTile(cache, new TileCoord(-1, 0), 1);
+		assertThat(findTiles(cache, 1), is(Set.of()));
+		assertThat(findTiles(cache, 10), is(Set.of(new TileCoord(-2, 2))));
+		cache.closeTileCache();
+	}
+
+	@Test
+	void missingZoomDirNeedsEveryTile() throws IOException {
+		FileTileCache cache = openCache();
+		HddTileList baseTiles = factory.createList();
+		baseTiles.add(new TileCoord(0, 0));
+		cache.calculateDownsampledTileCoordinates(baseTiles, 0);
+		writeTile(cache, new TileCoord(0, 0), 0);
+
+		assertThat(findTiles(cache, 0), is(Set.of()));
+		FileUtils.deleteDirectory(zoomDir);
+		assertThat(findTiles(cache, 0), is(Set.of(new TileCoord(0, 0))));
+		cache.closeTileCache();
+	}
+
+	@Test
+	void deletedDownsampledTileIsFoundAgain() throws IOException {
+		FileTileCache cache = openCache();
+		HddTileList baseTiles = factory.createList();
+		baseTiles.add(new TileCoord(0, 0));
+		baseTiles.add(new TileCoord(2, 0));
+		cache.calculateDownsampledTileCoordinates(baseTiles, 0);
+		writeTile(cache, new TileCoord(0, 0), 0);
+		writeTile(cache, new TileCoord(1, 0), 0);
+
+		assertThat(findTiles(cache, 0), is(Set.of()));
+		TileRenderer.getImageFile(zoomDir, 1, 0, ImageFormat.PNG).delete();
+		assertThat(findTiles(cache, 0), is(Set.of(new TileCoord(1, 0))));
+		cache.closeTileCache();
+	}
+
+	@Test
+	void deletedTileImagesAreFoundAgain() throws Exception {
+		ChunkCoord chunk = new ChunkCoord(1, 2);
+		TileCoord tile = new TileCoord(3, -4);
+		File layerDir = new File(tempDir, "layer");
+		File indexDir = new File(tempDir, "index");
+		File imageFile = TileRenderer.getImageFile(layerDir, tile.x, tile.y, ImageFormat.PNG);
+		RegionHashStore hashStore = new RegionHashStore(indexDir);
+		RegionHashStore.ActiveRegion region = hashStore.startRegion(RegionCoord.fromChunkCoord(chunk));
+		region.addHash(chunk, new byte[] { 1, 2, 3 });
+		hashStore.endRegion(region);
+		HddTileList visibleTiles = factory.createList();
+		visibleTiles.add(tile);
+		ForkJoinPool pool = new ForkJoinPool(2);
+
+		// First run renders the tile
+		TileChunkIndex index = new TileChunkIndex(indexDir, "map", "options", hashAlgorithm);
+		index.visitChunk(chunk, true);
+		index.addChunk(chunk, new long[] { HddTileList.toKey(tile.x, tile.y) });
+		FileTileCache cache = openCache();
+		assertThat(cache.findChangedTiles(factory, visibleTiles, index, hashStore, layerDir, pool).toSet(), is(Set.of(tile)));
+		imageFile.getParentFile().mkdirs();
+		imageFile.createNewFile();
+		cache.writeImageCache(tile);
+		cache.closeTileCache();
+		index.settle();
+		index.close();
+
+		// Nothing changed
+		index = new TileChunkIndex(indexDir, "map", "options", hashAlgorithm);
+		index.visitChunk(chunk, false);
+		cache = openCache();
+		assertThat(cache.findChangedTiles(factory, visibleTiles, index, hashStore, layerDir, pool).toSet(), is(Set.of()));
+
+		// The chunk is unchanged but the tile's image has been deleted
+		imageFile.delete();
+		assertThat(cache.findChangedTiles(factory, visibleTiles, index, hashStore, layerDir, pool).toSet(), is(Set.of(tile)));
+		cache.closeTileCache();
+		index.close();
+		pool.shutdown();
+	}
+
+	private FileTileCache openCache() {
+		return new FileTileCache(cacheDir, ImageFormat.PNG, map, layer, "options", hashAlgorithm);
+	}
+
+	/** Marks a downsampled tile as written, and puts an empty image for it in the zoom dir */
+	private void writeTile(FileTileCache cache, TileCoord coord, final int zoomLevel) throws IOException {
+		File imageFile = TileRenderer.getImageFile(zoomDir, coord.x, coord.y, ImageFormat.PNG);
+		imageFile.getParentFile().mkdirs();
+		imageFile.createNewFile();
+		cache.updateTileDownsampleStatus(coord, zoomLevel);
+	}
+
+	private Set<TileCoord> findTiles(FileTileCache cache, final int zoomLevel) {
+		return cache.findTilesForDownsampling(factory, zoomLevel, zoomDir, ImageFormat.PNG).toSet();
+	}
+}
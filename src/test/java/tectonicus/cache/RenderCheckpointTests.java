@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tectonicus.TileCoord;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.cache.swap.HddTileListFactory;
+import tectonicus.configuration.MutableLayer;
+import tectonicus.configuration.MutableMap;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+class RenderCheckpointTests {
+	@TempDir
+	File tempDir;
+
+	private File cacheDir;
+	private MessageDigest hashAlgorithm;
+	private HddTileListFactory factory;
+	private MutableMap map;
+	private MutableLayer layer;
+
+	@BeforeEach
+	void setUp() throws NoSuchAlgorithmException {
+		hashAlgorithm = MessageDigest.getInstance("sha1");
+		cacheDir = new File(tempDir, "cache");
+		factory = new HddTileListFactory(new File(tempDir, "tileLists"));
+		map = new MutableMap("map");
+		layer = new MutableLayer("layer", "map");
+	}
+
+	@Test
+	void progressIsKeptWhenResuming() {
+		RenderCheckpoint checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, false);
+		assertThat(checkpoint.startMap(map, "world"), is(false));
+		checkpoint.saveVisibleTiles(map, createTiles(0, 0, 1, 0, -1, 2));
+		checkpoint.saveChangedTiles(layer, createTiles(1, 0));
+		checkpoint.saveRenderedTiles(layer, 1);
+
+		checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, true);
+		assertThat(checkpoint.startMap(map, "world"), is(true));
+		assertThat(checkpoint.getVisibleTiles(map, factory).toSet(), is(createTiles(0, 0, 1, 0, -1, 2).toSet()));
+		assertThat(checkpoint.getChangedTiles(layer, factory).toSet(), is(createTiles(1, 0).toSet()));
+		assertThat(checkpoint.getRenderedTiles(layer), is(1));
+	}
+
+	@Test
+	void changedSettingsStartAgain() {
+		RenderCheckpoint checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, false);
+		checkpoint.startMap(map, "world");
+		checkpoint.saveVisibleTiles(map, createTiles(0, 0));
+
+		checkpoint = new RenderCheckpoint(cacheDir, "other settings", hashAlgorithm, true);
+		assertThat(checkpoint.startMap(map, "world"), is(false));
+		assertThat(checkpoint.getVisibleTiles(map, factory), is(nullValue()));
+	}
+
+	@Test
+	void changedWorldStartsMapAgain() {
+		RenderCheckpoint checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, false);
+		checkpoint.startMap(map, "world");
+		checkpoint.saveVisibleTiles(map, createTiles(0, 0));
+		checkpoint.saveChangedTiles(layer, createTiles(0, 0));
+
+		checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, true);
+		assertThat(checkpoint.startMap(map, "changed world"), is(false));
+		assertThat(checkpoint.getVisibleTiles(map, factory), is(nullValue()));
+		assertThat(checkpoint.getChangedTiles(layer, factory), is(nullValue()));
+		assertThat(checkpoint.getRenderedTiles(layer), is(0));
+	}
+
+	@Test
+	void finishedRenderLeavesNothingToResume() {
+		RenderCheckpoint checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, false);
+		checkpoint.startMap(map, "world");
+		checkpoint.saveVisibleTiles(map, createTiles(0, 0));
+		checkpoint.finish();
+
+		checkpoint = new RenderCheckpoint(cacheDir, "settings", hashAlgorithm, true);
+		assertThat(checkpoint.startMap(map, "world"), is(false));
+	}
+
+	/** @param coords pairs of x and y */
+	private HddTileList createTiles(int... coords) {
+		HddTileList tiles = factory.createList();
+		for (int i = 0; i < coords.length; i += 2)
+			tiles.add(new TileCoord(coords[i], coords[i + 1]));
+		return tiles;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tectonicus.cache.swap.HddTileList;
+import tectonicus.chunk.ChunkCoord;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+class TileChunkIndexTests {
+	@TempDir
+	File cacheDir;
+
+	@Test
+	void chunkKeysRoundTrip() {
+		ChunkCoord coord = new ChunkCoord(-12345, 678);
+		assertThat(TileChunkIndex.fromKey(TileChunkIndex.toKey(coord)), is(coord));
+	}
+
+	@Test
+	void keysStaySorted() {
+		long[] keys = TileChunkIndex.insert(null, 5);
+		keys = TileChunkIndex.insert(keys, -3);
+		keys = TileChunkIndex.insert(keys, 9);
+		keys = TileChunkIndex.insert(keys, 5);
+		assertThat(keys, is(new long[] { -3, 5, 9 }));
+
+		keys = TileChunkIndex.remove(keys, 5);
+		assertThat(keys, is(new long[] { -3, 9 }));
+	}
+
+	@Test
+	void footprintsAreReusedOnNextRun() throws NoSuchAlgorithmException {
+		ChunkCoord chunk = new ChunkCoord(1, 2);
+		final long tileKey = HddTileList.toKey(3, -4);
+
+		TileChunkIndex index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		assertThat(index.wasRebuilt(), is(true));
+		assertThat(index.visitChunk(chunk, false), is(nullValue()));
+		index.addChunk(chunk, new long[] { tileKey });
+		index.settle();
+		index.close();
+
+		index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		assertThat(index.wasRebuilt(), is(false));
+		assertThat(index.visitChunk(chunk, false), is(new long[] { tileKey }));
+		assertThat(index.getChunks(tileKey), is(new long[] { TileChunkIndex.toKey(chunk) }));
+		assertThat(index.getCandidateChunks().isEmpty(), is(true));
+		index.close();
+	}
+
+	@Test
+	void removedChunksAreCandidates() throws NoSuchAlgorithmException {
+		ChunkCoord chunk = new ChunkCoord(1, 2);
+		final long chunkKey = TileChunkIndex.toKey(chunk);
+		final long tileKey = HddTileList.toKey(3, -4);
+
+		TileChunkIndex index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		index.visitChunk(chunk, true);
+		index.addChunk(chunk, new long[] { tileKey });
+		index.settle();
+		index.close();
+
+		// Not visited on this run, and the run doesn't finish
+		index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		index.removeUnvisitedChunks();
+		assertThat(index.getCandidateChunks().contains(chunkKey), is(true));
+		assertThat(index.getChunks(tileKey).length, is(0));
+		index.close();
+
+		index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		assertThat(index.getCandidateChunks().contains(chunkKey), is(true));
+		assertThat(index.getTiles(chunkKey), is(new long[] { tileKey }));
+		index.close();
+	}
+
+	@Test
+	void changedOptionsRebuildIndex() throws NoSuchAlgorithmException {
+		TileChunkIndex index = new TileChunkIndex(cacheDir, "map", "options", MessageDigest.getInstance("sha1"));
+		index.addChunk(new ChunkCoord(0, 0), new long[] { HddTileList.toKey(0, 0) });
+		index.close();
+
+		index = new TileChunkIndex(cacheDir, "map", "other options", MessageDigest.getInstance("sha1"));
+		assertThat(index.wasRebuilt(), is(true));
+		assertThat(index.getAllChunks().isEmpty(), is(true));
+		index.close();
+	}
+}
@@ -119,6 +119,61 @@ public class HddTileListTests
 	}
 	
 	
+	@Test
+	public void duplicatesAreCountedOnce()
+	{
+		list.add(new TileCoord(40, 40));
+		list.add(new TileCoord(-5, 3));
+		list.add(new TileCoord(40, 40));
+		list.add(new TileCoord(-5, 3));
+		
+		assertThat(list.size(), is(2));
+		assertThat(list.getAbsoluteMinCoord(), is(equalTo(new TileCoord(-5, 3))));
+		assertThat(list.getAbsoluteMaxCoord(), is(equalTo(new TileCoord(40, 40))));
+	}
+	
+	@Test
+	public void iterateSpilledRuns()
+	{
+		File workingDir = new File(new File("build/tmp"), "HddTileListSpill");
+		HddTileList spillList = new HddTileListFactory(workingDir, 1024).createList("spill");
+		
+		Set<TileCoord> coords = new HashSet<TileCoord>();
+		for (int x=-50; x<50; x++)
+		{
+			for (int y=-50; y<50; y++)
+			{
+				TileCoord coord = new TileCoord(x, y);
+				coords.add(coord);
+				spillList.add(coord);
+			}
+		}
+		
+		// Add everything again so duplicates end up spread across several runs
+		for (TileCoord coord : coords)
+		{
+			spillList.add(coord);
+		}
+		
+		assertThat(spillList.size(), is(coords.size()));
+		assertIsEqual(coords, spillList.toSet());
+		assertThat(spillList.getAbsoluteMinCoord(), is(equalTo(new TileCoord(-50, -50))));
+		assertThat(spillList.getAbsoluteMaxCoord(), is(equalTo(new TileCoord(49, 49))));
+	}
+	
+	@Test
+	public void packedKeysRoundTrip()
+	{
+		int[] values = { 0, 1, -1, 12345, -12345, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		for (int x : values)
+		{
+			for (int y : values)
+			{
+				assertThat(HddTileList.fromKey(HddTileList.toKey(x, y)), is(equalTo(new TileCoord(x, y))));
+			}
+		}
+	}
+	
 	private void assertIsEqual(Set<TileCoord> lhs, Set<TileCoord> rhs)
 	{
 		assertThat(lhs.size(), is(equalTo(rhs.size())));
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.chunk;
+
+import org.jnbt.NBTInputStream.Compression;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class ChunkDataTests {
+	@Test
+	void inflatesSliceOfDirectBuffer() throws IOException {
+		byte[] raw = createData();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+			out.write(raw);
+		}
+		byte[] compressed = bytes.toByteArray();
+
+		// Surround the chunk with other data, as it would be in a region file
+		ByteBuffer region = ByteBuffer.allocateDirect(compressed.length + 16);
+		region.position(5);
+		region.put(compressed);
+
+		ChunkData chunkData = new ChunkData(region.slice(5, compressed.length), Compression.Deflate);
+
+		// Each stream starts from the beginning of the data
+		for (int i = 0; i < 2; i++) {
+			try (DataInputStream in = chunkData.openStream()) {
+				assertThat(in.readAllBytes(), is(raw));
+			}
+		}
+	}
+
+	@Test
+	void inflatesGzipArray() throws IOException {
+		byte[] raw = createData();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(raw);
+		}
+
+		try (DataInputStream in = new ChunkData(bytes.toByteArray(), Compression.Gzip).openStream()) {
+			assertThat(in.readAllBytes(), is(raw));
+		}
+	}
+
+	private static byte[] createData() {
+		byte[] raw = new byte[64 * 1024];
+		new Random(1).nextBytes(raw);
+		for (int i = 0; i < raw.length; i += 3)
+			raw[i] = 0;
+		return raw;
+	}
+}
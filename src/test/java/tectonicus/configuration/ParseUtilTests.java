@@ -13,6 +13,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ParseUtilTests {
 	@Test
@@ -36,4 +38,19 @@ class ParseUtilTests {
 		assertThat(ParseUtil.parseBackgroundColor("#112233", Dimension.OVERWORLD), is("#112233"));
 		assertThat(ParseUtil.parseBackgroundColor("#abcdef", Dimension.END), is("#abcdef"));
 	}
+
+	@Test
+	void testParseShard() {
+		assertThat(ParseUtil.parseShard("2/4"), is(new Shard(2, 4)));
+		assertThat(ParseUtil.parseShard(" 0 / 1 "), is(new Shard(0, 1)));
+		assertThat(ParseUtil.parseShard(""), is(nullValue()));
+		assertThat(ParseUtil.parseShard(null), is(nullValue()));
+	}
+
+	@Test
+	void testParseShardRejectsIndexOutsideCount() {
+		assertThrows(IllegalArgumentException.class, () -> ParseUtil.parseShard("4/4"));
+		assertThrows(IllegalArgumentException.class, () -> ParseUtil.parseShard("-1/4"));
+		assertThrows(IllegalArgumentException.class, () -> ParseUtil.parseShard("two/4"));
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+class MetricsTests {
+	@Test
+	void histogramBucketsAreCumulative() throws IOException {
+		Histogram histogram = Metrics.histogram("test_histogram_seconds", "Test histogram", 0.001, 0.01, 0.1);
+		histogram.observe(0.0005);
+		histogram.observe(0.01);
+		histogram.observe(0.05);
+		histogram.observe(3);
+
+		String text = prometheusText();
+		assertThat(text, containsString("# TYPE test_histogram_seconds histogram\n"));
+		assertThat(text, containsString("test_histogram_seconds_bucket{le=\"0.001\"} 1\n"));
+		assertThat(text, containsString("test_histogram_seconds_bucket{le=\"0.01\"} 2\n"));
+		assertThat(text, containsString("test_histogram_seconds_bucket{le=\"0.1\"} 3\n"));
+		assertThat(text, containsString("test_histogram_seconds_bucket{le=\"+Inf\"} 4\n"));
+		assertThat(text, containsString("test_histogram_seconds_count 4\n"));
+	}
+
+	@Test
+	void labelledCountersShareOneHeader() throws IOException {
+		Metrics.counter("test_labelled_total", "Test counter", "kind", "a").inc();
+		Metrics.counter("test_labelled_total", "Test counter", "kind", "b").add(2);
+		Metrics.counter("test_labelled_total", "Test counter", "kind", "a").inc();
+
+		String text = prometheusText();
+		assertThat(text.split("# HELP test_labelled_total ", -1).length, is(2));
+		assertThat(text, containsString("test_labelled_total{kind=\"a\"} 2\n"));
+		assertThat(text, containsString("test_labelled_total{kind=\"b\"} 2\n"));
+		assertThat(Metrics.summary().get("test_labelled_total_a"), is(2.0));
+	}
+
+	@Test
+	void gaugesAreReadWhenWritten() throws IOException {
+		StringBuilder owner = new StringBuilder("abc");
+		Metrics.gauge("test_gauge", "Test gauge", owner, StringBuilder::length);
+		owner.append("de");
+
+		assertThat(prometheusText(), containsString("test_gauge 5\n"));
+	}
+
+	private static String prometheusText() throws IOException {
+		StringWriter out = new StringWriter();
+		Metrics.writePrometheus(out);
+		return out.toString();
+	}
+}
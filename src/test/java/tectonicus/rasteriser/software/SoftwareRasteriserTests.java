@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.rasteriser.software;
+
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.rasteriser.AlphaFunc;
+import tectonicus.rasteriser.BlendFunc;
+import tectonicus.rasteriser.Mesh;
+import tectonicus.rasteriser.PrimitiveType;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/** Draws quads given in clip space, which is used as is while the projection and camera matrices are left as identity */
+class SoftwareRasteriserTests {
+	// Two bins across and two down
+	private static final int SIZE = 128;
+
+	private static final int RED = 0xFFFF0000;
+	private static final int GREEN = 0xFF00FF00;
+	private static final int BLUE = 0xFF0000FF;
+
+	private SoftwareRasteriser rasteriser;
+
+	@BeforeEach
+	void setUp() {
+		rasteriser = new SoftwareRasteriser(DisplayType.OFFSCREEN, SIZE, SIZE);
+		rasteriser.resetState();
+		rasteriser.clear(Color.BLACK);
+	}
+
+	@AfterEach
+	void tearDown() {
+		rasteriser.destroy();
+	}
+
+	@Test
+	void depthTestPassesEqualAndNearer() {
+		drawQuad(-1, -1, 1, 1, 0, 1, 0, 0, 1);
+		drawQuad(-1, -1, 0, 1, 0, 0, 1, 0, 1);
+		drawQuad(-1, -1, 1, 1, 0.5f, 0, 0, 1, 1);
+		drawQuad(0, -1, 1, 0, -0.5f, 0, 0, 1, 1);
+
+		BufferedImage image = takeScreenshot();
+		assertThat(image.getRGB(32, 32), is(GREEN));
+		assertThat(image.getRGB(96, 32), is(RED));
+		assertThat(image.getRGB(96, 96), is(BLUE));
+	}
+
+	@Test
+	void alphaTestDiscardsFragments() {
+		rasteriser.enableAlphaTest(true);
+		rasteriser.setAlphaFunc(AlphaFunc.GREATER, 0.5f);
+
+		drawQuad(-1, -1, 0, 1, 0, 1, 0, 0, 0.4f);
+		drawQuad(0, -1, 1, 1, 0, 1, 0, 0, 0.6f);
+
+		BufferedImage image = takeScreenshot();
+		assertThat(image.getRGB(32, 64), is(0x00000000));
+		assertThat(image.getRGB(96, 64), is(0x99FF0000));
+	}
+
+	@Test
+	void regularBlendMixesWithBackground() {
+		rasteriser.enableBlending(true);
+		rasteriser.setBlendFunc(BlendFunc.REGULAR);
+
+		drawQuad(-1, -1, 1, 1, 0, 1, 0, 0, 0.5f);
+
+		// Alpha is blended too, against the cleared alpha of zero
+		assertThat(takeScreenshot().getRGB(64, 64), is(0x40800000));
+	}
+
+	@Test
+	void additiveBlendAddsToBackground() {
+		rasteriser.clear(Color.BLUE);
+		rasteriser.enableBlending(true);
+		rasteriser.setBlendFunc(BlendFunc.ADDITIVE);
+
+		drawQuad(-1, -1, 1, 1, 0, 1, 0, 0, 0.5f);
+
+		assertThat(takeScreenshot().getRGB(64, 64), is(0x408000FF));
+	}
+
+	@Test
+	void writeMasksKeepMaskedChannels() {
+		rasteriser.clear(Color.BLUE);
+
+		rasteriser.enableColourWriting(false, true);
+		drawQuad(-1, -1, 0, 1, 0, 1, 0, 0, 1);
+
+		rasteriser.enableColourWriting(true, false);
+		drawQuad(0, -1, 1, 1, 0, 1, 0, 0, 1);
+
+		BufferedImage image = takeScreenshot();
+		assertThat(image.getRGB(32, 64), is(BLUE));
+		assertThat(image.getRGB(96, 64), is(0x00FF0000));
+	}
+
+	@Test
+	void anticlockwiseFacesAreCulled() {
+		rasteriser.beginShape(PrimitiveType.QUADS);
+		rasteriser.colour(1, 0, 0, 1);
+		rasteriser.vertex(-1, -1, 0);
+		rasteriser.vertex(1, -1, 0);
+		rasteriser.vertex(1, 1, 0);
+		rasteriser.vertex(-1, 1, 0);
+		rasteriser.endShape();
+
+		assertThat(takeScreenshot().getRGB(64, 64), is(0x00000000));
+
+		drawQuad(-1, -1, 1, 1, 0, 1, 0, 0, 1);
+
+		assertThat(takeScreenshot().getRGB(64, 64), is(RED));
+	}
+
+	@Test
+	void quadsMeetingOnBinEdgesCoverEveryPixelOnce() {
+		rasteriser.enableBlending(true);
+		rasteriser.setBlendFunc(BlendFunc.ADDITIVE);
+
+		// Four quads with shared edges along the bin boundaries, and a fifth across all the bins
+		final float third = 1 / 3f;
+		drawQuad(-1, -1, 0, 0, 0, third, 0, 0, 1);
+		drawQuad(0, -1, 1, 0, 0, third, 0, 0, 1);
+		drawQuad(-1, 0, 0, 1, 0, third, 0, 0, 1);
+		drawQuad(0, 0, 1, 1, 0, third, 0, 0, 1);
+		drawQuad(-0.5f, -0.5f, 0.5f, 0.5f, 0, 0, third, 0, 1);
+
+		BufferedImage image = takeScreenshot();
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				final boolean inMiddle = x >= 32 && x < 96 && y >= 32 && y < 96;
+				assertThat("pixel " + x + "," + y, image.getRGB(x, y), is(inMiddle ? 0xFF555500 : 0xFF550000));
+			}
+		}
+	}
+
+	@Test
+	void meshTextureIsClampedOrRepeated() {
+		drawTexturedQuad(new SoftwareTexture(createImage(RED, BLUE), false), 1);
+		drawTexturedQuad(new SoftwareTexture(createImage(RED, BLUE), true), -1);
+
+		// The texture is stretched twice across the quad, so clamping shows its last texel over the right half
+		BufferedImage image = takeScreenshot();
+		final int clampedRow = 32, repeatedRow = 96;
+		assertThat(image.getRGB(16, clampedRow), is(RED));
+		assertThat(image.getRGB(48, clampedRow), is(BLUE));
+		assertThat(image.getRGB(80, clampedRow), is(BLUE));
+		assertThat(image.getRGB(112, clampedRow), is(BLUE));
+		assertThat(image.getRGB(16, repeatedRow), is(RED));
+		assertThat(image.getRGB(48, repeatedRow), is(BLUE));
+		assertThat(image.getRGB(80, repeatedRow), is(RED));
+		assertThat(image.getRGB(112, repeatedRow), is(BLUE));
+	}
+
+	/** Draws a quad with clockwise winding */
+	private void drawQuad(final float minX, final float minY, final float maxX, final float maxY, final float z, final float r, final float g, final float b, final float a) {
+		rasteriser.beginShape(PrimitiveType.QUADS);
+		rasteriser.colour(r, g, b, a);
+		rasteriser.vertex(minX, maxY, z);
+		rasteriser.vertex(maxX, maxY, z);
+		rasteriser.vertex(maxX, minY, z);
+		rasteriser.vertex(minX, minY, z);
+		rasteriser.endShape();
+	}
+
+	/** Draws a mesh across the top (1) or bottom (-1) half with the texture stretched across it twice */
+	private void drawTexturedQuad(SoftwareTexture texture, final int half) {
+		final float minY = Math.min(0, half), maxY = Math.max(0, half);
+		Vector4f white = new Vector4f(1, 1, 1, 1);
+
+		Mesh mesh = rasteriser.createMesh(texture);
+		mesh.addVertex(new Vector3f(-1, maxY, 0), white, 0, 0);
+		mesh.addVertex(new Vector3f(1, maxY, 0), white, 2, 0);
+		mesh.addVertex(new Vector3f(1, minY, 0), white, 2, 1);
+		mesh.addVertex(new Vector3f(-1, minY, 0), white, 0, 1);
+		mesh.finalise();
+
+		mesh.bind();
+		mesh.draw(0, 0, 0);
+	}
+
+	private BufferedImage takeScreenshot() {
+		return rasteriser.takeScreenshot(0, 0, SIZE, SIZE, ImageFormat.PNG);
+	}
+
+	private static BufferedImage createImage(int... argb) {
+		BufferedImage image = new BufferedImage(argb.length, 1, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, argb.length, 1, argb, 0, argb.length);
+		return image;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import org.jnbt.ByteArrayTag;
+import org.jnbt.ByteTag;
+import org.jnbt.CompoundTag;
+import org.jnbt.DoubleTag;
+import org.jnbt.IntArrayTag;
+import org.jnbt.IntTag;
+import org.jnbt.ListTag;
+import org.jnbt.LongArrayTag;
+import org.jnbt.NBTInputStream;
+import org.jnbt.NBTOutputStream;
+import org.jnbt.ShortTag;
+import org.jnbt.StringTag;
+import org.jnbt.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+class NbtReaderTests {
+	@Test
+	void readsSameTreeAsNbtInputStream() throws IOException {
+		byte[] bytes = write(createChunk());
+
+		CompoundTag expected;
+		try (NBTInputStream in = new NBTInputStream(new DataInputStream(new ByteArrayInputStream(bytes)))) {
+			expected = (CompoundTag) in.readTag();
+		}
+
+		try (NbtReader reader = new NbtReader(new DataInputStream(new ByteArrayInputStream(bytes)))) {
+			assertThat(reader.readRoot(NbtSelection.ALL), is(expected));
+		}
+	}
+
+	@Test
+	void skipsUnselectedTags() throws IOException {
+		NbtSelection selection = NbtSelection.of("Status")
+				.with("sections", NbtSelection.of("Y", "block_states"));
+
+		CompoundTag root;
+		try (NbtReader reader = new NbtReader(new DataInputStream(new ByteArrayInputStream(write(createChunk()))))) {
+			root = reader.readRoot(selection);
+		}
+
+		assertThat(root.getValue().keySet(), is(Set.of("Status", "sections")));
+		assertThat(NbtUtil.getString(root, "Status", null), is("minecraft:full"));
+
+		CompoundTag section = (CompoundTag) NbtUtil.getChild(root, "sections", ListTag.class).getValue().get(0);
+		assertThat(section.getValue().keySet(), is(Set.of("Y", "block_states")));
+		assertThat(NbtUtil.getChild(section, "SkyLight", ByteArrayTag.class), is(nullValue()));
+		long[] data = NbtUtil.getChild(NbtUtil.getChild(section, "block_states", CompoundTag.class), "data", LongArrayTag.class).getValue();
+		assertThat(data.length, is(256));
+		assertThat(data[255], is(255L));
+	}
+
+	@Test
+	void selectionIgnoresCase() {
+		NbtSelection selection = NbtSelection.of("Facing");
+		assertThat(selection.get("facing"), is(NbtSelection.ALL));
+		assertThat(selection.get("Motive"), is(nullValue()));
+	}
+
+	private static CompoundTag createChunk() {
+		long[] blockData = new long[256];
+		for (int i = 0; i < blockData.length; i++)
+			blockData[i] = i;
+
+		CompoundTag blockStates = new CompoundTag("block_states", Map.of(
+				"palette", new ListTag("palette", CompoundTag.class, List.of(
+						new CompoundTag("", Map.of("Name", new StringTag("Name", "minecraft:stone"))))),
+				"data", new LongArrayTag("data", blockData)));
+		CompoundTag section = new CompoundTag("", Map.of(
+				"Y", new ByteTag("Y", (byte) -4),
+				"SkyLight", new ByteArrayTag("SkyLight", new byte[2048]),
+				"block_states", blockStates));
+
+		CompoundTag entity = new CompoundTag("", Map.of(
+				"id", new StringTag("id", "minecraft:painting"),
+				"Pos", new ListTag("Pos", DoubleTag.class, List.of(new DoubleTag("", 1.5), new DoubleTag("", 64), new DoubleTag("", -3)))));
+
+		return new CompoundTag("", Map.of(
+				"DataVersion", new IntTag("DataVersion", 3465),
+				"Status", new StringTag("Status", "minecraft:full"),
+				"Heightmaps", new CompoundTag("Heightmaps", Map.of("WORLD_SURFACE", new LongArrayTag("WORLD_SURFACE", new long[37]))),
+				"PostProcessing", new ListTag("PostProcessing", ListTag.class, List.of(new ListTag("", ShortTag.class, List.of()))),
+				"Entities", new ListTag("Entities", CompoundTag.class, List.of(entity)),
+				"CarvingMasks", new IntArrayTag("CarvingMasks", new int[] { 1, 2, 3 }),
+				"sections", new ListTag("sections", CompoundTag.class, List.of(section))));
+	}
+
+	private static byte[] write(Tag tag) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (NBTOutputStream out = new NBTOutputStream(bytes, false)) {
+			out.writeTag(tag);
+		}
+		return bytes.toByteArray();
+	}
+}
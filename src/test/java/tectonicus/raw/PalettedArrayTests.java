@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.raw;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class PalettedArrayTests {
+	private static final int SIZE = RawChunk.SECTION_SIZE;
+
+	@Test
+	void uniformUntilDifferentValueWritten() {
+		PalettedArray array = new PalettedArray(SIZE, 15);
+		for (int i = 0; i < SIZE; i++)
+			array.set(i, 15);
+
+		assertThat(array.isUniform(), is(true));
+		assertThat(array.get(1234), is(15));
+
+		array.set(1234, 3);
+		assertThat(array.isUniform(), is(false));
+		assertThat(array.get(1234), is(3));
+		assertThat(array.get(1235), is(15));
+	}
+
+	@Test
+	void growsIndexWidthAsPaletteGrows() {
+		PalettedArray array = new PalettedArray(SIZE, 0);
+		int[] expected = new int[SIZE];
+
+		// Enough distinct values to need every index width up to 16 bits
+		Random random = new Random(42);
+		for (int i = 0; i < SIZE * 4; i++) {
+			final int index = random.nextInt(SIZE);
+			final int value = random.nextInt(i / 4 + 2) * 7;
+			array.set(index, value);
+			expected[index] = value;
+		}
+
+		for (int i = 0; i < SIZE; i++)
+			assertThat(array.get(i), is(expected[i]));
+	}
+
+	@Test
+	void fillFromPalette() {
+		int[] palette = { 10, 20, 30 };
+		PalettedArray array = new PalettedArray(SIZE, palette);
+		for (int i = 0; i < SIZE; i++)
+			array.setPaletteIndex(i, i % 3);
+
+		for (int i = 0; i < SIZE; i++)
+			assertThat(array.get(i), is(palette[i % 3]));
+		assertThat(array.getPaletteSize(), is(3));
+	}
+
+	@Test
+	void singleValueFoundAfterOverwriting() {
+		PalettedArray array = new PalettedArray(SIZE, 0);
+		assertThat(array.getSinglePaletteIndex(), is(0));
+
+		for (int i = 0; i < SIZE; i++)
+			array.set(i, i % 2 == 0 ? 5 : 9);
+		assertThat(array.getSinglePaletteIndex(), is(-1));
+
+		for (int i = 0; i < SIZE; i++)
+			array.set(i, 9);
+		assertThat(array.isUniform(), is(false));
+		assertThat(array.getPaletteValue(array.getSinglePaletteIndex()), is(9));
+
+		array.setPaletteIndex(7, 0);
+		assertThat(array.getSinglePaletteIndex(), is(-1));
+	}
+
+	@Test
+	void blockStatesAreInterned() {
+		BlockProperties properties = new BlockProperties(Map.of("facing", "north"));
+		final int id = BlockStates.intern("minecraft:oak_stairs", properties);
+
+		assertThat(BlockStates.intern("minecraft:oak_stairs", new BlockProperties(Map.of("facing", "north"))), is(id));
+		assertThat(BlockStates.getName(id), is("minecraft:oak_stairs"));
+		assertThat(BlockStates.intern(null, properties), is(BlockStates.NONE));
+		assertThat(BlockStates.isAir(BlockStates.intern("minecraft:cave_air", null)), is(true));
+	}
+}
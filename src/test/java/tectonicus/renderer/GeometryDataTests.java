@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tectonicus.configuration.ImageFormat;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+import tectonicus.rasteriser.Texture;
+import tectonicus.rasteriser.TextureFilter;
+import tectonicus.rasteriser.VertexSink;
+import tectonicus.rasteriser.software.SoftwareRasteriser;
+import tectonicus.renderer.Geometry.MeshType;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+class GeometryDataTests {
+	private static final int SIZE = 8;
+
+	private static final int GREEN = 0xFF00FF00;
+	private static final int RED = 0xFFFF0000;
+	private static final int BLUE = 0xFF0000FF;
+
+	private SoftwareRasteriser rasteriser;
+	private Texture redBlue;
+	private Texture blue;
+
+	@BeforeEach
+	void setUp() {
+		rasteriser = new SoftwareRasteriser(DisplayType.OFFSCREEN, SIZE, SIZE);
+		rasteriser.resetState();
+		redBlue = rasteriser.createTexture(createImage(RED, BLUE), TextureFilter.NEAREST);
+		blue = rasteriser.createTexture(createImage(BLUE), TextureFilter.NEAREST);
+	}
+
+	@AfterEach
+	void tearDown() {
+		rasteriser.destroy();
+	}
+
+	@Test
+	void uploadKeepsMeshesPerTypeAndTexture() {
+		GeometryData data = createData();
+
+		Geometry geometry = data.upload(rasteriser);
+
+		assertThat(geometry.getTotalVertices(), is(data.getTotalVertices()));
+		assertThat(geometry.getBaseMesh().getTotalVertices(), is(4));
+		assertThat(geometry.getMesh(redBlue, MeshType.Solid).getTotalVertices(), is(4));
+		assertThat(geometry.getMesh(redBlue, MeshType.Solid).getTexture(), is(sameInstance(redBlue)));
+		assertThat(geometry.getMesh(blue, MeshType.Transparent).getTotalVertices(), is(4));
+		assertThat(geometry.getMesh(blue, MeshType.Transparent).getTexture(), is(sameInstance(blue)));
+		assertThat(geometry.getMesh(redBlue, MeshType.AlphaTest).getTotalVertices(), is(0));
+	}
+
+	@Test
+	void uploadKeepsVertexData() {
+		Geometry geometry = createData().upload(rasteriser);
+
+		rasteriser.clear(Color.BLACK);
+		geometry.drawSolidSurfaces(0, 0, 0);
+		BufferedImage image = rasteriser.takeScreenshot(0, 0, SIZE, SIZE, ImageFormat.PNG);
+
+		// Left half is the green base mesh, the right half the red and blue texture stretched across it
+		assertThat(image.getRGB(1, 4), is(GREEN));
+		assertThat(image.getRGB(4, 4), is(RED));
+		assertThat(image.getRGB(7, 4), is(BLUE));
+
+		// The transparent quad covers the top half, but isn't part of the solid surfaces
+		assertThat(image.getRGB(1, 1), is(GREEN));
+
+		geometry.drawTransparentSurfaces(0, 0, 0);
+		image = rasteriser.takeScreenshot(0, 0, SIZE, SIZE, ImageFormat.PNG);
+		assertThat(image.getRGB(1, 1), is(BLUE));
+		assertThat(image.getRGB(1, 6), is(GREEN));
+	}
+
+	/** Quads given in clip space, which the rasteriser uses as long as no camera has been set */
+	private GeometryData createData() {
+		GeometryData data = new GeometryData();
+		addQuad(data.getBaseMesh(), -1, -1, 0, 1, new Vector4f(0, 1, 0, 1));
+		addQuad(data.getMesh(redBlue, MeshType.Solid), 0, -1, 1, 1, new Vector4f(1, 1, 1, 1));
+		addQuad(data.getMesh(blue, MeshType.Transparent), -1, 0, 1, 1, new Vector4f(1, 1, 1, 1));
+		data.finalise();
+		return data;
+	}
+
+	/** Adds a quad with clockwise winding, and the texture stretched across it once */
+	private static void addQuad(VertexSink mesh, final float minX, final float minY, final float maxX, final float maxY, Vector4f colour) {
+		mesh.addVertex(new Vector3f(minX, maxY, 0), colour, 0, 0);
+		mesh.addVertex(new Vector3f(maxX, maxY, 0), colour, 1, 0);
+		mesh.addVertex(new Vector3f(maxX, minY, 0), colour, 1, 1);
+		mesh.addVertex(new Vector3f(minX, minY, 0), colour, 0, 1);
+	}
+
+	private static BufferedImage createImage(int... argb) {
+		BufferedImage image = new BufferedImage(argb.length, 1, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, argb.length, 1, argb, 0, argb.length);
+		return image;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.renderer;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import tectonicus.rasteriser.RasteriserFactory.DisplayType;
+import tectonicus.rasteriser.Texture;
+import tectonicus.rasteriser.TextureFilter;
+import tectonicus.rasteriser.software.SoftwareRasteriser;
+import tectonicus.renderer.Geometry.MeshType;
+import tectonicus.util.Colour4f;
+
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class QuadMergerTests {
+	@Test
+	void fullRectangleBecomesOneQuad() {
+		Set<Long> cells = new HashSet<>();
+		for (int u = -2; u < 14; u++)
+			for (int v = 0; v < 16; v++)
+				cells.add(QuadMerger.toKey(u, v));
+
+		List<QuadMerger.Quad> quads = QuadMerger.merge(cells);
+
+		assertThat(quads.size(), is(1));
+		assertThat(quads.get(0).u, is(-2));
+		assertThat(quads.get(0).width, is(16));
+		assertThat(quads.get(0).height, is(16));
+	}
+
+	@Test
+	void everyCellIsCoveredExactlyOnce() {
+		// An L shape with a hole
+		Set<Long> cells = new HashSet<>();
+		for (int u = 0; u < 5; u++)
+			for (int v = 0; v < 5; v++)
+				if (!(u >= 3 && v >= 3) && !(u == 1 && v == 1))
+					cells.add(QuadMerger.toKey(u, v));
+
+		int area = 0;
+		Set<Long> covered = new HashSet<>();
+		for (QuadMerger.Quad quad : QuadMerger.merge(cells)) {
+			for (int du = 0; du < quad.width; du++)
+				for (int dv = 0; dv < quad.height; dv++)
+					covered.add(QuadMerger.toKey(quad.u + du, quad.v + dv));
+			area += quad.width * quad.height;
+		}
+
+		assertThat(covered, is(cells));
+		assertThat(area, is(cells.size()));
+	}
+
+	@Test
+	void onlyWholeBlockFacesAreAccepted() {
+		Texture texture = new TestTexture();
+		QuadMerger merger = new QuadMerger(t -> t);
+		Colour4f colour = new Colour4f(1, 1, 1, 1);
+
+		// Top face of the block at (3, 4, 5)
+		assertThat(merger.add(texture, MeshType.Solid, colour, new Vector3f(3, 5, 5), new Vector3f(4, 5, 5), new Vector3f(4, 5, 6), new Vector3f(3, 5, 6)), is(true));
+
+		// Half a block high
+		assertThat(merger.add(texture, MeshType.Solid, colour, new Vector3f(3, 5.5f, 5), new Vector3f(4, 5.5f, 5), new Vector3f(4, 5.5f, 6), new Vector3f(3, 5.5f, 6)), is(false));
+
+		assertThat(merger.getNumFacesAdded(), is(1));
+	}
+
+	@Test
+	void mergedQuadsUseTheRepeatingTexture() {
+		SoftwareRasteriser rasteriser = new SoftwareRasteriser(DisplayType.OFFSCREEN, 1, 1);
+		BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+		Texture clamped = rasteriser.createTexture(image, TextureFilter.NEAREST);
+		Texture repeating = rasteriser.createTexture(image, TextureFilter.NEAREST, true);
+		Texture other = rasteriser.createTexture(image, TextureFilter.NEAREST);
+		Geometry data = new Geometry(rasteriser);
+		data.enableQuadMerging(t -> t == clamped ? repeating : null);
+		Colour4f colour = new Colour4f(1, 1, 1, 1);
+
+		// Top faces of the blocks at (0, 0, 0) and (1, 0, 0)
+		assertThat(data.addMergeableFace(clamped, MeshType.Solid, colour, new Vector3f(0, 1, 0), new Vector3f(1, 1, 0), new Vector3f(1, 1, 1), new Vector3f(0, 1, 1)), is(true));
+		assertThat(data.addMergeableFace(clamped, MeshType.Solid, colour, new Vector3f(1, 1, 0), new Vector3f(2, 1, 0), new Vector3f(2, 1, 1), new Vector3f(1, 1, 1)), is(true));
+		assertThat(data.addMergeableFace(other, MeshType.Solid, colour, new Vector3f(2, 1, 0), new Vector3f(3, 1, 0), new Vector3f(3, 1, 1), new Vector3f(2, 1, 1)), is(false));
+		data.finalise();
+
+		assertThat(data.getMesh(repeating, MeshType.Solid).getTotalVertices(), is(4));
+		assertThat(data.getMesh(clamped, MeshType.Solid).getTotalVertices(), is(0));
+		rasteriser.destroy();
+	}
+
+	private static class TestTexture implements Texture {
+		@Override
+		public int getWidth() {
+			return 16;
+		}
+
+		@Override
+		public int getHeight() {
+			return 16;
+		}
+	}
+}
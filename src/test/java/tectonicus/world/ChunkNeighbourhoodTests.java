@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Tectonicus contributors.  All rights reserved.
+ *
+ * This file is part of Tectonicus. It is subject to the license terms in the LICENSE file found in
+ * the top-level directory of this distribution.  The full list of project contributors is contained
+ * in the AUTHORS file found in the same location.
+ *
+ */
+
+package tectonicus.world;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tectonicus.BlockType;
+import tectonicus.BlockTypeRegistry;
+import tectonicus.Minecraft;
+import tectonicus.blockTypes.Air;
+import tectonicus.blockregistry.BlockRegistry;
+import tectonicus.blockregistry.BlockStateWrapper;
+import tectonicus.chunk.ChunkCoord;
+import tectonicus.configuration.LightFace;
+import tectonicus.configuration.LightStyle;
+import tectonicus.raw.BlockProperties;
+import tectonicus.raw.BlockStates;
+import tectonicus.raw.RawChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+class ChunkNeighbourhoodTests {
+	private static final int HEIGHT = 256;
+	private static final ChunkCoord CENTRE = new ChunkCoord(-1, 2);
+
+	@BeforeAll
+	static void setChunkHeight() {
+		Minecraft.setChunkHeight(HEIGHT);
+	}
+
+	@ParameterizedTest
+	@EnumSource(LightStyle.class)
+	void matchesTheWorldAcrossEveryBorder(LightStyle lightStyle) {
+		List<RawChunk> chunks = createChunks();
+		World world = new World(chunks, createBlockTypes(), createModels(), lightStyle, false);
+		ChunkNeighbourhood neighbourhood = new ChunkNeighbourhood(world, chunks.get(0));
+
+		// Every column of the neighbourhood plus one past it, where lookups are passed on to the world
+		final int[] heights = { -1, 0, 1, HEIGHT / 2, HEIGHT - 2, HEIGHT - 1, HEIGHT };
+		for (int x = -RawChunk.WIDTH - 1; x <= 2 * RawChunk.WIDTH; x++) {
+			for (int z = -RawChunk.DEPTH - 1; z <= 2 * RawChunk.DEPTH; z++) {
+				for (int y : heights) {
+					assertMatches(world, neighbourhood, CENTRE, x, y, z);
+
+					// The same position asked for from a neighbouring chunk
+					assertMatches(world, neighbourhood, new ChunkCoord(CENTRE.x + 1, CENTRE.z - 1), x - RawChunk.WIDTH, y, z + RawChunk.DEPTH);
+				}
+			}
+		}
+	}
+
+	private static void assertMatches(World world, ChunkNeighbourhood neighbourhood, ChunkCoord coord, final int x, final int y, final int z) {
+		final String position = coord + " " + x + "," + y + "," + z;
+
+		assertThat(position, neighbourhood.getBlockStateId(coord, x, y, z), is(world.getBlockStateId(coord, x, y, z)));
+		assertThat(position, neighbourhood.getBlockId(coord, x, y, z), is(world.getBlockId(coord, x, y, z)));
+		assertThat(position, describe(neighbourhood.getBlockType(coord, x, y, z)), is(describe(world.getBlockType(coord, x, y, z))));
+		assertThat(position, neighbourhood.getBlock(coord, x, y, z), is(sameInstance(world.getBlock(coord, x, y, z))));
+		assertThat(position, neighbourhood.getBlockState(coord, x, y, z), is(world.getBlockState(coord, x, y, z)));
+		assertThat(position, neighbourhood.getBiome(coord, x, y, z), is(world.getBiome(coord, x, y, z)));
+
+		for (LightFace face : LightFace.values())
+			assertThat(position + " " + face, neighbourhood.getLight(coord, x, y, z, face), is(world.getLight(coord, x, y, z, face)));
+	}
+
+	/** Unknown block names get a new block type every time they're looked up, so types are compared by name */
+	private static String describe(BlockType type) {
+		return type.getClass().getSimpleName() + " " + type.getName();
+	}
+
+	/** The centre chunk first, then its neighbours apart from the one to the south east, which is left unloaded */
+	private static List<RawChunk> createChunks() {
+		Random random = new Random(1234);
+		final int[] states = {
+			BlockStates.NONE,
+			BlockStates.intern("minecraft:stone", new BlockProperties(Map.of())),
+			BlockStates.intern("minecraft:dirt", new BlockProperties(Map.of())),
+			BlockStates.intern("minecraft:glass", new BlockProperties(Map.of())),
+			BlockStates.intern("minecraft:oak_stairs", new BlockProperties(Map.of("facing", "north", "half", "top")))
+		};
+
+		List<RawChunk> chunks = new ArrayList<>();
+		chunks.add(new RawChunk(CENTRE));
+		for (int dz = -1; dz <= 1; dz++) {
+			for (int dx = -1; dx <= 1; dx++) {
+				if ((dx != 0 || dz != 0) && (dx != 1 || dz != 1))
+					chunks.add(new RawChunk(new ChunkCoord(CENTRE.x + dx, CENTRE.z + dz)));
+			}
+		}
+
+		for (int i = 0; i < chunks.size(); i++) {
+			RawChunk chunk = chunks.get(i);
+			// One chunk is from before block states, so its block types come from the numeric ids
+			final boolean legacy = i == 3;
+
+			for (int x = 0; x < RawChunk.WIDTH; x++) {
+				for (int z = 0; z < RawChunk.DEPTH; z++) {
+					for (int y = 0; y < HEIGHT; y++) {
+						// Leave most of the upper sections empty, as in a real world
+						if (y > 16 && y < HEIGHT - 16 && random.nextInt(8) != 0)
+							continue;
+
+						if (legacy) {
+							chunk.setBlockId(x, y, z, random.nextInt(4));
+							chunk.setBlockData(x, y, z, (byte) random.nextInt(2));
+						} else {
+							chunk.setBlockStateId(x, y, z, states[random.nextInt(states.length)]);
+						}
+						chunk.setSkyLight(x, y, z, (byte) random.nextInt(RawChunk.MAX_LIGHT));
+						chunk.setBlockLight(x, y, z, (byte) random.nextInt(RawChunk.MAX_LIGHT));
+					}
+				}
+			}
+		}
+		return chunks;
+	}
+
+	private static BlockTypeRegistry createBlockTypes() {
+		BlockTypeRegistry registry = new BlockTypeRegistry();
+		registry.setDefaultBlock(new Air());
+		registry.register("minecraft:stone", new Air("stone"));
+		registry.register("minecraft:dirt", new Air("dirt"));
+		registry.register(1, new Air("legacy stone"));
+		registry.register(3, 1, new Air("legacy podzol"));
+		return registry;
+	}
+
+	/** Stairs are left out, so unknown blocks are covered too */
+	private static BlockRegistry createModels() {
+		BlockRegistry registry = new BlockRegistry();
+		for (String name : List.of("minecraft:air", "minecraft:stone", "minecraft:dirt", "minecraft:glass"))
+			registry.getBlockStates().put(name, new BlockStateWrapper(name));
+		return registry;
+	}
+}
@@ -19,6 +19,7 @@ import tectonicus.world.filter.BlockFilter;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
 
 class RectangularWorldSubsetTests {
@@ -128,6 +129,14 @@ class RectangularWorldSubsetTests {
 		assertThat(filter, is(notNullValue()));
 	}
 
+	@Test
+	void testBlockFilterDescribesItsColumns() {
+		// The description is kept in the region hash store options, so it must be stable and follow the edge
+		ChunkCoord edgeChunk = new ChunkCoord(6, 0);
+		assertThat(subset.getBlockFilter(edgeChunk).toString(), is(equalTo(subset.getBlockFilter(edgeChunk).toString())));
+		assertThat(subset.getBlockFilter(edgeChunk).toString(), is(not(equalTo(subset.getBlockFilter(new ChunkCoord(0, 0)).toString()))));
+	}
+
 	@Test
 	void testNegativeOrigin() {
 		// Test with negative origin coordinates